@@ -1,6 +1,7 @@
 plugins {
     id("java-library")
     id("org.openapi.generator") version "7.4.0"
+    id("me.champeau.jmh") version "0.7.2"
 }
 
 dependencies {
@@ -24,6 +25,7 @@ dependencies {
     implementation("io.qdrant:client:1.9.1")
     implementation("redis.clients:jedis:5.1.0")
     implementation("com.github.ben-manes.caffeine:caffeine:3.1.8")
+    implementation("org.lz4:lz4-java:1.8.0")
     implementation("org.apache.commons:commons-lang3")
     implementation("org.apache.commons:commons-text:1.11.0")
     implementation("io.github.java-diff-utils:java-diff-utils:4.12")
@@ -42,6 +44,7 @@ dependencies {
     implementation("com.fasterxml.jackson.datatype:jackson-datatype-jsr310")
     implementation("io.micrometer:micrometer-registry-prometheus")
     implementation("io.micrometer:micrometer-tracing-bridge-otel")
+    implementation("io.micrometer:context-propagation")
 
     // OpenTelemetry OTLP Exporter
     implementation("io.opentelemetry:opentelemetry-exporter-otlp:1.36.0")
@@ -76,6 +79,16 @@ dependencies {
     runtimeOnly("io.netty:netty-resolver-dns-native-macos:4.1.115.Final:osx-aarch_64")
 }
 
+// Microbenchmarks (src/jmh): ./gradlew :core:jmh -Pjmh.includes=<regex> [-Pjmh.profilers=gc]
+jmh {
+    jmhVersion.set("1.37")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    (project.findProperty("jmh.includes") as String?)?.let { includes.set(listOf(it)) }
+    (project.findProperty("jmh.profilers") as String?)?.let { profilers.set(it.split(",")) }
+}
+
 // Generate Python SDK for Data Scientists
 openApiGenerate {
     generatorName.set("python")
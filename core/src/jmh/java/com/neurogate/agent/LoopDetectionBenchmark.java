@@ -0,0 +1,120 @@
+package com.neurogate.agent;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of comparing one 2 KB agent prompt against the two before it.
+ *
+ * <p>The baseline is the previous implementation: a full Levenshtein matrix per
+ * comparison. The current one fingerprints the new prompt once, then compares
+ * SimHashes and runs the banded edit distance only where they are close. Cases:
+ * {@code repeated}, the same prompt with a few changed characters (a loop);
+ * {@code edited}, about 4% of the characters changed, near the similarity threshold;
+ * {@code unrelated}, a different prompt.
+ * Run with {@code ./gradlew :core:jmh -Pjmh.includes=LoopDetectionBenchmark -Pjmh.profilers=gc}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LoopDetectionBenchmark {
+
+    private static final int LENGTH = 2000;
+    private static final String[] WORDS = {
+            "call", "the", "search", "tool", "with", "query", "result", "returned", "rows",
+            "observation", "thought", "next", "step", "is", "to", "read", "file", "and",
+            "summarize", "findings", "for", "user", "request", "analyze", "code"
+    };
+
+    @Param({"repeated", "edited", "unrelated"})
+    public String scenario;
+
+    private String current;
+    private PromptFingerprint[] previous;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        String prompt = transcript(random, LENGTH);
+        String[] earlier = switch (scenario) {
+            case "repeated" -> new String[]{edit(prompt, 997), edit(prompt, 1499)};
+            case "edited" -> new String[]{edit(prompt, 27), edit(prompt, 31)};
+            default -> new String[]{
+                    "The quarterly report shows revenue growth of twelve percent across all regions. "
+                            .repeat(25).substring(0, LENGTH),
+                    transcript(random, LENGTH)};
+        };
+        current = prompt;
+        previous = new PromptFingerprint[]{PromptFingerprint.of(earlier[0]), PromptFingerprint.of(earlier[1])};
+        System.out.printf("%nscenario=%s simhash distances=%d,%d%n", scenario,
+                PromptFingerprint.of(prompt).simHashDistance(previous[0]),
+                PromptFingerprint.of(prompt).simHashDistance(previous[1]));
+    }
+
+    @Benchmark
+    public int banded() {
+        PromptFingerprint fingerprint = PromptFingerprint.of(current);
+        int similar = 0;
+        for (PromptFingerprint prev : previous) {
+            if (fingerprint.simHashDistance(prev) <= 24
+                    && BandedEditDistance.distance(current, prev.text(), LENGTH / 20) <= LENGTH / 20) {
+                similar++;
+            }
+        }
+        return similar;
+    }
+
+    @Benchmark
+    public int fullMatrix() {
+        int similar = 0;
+        for (PromptFingerprint prev : previous) {
+            if (1.0 - (double) levenshtein(current, prev.text()) / LENGTH >= 0.95) {
+                similar++;
+            }
+        }
+        return similar;
+    }
+
+    private static String transcript(Random random, int length) {
+        StringBuilder text = new StringBuilder();
+        while (text.length() < length) {
+            text.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        return text.substring(0, length);
+    }
+
+    private static String edit(String text, int step) {
+        StringBuilder edited = new StringBuilder(text);
+        for (int i = step; i < edited.length(); i += step) {
+            edited.setCharAt(i, '#');
+        }
+        return edited.toString();
+    }
+
+    private static int levenshtein(String x, String y) {
+        int[][] dp = new int[x.length() + 1][y.length() + 1];
+        for (int i = 0; i <= x.length(); i++) {
+            for (int j = 0; j <= y.length(); j++) {
+                if (i == 0) {
+                    dp[i][j] = j;
+                } else if (j == 0) {
+                    dp[i][j] = i;
+                } else {
+                    dp[i][j] = Math.min(Math.min(dp[i - 1][j - 1] + (x.charAt(i - 1) == y.charAt(j - 1) ? 0 : 1),
+                            dp[i - 1][j] + 1), dp[i][j - 1] + 1);
+                }
+            }
+        }
+        return dp[x.length()][y.length()];
+    }
+}
@@ -0,0 +1,185 @@
+package com.neurogate.auth;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Usage history and nightly rollup over about 1M usage keys: 1,000 orgs with 334 API
+ * keys each, three counters per key and day.
+ *
+ * <p>{@code layout=keys} stores them as per-key strings and reads them as before the
+ * hash layout: KEYS over the whole keyspace, then a GET per counter. {@code layout=hash}
+ * stores a hash per org and day and runs {@code UsageTracker}: one HGETALL for history,
+ * SSCAN plus pipelined HGETALLs for the rollup. Postgres is stubbed out: the rollup's
+ * batch upserts are counted, and the former per-row JPA find and save are not even
+ * included in the baseline. KEYS runs on the Redis server and blocks every other client
+ * while it walks the keyspace; that stall is not visible in these timings.</p>
+ *
+ * <p>Needs a Redis server whose database 15 may be flushed, at {@code localhost:6379}
+ * unless set with {@code -Dredis.host} and {@code -Dredis.port}.
+ * Run with {@code ./gradlew :core:jmh -Pjmh.includes=UsageRollupBenchmark}.</p>
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class UsageRollupBenchmark {
+
+    private static final int ORGS = 1_000;
+    private static final int KEYS_PER_ORG = 334;
+    private static final int LOAD_BATCH = 10_000;
+
+    @Param({"keys", "hash"})
+    public String layout;
+
+    private final LocalDate day = LocalDate.now(ZoneOffset.UTC);
+    private final AtomicLong upsertedRows = new AtomicLong();
+    private LettuceConnectionFactory connectionFactory;
+    private StringRedisTemplate redisTemplate;
+    private UsageTracker usageTracker;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        RedisStandaloneConfiguration configuration = new RedisStandaloneConfiguration(
+                System.getProperty("redis.host", "localhost"), Integer.getInteger("redis.port", 6379));
+        configuration.setDatabase(15);
+        connectionFactory = new LettuceConnectionFactory(configuration);
+        connectionFactory.afterPropertiesSet();
+        redisTemplate = new StringRedisTemplate(connectionFactory);
+        redisTemplate.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushDb();
+            return null;
+        });
+        load();
+
+        ApiUsageRecordRepository repository = (ApiUsageRecordRepository) Proxy.newProxyInstance(
+                ApiUsageRecordRepository.class.getClassLoader(), new Class<?>[]{ApiUsageRecordRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findByOrgIdAndUsageDateBetweenOrderByUsageDateAsc" -> List.of();
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+        JdbcTemplate jdbcTemplate = new JdbcTemplate() {
+            @Override
+            public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+                upsertedRows.addAndGet(batchArgs.size());
+                return new int[batchArgs.size()];
+            }
+        };
+        usageTracker = new UsageTracker(redisTemplate, null, repository, jdbcTemplate,
+                new SimpleMeterRegistry(), 60, 1000);
+        Long redisKeys = redisTemplate.execute((RedisCallback<Long>) connection -> connection.serverCommands().dbSize());
+        System.out.printf("%nlayout=%s redis keys=%d%n", layout, redisKeys);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%nrows upserted: %d%n", upsertedRows.get());
+        connectionFactory.destroy();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public Object history() {
+        String orgId = "org-" + (ORGS / 2);
+        return layout.equals("keys") ? historyWithKeys(orgId) : usageTracker.getHistory(orgId, day, day);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public long rollup() {
+        return layout.equals("keys") ? rollupWithKeys() : usageTracker.rollupDay(day);
+    }
+
+    // Today's usage of an org as read before the hash layout
+    private UsageTracker.DailyUsage historyWithKeys(String orgId) {
+        Set<String> requestKeys = redisTemplate.keys("usage:request:" + orgId + ":*:" + day);
+        long requests = 0;
+        long tokens = 0;
+        BigDecimal cost = BigDecimal.ZERO;
+        for (String requestKey : requestKeys) {
+            requests += Long.parseLong(redisTemplate.opsForValue().get(requestKey));
+            tokens += Long.parseLong(redisTemplate.opsForValue().get(requestKey.replace("usage:request:", "usage:token:")));
+            cost = cost.add(new BigDecimal(redisTemplate.opsForValue().get(requestKey.replace("usage:request:", "usage:cost:"))));
+        }
+        return new UsageTracker.DailyUsage(day, requests, tokens, cost);
+    }
+
+    // The day's rows as read by the rollup before the hash layout
+    private long rollupWithKeys() {
+        Set<String> requestKeys = redisTemplate.keys("usage:request:*:*:" + day);
+        List<UsageTracker.DailyUsage> rows = new ArrayList<>(requestKeys.size());
+        for (String requestKey : requestKeys) {
+            rows.add(new UsageTracker.DailyUsage(day,
+                    Long.parseLong(redisTemplate.opsForValue().get(requestKey)),
+                    Long.parseLong(redisTemplate.opsForValue().get(requestKey.replace("usage:request:", "usage:token:"))),
+                    new BigDecimal(redisTemplate.opsForValue().get(requestKey.replace("usage:request:", "usage:cost:")))));
+        }
+        upsertedRows.addAndGet(rows.size());
+        return rows.size();
+    }
+
+    private void load() {
+        List<String[]> pending = new ArrayList<>(LOAD_BATCH);
+        for (int org = 0; org < ORGS; org++) {
+            for (int key = 0; key < KEYS_PER_ORG; key++) {
+                pending.add(new String[]{"org-" + org, new UUID(org, key).toString()});
+                if (pending.size() == LOAD_BATCH) {
+                    write(pending);
+                    pending.clear();
+                }
+            }
+        }
+        write(pending);
+    }
+
+    private void write(List<String[]> orgKeys) {
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                for (String[] orgKey : orgKeys) {
+                    String suffix = orgKey[0] + ":" + orgKey[1] + ":" + day;
+                    if (layout.equals("keys")) {
+                        ops.opsForValue().set("usage:request:" + suffix, "42");
+                        ops.opsForValue().set("usage:token:" + suffix, "4200");
+                        ops.opsForValue().set("usage:cost:" + suffix, "0.125");
+                    } else {
+                        String dayKey = "usage:day:" + orgKey[0] + ":" + day;
+                        ops.opsForHash().put(dayKey, orgKey[1] + ":requests", "42");
+                        ops.opsForHash().put(dayKey, orgKey[1] + ":tokens", "4200");
+                        ops.opsForHash().put(dayKey, orgKey[1] + ":cost", "0.125");
+                        ops.opsForSet().add("usage:day-orgs:" + day, orgKey[0]);
+                    }
+                }
+                return null;
+            }
+        });
+    }
+}
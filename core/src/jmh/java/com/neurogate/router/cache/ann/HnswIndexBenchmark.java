@@ -0,0 +1,106 @@
+package com.neurogate.router.cache.ann;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search latency of the HNSW index against a brute-force scan of the same vectors.
+ *
+ * <p>Queries are perturbed copies of indexed vectors, like a paraphrased prompt
+ * hitting the semantic cache. Recall@1 against brute force is printed once per
+ * trial. Run with {@code ./gradlew :core:jmh -Pjmh.includes=HnswIndexBenchmark}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class HnswIndexBenchmark {
+
+    private static final int DIMENSION = 384;
+    private static final int QUERIES = 1024;
+
+    @Param({"1000", "10000", "50000"})
+    public int size;
+
+    @Param({"16", "64"})
+    public int ef;
+
+    private float[][] vectors;
+    private float[][] queries;
+    private HnswIndex index;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        vectors = new float[size][DIMENSION];
+        for (float[] vector : vectors) {
+            for (int d = 0; d < DIMENSION; d++) {
+                vector[d] = (float) random.nextGaussian();
+            }
+        }
+        queries = new float[QUERIES][];
+        for (int q = 0; q < QUERIES; q++) {
+            float[] query = vectors[random.nextInt(size)].clone();
+            for (int d = 0; d < DIMENSION; d++) {
+                query[d] += 0.3f * (float) random.nextGaussian();
+            }
+            queries[q] = query;
+        }
+
+        index = new HnswIndex(DIMENSION, 16, 100);
+        long start = System.nanoTime();
+        for (int i = 0; i < size; i++) {
+            index.add(Integer.toString(i), vectors[i]);
+        }
+        long buildMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        int matches = 0;
+        for (float[] query : queries) {
+            List<HnswIndex.SearchResult> results = index.search(query, 1, ef);
+            if (!results.isEmpty() && Integer.parseInt(results.get(0).key()) == bruteForce(query)) {
+                matches++;
+            }
+        }
+        System.out.printf("%nsize=%d ef=%d build=%dms recall@1=%.3f%n",
+                size, ef, buildMs, matches / (double) QUERIES);
+    }
+
+    @Benchmark
+    public List<HnswIndex.SearchResult> hnsw() {
+        return index.search(nextQuery(), 1, ef);
+    }
+
+    @Benchmark
+    public int bruteForce() {
+        return bruteForce(nextQuery());
+    }
+
+    private float[] nextQuery() {
+        next = (next + 1) & (QUERIES - 1);
+        return queries[next];
+    }
+
+    private int bruteForce(float[] query) {
+        int best = -1;
+        float bestSimilarity = -2f;
+        for (int i = 0; i < vectors.length; i++) {
+            float similarity = HnswIndex.cosine(query, vectors[i]);
+            if (similarity > bestSimilarity) {
+                bestSimilarity = similarity;
+                best = i;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,89 @@
+package com.neurogate.router.cache.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neurogate.sentinel.model.ChatResponse;
+import com.neurogate.sentinel.model.Choice;
+import com.neurogate.sentinel.model.Message;
+import com.neurogate.sentinel.model.Usage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encode/decode cost of cached responses: Jackson JSON vs binary vs binary+LZ4.
+ *
+ * <p>Run with {@code ./gradlew :core:jmh -Pjmh.includes=ChatResponseCodecBenchmark}.
+ * Encoded sizes are printed once per trial.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ChatResponseCodecBenchmark {
+
+    @Param({"json", "binary", "binary-lz4"})
+    public String codecName;
+
+    /** Approximate completion length in characters */
+    @Param({"200", "8000"})
+    public int contentLength;
+
+    private ChatResponseCodec codec;
+    private ChatResponse response;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        codec = switch (codecName) {
+            case "json" -> new JsonChatResponseCodec(objectMapper);
+            case "binary" -> new BinaryChatResponseCodec(objectMapper, false, 1024);
+            case "binary-lz4" -> new BinaryChatResponseCodec(objectMapper, true, 1024);
+            default -> throw new IllegalArgumentException(codecName);
+        };
+        response = sampleResponse(contentLength);
+        encoded = codec.encode(response);
+        System.out.printf("%n%s/%d encoded size: %d bytes%n", codecName, contentLength, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return codec.encode(response);
+    }
+
+    @Benchmark
+    public ChatResponse decode() {
+        return codec.decode(encoded);
+    }
+
+    private static ChatResponse sampleResponse(int contentLength) {
+        String sentence = "The capital of France is Paris, which is also its largest city. ";
+        StringBuilder content = new StringBuilder(contentLength + sentence.length());
+        while (content.length() < contentLength) {
+            content.append(sentence);
+        }
+        return ChatResponse.builder()
+                .id("chatcmpl-9f8e7d6c5b4a")
+                .object("chat.completion")
+                .created(1_760_000_000L)
+                .model("gpt-4o-mini")
+                .choices(List.of(Choice.builder()
+                        .index(0)
+                        .message(Message.builder().role("assistant").content(content.toString()).build())
+                        .finishReason("stop")
+                        .build()))
+                .usage(Usage.builder().promptTokens(42).completionTokens(contentLength / 4)
+                        .totalTokens(42 + contentLength / 4).build())
+                .systemFingerprint("fp_44709d6fcb")
+                .route("openai")
+                .costUsd(0.00031)
+                .build();
+    }
+}
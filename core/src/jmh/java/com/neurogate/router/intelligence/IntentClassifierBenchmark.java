@@ -0,0 +1,92 @@
+package com.neurogate.router.intelligence;
+
+import com.neurogate.router.intelligence.model.IntentClassification;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of classifying one prompt.
+ *
+ * <p>{@code regexes} is the previous implementation: every intent pattern as its own
+ * regex, then complexity analysis with its own lower-casing, split and keyword loops.
+ * {@code scanned} matches everything in one automaton pass with the result cache
+ * disabled; {@code cached} repeats a small set of prompts, as agents resending the
+ * same prompt do.
+ * Run with {@code ./gradlew :core:jmh -Pjmh.includes=IntentClassifierBenchmark -Pjmh.profilers=gc}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class IntentClassifierBenchmark {
+
+    private static final int PROMPTS = 1024;
+    private static final String[] SENTENCES = {
+            "Can you analyze this dataset step by step? ",
+            "Write a function that computes the statistics. ",
+            "However, make sure to handle the error cases in Java. ",
+            "The service returns rows from the database and caches them. ",
+            "Explain how the retry logic works when the API times out. ",
+            "Summarize the key points for the team. ",
+            "We deploy it with Docker on Kubernetes in AWS. ",
+            "Thanks for the help so far. "
+    };
+
+    @Param({"200", "2000"})
+    public int length;
+
+    private IntentClassifier uncached;
+    private IntentClassifier cached;
+    private String[] prompts;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        IntentRoutingConfig noCache = new IntentRoutingConfig();
+        noCache.setClassificationCacheSize(0);
+        uncached = new IntentClassifier(new ComplexityAnalyzer(), noCache, new SimpleMeterRegistry());
+        cached = new IntentClassifier(new ComplexityAnalyzer(), new IntentRoutingConfig(), new SimpleMeterRegistry());
+
+        Random random = new Random(42);
+        prompts = new String[PROMPTS];
+        for (int i = 0; i < PROMPTS; i++) {
+            StringBuilder prompt = new StringBuilder();
+            while (prompt.length() < length) {
+                prompt.append(SENTENCES[random.nextInt(SENTENCES.length)]);
+            }
+            prompts[i] = prompt.append(i).toString();
+        }
+        System.out.printf("%nlength=%d prompts=%d%n", length, PROMPTS);
+    }
+
+    @Benchmark
+    public IntentClassification regexes() {
+        return uncached.classifyWithRegexes(nextPrompt());
+    }
+
+    @Benchmark
+    public IntentClassification scanned() {
+        return uncached.classify(nextPrompt());
+    }
+
+    @Benchmark
+    public IntentClassification cached() {
+        return cached.classify(prompts[next++ & 15]);
+    }
+
+    private String nextPrompt() {
+        String prompt = prompts[next];
+        next = (next + 1) % PROMPTS;
+        return prompt;
+    }
+}
@@ -0,0 +1,99 @@
+package com.neurogate.sentinel.model;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of deriving request text once per pipeline stage on agent transcripts.
+ *
+ * <p>The baseline is the previous behaviour: cache key, embedding, intent routing,
+ * complexity analysis, loop detection and cost tracking each rebuilt the
+ * concatenated text with {@code reduce(a + " " + b)}, and complexity analysis then
+ * lower-cased and split it. The derived variant takes a fresh copy of the request
+ * per operation, so nothing is memoized across operations, and reads the same values
+ * through {@link ChatRequest#content()}.
+ * Run with {@code ./gradlew :core:jmh -Pjmh.includes=RequestContentBenchmark -Pjmh.profilers=gc}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RequestContentBenchmark {
+
+    private static final int STAGES = 6;
+    private static final String[] WORDS = {
+            "call", "the", "search", "tool", "with", "query", "result", "returned", "rows",
+            "observation", "thought", "next", "step", "is", "to", "read", "file", "and",
+            "summarize", "findings", "for", "user", "request", "analyze", "code"
+    };
+
+    @Param({"20", "200"})
+    public int messages;
+
+    private ChatRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        List<Message> transcript = new ArrayList<>(messages);
+        String[] roles = {"user", "assistant", "tool"};
+        int chars = 0;
+        for (int i = 0; i < messages; i++) {
+            StringBuilder text = new StringBuilder();
+            int words = 20 + random.nextInt(200);
+            for (int w = 0; w < words; w++) {
+                text.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            }
+            chars += text.length();
+            transcript.add(Message.builder()
+                    .role(i == 0 ? "system" : roles[i % roles.length])
+                    .content(text.toString())
+                    .build());
+        }
+        request = ChatRequest.builder().model("gpt-4o").messages(transcript).build();
+        System.out.printf("%nmessages=%d chars=%d%n", messages, chars);
+    }
+
+    @Benchmark
+    public long legacy() {
+        long sum = 0;
+        for (int stage = 0; stage < STAGES; stage++) {
+            sum += legacyConcatenation(request.getMessages()).length();
+        }
+        String text = legacyConcatenation(request.getMessages());
+        sum += text.toLowerCase().length();
+        sum += text.split("\\s+").length;
+        return sum;
+    }
+
+    @Benchmark
+    public long derived() {
+        ChatRequest copy = request.toBuilder().build();
+        long sum = 0;
+        for (int stage = 0; stage < STAGES; stage++) {
+            sum += copy.getConcatenatedContent().length();
+        }
+        RequestContent content = copy.content();
+        sum += content.normalizedText().length();
+        sum += content.wordCount();
+        return sum;
+    }
+
+    private static String legacyConcatenation(List<Message> messages) {
+        return messages.stream()
+                .map(Message::getStrContent)
+                .reduce("", (a, b) -> a + " " + b)
+                .trim();
+    }
+}
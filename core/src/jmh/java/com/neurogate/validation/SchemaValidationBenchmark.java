@@ -0,0 +1,101 @@
+package com.neurogate.validation;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neurogate.validation.model.ValidationResult;
+import com.networknt.schema.JsonSchemaFactory;
+import com.networknt.schema.SpecVersion;
+import com.networknt.schema.ValidationMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of validating one structured output against its schema.
+ *
+ * <p>{@code compiledPerCall} is the previous implementation: the schema converted to a
+ * tree and compiled on every validation. {@code cached} looks the compiled schema up by
+ * its canonical hash. {@code streamed} runs the incremental check a streamed response
+ * goes through before its full validation.
+ * Run with {@code ./gradlew :core:jmh -Pjmh.includes=SchemaValidationBenchmark -Pjmh.profilers=gc}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SchemaValidationBenchmark {
+
+    private static final String SCHEMA = """
+            {
+              "type": "object",
+              "properties": {
+                "invoice": {"type": "string", "minLength": 1},
+                "customer": {
+                  "type": "object",
+                  "properties": {"name": {"type": "string"}, "email": {"type": "string", "format": "email"}},
+                  "required": ["name"]
+                },
+                "lines": {
+                  "type": "array",
+                  "items": {
+                    "type": "object",
+                    "properties": {
+                      "sku": {"type": "string"},
+                      "quantity": {"type": "integer", "minimum": 1},
+                      "price": {"type": "number", "minimum": 0}
+                    },
+                    "required": ["sku", "quantity", "price"],
+                    "additionalProperties": false
+                  }
+                },
+                "currency": {"enum": ["EUR", "USD", "GBP"]}
+              },
+              "required": ["invoice", "customer", "lines", "currency"]
+            }
+            """;
+    private static final String RESPONSE = """
+            {"invoice": "INV-1042", "customer": {"name": "Ada", "email": "ada@example.com"},
+             "lines": [{"sku": "A-1", "quantity": 2, "price": 9.5}, {"sku": "B-7", "quantity": 1, "price": 120}],
+             "currency": "EUR"}""";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JsonSchemaFactory schemaFactory = JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V7);
+    private Map<String, Object> schema;
+    private JsonSchemaCache schemaCache;
+    private StructuredOutputValidator validator;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        schema = objectMapper.readValue(SCHEMA, new TypeReference<>() {
+        });
+        schemaCache = new JsonSchemaCache(objectMapper, new SimpleMeterRegistry(), 100);
+        validator = new StructuredOutputValidator(objectMapper, schemaCache);
+        System.out.printf("%nvalid=%s%n", validator.validate(RESPONSE, schema).isValid());
+    }
+
+    @Benchmark
+    public Set<ValidationMessage> compiledPerCall() throws Exception {
+        JsonNode response = objectMapper.readTree(RESPONSE);
+        return schemaFactory.getSchema(objectMapper.valueToTree(schema)).validate(response);
+    }
+
+    @Benchmark
+    public ValidationResult cached() {
+        return validator.validate(RESPONSE, schema);
+    }
+
+    @Benchmark
+    public boolean streamed() {
+        return schemaCache.get(schema).streaming().validator().accept(RESPONSE);
+    }
+}
@@ -0,0 +1,175 @@
+package com.neurogate.vault;
+
+import com.neurogate.vault.model.PiiEntity;
+import com.neurogate.vault.model.PiiType;
+import com.neurogate.vault.tokenizer.TokenVault;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cost of restoring PII placeholders in a streamed response, against the previous
+ * sliding-window restorer (kept inline as {@link LegacyRestorer}).
+ *
+ * <p>{@code stream} restores a whole response of {@code chunks} SSE chunks, some
+ * placeholders split across chunks. {@code firstToken} feeds chunks until the
+ * restorer releases its first text, i.e. the gateway's contribution to
+ * time-to-first-token. Run with
+ * {@code ./gradlew :core:jmh -Pjmh.includes=StreamingPiiRestorerBenchmark -Pjmh.profilers=gc}
+ * to also report bytes allocated per operation.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StreamingPiiRestorerBenchmark {
+
+    private static final String[] WORDS = {
+            "the", "customer", "asked", "about", "their", "order", "and", "we", "replied",
+            "with", "tracking", "details", "for", "shipment", "to", "a < b", "x"
+    };
+
+    @Param({"64", "1024"})
+    public int chunks;
+
+    private TokenVault tokenVault;
+    private String[] stream;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tokenVault = new TokenVault();
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            tokens.add(tokenVault.tokenize(new PiiEntity(PiiType.EMAIL, "user" + i + "@example.com", 0, 0)));
+            tokens.add(tokenVault.tokenize(new PiiEntity(PiiType.PHONE, "+1-555-010" + i, 0, 0)));
+        }
+
+        // One placeholder every ~20 words, cut at random offsets like provider chunks
+        Random random = new Random(42);
+        StringBuilder text = new StringBuilder();
+        while (text.length() < chunks * 6) {
+            text.append(random.nextInt(20) == 0
+                    ? tokens.get(random.nextInt(tokens.size()))
+                    : WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        stream = new String[chunks];
+        int position = 0;
+        for (int i = 0; i < chunks; i++) {
+            int end = position + 1 + random.nextInt(6);
+            stream[i] = text.substring(position, end);
+            position = end;
+        }
+
+        StreamingPiiRestorer restorer = new StreamingPiiRestorer(tokenVault);
+        LegacyRestorer legacy = new LegacyRestorer(tokenVault);
+        StringBuilder current = new StringBuilder();
+        StringBuilder previous = new StringBuilder();
+        for (String chunk : stream) {
+            current.append(restorer.processChunk(chunk));
+            previous.append(legacy.processChunk(chunk));
+        }
+        current.append(restorer.flush());
+        previous.append(legacy.flush());
+        System.out.printf("%nchunks=%d chars=%d legacy output matches=%b%n",
+                chunks, position, current.toString().equals(previous.toString()));
+    }
+
+    @Benchmark
+    public int stream() {
+        StreamingPiiRestorer restorer = new StreamingPiiRestorer(tokenVault);
+        int length = 0;
+        for (String chunk : stream) {
+            length += restorer.processChunk(chunk).length();
+        }
+        return length + restorer.flush().length();
+    }
+
+    @Benchmark
+    public int streamLegacy() {
+        LegacyRestorer restorer = new LegacyRestorer(tokenVault);
+        int length = 0;
+        for (String chunk : stream) {
+            length += restorer.processChunk(chunk).length();
+        }
+        return length + restorer.flush().length();
+    }
+
+    @Benchmark
+    public int firstToken() {
+        StreamingPiiRestorer restorer = new StreamingPiiRestorer(tokenVault);
+        int i = 0;
+        while (i < stream.length && restorer.processChunk(stream[i]).isEmpty()) {
+            i++;
+        }
+        return i;
+    }
+
+    @Benchmark
+    public int firstTokenLegacy() {
+        LegacyRestorer restorer = new LegacyRestorer(tokenVault);
+        int i = 0;
+        while (i < stream.length && restorer.processChunk(stream[i]).isEmpty()) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * The restorer as it was before the incremental scanner.
+     */
+    static final class LegacyRestorer {
+        private static final int BUFFER_SIZE = 5;
+        private static final Pattern TOKEN_PATTERN = Pattern.compile("<([A-Z_]+)_(\\d+)>");
+
+        private final Queue<String> buffer = new LinkedList<>();
+        private final TokenVault tokenVault;
+
+        LegacyRestorer(TokenVault tokenVault) {
+            this.tokenVault = tokenVault;
+        }
+
+        String processChunk(String chunk) {
+            buffer.add(chunk);
+            if (buffer.size() > BUFFER_SIZE) {
+                buffer.poll();
+            }
+            String combined = String.join("", buffer);
+            Matcher matcher = TOKEN_PATTERN.matcher(combined);
+            if (matcher.find()) {
+                String restored = tokenVault.detokenizeText(combined);
+                buffer.clear();
+                return restored;
+            }
+            if (combined.matches(".*<[A-Z_]*$") || combined.matches(".*<[A-Z_]+_\\d*$")) {
+                return "";
+            }
+            if (buffer.size() > 3) {
+                return buffer.poll();
+            }
+            return "";
+        }
+
+        String flush() {
+            if (buffer.isEmpty()) {
+                return "";
+            }
+            String remaining = String.join("", buffer);
+            buffer.clear();
+            return tokenVault.detokenizeText(remaining);
+        }
+    }
+}
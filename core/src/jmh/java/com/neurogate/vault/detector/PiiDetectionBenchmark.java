@@ -0,0 +1,163 @@
+package com.neurogate.vault.detector;
+
+import com.neurogate.vault.model.PiiType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cost of PII detection on prompts of {@code length} characters with roughly one PII
+ * value per 500 characters, against the previous one-regex-per-type detectors (kept
+ * inline as {@link LegacyDetector}).
+ *
+ * <p>{@code detect} runs the pattern and context detectors as sanitization does;
+ * {@code containsPii} is the early-exit check. Run with
+ * {@code ./gradlew :core:jmh -Pjmh.includes=PiiDetectionBenchmark -Pjmh.profilers=gc}
+ * to also report bytes allocated per operation.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PiiDetectionBenchmark {
+
+    private static final String[] WORDS = {
+            "the", "customer", "asked", "about", "order", "42", "and", "we", "replied", "with",
+            "tracking", "details", "v2.1", "shipment", "(see", "notes)", "2024-05-01", "x@y", "total:"
+    };
+
+    private static final String[] PII = {
+            "jane.doe@example.com", "123-45-6789", "(555) 123-4567", "4111 1111 1111 1111",
+            "192.168.10.1", "SSN: 234-56-7890", "api_key=sk_live_abcdefghijklmnopqrstuv"
+    };
+
+    @Param({"100", "1000", "10000", "200000"})
+    public int length;
+
+    private String text;
+    private RegexPiiDetector regexDetector;
+    private ContextAwarePiiDetector contextDetector;
+    private LegacyDetector legacyDetector;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        StringBuilder builder = new StringBuilder(length + 64);
+        while (builder.length() < length) {
+            builder.append(random.nextInt(80) == 0
+                    ? PII[random.nextInt(PII.length)]
+                    : WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        text = builder.substring(0, length);
+
+        regexDetector = new RegexPiiDetector();
+        contextDetector = new ContextAwarePiiDetector();
+        legacyDetector = new LegacyDetector();
+
+        System.out.printf("%n%d chars: %d entities (legacy %d)%n", length,
+                regexDetector.detect(text).size() + contextDetector.detect(text).size(),
+                legacyDetector.detect(text));
+    }
+
+    @Benchmark
+    public int detect() {
+        return regexDetector.detect(text).size() + contextDetector.detect(text).size();
+    }
+
+    @Benchmark
+    public int detectLegacy() {
+        return legacyDetector.detect(text);
+    }
+
+    @Benchmark
+    public boolean containsPii() {
+        return regexDetector.containsPii(text) || contextDetector.containsPii(text);
+    }
+
+    @Benchmark
+    public boolean containsPiiLegacy() {
+        return legacyDetector.detect(text) > 0;
+    }
+
+    /**
+     * The previous detectors: one regex scan per type, then two context regexes.
+     */
+    private static final class LegacyDetector {
+
+        private static final Map<PiiType, Pattern> PATTERNS = Map.of(
+                PiiType.EMAIL, Pattern.compile(
+                        "\\b[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Z|a-z]{2,}\\b"),
+                PiiType.SSN, Pattern.compile(
+                        "\\b\\d{3}-\\d{2}-\\d{4}\\b"),
+                PiiType.PHONE, Pattern.compile(
+                        "\\b(?:\\+?1[-.]?)?\\(?([0-9]{3})\\)?[-.]?([0-9]{3})[-.]?([0-9]{4})\\b"),
+                PiiType.CREDIT_CARD, Pattern.compile(
+                        "\\b(?:\\d{4}[-\\s]?){3}\\d{4}\\b"),
+                PiiType.IP_ADDRESS, Pattern.compile(
+                        "\\b(?:(?:25[0-5]|2[0-4][0-9]|[01]?[0-9][0-9]?)\\.){3}"
+                                + "(?:25[0-5]|2[0-4][0-9]|[01]?[0-9][0-9]?)\\b"));
+
+        private static final Pattern[] CONTEXT_PATTERNS = {
+                Pattern.compile("(?i)(?:ssn|social security|social security number|soc sec)[^a-zA-Z0-9]*"
+                        + "([0-9]{3}-[0-9]{2}-[0-9]{4}|[0-9]{9})"),
+                Pattern.compile("(?i)(?:api[_-]?key|access[_-]?token|bearer)[^a-zA-Z0-9]*([a-zA-Z0-9_\\-]{20,})")
+        };
+
+        int detect(String text) {
+            int count = 0;
+            for (Map.Entry<PiiType, Pattern> entry : PATTERNS.entrySet()) {
+                Matcher matcher = entry.getValue().matcher(text);
+                while (matcher.find()) {
+                    if (isValid(entry.getKey(), matcher.group())) {
+                        count++;
+                    }
+                }
+            }
+            for (Pattern pattern : CONTEXT_PATTERNS) {
+                Matcher matcher = pattern.matcher(text);
+                while (matcher.find()) {
+                    matcher.group(1);
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        private static boolean isValid(PiiType type, String value) {
+            if (type == PiiType.CREDIT_CARD) {
+                String digits = value.replaceAll("[^0-9]", "");
+                int sum = 0;
+                boolean alternate = false;
+                for (int i = digits.length() - 1; i >= 0; i--) {
+                    int digit = digits.charAt(i) - '0';
+                    if (alternate) {
+                        digit *= 2;
+                        if (digit > 9) {
+                            digit -= 9;
+                        }
+                    }
+                    sum += digit;
+                    alternate = !alternate;
+                }
+                return digits.length() == 16 && sum % 10 == 0;
+            }
+            if (type == PiiType.SSN) {
+                String[] parts = value.split("-");
+                return !parts[0].equals("000") && !parts[0].equals("666")
+                        && !parts[1].equals("00") && !parts[2].equals("0000");
+            }
+            return true;
+        }
+    }
+}
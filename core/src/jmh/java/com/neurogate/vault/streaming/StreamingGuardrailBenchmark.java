@@ -0,0 +1,104 @@
+package com.neurogate.vault.streaming;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-token cost of the streaming guardrail with many streams open at once.
+ *
+ * <p>Tokens are fed round-robin to {@code streams} sessions, like a gateway
+ * interleaving concurrent responses. The baseline is the previous implementation:
+ * append to a rolling buffer and re-run every pattern over it on each token.
+ * Run with {@code ./gradlew :core:jmh -Pjmh.includes=StreamingGuardrailBenchmark}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class StreamingGuardrailBenchmark {
+
+    private static final int TOKENS = 4096;
+    private static final String[] WORDS = {
+            "the", "model", "response", "streams", "tokens", "to", "a", "client", "while",
+            "previous", "instructions", "security", "policy", "are", "applied", "for",
+            "research", "and", "fiction", "in", "each", "step", "by", "now", "mode"
+    };
+
+    @Param({"100", "10000"})
+    public int streams;
+
+    private StreamingGuardrailConfig config;
+    private StreamingGuardrail guardrail;
+    private String[] tokens;
+    private StreamingGuardrail.Session[] sessions;
+    private StringBuilder[] buffers;
+    private int nextToken;
+    private int nextStream;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        config = new StreamingGuardrailConfig();
+        config.setToxicityThreshold(Integer.MAX_VALUE);
+        config.setMaxWarnings(Integer.MAX_VALUE);
+        config.init();
+        guardrail = new StreamingGuardrail(config);
+
+        Random random = new Random(42);
+        tokens = new String[TOKENS];
+        for (int i = 0; i < TOKENS; i++) {
+            tokens[i] = WORDS[random.nextInt(WORDS.length)] + " ";
+        }
+
+        sessions = new StreamingGuardrail.Session[streams];
+        buffers = new StringBuilder[streams];
+        for (int i = 0; i < streams; i++) {
+            sessions[i] = guardrail.openSession();
+            buffers[i] = new StringBuilder();
+        }
+        System.out.printf("%nstreams=%d patterns=%d%n", streams, config.getCompiledPatterns().size());
+    }
+
+    @Benchmark
+    public StreamingResult session() {
+        int stream = nextStream();
+        return sessions[stream].processToken(nextToken());
+    }
+
+    @Benchmark
+    public int rescanBuffer() {
+        int stream = nextStream();
+        StringBuilder buffer = buffers[stream];
+        buffer.append(nextToken());
+        if (buffer.length() > config.getBufferSize()) {
+            buffer.delete(0, buffer.length() - config.getBufferSize());
+        }
+        int matches = 0;
+        for (ToxicityPattern pattern : config.getCompiledPatterns()) {
+            if (pattern.getPattern().matcher(buffer).find()) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    private int nextStream() {
+        if (++nextStream == streams) {
+            nextStream = 0;
+        }
+        return nextStream;
+    }
+
+    private String nextToken() {
+        nextToken = (nextToken + 1) & (TOKENS - 1);
+        return tokens[nextToken];
+    }
+}
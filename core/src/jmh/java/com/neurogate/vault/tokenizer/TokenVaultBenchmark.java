@@ -0,0 +1,132 @@
+package com.neurogate.vault.tokenizer;
+
+import com.neurogate.vault.model.PiiEntity;
+import com.neurogate.vault.model.PiiType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of tokenizing and restoring a long prompt with {@code entities} masked values,
+ * against the previous vault that replaced each mapping with {@code String.replace}
+ * and built tokens with {@code String.format} (kept inline as {@link LegacyVault}).
+ *
+ * <p>Run with
+ * {@code ./gradlew :core:jmh -Pjmh.includes=TokenVaultBenchmark -Pjmh.profilers=gc}
+ * to also report bytes allocated per operation.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TokenVaultBenchmark {
+
+    private static final PiiType[] TYPES = {PiiType.EMAIL, PiiType.PHONE, PiiType.SSN, PiiType.CREDIT_CARD};
+
+    @Param({"10", "100", "500"})
+    public int entities;
+
+    private List<PiiEntity> found;
+    private TokenVault vault;
+    private LegacyVault legacyVault;
+    private String sanitized;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        found = new ArrayList<>(entities);
+        for (int i = 0; i < entities; i++) {
+            PiiType type = TYPES[random.nextInt(TYPES.length)];
+            found.add(new PiiEntity(type, type.name().toLowerCase() + "-value-" + i, 0, 0));
+        }
+
+        vault = new TokenVault();
+        legacyVault = new LegacyVault();
+        StringBuilder text = new StringBuilder();
+        for (PiiEntity entity : found) {
+            String token = vault.tokenize(entity);
+            legacyVault.tokenize(entity);
+            // ~400 characters of retrieved context per masked value
+            for (int w = 0; w < 60; w++) {
+                text.append("context ");
+            }
+            text.append(token).append(' ');
+        }
+        sanitized = text.toString();
+
+        System.out.printf("%nentities=%d chars=%d legacy output matches=%b%n", entities, sanitized.length(),
+                vault.detokenizeText(sanitized).equals(legacyVault.detokenizeText(sanitized)));
+    }
+
+    @Benchmark
+    public int detokenizeText() {
+        return vault.detokenizeText(sanitized).length();
+    }
+
+    @Benchmark
+    public int detokenizeTextLegacy() {
+        return legacyVault.detokenizeText(sanitized).length();
+    }
+
+    @Benchmark
+    public int tokenize() {
+        TokenVault requestVault = new TokenVault();
+        int length = 0;
+        for (PiiEntity entity : found) {
+            length += requestVault.tokenize(entity).length();
+        }
+        return length;
+    }
+
+    @Benchmark
+    public int tokenizeLegacy() {
+        LegacyVault requestVault = new LegacyVault();
+        int length = 0;
+        for (PiiEntity entity : found) {
+            length += requestVault.tokenize(entity).length();
+        }
+        return length;
+    }
+
+    /**
+     * The vault as it was before the indexed single-scan detokenizer.
+     */
+    static final class LegacyVault {
+        private final Map<String, String> tokenToValue = new ConcurrentHashMap<>();
+        private final Map<String, String> valueToToken = new ConcurrentHashMap<>();
+        private final Map<PiiType, java.util.concurrent.atomic.AtomicInteger> counters = new ConcurrentHashMap<>();
+
+        String tokenize(PiiEntity entity) {
+            String existingToken = valueToToken.get(entity.getValue());
+            if (existingToken != null) {
+                return existingToken;
+            }
+            int counter = counters.computeIfAbsent(entity.getType(),
+                    k -> new java.util.concurrent.atomic.AtomicInteger(0)).incrementAndGet();
+            String token = String.format("<%s_%d>", entity.getType().getCode(), counter);
+            tokenToValue.put(token, entity.getValue());
+            valueToToken.put(entity.getValue(), token);
+            return token;
+        }
+
+        String detokenizeText(String text) {
+            String result = text;
+            for (Map.Entry<String, String> entry : tokenToValue.entrySet()) {
+                result = result.replace(entry.getKey(), entry.getValue());
+            }
+            return result;
+        }
+    }
+}
@@ -3,35 +3,59 @@ package com.neurogate.agent;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.neurogate.sentinel.model.ChatRequest;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 import java.util.concurrent.TimeUnit;
 
 /**
  * Service to detect and prevent infinite loops in agentic workflows.
  * It tracks the content of recent requests per session and uses fuzzy matching.
+ *
+ * <p>Requests are compared by SimHash first, and by an edit distance bounded by the
+ * similarity threshold only when their hashes are close. Comparisons run after the
+ * request is recorded in its session's history, outside any cache lock, so a slow
+ * comparison never blocks other sessions.</p>
  */
 @Slf4j
 @Service
 public class AgentLoopDetector {
 
-    // Store last 5 request content snippets per session
-    private final Cache<String, List<String>> sessionHistoryCache = Caffeine.newBuilder()
+    // Store the previous request content snippets per session
+    private final Cache<String, SessionHistory> sessionHistoryCache = Caffeine.newBuilder()
             .expireAfterWrite(1, TimeUnit.HOURS)
             .maximumSize(10000)
             .build();
 
-    private static final int MAX_HISTORY_SIZE = 5;
     private static final int LOOP_THRESHOLD = 3; // 3 consecutive similar requests = loop
     private static final double SIMILARITY_THRESHOLD = 0.95; // 95% similarity
     private static final int MAX_CONTENT_LENGTH = 2000; // Truncate validation content
+    private static final int MAX_SIMHASH_DISTANCE = 24; // Of 64 bits; near-duplicates rarely exceed 20
+    private static final int MIN_SIMHASH_LENGTH = 256; // SimHash of shorter texts is too noisy
+
+    private final Timer detectionLatency;
+    private final Counter loopsDetected;
+    private final Counter prefiltered;
+
+    public AgentLoopDetector(MeterRegistry meterRegistry) {
+        this.detectionLatency = Timer.builder("neurogate.agent.loop.detection.latency")
+                .description("Time to check one request for an agent loop")
+                .register(meterRegistry);
+        this.loopsDetected = Counter.builder("neurogate.agent.loop.detected")
+                .description("Requests rejected as part of an agent loop")
+                .register(meterRegistry);
+        this.prefiltered = Counter.builder("neurogate.agent.loop.prefiltered")
+                .description("Request comparisons ruled out by SimHash alone")
+                .register(meterRegistry);
+    }
 
     /**
      * Checks if the current request is part of a loop.
-     * 
+     *
      * @param request The chat request
      * @throws AgentLoopException if a loop is detected
      */
@@ -43,45 +67,35 @@ public class AgentLoopDetector {
             return;
         }
 
-        String content = request.getConcatenatedContent();
-        String currentContent = content.length() > MAX_CONTENT_LENGTH
-                ? content.substring(0, MAX_CONTENT_LENGTH)
-                : content;
-
-        sessionHistoryCache.asMap().compute(sessionId, (key, history) -> {
-            if (history == null) {
-                history = new ArrayList<>();
-            }
+        long start = System.nanoTime();
+        try {
+            String content = request.getConcatenatedContent();
+            PromptFingerprint current = PromptFingerprint.of(content.length() > MAX_CONTENT_LENGTH
+                    ? content.substring(0, MAX_CONTENT_LENGTH)
+                    : content);
 
-            history.add(currentContent);
-
-            // Keep only recent history
-            if (history.size() > MAX_HISTORY_SIZE) {
-                history.remove(0);
-            }
+            PromptFingerprint[] previous = sessionHistoryCache.get(sessionId, id -> new SessionHistory())
+                    .append(current);
 
             // Check for potential loop (last N items are similar)
-            if (detectLoop(history)) {
+            if (detectLoop(current, previous)) {
+                loopsDetected.increment();
                 log.warn("Agent loop detected for session: {}", sessionId);
                 throw new AgentLoopException(
                         "Agent loop detected: 3 consecutive similar requests in session " + sessionId);
             }
-
-            return history;
-        });
+        } finally {
+            detectionLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
     }
 
-    private boolean detectLoop(List<String> history) {
-        if (history.size() < LOOP_THRESHOLD) {
+    private boolean detectLoop(PromptFingerprint current, PromptFingerprint[] previous) {
+        if (previous.length < LOOP_THRESHOLD - 1) {
             return false;
         }
 
-        String lastContent = history.get(history.size() - 1);
-
-        // Check if the last N items are similar enough
-        for (int i = 1; i < LOOP_THRESHOLD; i++) {
-            String prevContent = history.get(history.size() - 1 - i);
-            if (!isSimilar(lastContent, prevContent)) {
+        for (PromptFingerprint prev : previous) {
+            if (!isSimilar(current, prev)) {
                 return false;
             }
         }
@@ -89,42 +103,57 @@ public class AgentLoopDetector {
         return true;
     }
 
-    private boolean isSimilar(String s1, String s2) {
-        if (s1.equals(s2))
+    private boolean isSimilar(PromptFingerprint f1, PromptFingerprint f2) {
+        if (f1.sameText(f2))
             return true;
 
+        String s1 = f1.text();
+        String s2 = f2.text();
         int maxLength = Math.max(s1.length(), s2.length());
-        if (maxLength == 0)
-            return true;
+        int maxDistance = maxDistance(maxLength);
+        if (Math.abs(s1.length() - s2.length()) > maxDistance)
+            return false;
 
-        int distance = calculateLevenshteinDistance(s1, s2);
-        double similarity = 1.0 - ((double) distance / maxLength);
+        if (maxLength >= MIN_SIMHASH_LENGTH && f1.simHashDistance(f2) > MAX_SIMHASH_DISTANCE) {
+            prefiltered.increment();
+            return false;
+        }
 
-        return similarity >= SIMILARITY_THRESHOLD;
+        return BandedEditDistance.distance(s1, s2, maxDistance) <= maxDistance;
     }
 
-    private int calculateLevenshteinDistance(String x, String y) {
-        int[][] dp = new int[x.length() + 1][y.length() + 1];
-
-        for (int i = 0; i <= x.length(); i++) {
-            for (int j = 0; j <= y.length(); j++) {
-                if (i == 0) {
-                    dp[i][j] = j;
-                } else if (j == 0) {
-                    dp[i][j] = i;
-                } else {
-                    dp[i][j] = min(dp[i - 1][j - 1]
-                            + (x.charAt(i - 1) == y.charAt(j - 1) ? 0 : 1),
-                            dp[i - 1][j] + 1,
-                            dp[i][j - 1] + 1);
-                }
-            }
+    /**
+     * Largest edit distance at which texts of this length still count as similar,
+     * with the same rounding as {@code 1 - distance / maxLength >= SIMILARITY_THRESHOLD}.
+     */
+    private static int maxDistance(int maxLength) {
+        int distance = (int) ((1.0 - SIMILARITY_THRESHOLD) * maxLength);
+        while (1.0 - (double) (distance + 1) / maxLength >= SIMILARITY_THRESHOLD) {
+            distance++;
         }
-
-        return dp[x.length()][y.length()];
+        while (distance > 0 && 1.0 - (double) distance / maxLength < SIMILARITY_THRESHOLD) {
+            distance--;
+        }
+        return distance;
     }
 
-    private int min(int a, int b, int c) {
-        return Math.min(Math.min(a, b), c);
+    /**
+     * Fingerprints of the latest requests of one session, newest first.
+     */
+    private static final class SessionHistory {
+
+        private final PromptFingerprint[] recent = new PromptFingerprint[LOOP_THRESHOLD - 1];
+        private int size;
+
+        /**
+         * Records the fingerprint and returns the ones recorded before it.
+         */
+        synchronized PromptFingerprint[] append(PromptFingerprint fingerprint) {
+            PromptFingerprint[] previous = Arrays.copyOf(recent, size);
+            System.arraycopy(recent, 0, recent, 1, recent.length - 1);
+            recent[0] = fingerprint;
+            size = Math.min(size + 1, recent.length);
+            return previous;
+        }
     }
 }
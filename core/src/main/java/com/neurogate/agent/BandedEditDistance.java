@@ -0,0 +1,85 @@
+package com.neurogate.agent;
+
+/**
+ * Levenshtein distance bounded by a limit, for "are these two texts nearly equal"
+ * checks.
+ *
+ * <p>Only a diagonal band of the matrix about {@code limit} cells wide can lie on a
+ * path within the limit, so each row computes at most that many cells, using two
+ * rows instead of the full matrix. The computation stops at the first row from which
+ * no path can finish within the limit. Common prefixes and suffixes, typical of
+ * repeated agent prompts, are skipped first.</p>
+ */
+final class BandedEditDistance {
+
+    private BandedEditDistance() {
+    }
+
+    /**
+     * Edit distance between the texts if it is at most {@code limit}, otherwise
+     * {@code limit + 1}.
+     */
+    static int distance(CharSequence a, CharSequence b, int limit) {
+        int start = 0;
+        int endA = a.length();
+        int endB = b.length();
+        while (start < endA && start < endB && a.charAt(start) == b.charAt(start)) {
+            start++;
+        }
+        while (endA > start && endB > start && a.charAt(endA - 1) == b.charAt(endB - 1)) {
+            endA--;
+            endB--;
+        }
+
+        int n = endA - start;
+        int m = endB - start;
+        int over = limit + 1;
+        if (Math.abs(n - m) > limit) {
+            return over;
+        }
+        if (n == 0 || m == 0) {
+            return Math.max(n, m);
+        }
+
+        // Cell (i, j) lies on diagonal j - i and still needs |(m - j) - (n - i)| edits,
+        // so only diagonals where both add up to at most the limit can be on a path
+        // within it
+        int delta = m - n;
+        int lowDiagonal = -Math.floorDiv(limit - delta, 2);
+        int highDiagonal = Math.floorDiv(limit + delta, 2);
+
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = Math.min(j, over);
+        }
+
+        for (int i = 1; i <= n; i++) {
+            int from = Math.max(1, i + lowDiagonal);
+            int to = Math.min(m, i + highDiagonal);
+            current[from - 1] = from == 1 ? Math.min(i, over) : over;
+            if (to < m) {
+                // Outside the band; read as the upper neighbour on the next row
+                current[to + 1] = over;
+            }
+
+            int best = from == 1 ? current[0] + Math.abs(delta + i) : over;
+            char c = a.charAt(start + i - 1);
+            for (int j = from; j <= to; j++) {
+                int cost = c == b.charAt(start + j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j - 1] + cost, previous[j] + 1), current[j - 1] + 1);
+                value = Math.min(value, over);
+                current[j] = value;
+                best = Math.min(best, value + Math.abs(delta - (j - i)));
+            }
+            if (best > limit) {
+                return over;
+            }
+
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return Math.min(previous[m], over);
+    }
+}
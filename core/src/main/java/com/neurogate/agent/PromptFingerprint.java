@@ -0,0 +1,109 @@
+package com.neurogate.agent;
+
+import com.neurogate.router.cache.ContentHash;
+
+/**
+ * Prompt text of one agent request with a SimHash of its character shingles.
+ *
+ * <p>The SimHash of two texts differs in few bits when most of their shingles are
+ * shared, so comparing two fingerprints is one XOR and a bit count. Texts whose hashes
+ * are too far apart are treated as dissimilar without computing their edit distance.
+ * The bound is loose on purpose: texts within the loop similarity threshold stay well
+ * inside it, while rewritten prompts fall outside it.</p>
+ */
+final class PromptFingerprint {
+
+    private static final int SHINGLE = 4;
+
+    private final String text;
+    private final long hash;
+    private final long simHash;
+
+    private PromptFingerprint(String text) {
+        this.text = text;
+        this.hash = ContentHash.hash64(text, 0);
+        this.simHash = simHash(text);
+    }
+
+    static PromptFingerprint of(String text) {
+        return new PromptFingerprint(text);
+    }
+
+    String text() {
+        return text;
+    }
+
+    long simHash() {
+        return simHash;
+    }
+
+    /**
+     * Number of SimHash bits that differ, 0 to 64.
+     */
+    int simHashDistance(PromptFingerprint other) {
+        return Long.bitCount(simHash ^ other.simHash);
+    }
+
+    boolean sameText(PromptFingerprint other) {
+        return hash == other.hash && text.equals(other.text);
+    }
+
+    private static long simHash(String text) {
+        int length = text.length();
+        if (length < SHINGLE) {
+            return length == 0 ? 0 : mix(ContentHash.hash64(text, 0));
+        }
+
+        // Per-bit vote counts, eight byte-wide counters per long: lanes[k] byte j
+        // counts bit 8 * j + k. Drained into totals before a byte can overflow.
+        long[] lanes = new long[8];
+        int[] totals = new int[64];
+        int pending = 0;
+        int shingles = 0;
+        long shingle = 0;
+        for (int i = 0; i < length; i++) {
+            shingle = shingle << 16 | text.charAt(i);
+            if (i < SHINGLE - 1) {
+                continue;
+            }
+            long bits = mix(shingle);
+            for (int k = 0; k < 8; k++) {
+                lanes[k] += bits >>> k & 0x0101010101010101L;
+            }
+            shingles++;
+            if (++pending == 255) {
+                drain(lanes, totals);
+                pending = 0;
+            }
+        }
+        drain(lanes, totals);
+
+        // A bit is set when most shingles set it
+        long result = 0;
+        for (int bit = 0; bit < 64; bit++) {
+            if (2 * totals[bit] > shingles) {
+                result |= 1L << bit;
+            }
+        }
+        return result;
+    }
+
+    private static void drain(long[] lanes, int[] totals) {
+        for (int k = 0; k < 8; k++) {
+            long lane = lanes[k];
+            for (int j = 0; j < 8; j++) {
+                totals[8 * j + k] += (int) (lane >>> 8 * j & 0xff);
+            }
+            lanes[k] = 0;
+        }
+    }
+
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
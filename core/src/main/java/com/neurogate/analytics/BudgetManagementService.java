@@ -1,5 +1,6 @@
 package com.neurogate.analytics;
 
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -9,10 +10,16 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Budget Management & Alerts Service.
  * Tracks budgets, alerts on thresholds, and throttles when exceeded.
+ *
+ * <p>Spending is summed in memory per user/team and applied to the active budgets every
+ * {@code neurogate.budget.spend-flush-interval-ms}, so accounting a request costs no
+ * database round trip. Throttling decisions include the spending not yet applied.</p>
  */
 @Slf4j
 @Service
@@ -23,6 +30,8 @@ public class BudgetManagementService {
     private final UsageRecordRepository usageRecordRepository;
     private final com.neurogate.ops.notification.NotificationService notificationService;
 
+    private final Map<SpendingKey, BigDecimal> pendingSpending = new ConcurrentHashMap<>();
+
     /**
      * Create or update budget alert for a user
      *
@@ -56,25 +65,67 @@ public class BudgetManagementService {
 
     /**
      * Update spending for a user/team
-     * Called after each request
+     * Called after each request; applied to the budget by the next {@link #flushSpending}
      */
-    @Transactional
     public void updateSpending(String entityId, BudgetAlert.EntityType entityType, BigDecimal cost) {
-        budgetAlertRepository.findActiveAlert(entityId, entityType, Instant.now())
-                .ifPresent(alert -> {
+        pendingSpending.merge(new SpendingKey(entityId, entityType), cost, BigDecimal::add);
+    }
+
+    /**
+     * Apply the spending summed since the previous flush to the active budgets, one
+     * lookup and save per user/team. If the database fails, the rest is kept for the
+     * next flush.
+     *
+     * @return number of budgets updated
+     */
+    @Scheduled(fixedDelayString = "${neurogate.budget.spend-flush-interval-ms:5000}",
+            initialDelayString = "${neurogate.budget.spend-flush-interval-ms:5000}")
+    public synchronized int flushSpending() {
+        int updated = 0;
+        for (SpendingKey key : pendingSpending.keySet()) {
+            BigDecimal cost = pendingSpending.remove(key);
+            if (cost == null) {
+                continue;
+            }
+            try {
+                if (applySpending(key, cost)) {
+                    updated++;
+                }
+            } catch (RuntimeException e) {
+                pendingSpending.merge(key, cost, BigDecimal::add);
+                log.warn("Failed to apply spending to budgets, retrying on next flush: {}", e.getMessage());
+                break;
+            }
+        }
+        return updated;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flushSpending();
+    }
+
+    private boolean applySpending(SpendingKey key, BigDecimal cost) {
+        return budgetAlertRepository.findActiveAlert(key.entityId(), key.entityType(), Instant.now())
+                .map(alert -> {
                     alert.setCurrentSpending(alert.getCurrentSpending().add(cost));
                     alert.setLastUpdated(Instant.now());
 
                     // Check if alert should be triggered
-                    if (!alert.getAlertTriggered() && alert.isAlertThresholdReached()) {
+                    boolean trigger = !alert.getAlertTriggered() && alert.isAlertThresholdReached();
+                    if (trigger) {
                         alert.setAlertTriggered(true);
-                        sendAlert(alert);
                     }
 
                     budgetAlertRepository.save(alert);
+                    if (trigger) {
+                        sendAlert(alert);
+                    }
                     log.debug("Updated spending for {}: ${} ({}% of budget)",
-                            entityId, alert.getCurrentSpending(), alert.getUtilizationPercentage());
-                });
+                            key.entityId(), alert.getCurrentSpending(), alert.getUtilizationPercentage());
+                    return true;
+                })
+                .orElse(false);
     }
 
     /**
@@ -85,7 +136,7 @@ public class BudgetManagementService {
      */
     public boolean shouldThrottle(String userId) {
         return budgetAlertRepository.findActiveAlert(userId, BudgetAlert.EntityType.USER, Instant.now())
-                .map(alert -> alert.getEnableThrottling() && alert.isBudgetExceeded())
+                .map(alert -> alert.getEnableThrottling() && isBudgetExceeded(alert))
                 .orElse(false);
     }
 
@@ -94,10 +145,19 @@ public class BudgetManagementService {
      */
     public boolean shouldThrottleTeam(String teamId) {
         return budgetAlertRepository.findActiveAlert(teamId, BudgetAlert.EntityType.TEAM, Instant.now())
-                .map(alert -> alert.getEnableThrottling() && alert.isBudgetExceeded())
+                .map(alert -> alert.getEnableThrottling() && isBudgetExceeded(alert))
                 .orElse(false);
     }
 
+    // Exceeded counting the spending not flushed yet
+    private boolean isBudgetExceeded(BudgetAlert alert) {
+        BigDecimal pending = pendingSpending.get(new SpendingKey(alert.getEntityId(), alert.getEntityType()));
+        if (pending == null) {
+            return alert.isBudgetExceeded();
+        }
+        return alert.getCurrentSpending().add(pending).compareTo(alert.getBudgetLimit()) >= 0;
+    }
+
     /**
      * Get budget status for a user
      */
@@ -163,6 +223,9 @@ public class BudgetManagementService {
         }
     }
 
+    private record SpendingKey(String entityId, BudgetAlert.EntityType entityType) {
+    }
+
     /**
      * Budget status DTO
      */
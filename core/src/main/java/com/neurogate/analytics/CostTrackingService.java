@@ -2,7 +2,6 @@ package com.neurogate.analytics;
 
 import com.neurogate.config.PricingConfig;
 import com.neurogate.router.intelligence.ComplexityAnalyzer;
-import com.neurogate.router.intelligence.ComplexityScore;
 import com.neurogate.sentinel.model.ChatRequest;
 import com.neurogate.sentinel.model.ChatResponse;
 import lombok.RequiredArgsConstructor;
@@ -12,19 +11,31 @@ import org.springframework.stereotype.Service;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Tracks usage and calculates costs for chargeback reporting.
+ *
+ * <p>Recording does no database I/O on the caller's thread: the record is handed to the
+ * {@link UsageRecordWriter} queue for a batched insert.</p>
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class CostTrackingService {
 
-    private final UsageRecordRepository usageRecordRepository;
+    private static final List<String> PROVIDERS = List.of("openai", "anthropic", "gemini", "cache", "local");
+    private static final int MAX_CACHED_ROUTES = 1024;
+
+    private final UsageRecordWriter usageRecordWriter;
     private final ComplexityAnalyzer complexityAnalyzer;
     private final PricingConfig pricingConfig;
 
+    // Routes are a handful of provider names and suffixes, so each is parsed once
+    private final Map<String, String> providersByRoute = new ConcurrentHashMap<>();
+
     /**
      * Record usage for a completed request
      *
@@ -37,13 +48,19 @@ public class CostTrackingService {
      */
     public void recordUsage(ChatRequest request, ChatResponse response, String userId,
             String teamId, String projectId, long latencyMs) {
+        recordUsage(request, response, userId, teamId, projectId, latencyMs, complexityScore(request));
+    }
+
+    /**
+     * Record usage for a completed request, labelled with the complexity score computed
+     * while routing it, if any. The prompt is not analyzed again just for the record.
+     */
+    public void recordUsage(ChatRequest request, ChatResponse response, String userId,
+            String teamId, String projectId, long latencyMs, Integer complexityScore) {
         try {
             // Calculate cost
             BigDecimal cost = calculateCost(response);
 
-            // Get complexity score
-            ComplexityScore complexityScore = complexityAnalyzer.analyze(request.getConcatenatedContent());
-
             // Create usage record
             UsageRecord record = UsageRecord.builder()
                     .userId(userId != null ? userId : "anonymous")
@@ -59,11 +76,10 @@ public class CostTrackingService {
                     .timestamp(Instant.now())
                     .requestId(response.getId())
                     .latencyMs(latencyMs)
-                    .complexityScore(complexityScore.getOverallScore())
+                    .complexityScore(complexityScore)
                     .build();
 
-            // Save to database
-            usageRecordRepository.save(record);
+            usageRecordWriter.offer(record);
 
             log.debug("Usage recorded: user={}, model={}, cost=${}, tokens={}",
                     userId, response.getModel(), cost, record.getTotalTokens());
@@ -74,6 +90,21 @@ public class CostTrackingService {
         }
     }
 
+    /**
+     * Score the request's memoized content, so callers without a routing score keep the label
+     */
+    private Integer complexityScore(ChatRequest request) {
+        if (request == null) {
+            return null;
+        }
+        try {
+            return complexityAnalyzer.analyze(request.content()).getOverallScore();
+        } catch (Exception e) {
+            log.warn("Failed to score request complexity for usage record", e);
+            return null;
+        }
+    }
+
     /**
      * Calculate cost for a response
      */
@@ -108,18 +139,22 @@ public class CostTrackingService {
         if (route == null) {
             return "unknown";
         }
+        String provider = providersByRoute.get(route);
+        if (provider == null) {
+            provider = parseProvider(route);
+            if (providersByRoute.size() < MAX_CACHED_ROUTES) {
+                providersByRoute.put(route, provider);
+            }
+        }
+        return provider;
+    }
 
-        if (route.contains("openai"))
-            return "openai";
-        if (route.contains("anthropic"))
-            return "anthropic";
-        if (route.contains("gemini"))
-            return "gemini";
-        if (route.contains("cache"))
-            return "cache";
-        if (route.contains("local"))
-            return "local";
-
+    private static String parseProvider(String route) {
+        for (String provider : PROVIDERS) {
+            if (route.contains(provider)) {
+                return provider;
+            }
+        }
         return "unknown";
     }
 }
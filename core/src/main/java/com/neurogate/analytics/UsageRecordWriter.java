@@ -0,0 +1,182 @@
+package com.neurogate.analytics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded queue of usage records, inserted into {@code usage_records} by a worker thread
+ * in JDBC batches of up to {@code neurogate.analytics.ingest.batch-size} rows.
+ *
+ * <p>Producers never block: {@link #offer} either enqueues or drops the record (counted
+ * in {@code neurogate.analytics.ingest.dropped}), so request latency never includes an
+ * accounting write. Records of a failed batch are counted in
+ * {@code neurogate.analytics.ingest.failed} and not retried. Queue depth and batch sizes
+ * are exported as {@code neurogate.analytics.ingest.queue.depth} and
+ * {@code neurogate.analytics.ingest.batch.size}.</p>
+ */
+@Slf4j
+@Component
+public class UsageRecordWriter {
+
+    static final String INSERT_SQL = """
+            INSERT INTO usage_records
+                (id, user_id, team_id, project_id, provider, model, prompt_tokens, completion_tokens,
+                 total_tokens, cost_usd, cache_hit, timestamp, request_id, latency_ms, complexity_score)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final long SHUTDOWN_TIMEOUT_MS = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<UsageRecord> queue;
+    private final int batchSize;
+    private final long lingerMs;
+
+    private final Counter dropped;
+    private final Counter written;
+    private final Counter failed;
+    private final DistributionSummary batchSizes;
+    private final Timer flushLatency;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public UsageRecordWriter(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${neurogate.analytics.ingest.queue-capacity:10000}") int queueCapacity,
+            @Value("${neurogate.analytics.ingest.batch-size:500}") int batchSize,
+            @Value("${neurogate.analytics.ingest.linger-ms:200}") long lingerMs
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.lingerMs = Math.max(1, lingerMs);
+
+        this.dropped = Counter.builder("neurogate.analytics.ingest.dropped")
+                .description("Usage records dropped because the ingest queue was full")
+                .register(meterRegistry);
+        this.written = Counter.builder("neurogate.analytics.ingest.written")
+                .description("Usage records inserted")
+                .register(meterRegistry);
+        this.failed = Counter.builder("neurogate.analytics.ingest.failed")
+                .description("Usage records lost because their batch insert failed")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("neurogate.analytics.ingest.batch.size")
+                .description("Usage records per batch insert")
+                .register(meterRegistry);
+        this.flushLatency = Timer.builder("neurogate.analytics.ingest.flush.latency")
+                .description("Time to insert one batch of usage records")
+                .register(meterRegistry);
+        Gauge.builder("neurogate.analytics.ingest.queue.depth", queue, BlockingQueue::size)
+                .description("Usage records waiting to be inserted")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Enqueue a record without blocking.
+     *
+     * @return false if the queue was full and the record was dropped
+     */
+    public boolean offer(UsageRecord record) {
+        if (queue.offer(record)) {
+            return true;
+        }
+        dropped.increment();
+        log.debug("Usage ingest queue is full, dropping record {}", record.getRequestId());
+        return false;
+    }
+
+    @PostConstruct
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::drainLoop, "usage-record-writer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Stop the worker after it has inserted everything still queued.
+     */
+    @PreDestroy
+    public synchronized void shutdown() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            worker.join(SHUTDOWN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            log.warn("Usage record writer did not finish in {}ms, {} records pending",
+                    SHUTDOWN_TIMEOUT_MS, queue.size());
+            worker.interrupt();
+        }
+    }
+
+    private void drainLoop() {
+        List<UsageRecord> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                UsageRecord first = queue.poll(lingerMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<UsageRecord> batch) {
+        long start = System.nanoTime();
+        List<Object[]> rows = new ArrayList<>(batch.size());
+        for (UsageRecord record : batch) {
+            rows.add(new Object[]{
+                    record.getId() != null ? record.getId() : UUID.randomUUID(),
+                    record.getUserId(), record.getTeamId(), record.getProjectId(),
+                    record.getProvider(), record.getModel(),
+                    record.getPromptTokens(), record.getCompletionTokens(), record.getTotalTokens(),
+                    record.getCostUsd(), record.getCacheHit(), Timestamp.from(record.getTimestamp()),
+                    record.getRequestId(), record.getLatencyMs(), record.getComplexityScore()});
+        }
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+            written.increment(batch.size());
+        } catch (Exception e) {
+            failed.increment(batch.size());
+            log.warn("Insert of {} usage records failed: {}", batch.size(), e.getMessage());
+        } finally {
+            batchSizes.record(batch.size());
+            flushLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.neurogate.auth;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalesces {@code last_used_at} updates of API keys into one batched statement per
+ * flush interval, instead of a row write per authenticated request.
+ *
+ * <p>Only the latest use of each key is kept between flushes. The update never moves
+ * {@code last_used_at} backwards, so instances flushing in any order converge on the
+ * latest use. Uses recorded before a failed flush are kept for the next one.</p>
+ */
+@Slf4j
+@Component
+public class ApiKeyLastUsedRecorder {
+
+    static final String UPDATE_SQL =
+            "UPDATE api_keys SET last_used_at = ? WHERE id = ? AND (last_used_at IS NULL OR last_used_at < ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<UUID, Instant> pending = new ConcurrentHashMap<>();
+    private final Counter flushedCounter;
+
+    public ApiKeyLastUsedRecorder(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.flushedCounter = Counter.builder("neurogate.auth.last-used.flushed")
+                .description("API key last-used timestamps written")
+                .register(meterRegistry);
+        Gauge.builder("neurogate.auth.last-used.pending", pending, Map::size)
+                .description("API keys with a use not yet written")
+                .register(meterRegistry);
+    }
+
+    public void record(UUID keyId, Instant usedAt) {
+        pending.merge(keyId, usedAt, (previous, latest) -> latest.isAfter(previous) ? latest : previous);
+    }
+
+    /**
+     * Write the latest use of every key used since the previous flush.
+     *
+     * @return number of keys written
+     */
+    @Scheduled(fixedDelayString = "${neurogate.auth.last-used.flush-interval-ms:30000}")
+    public int flush() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        List<Object[]> batch = new ArrayList<>(pending.size());
+        for (UUID keyId : pending.keySet()) {
+            Instant usedAt = pending.remove(keyId);
+            if (usedAt != null) {
+                Timestamp timestamp = Timestamp.from(usedAt);
+                batch.add(new Object[]{timestamp, keyId, timestamp});
+            }
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, batch);
+        } catch (RuntimeException e) {
+            log.warn("Failed to write last-used timestamps of {} API keys, retrying on next flush: {}",
+                    batch.size(), e.getMessage());
+            for (Object[] row : batch) {
+                record((UUID) row[1], ((Timestamp) row[0]).toInstant());
+            }
+            return 0;
+        }
+        flushedCounter.increment(batch.size());
+        return batch.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+}
@@ -5,6 +5,8 @@ import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.security.SecureRandom;
 import java.time.Instant;
@@ -24,6 +26,8 @@ public class ApiKeyService {
     private final ApiKeyRepository apiKeyRepository;
     private final OrganizationRepository organizationRepository;
     private final PasswordEncoder passwordEncoder;
+    private final VerifiedApiKeyCache verifiedKeyCache;
+    private final ApiKeyLastUsedRecorder lastUsedRecorder;
 
     private final SecureRandom secureRandom = new SecureRandom();
 
@@ -56,19 +60,29 @@ public class ApiKeyService {
                 saved.getExpiresAt());
     }
 
-    @Transactional
+    /**
+     * Authenticate a raw API key. Keys verified within the cache TTL skip the
+     * lookup and the bcrypt match; {@code lastUsedAt} is written by the next flush of
+     * {@link ApiKeyLastUsedRecorder}.
+     */
     public Optional<ValidatedApiKey> validateKey(String rawKey) {
         if (rawKey == null || !rawKey.startsWith(RAW_KEY_PREFIX)) {
             return Optional.empty();
         }
 
+        Instant now = Instant.now();
+        Optional<ValidatedApiKey> cached = verifiedKeyCache.get(rawKey, now);
+        if (cached.isPresent()) {
+            lastUsedRecorder.record(cached.get().keyId(), now);
+            return cached;
+        }
+
         String lookupPrefix = extractLookupPrefix(rawKey);
         List<ApiKey> candidates = apiKeyRepository.findByKeyPrefixAndIsActiveTrue(lookupPrefix);
         if (candidates.isEmpty()) {
             return Optional.empty();
         }
 
-        Instant now = Instant.now();
         for (ApiKey candidate : candidates) {
             if (candidate.getExpiresAt() != null && candidate.getExpiresAt().isBefore(now)) {
                 continue;
@@ -77,15 +91,16 @@ public class ApiKeyService {
                 continue;
             }
             if (passwordEncoder.matches(rawKey, candidate.getKeyHash())) {
-                candidate.setLastUsedAt(now);
-                apiKeyRepository.save(candidate);
-                return Optional.of(new ValidatedApiKey(
+                ValidatedApiKey validated = new ValidatedApiKey(
                         candidate.getId(),
                         candidate.getOrgId(),
                         candidate.getName(),
                         candidate.getRole(),
                         candidate.getRateLimit(),
-                        candidate.getExpiresAt()));
+                        candidate.getExpiresAt());
+                verifiedKeyCache.put(rawKey, validated);
+                lastUsedRecorder.record(candidate.getId(), now);
+                return Optional.of(validated);
             }
         }
 
@@ -117,6 +132,7 @@ public class ApiKeyService {
         }
         key.setIsActive(Boolean.FALSE);
         apiKeyRepository.save(key);
+        invalidateVerifiedKey(keyId);
     }
 
     @Transactional
@@ -128,6 +144,7 @@ public class ApiKeyService {
         }
         oldKey.setIsActive(Boolean.FALSE);
         apiKeyRepository.save(oldKey);
+        invalidateVerifiedKey(keyId);
 
         return createKey(orgId, oldKey.getName(), oldKey.getRole());
     }
@@ -137,6 +154,19 @@ public class ApiKeyService {
         return apiKeyRepository.findById(keyId);
     }
 
+    private void invalidateVerifiedKey(UUID keyId) {
+        verifiedKeyCache.invalidate(keyId);
+        // Again once committed: a validation reading the key before the commit may cache it
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    verifiedKeyCache.invalidate(keyId);
+                }
+            });
+        }
+    }
+
     private String generateRawKey() {
         StringBuilder sb = new StringBuilder(RAW_KEY_PREFIX.length() + RAW_KEY_RANDOM_LENGTH);
         sb.append(RAW_KEY_PREFIX);
@@ -0,0 +1,180 @@
+package com.neurogate.auth;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Usage counted locally per org, API key and day, between flushes to Redis.
+ *
+ * <p>Counters are striped adders, so concurrent requests of the same key do not contend.
+ * {@link #drain} takes every counter's delta with an atomic get-and-reset per stripe:
+ * an increment racing it lands in this drain or the next one, never in neither. Each
+ * org's requests this month are also counted in total and as flushed, so the requests
+ * not yet in Redis are known without scanning the day counters.</p>
+ */
+final class UsageCounters {
+
+    private final Map<DayKey, Counts> counts = new ConcurrentHashMap<>();
+    private final Map<OrgMonth, MonthCounts> months = new ConcurrentHashMap<>();
+    // Counters of past days removed by the previous drain, drained once more for stragglers
+    private List<Map.Entry<DayKey, Counts>> retired = List.of();
+    // System.nanoTime() of the oldest increment not drained yet, 0 when there is none
+    private final AtomicLong oldestPending = new AtomicLong();
+
+    void addRequest(String orgId, UUID apiKeyId, LocalDate day) {
+        counts(orgId, apiKeyId, day).requests.increment();
+        month(orgId, YearMonth.from(day)).recorded.increment();
+        markPending();
+    }
+
+    void addTokensAndCost(String orgId, UUID apiKeyId, LocalDate day, long tokens, double costUsd) {
+        Counts dayCounts = counts(orgId, apiKeyId, day);
+        if (tokens > 0) {
+            dayCounts.tokens.add(tokens);
+        }
+        if (costUsd > 0) {
+            dayCounts.cost.add(costUsd);
+        }
+        markPending();
+    }
+
+    /**
+     * Requests of the org in the month counted here, flushed or not.
+     */
+    long recorded(String orgId, YearMonth month) {
+        MonthCounts monthCounts = months.get(new OrgMonth(orgId, month));
+        return monthCounts != null ? monthCounts.recorded.sum() : 0;
+    }
+
+    /**
+     * Requests of the org in the month flushed to Redis so far.
+     */
+    long flushed(String orgId, YearMonth month) {
+        MonthCounts monthCounts = months.get(new OrgMonth(orgId, month));
+        return monthCounts != null ? monthCounts.flushed.get() : 0;
+    }
+
+    /**
+     * Nanoseconds since the oldest increment not drained yet, 0 when there is none.
+     */
+    long pendingAgeNanos(long now) {
+        long oldest = oldestPending.get();
+        return oldest != 0 ? Math.max(now - oldest, 0) : 0;
+    }
+
+    /**
+     * Take the counts since the previous drain. Counters of days before {@code today}
+     * that had nothing to drain are retired.
+     */
+    synchronized Drain drain(LocalDate today) {
+        long since = oldestPending.getAndSet(0);
+        List<Delta> deltas = new ArrayList<>();
+        for (Map.Entry<DayKey, Counts> entry : retired) {
+            entry.getValue().drainInto(entry.getKey(), deltas);
+        }
+
+        List<Map.Entry<DayKey, Counts>> retiring = new ArrayList<>();
+        for (Map.Entry<DayKey, Counts> entry : counts.entrySet()) {
+            boolean drained = entry.getValue().drainInto(entry.getKey(), deltas);
+            if (!drained && entry.getKey().day().isBefore(today)
+                    && counts.remove(entry.getKey(), entry.getValue())) {
+                retiring.add(entry);
+            }
+        }
+        retired = retiring;
+
+        YearMonth month = YearMonth.from(today);
+        months.entrySet().removeIf(entry -> entry.getKey().month().isBefore(month)
+                && entry.getValue().recorded.sum() == entry.getValue().flushed.get());
+        return new Drain(deltas, since);
+    }
+
+    /**
+     * Record a drain as written to Redis.
+     */
+    void markFlushed(Drain drain) {
+        for (Delta delta : drain.deltas()) {
+            MonthCounts monthCounts = months.get(new OrgMonth(delta.key().orgId(), YearMonth.from(delta.key().day())));
+            if (monthCounts != null && delta.requests() > 0) {
+                monthCounts.flushed.addAndGet(delta.requests());
+            }
+        }
+    }
+
+    /**
+     * Put back a drain that could not be written, for the next flush.
+     */
+    void restore(Drain drain) {
+        for (Delta delta : drain.deltas()) {
+            Counts dayCounts = counts(delta.key().orgId(), delta.key().apiKeyId(), delta.key().day());
+            dayCounts.requests.add(delta.requests());
+            dayCounts.tokens.add(delta.tokens());
+            dayCounts.cost.add(delta.costUsd());
+        }
+        if (drain.since() != 0) {
+            oldestPending.accumulateAndGet(drain.since(), (current, since) ->
+                    current == 0 || since - current < 0 ? since : current);
+        }
+    }
+
+    private Counts counts(String orgId, UUID apiKeyId, LocalDate day) {
+        return counts.computeIfAbsent(new DayKey(orgId, apiKeyId, day), key -> new Counts());
+    }
+
+    private MonthCounts month(String orgId, YearMonth month) {
+        return months.computeIfAbsent(new OrgMonth(orgId, month), key -> new MonthCounts());
+    }
+
+    private void markPending() {
+        if (oldestPending.get() == 0) {
+            long now = System.nanoTime();
+            oldestPending.compareAndSet(0, now != 0 ? now : 1);
+        }
+    }
+
+    record DayKey(String orgId, UUID apiKeyId, LocalDate day) {
+    }
+
+    record Delta(DayKey key, long requests, long tokens, double costUsd) {
+    }
+
+    /**
+     * Deltas taken by one drain, and the {@code System.nanoTime()} of the oldest of
+     * their increments (0 when unknown).
+     */
+    record Drain(List<Delta> deltas, long since) {
+    }
+
+    private record OrgMonth(String orgId, YearMonth month) {
+    }
+
+    private static final class Counts {
+        final LongAdder requests = new LongAdder();
+        final LongAdder tokens = new LongAdder();
+        final DoubleAdder cost = new DoubleAdder();
+
+        boolean drainInto(DayKey key, List<Delta> deltas) {
+            long requestDelta = requests.sumThenReset();
+            long tokenDelta = tokens.sumThenReset();
+            double costDelta = cost.sumThenReset();
+            if (requestDelta == 0 && tokenDelta == 0 && costDelta == 0) {
+                return false;
+            }
+            deltas.add(new Delta(key, requestDelta, tokenDelta, costDelta));
+            return true;
+        }
+    }
+
+    private static final class MonthCounts {
+        final LongAdder recorded = new LongAdder();
+        final AtomicLong flushed = new AtomicLong();
+    }
+}
@@ -1,9 +1,21 @@
 package com.neurogate.auth;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.neurogate.exception.RateLimitException;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -11,6 +23,9 @@ import org.springframework.util.StringUtils;
 import org.springframework.data.redis.core.StringRedisTemplate;
 
 import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.YearMonth;
@@ -18,25 +33,71 @@ import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
-
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-org and per-key usage accounting, with the org's monthly request limit.
+ *
+ * <p>Requests, tokens and cost are counted in local {@link UsageCounters} and written to
+ * Redis by a flush every {@code neurogate.usage.flush-interval-ms}, in one pipelined
+ * round trip, instead of an INCR and an EXPIRE per counter and request. A failed flush
+ * is retried with the next one. The age of the oldest unflushed count is exported as
+ * {@code neurogate.usage.flush.lag}.</p>
+ *
+ * <p>{@link #enforceMonthlyLimit} is served locally: the org's plan is cached for
+ * {@code neurogate.usage.limit-cache.plan-ttl-seconds}, and its Redis request count for
+ * {@code neurogate.usage.limit-cache.snapshot-ttl-ms}, to which the requests this
+ * instance counted since are added. Requests of other instances are thus seen up to a
+ * snapshot TTL plus a flush interval late.</p>
+ *
+ * <p>A day's usage of an org is one Redis hash, with {@code <keyId>:requests},
+ * {@code :tokens} and {@code :cost} fields per API key, and the orgs with usage on a day
+ * are a set. Today's history is then one HGETALL, and the nightly rollup walks the
+ * day's org set with SSCAN, reads the hashes in pipelined pages and upserts them into
+ * {@code api_usage_records} in JDBC batches; nothing enumerates the keyspace.</p>
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class UsageTracker {
 
-    private static final String REQUEST_DAY_KEY = "usage:request:%s:%s:%s";
-    private static final String TOKEN_DAY_KEY = "usage:token:%s:%s:%s";
-    private static final String COST_DAY_KEY = "usage:cost:%s:%s:%s";
+    private static final String DAY_USAGE_KEY = "usage:day:%s:%s";
+    private static final String DAY_ORGS_KEY = "usage:day-orgs:%s";
     private static final String ORG_MONTH_KEY = "usage:org:%s:%s";
+    private static final String REQUESTS_FIELD = ":requests";
+    private static final String TOKENS_FIELD = ":tokens";
+    private static final String COST_FIELD = ":cost";
+    // Per-key string counters written before the hash layout, expiring with USAGE_KEY_TTL
+    private static final String LEGACY_REQUEST_PREFIX = "usage:request:";
+    private static final Duration USAGE_KEY_TTL = Duration.ofDays(45);
+    private static final int ROLLUP_PAGE_SIZE = 500;
+
+    static final String UPSERT_SQL = """
+            INSERT INTO api_usage_records
+                (id, org_id, api_key_id, usage_date, request_count, token_count, cost_usd, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (org_id, api_key_id, usage_date) DO UPDATE SET
+                request_count = api_usage_records.request_count + EXCLUDED.request_count,
+                token_count = api_usage_records.token_count + EXCLUDED.token_count,
+                cost_usd = api_usage_records.cost_usd + EXCLUDED.cost_usd,
+                updated_at = EXCLUDED.updated_at
+            """;
 
     private final StringRedisTemplate redisTemplate;
     private final OrganizationRepository organizationRepository;
     private final ApiUsageRecordRepository apiUsageRecordRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final UsageCounters counters = new UsageCounters();
+    private final Cache<String, Long> monthlyLimits;
+    private final Cache<OrgMonth, MonthSnapshot> monthSnapshots;
+    private final Timer flushTimer;
+    private final Counter flushFailures;
 
     @Value("${neurogate.usage.plans.free-monthly-requests:10000}")
     private long freeMonthlyRequests;
@@ -47,6 +108,42 @@ public class UsageTracker {
     @Value("${neurogate.usage.plans.team-monthly-requests:500000}")
     private long teamMonthlyRequests;
 
+    @Value("${neurogate.usage.rollup.scan-legacy-keys:true}")
+    private boolean scanLegacyKeys;
+
+    public UsageTracker(
+            StringRedisTemplate redisTemplate,
+            OrganizationRepository organizationRepository,
+            ApiUsageRecordRepository apiUsageRecordRepository,
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${neurogate.usage.limit-cache.plan-ttl-seconds:60}") long planTtlSeconds,
+            @Value("${neurogate.usage.limit-cache.snapshot-ttl-ms:1000}") long snapshotTtlMs
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.organizationRepository = organizationRepository;
+        this.apiUsageRecordRepository = apiUsageRecordRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.monthlyLimits = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(Duration.ofSeconds(planTtlSeconds))
+                .build();
+        this.monthSnapshots = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(Duration.ofMillis(snapshotTtlMs))
+                .build();
+        this.flushTimer = Timer.builder("neurogate.usage.flush.latency")
+                .description("Time to write counted usage to Redis")
+                .register(meterRegistry);
+        this.flushFailures = Counter.builder("neurogate.usage.flush.failures")
+                .description("Usage flushes that failed and were retried")
+                .register(meterRegistry);
+        TimeGauge.builder("neurogate.usage.flush.lag", counters,
+                        TimeUnit.NANOSECONDS, c -> c.pendingAgeNanos(System.nanoTime()))
+                .description("Age of the oldest usage count not yet written to Redis")
+                .register(meterRegistry);
+    }
+
     public void enforceMonthlyLimit(String orgId) {
         long current = getCurrentOrgMonthRequests(orgId);
         long limit = resolveMonthlyLimit(orgId);
@@ -59,32 +156,89 @@ public class UsageTracker {
     }
 
     public void trackRequest(UUID apiKeyId, String orgId) {
-        LocalDate today = LocalDate.now(ZoneOffset.UTC);
-        String month = YearMonth.from(today).toString();
-
-        String requestKey = requestDayKey(orgId, apiKeyId, today);
-        redisTemplate.opsForValue().increment(requestKey, 1);
-        redisTemplate.expire(requestKey, Duration.ofDays(45));
-
-        String orgMonthKey = orgMonthKey(orgId, month);
-        redisTemplate.opsForValue().increment(orgMonthKey, 1);
-        redisTemplate.expire(orgMonthKey, Duration.ofDays(45));
+        counters.addRequest(orgId, apiKeyId, LocalDate.now(ZoneOffset.UTC));
     }
 
     public void trackTokenAndCost(UUID apiKeyId, String orgId, int tokenCount, BigDecimal costUsd) {
-        LocalDate today = LocalDate.now(ZoneOffset.UTC);
-        String tokenKey = tokenDayKey(orgId, apiKeyId, today);
-        String costKey = costDayKey(orgId, apiKeyId, today);
+        double cost = costUsd != null && costUsd.compareTo(BigDecimal.ZERO) > 0 ? costUsd.doubleValue() : 0;
+        if (tokenCount > 0 || cost > 0) {
+            counters.addTokensAndCost(orgId, apiKeyId, LocalDate.now(ZoneOffset.UTC), tokenCount, cost);
+        }
+    }
+
+    /**
+     * Write the usage counted since the previous flush to Redis.
+     */
+    @Scheduled(fixedDelayString = "${neurogate.usage.flush-interval-ms:250}")
+    public void flush() {
+        UsageCounters.Drain drain = counters.drain(LocalDate.now(ZoneOffset.UTC));
+        if (drain.deltas().isEmpty()) {
+            return;
+        }
 
-        if (tokenCount > 0) {
-            redisTemplate.opsForValue().increment(tokenKey, tokenCount);
-            redisTemplate.expire(tokenKey, Duration.ofDays(45));
+        Timer.Sample sample = Timer.start();
+        try {
+            writeDeltas(drain.deltas());
+            counters.markFlushed(drain);
+        } catch (RuntimeException e) {
+            counters.restore(drain);
+            flushFailures.increment();
+            log.warn("Failed to flush usage of {} keys to Redis, retrying on next flush: {}",
+                    drain.deltas().size(), e.getMessage());
+        } finally {
+            sample.stop(flushTimer);
         }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
 
-        if (costUsd != null && costUsd.compareTo(BigDecimal.ZERO) > 0) {
-            redisTemplate.opsForValue().increment(costKey, costUsd.doubleValue());
-            redisTemplate.expire(costKey, Duration.ofDays(45));
+    private void writeDeltas(List<UsageCounters.Delta> deltas) {
+        Map<String, Long> orgMonthRequests = new HashMap<>();
+        Map<LocalDate, Set<String>> dayOrgs = new HashMap<>();
+        for (UsageCounters.Delta delta : deltas) {
+            UsageCounters.DayKey key = delta.key();
+            dayOrgs.computeIfAbsent(key.day(), day -> new HashSet<>()).add(key.orgId());
+            if (delta.requests() > 0) {
+                String month = YearMonth.from(key.day()).toString();
+                orgMonthRequests.merge(orgMonthKey(key.orgId(), month), delta.requests(), Long::sum);
+            }
         }
+
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                for (UsageCounters.Delta delta : deltas) {
+                    UsageCounters.DayKey key = delta.key();
+                    String dayKey = dayUsageKey(key.orgId(), key.day());
+                    if (delta.requests() > 0) {
+                        ops.opsForHash().increment(dayKey, key.apiKeyId() + REQUESTS_FIELD, delta.requests());
+                    }
+                    if (delta.tokens() > 0) {
+                        ops.opsForHash().increment(dayKey, key.apiKeyId() + TOKENS_FIELD, delta.tokens());
+                    }
+                    if (delta.costUsd() > 0) {
+                        ops.opsForHash().increment(dayKey, key.apiKeyId() + COST_FIELD, delta.costUsd());
+                    }
+                }
+                dayOrgs.forEach((day, orgIds) -> {
+                    for (String orgId : orgIds) {
+                        ops.expire(dayUsageKey(orgId, day), USAGE_KEY_TTL);
+                    }
+                    ops.opsForSet().add(dayOrgsKey(day), orgIds.toArray(String[]::new));
+                    ops.expire(dayOrgsKey(day), USAGE_KEY_TTL);
+                });
+                orgMonthRequests.forEach((orgMonthKey, requests) -> {
+                    ops.opsForValue().increment(orgMonthKey, requests);
+                    ops.expire(orgMonthKey, USAGE_KEY_TTL);
+                });
+                return null;
+            }
+        });
     }
 
     public CurrentUsage getCurrentUsage(String orgId) {
@@ -109,18 +263,11 @@ public class UsageTracker {
 
         LocalDate today = LocalDate.now(ZoneOffset.UTC);
         if (!today.isBefore(from) && !today.isAfter(to)) {
-            Set<String> requestKeys = redisTemplate.keys("usage:request:" + orgId + ":*:" + today);
-            if (requestKeys != null && !requestKeys.isEmpty()) {
-                long dayRequests = requestKeys.stream().mapToLong(this::safeLongValue).sum();
-                long dayTokens = requestKeys.stream()
-                        .map(key -> key.replace("usage:request:", "usage:token:"))
-                        .mapToLong(this::safeLongValue)
-                        .sum();
-                BigDecimal dayCost = requestKeys.stream()
-                        .map(key -> key.replace("usage:request:", "usage:cost:"))
-                        .map(this::safeDecimalValue)
-                        .reduce(BigDecimal.ZERO, BigDecimal::add);
-                usageByDay.put(today, new DailyUsage(today, dayRequests, dayTokens, dayCost));
+            Map<Object, Object> fields = redisTemplate.opsForHash().entries(dayUsageKey(orgId, today));
+            if (!fields.isEmpty()) {
+                UsageRow total = new UsageRow();
+                fields.forEach((field, value) -> total.add(field.toString(), value.toString()));
+                usageByDay.put(today, new DailyUsage(today, total.requests, total.tokens, total.cost));
             }
         }
 
@@ -145,58 +292,156 @@ public class UsageTracker {
     @Transactional
     public void rollupDailyUsageToPostgres() {
         LocalDate day = LocalDate.now(ZoneOffset.UTC).minusDays(1);
-        Set<String> requestKeys = redisTemplate.keys("usage:request:*:*:" + day);
-        if (requestKeys == null || requestKeys.isEmpty()) {
-            return;
+        long started = System.nanoTime();
+        int rows = rollupDay(day);
+        if (scanLegacyKeys) {
+            rows += rollupLegacyKeys(day);
         }
+        log.info("Rolled up usage of {} API keys for {} in {} ms",
+                rows, day, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
 
-        for (String requestKey : requestKeys) {
-            String[] parts = requestKey.split(":");
-            if (parts.length != 5) {
-                continue;
+    /**
+     * Upsert a day's usage hashes, a page of orgs at a time.
+     *
+     * @return number of rows written
+     */
+    int rollupDay(LocalDate day) {
+        int rows = 0;
+        List<String> orgIds = new ArrayList<>(ROLLUP_PAGE_SIZE);
+        ScanOptions options = ScanOptions.scanOptions().count(ROLLUP_PAGE_SIZE).build();
+        try (Cursor<String> cursor = redisTemplate.opsForSet().scan(dayOrgsKey(day), options)) {
+            while (cursor.hasNext()) {
+                orgIds.add(cursor.next());
+                if (orgIds.size() == ROLLUP_PAGE_SIZE) {
+                    rows += rollupOrgs(orgIds, day);
+                    orgIds.clear();
+                }
             }
+        }
+        if (!orgIds.isEmpty()) {
+            rows += rollupOrgs(orgIds, day);
+        }
+        return rows;
+    }
 
-            String orgId = parts[2];
-            String keyIdRaw = parts[3];
-            String dateRaw = parts[4];
+    private int rollupOrgs(List<String> orgIds, LocalDate day) {
+        List<Object> hashes = redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                for (String orgId : orgIds) {
+                    ops.opsForHash().entries(dayUsageKey(orgId, day));
+                }
+                return null;
+            }
+        });
 
-            if (!StringUtils.hasText(orgId) || !StringUtils.hasText(keyIdRaw)) {
+        Map<UsageCounters.DayKey, UsageRow> rows = new HashMap<>();
+        for (int i = 0; i < orgIds.size() && i < hashes.size(); i++) {
+            if (!(hashes.get(i) instanceof Map<?, ?> fields)) {
                 continue;
             }
+            String orgId = orgIds.get(i);
+            fields.forEach((field, value) -> {
+                String name = field.toString();
+                int separator = name.lastIndexOf(':');
+                UUID apiKeyId = parseKeyId(separator > 0 ? name.substring(0, separator) : "");
+                if (apiKeyId != null) {
+                    rows.computeIfAbsent(new UsageCounters.DayKey(orgId, apiKeyId, day), key -> new UsageRow())
+                            .add(name, value.toString());
+                }
+            });
+        }
+        return upsert(rows);
+    }
 
-            LocalDate usageDate;
-            UUID apiKeyId;
-            try {
-                apiKeyId = UUID.fromString(keyIdRaw);
-                usageDate = LocalDate.parse(dateRaw);
-            } catch (Exception ex) {
+    /**
+     * Upsert the per-key string counters of a day written before the hash layout, found
+     * with a cursor SCAN of the keyspace.
+     *
+     * @return number of rows written
+     */
+    int rollupLegacyKeys(LocalDate day) {
+        int rows = 0;
+        List<String> requestKeys = new ArrayList<>(ROLLUP_PAGE_SIZE);
+        ScanOptions options = ScanOptions.scanOptions()
+                .match(LEGACY_REQUEST_PREFIX + "*:*:" + day)
+                .count(1000)
+                .build();
+        try (Cursor<String> cursor = redisTemplate.scan(options)) {
+            while (cursor.hasNext()) {
+                requestKeys.add(cursor.next());
+                if (requestKeys.size() == ROLLUP_PAGE_SIZE) {
+                    rows += rollupLegacyPage(requestKeys, day);
+                    requestKeys.clear();
+                }
+            }
+        }
+        if (!requestKeys.isEmpty()) {
+            rows += rollupLegacyPage(requestKeys, day);
+        }
+        return rows;
+    }
+
+    private int rollupLegacyPage(List<String> requestKeys, LocalDate day) {
+        List<String> keys = new ArrayList<>(requestKeys.size() * 3);
+        for (String requestKey : requestKeys) {
+            keys.add(requestKey);
+            keys.add(requestKey.replace(LEGACY_REQUEST_PREFIX, "usage:token:"));
+            keys.add(requestKey.replace(LEGACY_REQUEST_PREFIX, "usage:cost:"));
+        }
+        List<String> values = redisTemplate.opsForValue().multiGet(keys);
+        if (values == null) {
+            return 0;
+        }
+
+        Map<UsageCounters.DayKey, UsageRow> rows = new HashMap<>();
+        for (int i = 0; i < requestKeys.size(); i++) {
+            String[] parts = requestKeys.get(i).split(":");
+            if (parts.length != 5 || !StringUtils.hasText(parts[2])) {
+                continue;
+            }
+            UUID apiKeyId = parseKeyId(parts[3]);
+            if (apiKeyId == null) {
                 continue;
             }
+            UsageRow row = rows.computeIfAbsent(new UsageCounters.DayKey(parts[2], apiKeyId, day),
+                    key -> new UsageRow());
+            row.add(REQUESTS_FIELD, values.get(i * 3));
+            row.add(TOKENS_FIELD, values.get(i * 3 + 1));
+            row.add(COST_FIELD, values.get(i * 3 + 2));
+        }
+        return upsert(rows);
+    }
 
-            long requests = safeLongValue(requestKey);
-            long tokens = safeLongValue(requestKey.replace("usage:request:", "usage:token:"));
-            BigDecimal cost = safeDecimalValue(requestKey.replace("usage:request:", "usage:cost:"));
-
-            ApiUsageRecord record = apiUsageRecordRepository.findByOrgIdAndApiKeyIdAndUsageDate(orgId, apiKeyId, usageDate)
-                    .orElseGet(() -> ApiUsageRecord.builder()
-                            .orgId(orgId)
-                            .apiKeyId(apiKeyId)
-                            .usageDate(usageDate)
-                            .requestCount(0L)
-                            .tokenCount(0L)
-                            .costUsd(BigDecimal.ZERO)
-                            .build());
-
-            record.setRequestCount(record.getRequestCount() + requests);
-            record.setTokenCount(record.getTokenCount() + tokens);
-            record.setCostUsd(record.getCostUsd().add(cost));
-            apiUsageRecordRepository.save(record);
+    private int upsert(Map<UsageCounters.DayKey, UsageRow> rows) {
+        if (rows.isEmpty()) {
+            return 0;
         }
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> batch = new ArrayList<>(rows.size());
+        rows.forEach((key, row) -> batch.add(new Object[]{
+                UUID.randomUUID(), key.orgId(), key.apiKeyId(), Date.valueOf(key.day()),
+                row.requests, row.tokens, row.cost, now, now}));
+        jdbcTemplate.batchUpdate(UPSERT_SQL, batch);
+        return batch.size();
     }
 
+    // Snapshot of the Redis count plus the requests counted here since
     private long getCurrentOrgMonthRequests(String orgId) {
-        String month = YearMonth.now(ZoneOffset.UTC).toString();
-        String value = redisTemplate.opsForValue().get(orgMonthKey(orgId, month));
+        YearMonth month = YearMonth.now(ZoneOffset.UTC);
+        MonthSnapshot snapshot = monthSnapshots.get(new OrgMonth(orgId, month), key -> {
+            // Read first: a flush racing the GET is counted twice, never missed
+            long flushed = counters.flushed(orgId, month);
+            return new MonthSnapshot(readOrgMonthRequests(orgId, month), flushed);
+        });
+        return snapshot.requests() + counters.recorded(orgId, month) - snapshot.flushed();
+    }
+
+    private long readOrgMonthRequests(String orgId, YearMonth month) {
+        String value = redisTemplate.opsForValue().get(orgMonthKey(orgId, month.toString()));
         if (!StringUtils.hasText(value)) {
             return 0L;
         }
@@ -208,6 +453,10 @@ public class UsageTracker {
     }
 
     private long resolveMonthlyLimit(String orgId) {
+        return monthlyLimits.get(orgId, this::loadMonthlyLimit);
+    }
+
+    private long loadMonthlyLimit(String orgId) {
         Organization.Plan plan = organizationRepository.findById(orgId)
                 .map(Organization::getPlan)
                 .orElse(Organization.Plan.FREE);
@@ -226,44 +475,61 @@ public class UsageTracker {
         return Duration.ofSeconds(Math.max(seconds, 60));
     }
 
-    private long safeLongValue(String key) {
-        String value = redisTemplate.opsForValue().get(key);
-        if (!StringUtils.hasText(value)) {
-            return 0L;
-        }
+    private static UUID parseKeyId(String value) {
         try {
-            return Long.parseLong(value.split("\\.")[0]);
-        } catch (NumberFormatException ex) {
-            return 0L;
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException ex) {
+            return null;
         }
     }
 
-    private BigDecimal safeDecimalValue(String key) {
-        String value = redisTemplate.opsForValue().get(key);
-        if (!StringUtils.hasText(value)) {
-            return BigDecimal.ZERO;
-        }
-        try {
-            return new BigDecimal(value);
-        } catch (NumberFormatException ex) {
-            return BigDecimal.ZERO;
-        }
+    private String dayUsageKey(String orgId, LocalDate date) {
+        return DAY_USAGE_KEY.formatted(orgId, date);
     }
 
-    private String requestDayKey(String orgId, UUID apiKeyId, LocalDate date) {
-        return REQUEST_DAY_KEY.formatted(orgId, apiKeyId, date);
+    private String dayOrgsKey(LocalDate date) {
+        return DAY_ORGS_KEY.formatted(date);
     }
 
-    private String tokenDayKey(String orgId, UUID apiKeyId, LocalDate date) {
-        return TOKEN_DAY_KEY.formatted(orgId, apiKeyId, date);
+    private String orgMonthKey(String orgId, String month) {
+        return ORG_MONTH_KEY.formatted(orgId, month);
     }
 
-    private String costDayKey(String orgId, UUID apiKeyId, LocalDate date) {
-        return COST_DAY_KEY.formatted(orgId, apiKeyId, date);
+    private record OrgMonth(String orgId, YearMonth month) {
     }
 
-    private String orgMonthKey(String orgId, String month) {
-        return ORG_MONTH_KEY.formatted(orgId, month);
+    /**
+     * Usage of one API key on one day, summed from its Redis counters.
+     */
+    private static final class UsageRow {
+        long requests;
+        long tokens;
+        BigDecimal cost = BigDecimal.ZERO;
+
+        // Unparseable values count as zero
+        void add(String field, String value) {
+            if (!StringUtils.hasText(value)) {
+                return;
+            }
+            try {
+                if (field.endsWith(REQUESTS_FIELD)) {
+                    requests += Long.parseLong(value.split("\\.")[0]);
+                } else if (field.endsWith(TOKENS_FIELD)) {
+                    tokens += Long.parseLong(value.split("\\.")[0]);
+                } else if (field.endsWith(COST_FIELD)) {
+                    cost = cost.add(new BigDecimal(value));
+                }
+            } catch (NumberFormatException ex) {
+                // Skip the value
+            }
+        }
+    }
+
+    /**
+     * The org's request count in Redis, and how many of this instance's requests had
+     * been flushed when it was read.
+     */
+    private record MonthSnapshot(long requests, long flushed) {
     }
 
     public record CurrentUsage(
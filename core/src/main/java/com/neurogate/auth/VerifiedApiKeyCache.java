@@ -0,0 +1,126 @@
+package com.neurogate.auth;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * API keys verified recently, so a key is matched against its bcrypt hash once per TTL
+ * instead of on every request.
+ *
+ * <p>Entries are keyed by an HMAC-SHA256 of the raw key under a secret drawn per
+ * process: raw keys are never held, and digests cannot be computed, let alone collided,
+ * outside the process. A key's expiry is checked on every hit. Revoking a key
+ * invalidates its entry on this instance; other instances keep accepting it until
+ * their entry expires, so the TTL bounds how long a revoked key stays usable.</p>
+ *
+ * <p>Hit rate is exported as the {@code cache.gets} metrics of the {@code auth.keys}
+ * cache.</p>
+ */
+@Slf4j
+@Component
+public class VerifiedApiKeyCache {
+
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+
+    private final boolean enabled;
+    private final Cache<Digest, ApiKeyService.ValidatedApiKey> keys;
+    private final ThreadLocal<Mac> macs;
+
+    public VerifiedApiKeyCache(
+            MeterRegistry meterRegistry,
+            @Value("${neurogate.auth.key-cache.enabled:true}") boolean enabled,
+            @Value("${neurogate.auth.key-cache.max-entries:100000}") long maxEntries,
+            @Value("${neurogate.auth.key-cache.ttl-seconds:60}") long ttlSeconds
+    ) {
+        this.enabled = enabled;
+        this.keys = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, keys, "auth.keys");
+
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        SecretKeySpec macKey = new SecretKeySpec(secret, MAC_ALGORITHM);
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(MAC_ALGORITHM);
+                mac.init(macKey);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(MAC_ALGORITHM + " is not available", e);
+            }
+        });
+        log.info("Verified API key cache {} (max {} entries, ttl {}s)",
+                enabled ? "enabled" : "disabled", maxEntries, ttlSeconds);
+    }
+
+    /**
+     * The key verified for this raw key, unless it has expired since.
+     */
+    public Optional<ApiKeyService.ValidatedApiKey> get(String rawKey, Instant now) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        Digest digest = digest(rawKey);
+        ApiKeyService.ValidatedApiKey key = keys.getIfPresent(digest);
+        if (key == null) {
+            return Optional.empty();
+        }
+        if (key.expiresAt() != null && key.expiresAt().isBefore(now)) {
+            keys.invalidate(digest);
+            return Optional.empty();
+        }
+        return Optional.of(key);
+    }
+
+    public void put(String rawKey, ApiKeyService.ValidatedApiKey key) {
+        if (enabled) {
+            keys.put(digest(rawKey), key);
+        }
+    }
+
+    /**
+     * Drop the entries of a revoked key. Scans the cache: revocations are rare.
+     */
+    public void invalidate(UUID keyId) {
+        keys.asMap().values().removeIf(key -> key.keyId().equals(keyId));
+    }
+
+    public void invalidateAll() {
+        keys.invalidateAll();
+    }
+
+    /**
+     * Share of lookups answered from the cache.
+     */
+    public double hitRate() {
+        return keys.stats().hitRate();
+    }
+
+    // First 128 bits of the MAC
+    private Digest digest(String rawKey) {
+        ByteBuffer mac = ByteBuffer.wrap(macs.get().doFinal(rawKey.getBytes(StandardCharsets.UTF_8)));
+        return new Digest(mac.getLong(), mac.getLong());
+    }
+
+    private record Digest(long high, long low) {
+    }
+}
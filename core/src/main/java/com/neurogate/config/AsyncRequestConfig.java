@@ -0,0 +1,41 @@
+package com.neurogate.config;
+
+import io.micrometer.context.ContextRegistry;
+import io.micrometer.context.integration.Slf4jThreadLocalAccessor;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import reactor.core.publisher.Hooks;
+
+/**
+ * Support for completions served asynchronously from a Reactor pipeline.
+ *
+ * <p>MDC entries under {@link #MDC_KEYS} are carried in the Reactor context under
+ * {@link Slf4jThreadLocalAccessor#KEY} and, with automatic context propagation, restored
+ * on whichever thread handles a signal and removed again afterwards. The servlet async
+ * timeout is set explicitly instead of inheriting the container default (30s on Tomcat),
+ * which is shorter than one retried provider call.</p>
+ */
+@Configuration
+@RequiredArgsConstructor
+public class AsyncRequestConfig implements WebMvcConfigurer {
+
+    public static final String[] MDC_KEYS = {"traceId", "sessionId"};
+
+    private static final long ASYNC_TIMEOUT_MARGIN_MS = 5_000;
+
+    private final NeuroGateProperties properties;
+
+    @PostConstruct
+    void enableContextPropagation() {
+        ContextRegistry.getInstance().registerThreadLocalAccessor(new Slf4jThreadLocalAccessor(MDC_KEYS));
+        Hooks.enableAutomaticContextPropagation();
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setDefaultTimeout(properties.getRouter().getRequestTimeoutMs() + ASYNC_TIMEOUT_MARGIN_MS);
+    }
+}
@@ -0,0 +1,50 @@
+package com.neurogate.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neurogate.router.cache.codec.BinaryChatResponseCodec;
+import com.neurogate.router.cache.codec.ChatResponseCodec;
+import com.neurogate.router.cache.codec.JsonChatResponseCodec;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
+
+/**
+ * Configuration for the response cache codec and the byte-valued Redis template
+ * used by the L2 cache tier.
+ */
+@Slf4j
+@Configuration
+@RequiredArgsConstructor
+public class CacheConfig {
+
+    private final NeuroGateProperties properties;
+
+    @Bean
+    public ChatResponseCodec chatResponseCodec(ObjectMapper objectMapper) {
+        NeuroGateProperties.Cache cache = properties.getCache();
+        ChatResponseCodec codec = switch (cache.getCodec().toLowerCase()) {
+            case "json" -> new JsonChatResponseCodec(objectMapper);
+            case "binary" -> new BinaryChatResponseCodec(objectMapper,
+                    "lz4".equalsIgnoreCase(cache.getCompression()),
+                    cache.getCompressionThresholdBytes());
+            default -> throw new IllegalArgumentException("Unknown cache codec: " + cache.getCodec());
+        };
+        log.info("Response cache codec: {}", codec.name());
+        return codec;
+    }
+
+    @Bean
+    public RedisTemplate<String, byte[]> cacheRedisTemplate(RedisConnectionFactory connectionFactory) {
+        RedisTemplate<String, byte[]> template = new RedisTemplate<>();
+        template.setConnectionFactory(connectionFactory);
+        template.setKeySerializer(StringRedisSerializer.UTF_8);
+        template.setValueSerializer(RedisSerializer.byteArray());
+        template.setEnableDefaultSerializer(false);
+        return template;
+    }
+}
@@ -3,6 +3,8 @@ package com.neurogate.config;
 import com.neurogate.config.model.CostEstimate;
 import com.neurogate.config.model.EstimateRequest;
 import com.neurogate.config.model.ModelInfo;
+import com.neurogate.router.provider.MultiProviderRouter;
+import com.neurogate.router.provider.RoutingTable;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -14,6 +16,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -29,6 +32,7 @@ import java.util.Map;
 public class ModelsController {
 
     private final PricingConfig pricingConfig;
+    private final MultiProviderRouter multiProviderRouter;
 
     @Operation(summary = "List all models", description = "Get all available models with their information")
     @ApiResponse(responseCode = "200", description = "Models retrieved")
@@ -50,6 +54,44 @@ public class ModelsController {
         ));
     }
 
+    @Operation(summary = "List model routes", description = "Get the routing table: direct provider and fallback chain per model")
+    @ApiResponse(responseCode = "200", description = "Routes retrieved")
+    @GetMapping("/routes")
+    public ResponseEntity<Map<String, Object>> listRoutes() {
+        RoutingTable table = multiProviderRouter.getRoutingTable();
+        List<Map<String, Object>> routes = table.models().stream()
+                .sorted()
+                .map(model -> toRouteView(table.route(model)))
+                .toList();
+
+        return ResponseEntity.ok(Map.of(
+                "object", "list",
+                "built_at", table.builtAt().toString(),
+                "data", routes
+        ));
+    }
+
+    @Operation(summary = "Rebuild model routes",
+            description = "Rebuild the routing table from the providers' current models, e.g. after a configuration change")
+    @ApiResponse(responseCode = "200", description = "Routes rebuilt")
+    @PostMapping("/routes/refresh")
+    public ResponseEntity<Map<String, Object>> refreshRoutes() {
+        RoutingTable table = multiProviderRouter.refreshRoutingTable();
+        return ResponseEntity.ok(Map.of(
+                "built_at", table.builtAt().toString(),
+                "models", table.models().size()
+        ));
+    }
+
+    @Operation(summary = "Get model route", description = "Get the direct provider and fallback chain for a model")
+    @ApiResponse(responseCode = "200", description = "Route retrieved")
+    @GetMapping("/{modelId}/routes")
+    public ResponseEntity<Map<String, Object>> getModelRoute(
+            @Parameter(description = "Model ID") @PathVariable String modelId) {
+
+        return ResponseEntity.ok(toRouteView(multiProviderRouter.getRoutingTable().route(modelId)));
+    }
+
     @Operation(summary = "Get model details", description = "Get detailed information about a specific model")
     @ApiResponse(responseCode = "200", description = "Model found")
     @ApiResponse(responseCode = "404", description = "Model not found")
@@ -188,6 +230,18 @@ public class ModelsController {
         return ResponseEntity.ok(estimates);
     }
 
+    private Map<String, Object> toRouteView(RoutingTable.Route route) {
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("model", route.model());
+        view.put("direct_provider", route.direct() != null ? route.direct().getName() : null);
+        view.put("fallbacks", route.candidates().stream()
+                .map(candidate -> Map.of(
+                        "provider", candidate.provider().getName(),
+                        "model", candidate.model()))
+                .toList());
+        return view;
+    }
+
     /**
      * Rough token estimation: ~4 characters per token for English.
      */
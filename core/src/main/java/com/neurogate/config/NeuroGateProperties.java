@@ -15,6 +15,10 @@ public class NeuroGateProperties {
     private Router router = new Router();
     private RateLimit rateLimit = new RateLimit();
     private Consensus consensus = new Consensus();
+    private Cache cache = new Cache();
+    private Upstream upstream = new Upstream();
+    private Streaming streaming = new Streaming();
+    private NeuroGuard neuroguard = new NeuroGuard();
 
     @Data
     public static class Qdrant {
@@ -50,6 +54,86 @@ public class NeuroGateProperties {
         private int cacheTtlHours = 24;
         private java.util.List<String> voters = new java.util.ArrayList<>(
                 java.util.List.of("gpt-4", "claude-3-opus", "gemini-pro"));
+        private Adaptive adaptive = new Adaptive();
+        private Hedging hedging = new Hedging();
+        /**
+         * Upper bound on a non-streaming completion, including retries and fallbacks.
+         * Provider calls time out after 30s and are retried up to three times, so this
+         * leaves room for about one full fallback. The servlet async timeout is set a
+         * little above it, so the gateway answers 504 before the container gives up.
+         */
+        private long requestTimeoutMs = 120_000;
+
+        /**
+         * Latency-aware provider selection. Per provider and model, the router keeps an
+         * EWMA of latency and error rate plus the in-flight count, and orders fallback
+         * candidates by expected latency instead of static priority.
+         */
+        @Data
+        public static class Adaptive {
+            private boolean enabled = true;
+            /**
+             * "p2c" (power of two choices) or "least-latency".
+             */
+            private Strategy strategy = Strategy.P2C;
+            /**
+             * EWMA weight of the newest sample.
+             */
+            private double alpha = 0.2;
+            /**
+             * Expected latency is multiplied by {@code 1 + errorPenalty * errorRate}.
+             */
+            private double errorPenalty = 4.0;
+            /**
+             * Models tracked per provider. Further models share one "other" entry, so
+             * client-supplied model names cannot add stats and gauges without bound.
+             */
+            private int maxModelsPerProvider = 64;
+            /**
+             * Per-model stats with no call for this long are dropped, with their gauges.
+             */
+            private long idleEvictionMs = 600_000;
+
+            public enum Strategy {
+                P2C,
+                LEAST_LATENCY
+            }
+        }
+
+        /**
+         * Tail-latency hedging on the direct provider call: when the primary has not
+         * answered within its observed latency quantile, the next-best provider is
+         * called as well and the first success wins.
+         */
+        @Data
+        public static class Hedging {
+            private boolean enabled = false;
+            /**
+             * Models to hedge; empty means every model.
+             */
+            private java.util.List<String> models = new java.util.ArrayList<>();
+            /**
+             * Tenants (org ids) to hedge; empty means every tenant.
+             */
+            private java.util.List<String> tenants = new java.util.ArrayList<>();
+            /**
+             * Latency quantile of the primary provider after which the hedge fires.
+             */
+            private double quantile = 0.95;
+            /**
+             * Successful samples needed before a provider's quantile is trusted.
+             */
+            private int minSamples = 20;
+            private long minDelayMs = 50;
+            /**
+             * Extra upstream calls allowed, as a fraction of hedge-eligible requests.
+             */
+            private double budgetRatio = 0.05;
+            /**
+             * Unused budget that may accumulate, in hedges.
+             */
+            private int budgetBurst = 10;
+        }
     }
 
     @Data
@@ -64,4 +148,145 @@ public class NeuroGateProperties {
     public static class Consensus {
         private String judgeModel = "gpt-4o";
     }
+
+    @Data
+    public static class Cache {
+        /**
+         * Response codec for the L1 and L2 tiers: "binary" or "json".
+         */
+        private String codec = "binary";
+        /**
+         * Compression for binary entries: "lz4" or "none".
+         */
+        private String compression = "lz4";
+        private int compressionThresholdBytes = 1024;
+        /**
+         * L1 (Caffeine) budget in encoded bytes.
+         */
+        private long l1MaxBytes = 64L * 1024 * 1024;
+        private WriteBehind writeBehind = new WriteBehind();
+        private Lookup lookup = new Lookup();
+        private LocalSemantic localSemantic = new LocalSemantic();
+
+        /**
+         * Asynchronous write-behind for the L2 (Redis), L3 (Qdrant) and L4 (S3) tiers.
+         */
+        @Data
+        public static class WriteBehind {
+            private boolean enabled = true;
+            private int queueCapacity = 10000;
+            private int batchSize = 64;
+            /**
+             * How long a partly filled batch waits for more writes before it is flushed.
+             */
+            private long lingerMs = 50;
+        }
+
+        /**
+         * Parallel, deadline-bounded probing of the remote cache tiers. When the cache
+         * budget elapses without a hit, the provider call starts speculatively and the
+         * first result (cache hit or provider response) wins.
+         */
+        @Data
+        public static class Lookup {
+            private boolean parallel = false;
+            private long budgetMs = 30;
+            private long l2DeadlineMs = 25;
+            private long l3DeadlineMs = 60;
+            private long l4DeadlineMs = 200;
+        }
+
+        /**
+         * In-process HNSW index holding the hottest semantic cache entries, consulted
+         * before Qdrant with the same {@code neurogate.qdrant.similarity-threshold}.
+         */
+        @Data
+        public static class LocalSemantic {
+            private boolean enabled = true;
+            /**
+             * Memory cap covering encoded responses plus vectors and graph links.
+             */
+            private long maxBytes = 32L * 1024 * 1024;
+            private long ttlSeconds = 600;
+            /**
+             * HNSW graph degree (M) and beam widths.
+             */
+            private int m = 16;
+            private int efConstruction = 100;
+            private int efSearch = 64;
+        }
+    }
+
+    /**
+     * HTTP clients used to call LLM providers. Each provider owns one long-lived
+     * WebClient backed by its own connection pool.
+     */
+    @Data
+    public static class Upstream {
+        private Pool pool = new Pool();
+        /**
+         * Per-provider overrides keyed by provider name (e.g. "anthropic"); unset
+         * providers use {@link #pool}.
+         */
+        private java.util.Map<String, Pool> providers = new java.util.HashMap<>();
+
+        public Pool poolFor(String provider) {
+            return providers.getOrDefault(provider, pool);
+        }
+
+        @Data
+        public static class Pool {
+            private int maxConnections = 200;
+            private int pendingAcquireMaxCount = 1000;
+            private long pendingAcquireTimeoutMs = 5000;
+            private long maxIdleTimeSeconds = 30;
+            private long maxLifeTimeSeconds = 300;
+            private long evictInBackgroundSeconds = 30;
+            private int connectTimeoutMs = 5000;
+            /**
+             * Negotiate HTTP/2 via ALPN on https upstreams, falling back to HTTP/1.1.
+             */
+            private boolean http2 = true;
+            private boolean keepAlive = true;
+        }
+    }
+
+    /**
+     * Post-processing of streamed responses ({@code StreamProcessorChain}).
+     */
+    @Data
+    public static class Streaming {
+        private Batching batching = new Batching();
+
+        /**
+         * Coalesce small deltas into fewer SSE chunks. A batch is emitted once it holds
+         * {@code maxChunks} chunks or {@code maxDelayMs} after its first chunk,
+         * whichever comes first.
+         */
+        @Data
+        public static class Batching {
+            private boolean enabled = false;
+            private int maxChunks = 8;
+            private long maxDelayMs = 20;
+        }
+    }
+
+    /**
+     * NeuroGuard prompt analysis.
+     */
+    @Data
+    public static class NeuroGuard {
+        private VerdictCache verdictCache = new VerdictCache();
+
+        /**
+         * Verdicts of recently analyzed messages, so a conversation resent every turn
+         * only has its new messages scanned.
+         */
+        @Data
+        public static class VerdictCache {
+            private boolean enabled = true;
+            private long maxEntries = 50_000;
+            private long ttlSeconds = 3600;
+        }
+    }
 }
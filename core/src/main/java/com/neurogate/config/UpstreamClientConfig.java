@@ -0,0 +1,35 @@
+package com.neurogate.config;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Metrics wiring for the per-provider upstream connection pools.
+ */
+@Configuration
+public class UpstreamClientConfig {
+
+    private static final String POOL_METRIC_PREFIX = "reactor.netty.connection.provider";
+
+    /**
+     * Reactor Netty tags pool meters with the pool {@code name}; each pool is named
+     * after its provider, so expose it under the {@code provider} tag used by the
+     * other upstream metrics.
+     */
+    @Bean
+    public MeterFilter upstreamPoolProviderTag() {
+        return new MeterFilter() {
+            @Override
+            public Meter.Id map(Meter.Id id) {
+                if (!id.getName().startsWith(POOL_METRIC_PREFIX)) {
+                    return id;
+                }
+                String pool = id.getTag("name");
+                return pool == null ? id : id.withTag(Tag.of("provider", pool));
+            }
+        };
+    }
+}
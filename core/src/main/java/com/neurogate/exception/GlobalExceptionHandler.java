@@ -13,6 +13,7 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 
 import java.time.Instant;
 import java.util.Map;
+import java.util.concurrent.TimeoutException;
 
 @Slf4j
 @RestControllerAdvice
@@ -45,6 +46,18 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(response);
     }
 
+    @ExceptionHandler(TimeoutException.class)
+    public ResponseEntity<ErrorResponse> handleTimeout(TimeoutException exception) {
+        ErrorResponse response = new ErrorResponse(
+                "provider_timeout",
+                NeuroGateException.ErrorCode.PROVIDER_TIMEOUT.getCode(),
+                "The request did not complete in time. Please retry later.",
+                traceId(),
+                Instant.now(),
+                Map.of());
+        return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body(response);
+    }
+
     @ExceptionHandler(NeuroGateException.class)
     public ResponseEntity<ErrorResponse> handleNeuroGateException(NeuroGateException exception) {
         return buildResponse(HttpStatus.BAD_REQUEST, exception);
@@ -120,6 +120,45 @@ public class NeuroGateMetrics {
         addCostSaved(baselineCost);
     }
 
+    /**
+     * Record a cache hit served by a specific tier (L1, L2, L3, L4)
+     */
+    public void recordCacheHit(String tier) {
+        recordCacheHit();
+        registry.counter("neurogate.cache.tier.hits", "tier", tier).increment();
+    }
+
+    /**
+     * Record the latency of a single cache tier probe
+     */
+    public void recordCacheTierLatency(String tier, boolean hit, long durationNanos) {
+        Timer.builder("neurogate.cache.tier.latency")
+                .description("Cache tier probe latency")
+                .tag("tier", tier)
+                .tag("outcome", hit ? "hit" : "miss")
+                .publishPercentileHistogram()
+                .register(registry)
+                .record(durationNanos, java.util.concurrent.TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Record which side won a cache lookup that raced a speculative provider call
+     *
+     * @param winner "cache" or "provider"
+     */
+    public void recordSpeculativeProviderCall(String winner) {
+        registry.counter("neurogate.cache.speculative", "winner", winner).increment();
+        log.debug("Speculative provider call recorded, winner: {}", winner);
+    }
+
+    /**
+     * Record a request that was collapsed onto an identical in-flight upstream call
+     */
+    public void recordCoalescedRequest() {
+        registry.counter("neurogate.cache.coalesced").increment();
+        log.debug("Coalesced request recorded");
+    }
+
     /**
      * Record a cache miss
      */
@@ -239,6 +278,16 @@ public class NeuroGateMetrics {
         log.warn("Provider failure recorded: {}", providerName);
     }
 
+    /**
+     * Record a hedging event on the direct provider path
+     *
+     * @param outcome "fired", "won", "wasted" or "budget_exhausted"
+     */
+    public void recordHedge(String outcome) {
+        registry.counter("neurogate.router.hedge", "outcome", outcome).increment();
+        log.debug("Hedge recorded, outcome: {}", outcome);
+    }
+
     /**
      * Phase 5: Record canary routing event
      */
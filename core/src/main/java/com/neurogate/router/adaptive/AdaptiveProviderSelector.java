@@ -0,0 +1,321 @@
+package com.neurogate.router.adaptive;
+
+import com.neurogate.config.NeuroGateProperties;
+import com.neurogate.router.provider.LLMProvider;
+import com.neurogate.router.provider.ProviderMetadata;
+import com.neurogate.router.provider.RoutingTable;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Latency-aware provider selection.
+ *
+ * <p>Every upstream call made by the router is tracked per provider and per model in
+ * a {@link ProviderStats}: latency and error-rate EWMAs plus the in-flight count. When
+ * several providers can serve a request, candidates are ranked by expected latency
+ * ({@link ProviderStats#expectedLatencyMs}) rather than static priority:</p>
+ * <ul>
+ *   <li>{@code least-latency} - all candidates in ascending expected latency</li>
+ *   <li>{@code p2c} - power of two choices: two random candidates are compared and
+ *       the better one goes first, the rest follow by expected latency. This spreads
+ *       load when several providers look equally fast.</li>
+ * </ul>
+ *
+ * <p>Stats are exported as {@code neurogate.routing.provider.latency},
+ * {@code neurogate.routing.provider.error.rate} and
+ * {@code neurogate.routing.provider.inflight} (tagged {@code provider} and
+ * {@code model}); the first choice of each ranking is counted in
+ * {@code neurogate.routing.decisions}.</p>
+ *
+ * <p>Model names come from clients, so per-model stats are bounded: each provider tracks
+ * at most {@code maxModelsPerProvider} models and counts the rest under
+ * {@value #OTHER_MODEL}, and stats idle for {@code idleEvictionMs} are dropped with
+ * their gauges.</p>
+ */
+@Component
+public class AdaptiveProviderSelector {
+
+    private static final double DEFAULT_PRIOR_LATENCY_MS = 1000.0;
+    private static final String UNKNOWN_MODEL = "unknown";
+    private static final String OTHER_MODEL = "other";
+
+    private final NeuroGateProperties.Router.Adaptive config;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Map<String, ModelStats>> byModel = new ConcurrentHashMap<>();
+    private final Map<String, ProviderStats> byProvider = new ConcurrentHashMap<>();
+
+    public AdaptiveProviderSelector(NeuroGateProperties properties, MeterRegistry meterRegistry) {
+        this.config = properties.getRouter().getAdaptive();
+        this.meterRegistry = meterRegistry;
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * Order fallback candidates for a request.
+     *
+     * @param candidates available providers with their equivalent models, in static
+     *                   priority order
+     * @return a new list, best candidate first (the input order when disabled)
+     */
+    public List<RoutingTable.Candidate> rank(List<RoutingTable.Candidate> candidates) {
+        int n = candidates.size();
+        if (!config.isEnabled() || n < 2) {
+            return candidates;
+        }
+
+        double[] scores = new double[n];
+        for (int i = 0; i < n; i++) {
+            RoutingTable.Candidate candidate = candidates.get(i);
+            scores[i] = stats(candidate.provider(), candidate.model())
+                    .expectedLatencyMs(config.getErrorPenalty());
+        }
+
+        // Insertion sort on indices: candidate lists are a handful of providers, and a
+        // stable sort keeps static priority as the tie-breaker
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            int j = i;
+            while (j > 0 && scores[order[j - 1]] > scores[i]) {
+                order[j] = order[j - 1];
+                j--;
+            }
+            order[j] = i;
+        }
+
+        if (config.getStrategy() == NeuroGateProperties.Router.Adaptive.Strategy.P2C) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int a = random.nextInt(n);
+            int b = random.nextInt(n - 1);
+            if (b >= a) {
+                b++;
+            }
+            int chosen = scores[b] < scores[a] ? b : a;
+            promote(order, chosen);
+        }
+
+        List<RoutingTable.Candidate> ranked = new ArrayList<>(n);
+        for (int index : order) {
+            ranked.add(candidates.get(index));
+        }
+        recordDecision(ranked.get(0).provider());
+        return ranked;
+    }
+
+    /**
+     * Run a blocking provider call, recording its latency and outcome.
+     */
+    public <T> T track(LLMProvider provider, String model, Supplier<T> call) {
+        Call tracked = begin(provider, model);
+        try {
+            T result = call.get();
+            tracked.complete(true);
+            return result;
+        } catch (RuntimeException | Error e) {
+            tracked.complete(false);
+            throw e;
+        }
+    }
+
+    /**
+     * Track a reactive provider call from subscription to completion. Cancelled calls
+     * release their in-flight slot without recording a sample; a cancel after the
+     * result has been recorded is ignored.
+     */
+    public <T> Mono<T> trackAsync(LLMProvider provider, String model, Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            Call tracked = begin(provider, model);
+            return call.get()
+                    .doOnSuccess(result -> tracked.complete(true))
+                    .doOnError(error -> tracked.complete(false))
+                    .doOnCancel(tracked::abandon);
+        });
+    }
+
+    /**
+     * Provider metadata enriched with the observed stats and current expected latency.
+     */
+    public ProviderMetadata describe(LLMProvider provider) {
+        ProviderMetadata metadata = provider.getMetadata();
+        ProviderStats stats = byProvider.get(provider.getName());
+        if (stats == null) {
+            return metadata;
+        }
+        return metadata.toBuilder()
+                .observedLatencyMs(stats.latencyMs())
+                .errorRate(stats.errorRate())
+                .inFlightRequests(stats.inFlight())
+                .expectedLatencyMs(stats.expectedLatencyMs(config.getErrorPenalty()))
+                .build();
+    }
+
+    /**
+     * Stats for a provider serving a specific model, created on first use. Models beyond
+     * the provider's {@code maxModelsPerProvider} share the {@value #OTHER_MODEL} stats.
+     */
+    public ProviderStats stats(LLMProvider provider, String model) {
+        if (model == null) {
+            model = UNKNOWN_MODEL;
+        }
+        Map<String, ModelStats> models = byModel.computeIfAbsent(provider.getName(), name -> new ConcurrentHashMap<>());
+        ModelStats stats = models.get(model);
+        if (stats != null) {
+            return stats.stats();
+        }
+        if (models.size() >= config.getMaxModelsPerProvider()) {
+            model = OTHER_MODEL;
+            stats = models.get(model);
+            if (stats != null) {
+                return stats.stats();
+            }
+        }
+        ProviderStats created = new ProviderStats(config.getAlpha(), priorLatencyMs(provider));
+        ModelStats entry = new ModelStats(created, new CopyOnWriteArrayList<>());
+        ModelStats existing = models.putIfAbsent(model, entry);
+        if (existing != null) {
+            return existing.stats();
+        }
+        registerGauges(provider.getName(), model, entry);
+        return created;
+    }
+
+    /**
+     * Drop per-model stats, and their gauges, that have had no call in flight or
+     * finished for {@code idleEvictionMs}.
+     */
+    @Scheduled(fixedDelayString = "${neurogate.router.adaptive.eviction-interval-ms:60000}")
+    public void evictIdle() {
+        evictIdle(System.nanoTime());
+    }
+
+    void evictIdle(long nowNanos) {
+        long idleNanos = TimeUnit.MILLISECONDS.toNanos(config.getIdleEvictionMs());
+        for (Map<String, ModelStats> models : byModel.values()) {
+            for (Map.Entry<String, ModelStats> entry : models.entrySet()) {
+                ProviderStats stats = entry.getValue().stats();
+                if (stats.inFlight() == 0 && nowNanos - stats.lastActivityNanos() >= idleNanos) {
+                    // Gauges first: a replacement entry can only be registered once this one
+                    // has left the map, and must not get these gauges back from the registry
+                    entry.getValue().gauges().forEach(meterRegistry::remove);
+                    models.remove(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+    }
+
+    private ProviderStats providerStats(LLMProvider provider) {
+        ProviderStats stats = byProvider.get(provider.getName());
+        if (stats != null) {
+            return stats;
+        }
+        return byProvider.computeIfAbsent(provider.getName(),
+                name -> new ProviderStats(config.getAlpha(), priorLatencyMs(provider)));
+    }
+
+    private Call begin(LLMProvider provider, String model) {
+        Call call = new Call(stats(provider, model), providerStats(provider), System.nanoTime());
+        call.begin();
+        return call;
+    }
+
+    private double priorLatencyMs(LLMProvider provider) {
+        long advertised = provider.getMetadata().getAvgLatencyMs();
+        return advertised > 0 ? advertised : DEFAULT_PRIOR_LATENCY_MS;
+    }
+
+    private static void promote(int[] order, int index) {
+        int position = 0;
+        while (order[position] != index) {
+            position++;
+        }
+        System.arraycopy(order, 0, order, 1, position);
+        order[0] = index;
+    }
+
+    private void recordDecision(LLMProvider provider) {
+        meterRegistry.counter("neurogate.routing.decisions",
+                "provider", provider.getName(),
+                "strategy", config.getStrategy().name().toLowerCase()).increment();
+    }
+
+    private void registerGauges(String provider, String model, ModelStats entry) {
+        ProviderStats stats = entry.stats();
+        entry.gauges().add(Gauge.builder("neurogate.routing.provider.latency", stats, ProviderStats::latencyMs)
+                .description("Observed upstream latency EWMA")
+                .baseUnit("milliseconds")
+                .tag("provider", provider)
+                .tag("model", model)
+                .register(meterRegistry));
+        entry.gauges().add(Gauge.builder("neurogate.routing.provider.error.rate", stats, ProviderStats::errorRate)
+                .description("Observed upstream error rate EWMA")
+                .tag("provider", provider)
+                .tag("model", model)
+                .register(meterRegistry));
+        entry.gauges().add(Gauge.builder("neurogate.routing.provider.inflight", stats, ProviderStats::inFlight)
+                .description("Upstream calls in flight")
+                .tag("provider", provider)
+                .tag("model", model)
+                .register(meterRegistry));
+    }
+
+    /**
+     * Stats for one provider and model, with the gauges exporting them
+     */
+    private record ModelStats(ProviderStats stats, List<Gauge> gauges) {
+    }
+
+    /**
+     * A tracked call, updating both the per-model and the per-provider stats. Only the
+     * first of {@link #complete} and {@link #abandon} counts: a reactive call can see a
+     * success and then a cancel, e.g. under {@code next()}.
+     */
+    private static final class Call {
+
+        private final ProviderStats modelStats;
+        private final ProviderStats providerStats;
+        private final long startNanos;
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        Call(ProviderStats modelStats, ProviderStats providerStats, long startNanos) {
+            this.modelStats = modelStats;
+            this.providerStats = providerStats;
+            this.startNanos = startNanos;
+        }
+
+        void begin() {
+            modelStats.begin();
+            providerStats.begin();
+        }
+
+        void complete(boolean success) {
+            if (finished.compareAndSet(false, true)) {
+                long latencyNanos = System.nanoTime() - startNanos;
+                modelStats.complete(latencyNanos, success);
+                providerStats.complete(latencyNanos, success);
+            }
+        }
+
+        void abandon() {
+            if (finished.compareAndSet(false, true)) {
+                modelStats.abandon();
+                providerStats.abandon();
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.neurogate.router.adaptive;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Live latency, load and error statistics for one provider (or provider and model).
+ *
+ * <p>All state is lock-free: the EWMAs are doubles stored as raw bits in
+ * {@link AtomicLong}s and updated with compare-and-set, so recording a response never
+ * blocks a concurrent routing decision. Until the first successful call the latency
+ * EWMA holds the prior passed at construction (the provider's advertised latency).</p>
+ *
+ * <p>The latencies of the last {@value #WINDOW} successful calls are also kept in a
+ * ring buffer for tail quantiles. A quantile is recomputed at most once every
+ * {@value #QUANTILE_REFRESH} samples and served from a snapshot in between.</p>
+ */
+public final class ProviderStats {
+
+    private static final int WINDOW = 256;
+    private static final int QUANTILE_REFRESH = 16;
+
+    private final double alpha;
+    private final AtomicLong latencyBits;
+    private final AtomicLong errorRateBits = new AtomicLong(Double.doubleToRawLongBits(0.0));
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong samples = new AtomicLong();
+    private final AtomicLong successes = new AtomicLong();
+    private final AtomicLongArray window = new AtomicLongArray(WINDOW);
+    private volatile Quantile quantile;
+    private volatile long lastActivityNanos = System.nanoTime();
+
+    /**
+     * @param alpha          EWMA weight of the newest sample, in (0, 1]
+     * @param priorLatencyMs latency assumed before the first sample
+     */
+    public ProviderStats(double alpha, double priorLatencyMs) {
+        if (alpha <= 0 || alpha > 1) {
+            throw new IllegalArgumentException("alpha must be in (0, 1]: " + alpha);
+        }
+        this.alpha = alpha;
+        this.latencyBits = new AtomicLong(Double.doubleToRawLongBits(priorLatencyMs));
+    }
+
+    /**
+     * Mark a call as started.
+     */
+    public void begin() {
+        inFlight.incrementAndGet();
+        lastActivityNanos = System.nanoTime();
+    }
+
+    /**
+     * Mark a call as finished and fold its outcome into the averages.
+     *
+     * @param latencyNanos time from {@link #begin()} to completion
+     * @param success      whether the call produced a response
+     */
+    public void complete(long latencyNanos, boolean success) {
+        inFlight.decrementAndGet();
+        lastActivityNanos = System.nanoTime();
+        samples.incrementAndGet();
+        // Failures are often fast (connection refused), so they only move the error rate
+        if (success) {
+            long sequence = successes.getAndIncrement();
+            window.set((int) (sequence % WINDOW), latencyNanos);
+            update(latencyBits, latencyNanos / 1_000_000.0, sequence == 0);
+        }
+        update(errorRateBits, success ? 0.0 : 1.0, false);
+    }
+
+    /**
+     * Mark a call as abandoned (e.g. cancelled) without recording a sample.
+     */
+    public void abandon() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Expected latency of the next call: the latency EWMA scaled by queueing behind
+     * in-flight calls and by the recent error rate.
+     *
+     * @param errorPenalty weight of the error rate
+     */
+    public double expectedLatencyMs(double errorPenalty) {
+        return latencyMs() * (1 + inFlight()) * (1 + errorPenalty * errorRate());
+    }
+
+    public double latencyMs() {
+        return Double.longBitsToDouble(latencyBits.get());
+    }
+
+    public double errorRate() {
+        return Double.longBitsToDouble(errorRateBits.get());
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public long samples() {
+        return samples.get();
+    }
+
+    public long successes() {
+        return successes.get();
+    }
+
+    /**
+     * {@link System#nanoTime()} of the last call started or finished, or of construction.
+     */
+    public long lastActivityNanos() {
+        return lastActivityNanos;
+    }
+
+    /**
+     * Latency quantile over the recent successful calls.
+     *
+     * @param q quantile in [0, 1], e.g. 0.95
+     * @return the quantile in milliseconds, or the latency EWMA before the first success
+     */
+    public double latencyQuantileMs(double q) {
+        long count = successes.get();
+        if (count == 0) {
+            return latencyMs();
+        }
+        Quantile cached = quantile;
+        if (cached != null && cached.q() == q && count - cached.atCount() < QUANTILE_REFRESH) {
+            return cached.valueMs();
+        }
+
+        int size = (int) Math.min(count, WINDOW);
+        long[] sorted = new long[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = window.get(i);
+        }
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(q * size) - 1;
+        double valueMs = sorted[Math.max(0, Math.min(size - 1, rank))] / 1_000_000.0;
+        quantile = new Quantile(q, count, valueMs);
+        return valueMs;
+    }
+
+    private void update(AtomicLong bits, double sample, boolean first) {
+        while (true) {
+            long current = bits.get();
+            double average = Double.longBitsToDouble(current);
+            double next = first ? sample : average + alpha * (sample - average);
+            if (bits.compareAndSet(current, Double.doubleToRawLongBits(next))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * A cached quantile and the success count it was computed at
+     */
+    private record Quantile(double q, long atCount, double valueMs) {
+    }
+}
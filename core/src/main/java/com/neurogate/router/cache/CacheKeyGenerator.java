@@ -1,10 +1,13 @@
 package com.neurogate.router.cache;
 
 import com.neurogate.sentinel.model.ChatRequest;
+import com.neurogate.sentinel.model.Message;
+import com.neurogate.tenant.TenantContext;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 /**
  * Optimized cache key generation for request caching.
@@ -27,15 +30,29 @@ public class CacheKeyGenerator {
     private static final long SEED = 0x9747b28cL;
 
     /**
-     * Generate a cache key from a chat request.
+     * Generate a cache key from a chat request, scoped to the current thread's org.
      *
      * @param request the chat request
      * @return the cache key
      */
     public String generate(ChatRequest request) {
+        return generate(request, TenantContext.getCurrentOrgIdOrDefault());
+    }
+
+    /**
+     * Generate a cache key from a chat request, scoped to an org.
+     *
+     * <p>The org id is part of the key in plain text rather than the hash, so two orgs
+     * can never share an entry, even on a hash collision.</p>
+     *
+     * @param request the chat request
+     * @param orgId   org the response is cached for
+     * @return the cache key
+     */
+    public String generate(ChatRequest request, String orgId) {
         String content = buildCacheContent(request);
         long hash = murmurHash64(content);
-        return KEY_PREFIX + Long.toHexString(hash);
+        return KEY_PREFIX + orgId + ":" + Long.toHexString(hash);
     }
 
     /**
@@ -51,27 +68,57 @@ public class CacheKeyGenerator {
 
     /**
      * Build the content string for caching.
-     * Includes model and messages to ensure cache correctness.
+     *
+     * <p>Includes every request field that changes the output. Each value is written
+     * with its length, so no two different requests produce the same string: a system
+     * message "A" followed by a user message "B" differs from one user message "A B".</p>
      */
     private String buildCacheContent(ChatRequest request) {
         StringBuilder sb = new StringBuilder();
 
-        // Include model in cache key
-        if (request.getModel() != null) {
-            sb.append("model:").append(request.getModel()).append("|");
+        field(sb, "model", request.getModel());
+        field(sb, "temp", request.getTemperature());
+        field(sb, "max", request.getMaxTokens());
+        field(sb, "top_p", request.getTopP());
+        field(sb, "freq", request.getFrequencyPenalty());
+        field(sb, "pres", request.getPresencePenalty());
+        field(sb, "stop", request.getStop());
+        field(sb, "intent", request.getIntentOverride());
+        field(sb, "rag", request.getRagEnabled());
+        field(sb, "rag_options", request.getRagOptions());
+
+        ChatRequest.ResponseFormat format = request.getResponseFormat();
+        if (format != null) {
+            field(sb, "format", format.getType());
+            field(sb, "schema", format.getJsonSchema());
         }
 
-        // Include temperature if set (affects output)
-        if (request.getTemperature() != null) {
-            sb.append("temp:").append(request.getTemperature()).append("|");
+        List<Message> messages = request.getMessages();
+        if (messages != null) {
+            sb.append("messages:").append(messages.size()).append('|');
+            for (Message message : messages) {
+                field(sb, "role", message.getRole());
+                field(sb, "name", message.getName());
+                // Multimodal parts are kept whole: their text alone would ignore images
+                Object content = message.getContent();
+                field(sb, "content", content instanceof String text ? text : content);
+            }
         }
 
-        // Include message content
-        sb.append(request.getConcatenatedContent());
-
         return sb.toString();
     }
 
+    /**
+     * Append {@code name=<length>:<value>|}, or nothing for a null value.
+     */
+    private static void field(StringBuilder sb, String name, Object value) {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        sb.append(name).append('=').append(text.length()).append(':').append(text).append('|');
+    }
+
     /**
      * MurmurHash3-inspired 64-bit hash function.
      * Fast, non-cryptographic hash with excellent distribution.
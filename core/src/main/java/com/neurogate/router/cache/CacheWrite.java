@@ -0,0 +1,16 @@
+package com.neurogate.router.cache;
+
+/**
+ * A pending cache fill queued for the write-behind tiers.
+ *
+ * <p>Holds no live request or response objects: callers keep mutating those after the
+ * fill is queued (latency, route, cache flags), while the workers read it later on
+ * their own threads. Tiers that need a {@code ChatResponse} decode their own copy.</p>
+ *
+ * @param cacheKey key produced by {@link CacheKeyGenerator}
+ * @param prompt   the originating request's concatenated content, embedded by the
+ *                 semantic tier; {@code null} for writes that skip it
+ * @param encoded  the response encoded by the cache codec when the fill was queued
+ */
+public record CacheWrite(String cacheKey, String prompt, byte[] encoded) {
+}
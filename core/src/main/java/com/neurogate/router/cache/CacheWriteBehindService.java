@@ -0,0 +1,227 @@
+package com.neurogate.router.cache;
+
+import com.neurogate.config.NeuroGateProperties;
+import com.neurogate.router.cache.codec.ChatResponseCodec;
+import com.neurogate.sentinel.model.ChatResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Write-behind pipeline for the L2 (Redis), L3 (Qdrant) and L4 (S3) cache tiers.
+ *
+ * <p>Each tier has its own bounded {@link WriteBehindQueue} and worker thread, so
+ * the request thread only pays the L1 insert plus a non-blocking enqueue. Workers
+ * drain their queue in batches:</p>
+ * <ul>
+ *   <li>L2: one pipelined Redis round trip per batch, storing codec-encoded bytes</li>
+ *   <li>L3: one Qdrant upsert carrying every point in the batch</li>
+ *   <li>L4: sequential S3 uploads, off the request path</li>
+ * </ul>
+ *
+ * <p>Queued writes carry the codec-encoded response, never the live object; L3 and L4
+ * decode their own copy on the worker thread. When the write-behind pipeline is
+ * disabled, writes are applied synchronously on the caller's thread.</p>
+ */
+@Slf4j
+@Service
+public class CacheWriteBehindService {
+
+    static final Duration L2_TTL = Duration.ofHours(24);
+
+    private static final long SHUTDOWN_TIMEOUT_MS = 5000;
+
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final Optional<SemanticCacheService> semanticCacheService;
+    private final S3CacheService s3CacheService;
+    private final ChatResponseCodec codec;
+    private final NeuroGateProperties.Cache.WriteBehind config;
+
+    private final WriteBehindQueue<CacheWrite> l2Queue;
+    private final WriteBehindQueue<CacheWrite> l3Queue;
+    private final WriteBehindQueue<CacheWrite> l4Queue;
+
+    public CacheWriteBehindService(
+            RedisTemplate<String, byte[]> redisTemplate,
+            Optional<SemanticCacheService> semanticCacheService,
+            S3CacheService s3CacheService,
+            ChatResponseCodec codec,
+            NeuroGateProperties properties,
+            MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.semanticCacheService = semanticCacheService;
+        this.s3CacheService = s3CacheService;
+        this.codec = codec;
+        this.config = properties.getCache().getWriteBehind();
+
+        this.l2Queue = newQueue("L2", this::flushL2, meterRegistry);
+        this.l3Queue = newQueue("L3", this::flushL3, meterRegistry);
+        this.l4Queue = newQueue("L4", this::flushL4, meterRegistry);
+    }
+
+    private WriteBehindQueue<CacheWrite> newQueue(String tier,
+                                                  Consumer<List<CacheWrite>> writer,
+                                                  MeterRegistry meterRegistry) {
+        return new WriteBehindQueue<>(tier, config.getQueueCapacity(), config.getBatchSize(),
+                config.getLingerMs(), writer, meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!config.isEnabled()) {
+            log.info("Cache write-behind disabled, L2/L3/L4 writes are synchronous");
+            return;
+        }
+        l2Queue.start();
+        if (semanticCacheService.isPresent()) {
+            l3Queue.start();
+        }
+        if (s3CacheService.isEnabled()) {
+            l4Queue.start();
+        }
+        log.info("Cache write-behind started (capacity={}, batchSize={}, lingerMs={})",
+                config.getQueueCapacity(), config.getBatchSize(), config.getLingerMs());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        l2Queue.shutdown(SHUTDOWN_TIMEOUT_MS);
+        l3Queue.shutdown(SHUTDOWN_TIMEOUT_MS);
+        l4Queue.shutdown(SHUTDOWN_TIMEOUT_MS);
+    }
+
+    /**
+     * Schedule a write to L2, L3 and L4.
+     */
+    public void writeAll(CacheWrite write) {
+        writeL2(write);
+        writeL3(write);
+        writeL4(write);
+    }
+
+    /**
+     * Schedule a write to L2 (Redis).
+     */
+    public void writeL2(CacheWrite write) {
+        submit(l2Queue, write, this::flushL2);
+    }
+
+    /**
+     * Schedule a write to L3 (Qdrant), if the semantic tier is enabled.
+     */
+    public void writeL3(CacheWrite write) {
+        if (semanticCacheService.isPresent()) {
+            submit(l3Queue, write, this::flushL3);
+        }
+    }
+
+    /**
+     * Schedule a write to L4 (S3), if cold storage is enabled.
+     */
+    public void writeL4(CacheWrite write) {
+        if (s3CacheService.isEnabled()) {
+            submit(l4Queue, write, this::flushL4);
+        }
+    }
+
+    private void submit(WriteBehindQueue<CacheWrite> queue, CacheWrite write,
+                        Consumer<List<CacheWrite>> syncWriter) {
+        if (config.isEnabled()) {
+            queue.offer(write);
+        } else {
+            syncWriter.accept(List.of(write));
+        }
+    }
+
+    /**
+     * Pending writes per tier
+     */
+    public WriteBehindStats getStats() {
+        return WriteBehindStats.builder()
+                .enabled(config.isEnabled())
+                .l2Pending(l2Queue.depth())
+                .l3Pending(l3Queue.depth())
+                .l4Pending(l4Queue.depth())
+                .build();
+    }
+
+    private void flushL2(List<CacheWrite> batch) {
+        List<Map.Entry<String, byte[]>> entries = new ArrayList<>(batch.size());
+        for (CacheWrite write : batch) {
+            entries.add(Map.entry(write.cacheKey(), write.encoded()));
+        }
+        if (entries.isEmpty()) {
+            return;
+        }
+
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, byte[]> ops = (RedisOperations<String, byte[]>) operations;
+                for (Map.Entry<String, byte[]> entry : entries) {
+                    ops.opsForValue().set(entry.getKey(), entry.getValue(), L2_TTL);
+                }
+                return null;
+            }
+        });
+        log.debug("Stored {} entries in L2 cache (Redis) with 24h TTL", entries.size());
+    }
+
+    private void flushL3(List<CacheWrite> batch) {
+        Map<String, ChatResponse> responsesByPrompt = new LinkedHashMap<>(batch.size() * 2);
+        for (CacheWrite write : batch) {
+            ChatResponse response = decode(write);
+            if (write.prompt() != null && response != null) {
+                responsesByPrompt.put(write.prompt(), response);
+            }
+        }
+        if (!responsesByPrompt.isEmpty()) {
+            semanticCacheService.ifPresent(service -> service.putAll(responsesByPrompt));
+        }
+    }
+
+    private void flushL4(List<CacheWrite> batch) {
+        for (CacheWrite write : batch) {
+            ChatResponse response = decode(write);
+            if (response != null) {
+                s3CacheService.put(write.cacheKey(), response);
+            }
+        }
+    }
+
+    private ChatResponse decode(CacheWrite write) {
+        try {
+            return codec.decode(write.encoded());
+        } catch (RuntimeException e) {
+            log.warn("Skipping cache write that could not be decoded: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Write-behind queue statistics
+     */
+    @lombok.Builder
+    @lombok.Data
+    public static class WriteBehindStats {
+        private boolean enabled;
+        private int l2Pending;
+        private int l3Pending;
+        private int l4Pending;
+    }
+}
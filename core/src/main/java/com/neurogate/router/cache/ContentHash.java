@@ -0,0 +1,64 @@
+package com.neurogate.router.cache;
+
+/**
+ * Fast 64-bit hash of text, for in-memory caches keyed by content.
+ *
+ * <p>Same mixing as {@link CacheKeyGenerator}, but over the UTF-16 chars directly
+ * (four per block) instead of an encoded byte copy, so hashing a long prompt does
+ * not allocate. Not stable across changes to this class: do not persist the
+ * values.</p>
+ */
+public final class ContentHash {
+
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    private ContentHash() {
+    }
+
+    /**
+     * Hash of the text, seeded so that different seeds give unrelated hashes.
+     */
+    public static long hash64(CharSequence text, long seed) {
+        int length = text.length();
+        long h = seed ^ (length * 0x85ebca6bL);
+
+        int i = 0;
+        while (i + 4 <= length) {
+            long k = text.charAt(i)
+                    | (long) text.charAt(i + 1) << 16
+                    | (long) text.charAt(i + 2) << 32
+                    | (long) text.charAt(i + 3) << 48;
+            h ^= mixK(k);
+            h = Long.rotateLeft(h, 27);
+            h = h * 5 + 0x52dce729;
+            i += 4;
+        }
+
+        // Remaining chars
+        if (i < length) {
+            long k = 0;
+            for (int shift = 0; i < length; i++, shift += 16) {
+                k |= (long) text.charAt(i) << shift;
+            }
+            h ^= mixK(k);
+        }
+
+        return fmix(h ^ length);
+    }
+
+    private static long mixK(long k) {
+        k *= C1;
+        k = Long.rotateLeft(k, 31);
+        return k * C2;
+    }
+
+    private static long fmix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,185 @@
+package com.neurogate.router.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import com.neurogate.config.NeuroGateProperties;
+import com.neurogate.router.cache.ann.HnswIndex;
+import com.neurogate.router.cache.codec.ChatResponseCodec;
+import com.neurogate.sentinel.model.ChatResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+/**
+ * L1.5: in-process semantic cache in front of Qdrant.
+ *
+ * <p>Embeddings of the hottest semantic cache entries are held in an
+ * {@link HnswIndex}, and the encoded responses live in a Caffeine cache that owns
+ * the TTL and the memory cap. When Caffeine evicts an entry, its node is removed
+ * from the index, so both stay in step. Once removals, and refreshes that bring a
+ * new embedding, leave enough tombstones in the graph, it is rebuilt on the task executor, keeping only keys still held in
+ * Caffeine so that any node left behind by a racing removal is dropped too.</p>
+ */
+@Slf4j
+@Component
+public class LocalSemanticCache {
+
+    /**
+     * Nearest candidates checked per lookup, in case the closest one has just expired
+     */
+    private static final int CANDIDATES = 3;
+
+    private final NeuroGateProperties.Cache.LocalSemantic config;
+    private final ChatResponseCodec codec;
+    private final HnswIndex index;
+    private final Cache<String, byte[]> entries;
+    private final Executor taskExecutor;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public LocalSemanticCache(NeuroGateProperties properties, ChatResponseCodec codec,
+                              MeterRegistry meterRegistry, Executor taskExecutor) {
+        this.config = properties.getCache().getLocalSemantic();
+        this.codec = codec;
+        this.taskExecutor = taskExecutor;
+
+        int dimension = properties.getQdrant().getVectorSize();
+        this.index = new HnswIndex(dimension, config.getM(), config.getEfConstruction());
+        long nodeBytes = HnswIndex.estimateNodeBytes(dimension, config.getM());
+
+        this.entries = Caffeine.newBuilder()
+                .maximumWeight(config.getMaxBytes())
+                .weigher((String key, byte[] value) -> (int) Math.min(Integer.MAX_VALUE, value.length + nodeBytes))
+                .expireAfterWrite(Duration.ofSeconds(config.getTtlSeconds()))
+                .scheduler(Scheduler.systemScheduler())
+                .evictionListener((String key, byte[] value, RemovalCause cause) -> {
+                    if (key != null) {
+                        removeFromIndex(key);
+                    }
+                })
+                .build();
+
+        this.hits = Counter.builder("neurogate.cache.semantic.local.lookups")
+                .description("In-process semantic cache lookups")
+                .tag("outcome", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("neurogate.cache.semantic.local.lookups")
+                .description("In-process semantic cache lookups")
+                .tag("outcome", "miss")
+                .register(meterRegistry);
+        Gauge.builder("neurogate.cache.semantic.local.size", index, HnswIndex::size)
+                .description("Entries in the in-process semantic cache")
+                .register(meterRegistry);
+        Gauge.builder("neurogate.cache.semantic.local.weight", entries,
+                        cache -> cache.policy().eviction()
+                                .map(eviction -> eviction.weightedSize().orElse(0L))
+                                .orElse(0L))
+                .description("Estimated bytes held by the in-process semantic cache")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * Find the closest cached response whose similarity meets the threshold.
+     *
+     * @param embedding query embedding
+     * @param threshold minimum cosine similarity
+     * @return a fresh copy of the cached response, with its similarity
+     */
+    public Optional<Match> find(float[] embedding, double threshold) {
+        if (!config.isEnabled()) {
+            return Optional.empty();
+        }
+        for (HnswIndex.SearchResult result : index.search(embedding, CANDIDATES, config.getEfSearch())) {
+            if (result.similarity() < threshold) {
+                break;
+            }
+            byte[] encoded = entries.getIfPresent(result.key());
+            if (encoded == null) {
+                continue;
+            }
+            try {
+                ChatResponse response = codec.decode(encoded);
+                hits.increment();
+                return Optional.of(new Match(response, result.similarity()));
+            } catch (IllegalArgumentException e) {
+                log.warn("Discarding undecodable local semantic cache entry: {}", e.getMessage());
+                invalidate(result.key());
+            }
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    /**
+     * Add or refresh an entry.
+     *
+     * @param key       stable id for the prompt (the Qdrant point id)
+     * @param embedding prompt embedding
+     * @param response  response to serve on a match
+     */
+    public void put(String key, float[] embedding, ChatResponse response) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        byte[] encoded;
+        try {
+            encoded = codec.encode(response);
+        } catch (IllegalStateException e) {
+            log.warn("Failed to encode response for local semantic cache: {}", e.getMessage());
+            return;
+        }
+        // Index first: once the entry is in Caffeine it can be evicted at any time,
+        // and the eviction listener must find the node to remove
+        if (!index.add(key, embedding)) {
+            // A refresh with a new embedding tombstones the old node
+            rebuildIfNeeded();
+        }
+        entries.put(key, encoded);
+    }
+
+    public void invalidate(String key) {
+        entries.invalidate(key);
+        removeFromIndex(key);
+    }
+
+    public void clear() {
+        entries.invalidateAll();
+        index.clear();
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    private void removeFromIndex(String key) {
+        if (index.remove(key)) {
+            rebuildIfNeeded();
+        }
+    }
+
+    private void rebuildIfNeeded() {
+        if (index.needsRebuild()) {
+            taskExecutor.execute(() -> index.rebuild(entries.asMap()::containsKey));
+        }
+    }
+
+    /**
+     * A local semantic hit
+     */
+    public record Match(ChatResponse response, double similarity) {
+    }
+}
@@ -0,0 +1,351 @@
+package com.neurogate.router.cache;
+
+import com.neurogate.config.NeuroGateProperties;
+import com.neurogate.metrics.NeuroGateMetrics;
+import com.neurogate.sentinel.model.ChatRequest;
+import com.neurogate.sentinel.model.ChatResponse;
+import com.neurogate.tenant.TenantContext;
+import io.micrometer.context.integration.Slf4jThreadLocalAccessor;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Read-through response cache in front of the provider router.
+ *
+ * <p>Looks the request up in the {@link TieredCacheService} hierarchy using the
+ * {@link CacheKeyGenerator} key, which is scoped to the caller's org. On a miss,
+ * identical concurrent requests of one org are collapsed into a single upstream call
+ * via {@link RequestCoalescer}, and the leader stores the result in every tier before
+ * returning.</p>
+ *
+ * <p>Cache hits are returned as copies flagged with {@code cacheHit=true} and
+ * {@code route=cache-<tier>}, so callers can safely mutate the response.</p>
+ *
+ * <p>With {@code neurogate.cache.lookup.parallel=true} the remote tiers are probed
+ * concurrently under per-tier deadlines, and the provider call is started
+ * speculatively once {@code neurogate.cache.lookup.budget-ms} elapses without a hit.
+ * A cache hit that wins the race cancels the provider call, unless other coalesced
+ * requests are still waiting on it.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ReadThroughCacheStage {
+
+    private final TieredCacheService tieredCacheService;
+    private final CacheKeyGenerator cacheKeyGenerator;
+    private final NeuroGateMetrics metrics;
+    private final NeuroGateProperties properties;
+    private final Executor taskExecutor;
+
+    private final RequestCoalescer<ChatResponse> coalescer = new RequestCoalescer<>();
+
+    @Value("${neurogate.cache.read-through.enabled:true}")
+    private boolean enabled = true;
+
+    /**
+     * Serve the request from cache, or route it upstream and cache the result.
+     *
+     * @param request  the chat request
+     * @param upstream the routing function invoked on a cache miss
+     * @return cached or freshly generated response
+     */
+    public ChatResponse route(ChatRequest request, Function<ChatRequest, ChatResponse> upstream) {
+        return route(request, upstream, onTaskExecutor(upstream));
+    }
+
+    /**
+     * Serve the request from cache, or route it upstream and cache the result.
+     *
+     * <p>In parallel lookup mode the speculative provider call goes through
+     * {@code asyncUpstream}, so that a cache hit winning the race cancels it.</p>
+     *
+     * @param request       the chat request
+     * @param upstream      the routing function invoked on a cache miss
+     * @param asyncUpstream reactive equivalent of {@code upstream}, for the speculative call
+     * @return cached or freshly generated response
+     */
+    public ChatResponse route(ChatRequest request, Function<ChatRequest, ChatResponse> upstream,
+                              Function<ChatRequest, Mono<ChatResponse>> asyncUpstream) {
+        if (!isCacheable(request)) {
+            return upstream.apply(request);
+        }
+
+        String cacheKey = cacheKeyGenerator.generate(request);
+
+        NeuroGateProperties.Cache.Lookup lookup = properties.getCache().getLookup();
+        if (lookup.isParallel()) {
+            return routeHedged(cacheKey, request, upstream, asyncUpstream, lookup);
+        }
+
+        Optional<TieredCacheService.CacheHit> hit = tieredCacheService.lookup(cacheKey, request);
+        if (hit.isPresent()) {
+            return toCacheHitResponse(hit.get());
+        }
+        metrics.recordCacheMiss();
+        return fetchAndStore(cacheKey, request, upstream);
+    }
+
+    /**
+     * Non-blocking variant of {@link #route}.
+     *
+     * <p>Redis and Qdrant lookups are blocking, so they run on the task executor; the
+     * upstream call itself holds no thread. Concurrent identical misses are coalesced
+     * together with blocking callers. In parallel lookup mode the remote tiers are
+     * awaited under their per-tier deadlines rather than raced against the provider.
+     * The cache key is scoped to the org under {@link TenantContext#CONTEXT_KEY}.</p>
+     *
+     * @param request  the chat request
+     * @param upstream the reactive routing function invoked on a cache miss
+     * @return cached or freshly generated response
+     */
+    public Mono<ChatResponse> routeAsync(ChatRequest request, Function<ChatRequest, Mono<ChatResponse>> upstream) {
+        if (!isCacheable(request)) {
+            return upstream.apply(request);
+        }
+
+        return Mono.deferContextual(context -> routeAsync(
+                cacheKeyGenerator.generate(request, TenantContext.getOrgIdOrDefault(context)), request, upstream));
+    }
+
+    private Mono<ChatResponse> routeAsync(String cacheKey, ChatRequest request,
+                                          Function<ChatRequest, Mono<ChatResponse>> upstream) {
+        NeuroGateProperties.Cache.Lookup lookup = properties.getCache().getLookup();
+
+        Mono<Optional<TieredCacheService.CacheHit>> hit;
+        if (lookup.isParallel()) {
+            hit = Mono.defer(() -> {
+                Optional<TieredCacheService.CacheHit> local = tieredCacheService.lookupLocal(cacheKey);
+                if (local.isPresent()) {
+                    return Mono.just(local);
+                }
+                return Mono.fromFuture(() -> tieredCacheService.lookupRemote(cacheKey, request, lookup));
+            });
+        } else {
+            hit = Mono.fromCallable(() -> tieredCacheService.lookup(cacheKey, request))
+                    .subscribeOn(Schedulers.fromExecutor(taskExecutor));
+        }
+
+        return hit.flatMap(cached -> {
+            if (cached.isPresent()) {
+                return Mono.just(toCacheHitResponse(cached.get()));
+            }
+            metrics.recordCacheMiss();
+            return fetchAndStoreAsync(cacheKey, request, upstream);
+        });
+    }
+
+    /**
+     * Parallel lookup: after an L1 miss the remote tiers are probed concurrently.
+     * If no hit arrives within the cache budget, the provider call is started
+     * speculatively and the first of cache hit or provider response wins.
+     */
+    private ChatResponse routeHedged(String cacheKey, ChatRequest request,
+                                     Function<ChatRequest, ChatResponse> upstream,
+                                     Function<ChatRequest, Mono<ChatResponse>> asyncUpstream,
+                                     NeuroGateProperties.Cache.Lookup lookup) {
+        Optional<TieredCacheService.CacheHit> local = tieredCacheService.lookupLocal(cacheKey);
+        if (local.isPresent()) {
+            return toCacheHitResponse(local.get());
+        }
+
+        CompletableFuture<Optional<TieredCacheService.CacheHit>> remote =
+                tieredCacheService.lookupRemote(cacheKey, request, lookup);
+        try {
+            Optional<TieredCacheService.CacheHit> hit = remote.get(lookup.getBudgetMs(), TimeUnit.MILLISECONDS);
+            if (hit.isPresent()) {
+                return toCacheHitResponse(hit.get());
+            }
+            metrics.recordCacheMiss();
+            return fetchAndStore(cacheKey, request, upstream);
+        } catch (TimeoutException e) {
+            log.debug("Cache budget of {}ms exhausted, starting provider call speculatively", lookup.getBudgetMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during cache lookup", e);
+        } catch (ExecutionException e) {
+            log.warn("Parallel cache lookup failed: {}", e.getMessage());
+            metrics.recordCacheMiss();
+            return fetchAndStore(cacheKey, request, upstream);
+        }
+
+        return raceProvider(cacheKey, request, asyncUpstream, remote);
+    }
+
+    /**
+     * Race the remote cache tiers against the provider. The provider call runs with
+     * the caller's org and MDC, and is cancelled if the cache answers first.
+     */
+    private ChatResponse raceProvider(String cacheKey, ChatRequest request,
+                                      Function<ChatRequest, Mono<ChatResponse>> asyncUpstream,
+                                      CompletableFuture<Optional<TieredCacheService.CacheHit>> remote) {
+        CompletableFuture<ChatResponse> winner = new CompletableFuture<>();
+        Consumer<Throwable> providerFailed = error ->
+                // Provider failed: a late cache hit can still answer the request
+                remote.whenComplete((hit, ignored) -> {
+                    if (hit != null && hit.isPresent()) {
+                        winner.complete(toCacheHitResponse(hit.get()));
+                    } else {
+                        winner.completeExceptionally(error);
+                    }
+                });
+
+        Disposable provider = fetchAndStoreAsync(cacheKey, request, asyncUpstream)
+                .contextWrite(callerContext())
+                .subscribe(
+                        response -> {
+                            if (winner.complete(response)) {
+                                metrics.recordCacheMiss();
+                                metrics.recordSpeculativeProviderCall("provider");
+                            }
+                        },
+                        providerFailed,
+                        () -> providerFailed.accept(new IllegalStateException("Provider returned no response")));
+
+        remote.thenAccept(hit -> hit.ifPresent(h -> {
+            if (winner.complete(toCacheHitResponse(h))) {
+                metrics.recordSpeculativeProviderCall("cache");
+                provider.dispose();
+            }
+        }));
+
+        try {
+            return winner.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * The calling thread's org and MDC entries, for work continued on other threads
+     */
+    private static Context callerContext() {
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        return Context.of(
+                TenantContext.CONTEXT_KEY, TenantContext.getCurrentOrgIdOrDefault(),
+                Slf4jThreadLocalAccessor.KEY, mdc != null ? mdc : Map.of());
+    }
+
+    /**
+     * Reactive adapter for a blocking upstream: runs it on the task executor with the
+     * org and MDC entries of the subscriber's context. Cancelling it does not interrupt
+     * a call already running.
+     */
+    private Function<ChatRequest, Mono<ChatResponse>> onTaskExecutor(Function<ChatRequest, ChatResponse> upstream) {
+        return request -> Mono.deferContextual(context -> Mono.fromCallable(() -> {
+                    Map<String, String> previousMdc = MDC.getCopyOfContextMap();
+                    String previousOrg = TenantContext.getCurrentOrgId();
+                    TenantContext.setCurrentOrgId(TenantContext.getOrgIdOrDefault(context));
+                    Map<String, String> mdc = context.getOrDefault(Slf4jThreadLocalAccessor.KEY, null);
+                    if (mdc != null) {
+                        MDC.setContextMap(mdc);
+                    }
+                    try {
+                        return upstream.apply(request);
+                    } finally {
+                        if (previousOrg != null) {
+                            TenantContext.setCurrentOrgId(previousOrg);
+                        } else {
+                            TenantContext.clear();
+                        }
+                        if (previousMdc != null) {
+                            MDC.setContextMap(previousMdc);
+                        } else {
+                            MDC.clear();
+                        }
+                    }
+                }))
+                .subscribeOn(Schedulers.fromExecutor(taskExecutor));
+    }
+
+    private ChatResponse fetchAndStore(String cacheKey, ChatRequest request,
+                                       Function<ChatRequest, ChatResponse> upstream) {
+        RequestCoalescer.Outcome<ChatResponse> outcome = coalescer.execute(cacheKey, () -> {
+            ChatResponse response = upstream.apply(request);
+            if (isStorable(response)) {
+                tieredCacheService.put(cacheKey, request, response);
+            }
+            return response;
+        });
+
+        if (outcome.shared()) {
+            metrics.recordCoalescedRequest();
+            return outcome.value().toBuilder().build();
+        }
+        return outcome.value();
+    }
+
+    private Mono<ChatResponse> fetchAndStoreAsync(String cacheKey, ChatRequest request,
+                                                  Function<ChatRequest, Mono<ChatResponse>> upstream) {
+        return coalescer.executeAsync(cacheKey, () -> upstream.apply(request)
+                        .doOnNext(response -> {
+                            if (isStorable(response)) {
+                                tieredCacheService.put(cacheKey, request, response);
+                            }
+                        }))
+                .map(outcome -> {
+                    if (outcome.shared()) {
+                        metrics.recordCoalescedRequest();
+                        return outcome.value().toBuilder().build();
+                    }
+                    return outcome.value();
+                });
+    }
+
+    /**
+     * Streaming and shadow requests bypass the cache: the former are served by the
+     * streaming path and the latter must reach the router for comparison.
+     */
+    private boolean isCacheable(ChatRequest request) {
+        if (!enabled || request.getMessages() == null || request.getMessages().isEmpty()) {
+            return false;
+        }
+        if (Boolean.TRUE.equals(request.getStream())) {
+            return false;
+        }
+        return request.getShadowModel() == null || request.getShadowModel().isEmpty();
+    }
+
+    private boolean isStorable(ChatResponse response) {
+        return response != null
+                && response.getError() == null
+                && response.getChoices() != null
+                && !response.getChoices().isEmpty();
+    }
+
+    private ChatResponse toCacheHitResponse(TieredCacheService.CacheHit hit) {
+        log.debug("Serving response from cache tier {}", hit.tier());
+        return hit.response().toBuilder()
+                .cacheHit(true)
+                .route("cache-" + hit.tier().name().toLowerCase())
+                .build();
+    }
+
+    /**
+     * Number of distinct requests currently being fetched upstream
+     */
+    public int getInFlightCount() {
+        return coalescer.inFlightCount();
+    }
+}
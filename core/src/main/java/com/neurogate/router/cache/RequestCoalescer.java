@@ -0,0 +1,204 @@
+package com.neurogate.router.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight request coalescing.
+ *
+ * <p>Concurrent callers that ask for the same key while a computation is in flight
+ * wait for that computation instead of starting their own. Only the first caller
+ * (the leader) runs the supplier; followers receive the leader's result or failure.
+ * The in-flight entry is removed as soon as the computation completes, so later callers
+ * start a fresh computation. An async computation is cancelled only when every caller
+ * waiting on it has cancelled.</p>
+ *
+ * @param <T> the result type
+ */
+@Slf4j
+public class RequestCoalescer<T> {
+
+    private final ConcurrentMap<String, Flight<T>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Execute the supplier for the given key, or join an identical call already in flight.
+     *
+     * @param key      coalescing key (e.g. the response cache key)
+     * @param supplier the upstream computation
+     * @return the result, flagged as shared when it was produced by another caller
+     */
+    public Outcome<T> execute(String key, Supplier<T> supplier) {
+        Flight<T> flight = new Flight<>();
+        Flight<T> existing = join(key, flight);
+
+        if (existing != null) {
+            log.debug("Coalescing request onto in-flight call for key: {}", key);
+            // A blocking follower cannot cancel, so it never gives up its waiter slot
+            return new Outcome<>(await(existing.result), true);
+        }
+
+        try {
+            T result = supplier.get();
+            flight.result.complete(result);
+            return new Outcome<>(result, false);
+        } catch (RuntimeException | Error e) {
+            flight.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #execute}: followers subscribe to the leader's
+     * result instead of waiting on a thread. Blocking and non-blocking callers share
+     * the same in-flight calls.
+     *
+     * <p>The upstream computation is subscribed to on its own, with the leader's
+     * context, rather than as part of the leader's pipeline. Cancelling one caller (a
+     * client disconnect, a request timeout, a speculative call that lost its race)
+     * only detaches that caller; the computation is cancelled once every caller
+     * waiting on it has cancelled.</p>
+     *
+     * @param key      coalescing key (e.g. the response cache key)
+     * @param supplier creates the upstream computation; it is subscribed to once per key in flight
+     * @return the result, flagged as shared when it was produced by another caller
+     */
+    public Mono<Outcome<T>> executeAsync(String key, Supplier<Mono<T>> supplier) {
+        return Mono.deferContextual(context -> {
+            Flight<T> flight = new Flight<>();
+            Flight<T> existing = join(key, flight);
+
+            if (existing != null) {
+                log.debug("Coalescing request onto in-flight call for key: {}", key);
+                return waitFor(key, existing).map(value -> new Outcome<>(value, true));
+            }
+
+            // The entry is removed before the result is published, so a caller that has
+            // seen the result never finds the call still in flight
+            flight.upstream = Mono.defer(supplier)
+                    .contextWrite(context)
+                    .subscribe(
+                            value -> {
+                                inFlight.remove(key, flight);
+                                flight.result.complete(value);
+                            },
+                            error -> {
+                                inFlight.remove(key, flight);
+                                flight.result.completeExceptionally(error);
+                            },
+                            () -> {
+                                // Empty upstream: every caller completes empty
+                                inFlight.remove(key, flight);
+                                flight.result.complete(null);
+                            });
+            return waitFor(key, flight).map(value -> new Outcome<>(value, false));
+        });
+    }
+
+    /**
+     * Number of distinct keys currently in flight
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    /**
+     * Add the caller as a waiter on the flight in progress for the key, or install the
+     * given flight with the caller as its leader.
+     *
+     * @return the flight joined, or {@code null} if the caller leads the given one
+     */
+    private Flight<T> join(String key, Flight<T> flight) {
+        while (true) {
+            Flight<T> existing = inFlight.putIfAbsent(key, flight);
+            if (existing == null) {
+                return null;
+            }
+            if (existing.addWaiter()) {
+                return existing;
+            }
+            // Every caller of that flight has cancelled and it is being torn down
+            inFlight.remove(key, existing);
+        }
+    }
+
+    private Mono<T> waitFor(String key, Flight<T> flight) {
+        return Mono.fromFuture(flight.result, true)
+                .doOnCancel(() -> {
+                    if (flight.removeWaiter()) {
+                        log.debug("Every caller cancelled, cancelling in-flight call for key: {}", key);
+                        inFlight.remove(key, flight);
+                        Disposable upstream = flight.upstream;
+                        if (upstream != null) {
+                            upstream.dispose();
+                        }
+                    }
+                });
+    }
+
+    private T await(CompletableFuture<T> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * One in-flight computation and the number of callers waiting on it
+     */
+    private static final class Flight<T> {
+
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final AtomicInteger waiters = new AtomicInteger(1);
+        /**
+         * Subscription to an async upstream; {@code null} while a blocking leader runs it
+         */
+        private volatile Disposable upstream;
+
+        /**
+         * @return false if every waiter has already cancelled
+         */
+        boolean addWaiter() {
+            int current;
+            do {
+                current = waiters.get();
+                if (current == 0) {
+                    return false;
+                }
+            } while (!waiters.compareAndSet(current, current + 1));
+            return true;
+        }
+
+        /**
+         * @return true if this was the last waiter
+         */
+        boolean removeWaiter() {
+            return waiters.decrementAndGet() == 0;
+        }
+    }
+
+    /**
+     * Result of a coalesced execution.
+     *
+     * @param value  the computed value
+     * @param shared true when the value was computed by another (leader) caller
+     */
+    public record Outcome<T>(T value, boolean shared) {
+    }
+}
@@ -20,6 +20,9 @@ import java.util.stream.Collectors;
 /**
  * Semantic Cache Service using Qdrant Vector Database.
  * Provides semantic caching that can match similar queries.
+ *
+ * <p>Lookups first consult the in-process {@link LocalSemanticCache} and only go to
+ * Qdrant on a local miss; Qdrant hits and stored entries are added locally.</p>
  */
 @Slf4j
 @Service
@@ -31,6 +34,7 @@ public class SemanticCacheService {
     private final NeuroGateProperties properties;
     private final QdrantClient qdrantClient;
     private final ObjectMapper objectMapper;
+    private final LocalSemanticCache localSemanticCache;
 
     /**
      * Retrieve a cached response for a similar request from Qdrant
@@ -45,19 +49,26 @@ public class SemanticCacheService {
 
             // Generate embedding
             float[] queryEmbedding = embeddingService.generateEmbedding(prompt);
-            List<Float> vector = new ArrayList<>();
-            for (float f : queryEmbedding)
-                vector.add(f);
+            double threshold = properties.getQdrant().getSimilarityThreshold();
+
+            // L1.5: in-process ANN index
+            Optional<LocalSemanticCache.Match> local = localSemanticCache.find(queryEmbedding, threshold);
+            if (local.isPresent()) {
+                log.debug("L1.5 Cache HIT (local semantic), score: {}", local.get().similarity());
+                ChatResponse response = local.get().response();
+                response.setSimilarity(local.get().similarity());
+                return Optional.of(response);
+            }
 
             // Search in Qdrant
-            List<Points.ScoredPoint> results = qdrantClient.searchAsync(
-                    Points.SearchPoints.newBuilder()
-                            .setCollectionName(properties.getQdrant().getCollectionName())
-                            .addAllVector(vector)
-                            .setLimit(1)
-                            .setWithPayload(Points.WithPayloadSelector.newBuilder().setEnable(true).build())
-                            .build())
-                    .get();
+            Points.SearchPoints.Builder search = Points.SearchPoints.newBuilder()
+                    .setCollectionName(properties.getQdrant().getCollectionName())
+                    .setLimit(1)
+                    .setWithPayload(Points.WithPayloadSelector.newBuilder().setEnable(true).build());
+            for (float f : queryEmbedding) {
+                search.addVector(f);
+            }
+            List<Points.ScoredPoint> results = qdrantClient.searchAsync(search.build()).get();
 
             if (results.isEmpty()) {
                 log.debug("L3 Cache MISS - No results found");
@@ -66,7 +77,6 @@ public class SemanticCacheService {
 
             Points.ScoredPoint bestMatch = results.get(0);
             double similarity = bestMatch.getScore();
-            double threshold = properties.getQdrant().getSimilarityThreshold();
 
             log.debug("L3 Best match score: {} (threshold: {})", similarity, threshold);
 
@@ -76,6 +86,8 @@ public class SemanticCacheService {
                 if (payload.containsKey("response")) {
                     String jsonResponse = payload.get("response").getStringValue();
                     ChatResponse response = objectMapper.readValue(jsonResponse, ChatResponse.class);
+                    // Keep it close for the next similar prompt
+                    localSemanticCache.put(bestMatch.getId().getUuid(), queryEmbedding, response);
                     // Set similarity metadata
                     response.setSimilarity(similarity);
                     return Optional.of(response);
@@ -97,46 +109,91 @@ public class SemanticCacheService {
         try {
             String prompt = request.getConcatenatedContent();
             float[] embedding = embeddingService.generateEmbedding(prompt);
-            List<Float> vector = new ArrayList<>();
-            for (float f : embedding)
-                vector.add(f);
-
-            // Generate UUID based on prompt content (deterministic)
-            UUID pointId = UUID.nameUUIDFromBytes(prompt.getBytes());
-
-            // Create payload
-            Map<String, JsonWithInt.Value> payload = new HashMap<>();
-            payload.put("prompt", JsonWithInt.Value.newBuilder().setStringValue(prompt).build());
-            payload.put("response",
-                    JsonWithInt.Value.newBuilder().setStringValue(objectMapper.writeValueAsString(response)).build());
-            payload.put("timestamp",
-                    JsonWithInt.Value.newBuilder().setIntegerValue(Instant.now().toEpochMilli()).build());
-            payload.put("model", JsonWithInt.Value.newBuilder().setStringValue(response.getModel()).build());
-
-            // Create point
-            Points.PointStruct point = Points.PointStruct.newBuilder()
-                    .setId(Points.PointId.newBuilder().setUuid(pointId.toString()).build())
-                    .setVectors(Points.Vectors.newBuilder()
-                            .setVector(Points.Vector.newBuilder().addAllData(vector).build()).build())
-                    .putAllPayload(payload)
-                    .build();
+            Points.PointStruct point = buildPoint(prompt, embedding, response);
 
             // Upsert
             qdrantClient.upsertAsync(
                     properties.getQdrant().getCollectionName(),
                     List.of(point)).get(); // Wait for completion
 
-            log.debug("Stored in L3 (Qdrant), ID: {}", pointId);
+            localSemanticCache.put(point.getId().getUuid(), embedding, response);
+            log.debug("Stored in L3 (Qdrant), ID: {}", point.getId().getUuid());
 
         } catch (Exception e) {
             log.error("Error storing in L3 semantic cache", e);
         }
     }
 
+    /**
+     * Store a batch of prompt-response pairs in Qdrant with a single upsert.
+     * Called from the cache write-behind worker, never from a request thread.
+     *
+     * @param responsesByPrompt responses keyed by the request's concatenated content
+     */
+    public void putAll(Map<String, ChatResponse> responsesByPrompt) {
+        List<Points.PointStruct> points = new ArrayList<>(responsesByPrompt.size());
+        List<float[]> embeddings = new ArrayList<>(responsesByPrompt.size());
+        List<ChatResponse> responses = new ArrayList<>(responsesByPrompt.size());
+        for (Map.Entry<String, ChatResponse> entry : responsesByPrompt.entrySet()) {
+            try {
+                float[] embedding = embeddingService.generateEmbedding(entry.getKey());
+                points.add(buildPoint(entry.getKey(), embedding, entry.getValue()));
+                embeddings.add(embedding);
+                responses.add(entry.getValue());
+            } catch (Exception e) {
+                log.warn("Skipping L3 cache entry that could not be encoded: {}", e.getMessage());
+            }
+        }
+        if (points.isEmpty()) {
+            return;
+        }
+
+        try {
+            qdrantClient.upsertAsync(properties.getQdrant().getCollectionName(), points).get();
+            for (int i = 0; i < points.size(); i++) {
+                localSemanticCache.put(points.get(i).getId().getUuid(), embeddings.get(i), responses.get(i));
+            }
+            log.debug("Stored {} points in L3 (Qdrant)", points.size());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while storing L3 batch", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Qdrant batch upsert failed", e.getCause());
+        }
+    }
+
+    private Points.PointStruct buildPoint(String prompt, float[] embedding, ChatResponse response)
+            throws JsonProcessingException {
+        Points.Vector.Builder vector = Points.Vector.newBuilder();
+        for (float f : embedding) {
+            vector.addData(f);
+        }
+
+        // Generate UUID based on prompt content (deterministic)
+        UUID pointId = UUID.nameUUIDFromBytes(prompt.getBytes());
+
+        // Create payload
+        Map<String, JsonWithInt.Value> payload = new HashMap<>();
+        payload.put("prompt", JsonWithInt.Value.newBuilder().setStringValue(prompt).build());
+        payload.put("response",
+                JsonWithInt.Value.newBuilder().setStringValue(objectMapper.writeValueAsString(response)).build());
+        payload.put("timestamp",
+                JsonWithInt.Value.newBuilder().setIntegerValue(Instant.now().toEpochMilli()).build());
+        payload.put("model", JsonWithInt.Value.newBuilder().setStringValue(response.getModel()).build());
+
+        // Create point
+        return Points.PointStruct.newBuilder()
+                .setId(Points.PointId.newBuilder().setUuid(pointId.toString()).build())
+                .setVectors(Points.Vectors.newBuilder().setVector(vector).build())
+                .putAllPayload(payload)
+                .build();
+    }
+
     /**
      * Clear all cached entries
      */
     public void clearCache() {
+        localSemanticCache.clear();
         // Not implemented for Qdrant in this phase (needs collection recreation)
         log.warn("Clear cache not fully supported for Qdrant in basic implementation");
     }
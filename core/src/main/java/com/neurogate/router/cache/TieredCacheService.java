@@ -1,25 +1,28 @@
 package com.neurogate.router.cache;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.neurogate.config.NeuroGateProperties;
 import com.neurogate.metrics.NeuroGateMetrics;
+import com.neurogate.router.cache.codec.ChatResponseCodec;
 import com.neurogate.sentinel.model.ChatRequest;
 import com.neurogate.sentinel.model.ChatResponse;
 import io.qdrant.client.QdrantClient;
 import io.qdrant.client.grpc.Points;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 
-import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
 /**
  * 4-Tier Caching Hierarchy
@@ -31,18 +34,13 @@ import java.util.Set;
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class TieredCacheService {
 
-    // L1: Caffeine Cache (JVM In-Memory)
-    private final Cache<String, ChatResponse> l1Cache = Caffeine.newBuilder()
-            .maximumSize(1000)
-            .expireAfterWrite(Duration.ofMinutes(5))
-            .recordStats()
-            .build();
+    // L1: Caffeine Cache (JVM In-Memory), holding encoded entries weighed by size
+    private final Cache<String, byte[]> l1Cache;
 
     // L2: Redis Cache (Network)
-    private final RedisTemplate<String, String> redisTemplate;
+    private final RedisTemplate<String, byte[]> redisTemplate;
 
     // L3: Qdrant (Semantic Vector Search)
     private final Optional<SemanticCacheService> semanticCacheService;
@@ -51,9 +49,40 @@ public class TieredCacheService {
     private final S3CacheService s3CacheService;
 
     // Utilities
-    private final ObjectMapper objectMapper;
+    private final ChatResponseCodec codec;
     private final NeuroGateMetrics metrics;
     private final EmbeddingService embeddingService;
+    private final CacheKeyGenerator cacheKeyGenerator;
+    private final CacheWriteBehindService writeBehind;
+    private final Executor taskExecutor;
+
+    public TieredCacheService(
+            RedisTemplate<String, byte[]> redisTemplate,
+            Optional<SemanticCacheService> semanticCacheService,
+            S3CacheService s3CacheService,
+            ChatResponseCodec codec,
+            NeuroGateMetrics metrics,
+            EmbeddingService embeddingService,
+            CacheKeyGenerator cacheKeyGenerator,
+            CacheWriteBehindService writeBehind,
+            Executor taskExecutor,
+            NeuroGateProperties properties) {
+        this.redisTemplate = redisTemplate;
+        this.semanticCacheService = semanticCacheService;
+        this.s3CacheService = s3CacheService;
+        this.codec = codec;
+        this.metrics = metrics;
+        this.embeddingService = embeddingService;
+        this.cacheKeyGenerator = cacheKeyGenerator;
+        this.writeBehind = writeBehind;
+        this.taskExecutor = taskExecutor;
+        this.l1Cache = Caffeine.newBuilder()
+                .maximumWeight(properties.getCache().getL1MaxBytes())
+                .weigher((String key, byte[] value) -> value.length)
+                .expireAfterWrite(Duration.ofMinutes(5))
+                .recordStats()
+                .build();
+    }
 
     /**
      * Get cached response from tiered cache hierarchy
@@ -62,66 +91,183 @@ public class TieredCacheService {
      * Promotes cache hits to upper tiers
      */
     public Optional<ChatResponse> get(ChatRequest request) {
-        String cacheKey = generateCacheKey(request);
-        String promptText = request.getConcatenatedContent();
-
-        // L1: Check Caffeine (fastest)
-        ChatResponse l1Hit = l1Cache.getIfPresent(cacheKey);
-        if (l1Hit != null) {
-            log.debug("L1 Cache HIT (Caffeine) - {}ms latency", "<1");
-            recordCacheHit("L1", "<1ms");
-            return Optional.of(l1Hit);
+        return lookup(generateCacheKey(request), request).map(CacheHit::response);
+    }
+
+    /**
+     * Look up a response under a precomputed cache key and report the tier that served it.
+     *
+     * @param cacheKey key produced by {@link CacheKeyGenerator}
+     * @param request  the originating request (used for the semantic tier)
+     * @return the hit and its tier, or empty on a miss in every tier
+     */
+    public Optional<CacheHit> lookup(String cacheKey, ChatRequest request) {
+        Optional<CacheHit> hit = probeL1(cacheKey);
+        if (hit.isEmpty()) {
+            hit = probeL2(cacheKey);
+        }
+        if (hit.isEmpty()) {
+            hit = probeL3(cacheKey, request);
+        }
+        if (hit.isEmpty()) {
+            hit = probeL4(cacheKey, request);
         }
+        if (hit.isEmpty()) {
+            log.debug("Cache MISS on all tiers (L1, L2, L3, L4)");
+        }
+        return hit;
+    }
 
-        // L2: Check Redis
-        try {
-            String l2Value = redisTemplate.opsForValue().get(cacheKey);
-            if (l2Value != null) {
-                log.debug("L2 Cache HIT (Redis) - promoting to L1");
-                ChatResponse l2Hit = objectMapper.readValue(l2Value, ChatResponse.class);
+    /**
+     * Probe only the in-process L1 tier.
+     */
+    public Optional<CacheHit> lookupLocal(String cacheKey) {
+        return probeL1(cacheKey);
+    }
 
-                // Promote to L1
-                l1Cache.put(cacheKey, l2Hit);
+    /**
+     * Probe the remote tiers concurrently.
+     *
+     * <p>L2 and L3 are issued in parallel, each bounded by its own deadline; a probe
+     * that misses its deadline counts as a miss. The first hit wins. L4 is only
+     * consulted after both L2 and L3 missed, since cold storage is the slowest tier.</p>
+     *
+     * @param cacheKey key produced by {@link CacheKeyGenerator}
+     * @param request  the originating request (used for the semantic tier)
+     * @param lookup   per-tier deadlines
+     * @return future completing with the first hit, or empty when every tier missed
+     */
+    public CompletableFuture<Optional<CacheHit>> lookupRemote(String cacheKey, ChatRequest request,
+                                                             NeuroGateProperties.Cache.Lookup lookup) {
+        List<CompletableFuture<Optional<CacheHit>>> probes = new ArrayList<>(2);
+        probes.add(probeAsync(() -> probeL2(cacheKey), lookup.getL2DeadlineMs()));
+        if (semanticCacheService.isPresent()) {
+            probes.add(probeAsync(() -> probeL3(cacheKey, request), lookup.getL3DeadlineMs()));
+        }
 
-                recordCacheHit("L2", "<5ms");
-                return Optional.of(l2Hit);
+        return firstHit(probes).thenCompose(hit -> {
+            if (hit.isPresent() || !s3CacheService.isEnabled()) {
+                return CompletableFuture.completedFuture(hit);
             }
-        } catch (Exception e) {
-            log.warn("L2 Redis cache read failed: {}", e.getMessage());
-        }
+            return probeAsync(() -> probeL4(cacheKey, request), lookup.getL4DeadlineMs());
+        });
+    }
 
-        // L3: Check Qdrant (semantic search)
-        if (semanticCacheService.isPresent()) {
-            Optional<ChatResponse> l3Hit = semanticCacheService.get().get(request);
-            if (l3Hit.isPresent()) {
-                log.debug("L3 Cache HIT (Qdrant) - promoting to L2 and L1");
-                ChatResponse response = l3Hit.get();
+    private CompletableFuture<Optional<CacheHit>> probeAsync(Supplier<Optional<CacheHit>> probe, long deadlineMs) {
+        return CompletableFuture.supplyAsync(probe, taskExecutor)
+                .completeOnTimeout(Optional.empty(), deadlineMs, TimeUnit.MILLISECONDS)
+                .exceptionally(ex -> Optional.empty());
+    }
 
-                // Promote to L2 and L1
-                promoteToUpperTiers(cacheKey, response);
+    private static CompletableFuture<Optional<CacheHit>> firstHit(List<CompletableFuture<Optional<CacheHit>>> probes) {
+        CompletableFuture<Optional<CacheHit>> result = new CompletableFuture<>();
+        AtomicInteger remaining = new AtomicInteger(probes.size());
+        for (CompletableFuture<Optional<CacheHit>> probe : probes) {
+            probe.thenAccept(hit -> {
+                if (hit.isPresent()) {
+                    result.complete(hit);
+                } else if (remaining.decrementAndGet() == 0) {
+                    result.complete(Optional.empty());
+                }
+            });
+        }
+        return result;
+    }
 
-                recordCacheHit("L3", "<20ms");
-                return Optional.of(response);
+    /**
+     * L1: Check Caffeine (fastest)
+     */
+    private Optional<CacheHit> probeL1(String cacheKey) {
+        long start = System.nanoTime();
+        byte[] l1Value = l1Cache.getIfPresent(cacheKey);
+        if (l1Value != null) {
+            try {
+                ChatResponse l1Hit = codec.decode(l1Value);
+                recordTierLatency(CacheTier.L1, true, start);
+                log.debug("L1 Cache HIT (Caffeine)");
+                recordCacheHit(CacheTier.L1, start);
+                return Optional.of(new CacheHit(CacheTier.L1, l1Hit));
+            } catch (IllegalArgumentException e) {
+                log.warn("Discarding undecodable L1 cache entry: {}", e.getMessage());
+                l1Cache.invalidate(cacheKey);
             }
         }
+        recordTierLatency(CacheTier.L1, false, start);
+        return Optional.empty();
+    }
 
-        // L4: S3 cold storage (if enabled)
-        if (s3CacheService.isEnabled()) {
-            Optional<ChatResponse> l4Hit = s3CacheService.get(cacheKey);
-            if (l4Hit.isPresent()) {
-                log.debug("L4 Cache HIT (S3) - promoting to L3, L2, and L1");
-                ChatResponse response = l4Hit.get();
+    /**
+     * L2: Check Redis
+     */
+    private Optional<CacheHit> probeL2(String cacheKey) {
+        long start = System.nanoTime();
+        try {
+            byte[] l2Value = redisTemplate.opsForValue().get(cacheKey);
+            if (l2Value != null) {
+                log.debug("L2 Cache HIT (Redis) - promoting to L1");
+                ChatResponse l2Hit = codec.decode(l2Value);
 
-                // Promote to all upper tiers
-                promoteToUpperTiers(cacheKey, response);
-                semanticCacheService.ifPresent(s -> s.put(request, response)); // Also promote to L3
+                // Promote to L1 (already encoded)
+                l1Cache.put(cacheKey, l2Value);
 
-                recordCacheHit("L4", "<100ms");
-                return Optional.of(response);
+                recordTierLatency(CacheTier.L2, true, start);
+                recordCacheHit(CacheTier.L2, start);
+                return Optional.of(new CacheHit(CacheTier.L2, l2Hit));
             }
+        } catch (Exception e) {
+            log.warn("L2 Redis cache read failed: {}", e.getMessage());
+        }
+        recordTierLatency(CacheTier.L2, false, start);
+        return Optional.empty();
+    }
+
+    /**
+     * L3: Check Qdrant (semantic search)
+     */
+    private Optional<CacheHit> probeL3(String cacheKey, ChatRequest request) {
+        if (semanticCacheService.isEmpty()) {
+            return Optional.empty();
+        }
+        long start = System.nanoTime();
+        Optional<ChatResponse> l3Hit = semanticCacheService.get().get(request);
+        recordTierLatency(CacheTier.L3, l3Hit.isPresent(), start);
+        if (l3Hit.isPresent()) {
+            log.debug("L3 Cache HIT (Qdrant) - promoting to L2 and L1");
+            ChatResponse response = l3Hit.get();
+
+            // Promote to L2 and L1
+            promoteToUpperTiers(cacheKey, response);
+
+            recordCacheHit(CacheTier.L3, start);
+            return Optional.of(new CacheHit(CacheTier.L3, response));
         }
+        return Optional.empty();
+    }
 
-        log.debug("Cache MISS on all tiers (L1, L2, L3, L4)");
+    /**
+     * L4: S3 cold storage (if enabled)
+     */
+    private Optional<CacheHit> probeL4(String cacheKey, ChatRequest request) {
+        if (!s3CacheService.isEnabled()) {
+            return Optional.empty();
+        }
+        long start = System.nanoTime();
+        Optional<ChatResponse> l4Hit = s3CacheService.get(cacheKey);
+        recordTierLatency(CacheTier.L4, l4Hit.isPresent(), start);
+        if (l4Hit.isPresent()) {
+            log.debug("L4 Cache HIT (S3) - promoting to L3, L2, and L1");
+            ChatResponse response = l4Hit.get();
+
+            // Promote to all upper tiers
+            byte[] encoded = promoteToUpperTiers(cacheKey, response);
+            if (encoded != null) {
+                // Also promote to L3
+                writeBehind.writeL3(new CacheWrite(cacheKey, request.getConcatenatedContent(), encoded));
+            }
+
+            recordCacheHit(CacheTier.L4, start);
+            return Optional.of(new CacheHit(CacheTier.L4, response));
+        }
         return Optional.empty();
     }
 
@@ -129,82 +275,74 @@ public class TieredCacheService {
      * Store response in all cache tiers
      */
     public void put(ChatRequest request, ChatResponse response) {
-        String cacheKey = generateCacheKey(request);
-
-        // Store in L1 (Caffeine)
-        l1Cache.put(cacheKey, response);
-        log.debug("Stored in L1 cache (Caffeine)");
+        put(generateCacheKey(request), request, response);
+    }
 
-        // Store in L2 (Redis)
+    /**
+     * Store response in all cache tiers under a precomputed cache key.
+     *
+     * Only the L1 insert happens on the caller's thread; L2, L3 and L4 are
+     * written behind by {@link CacheWriteBehindService}.
+     */
+    public void put(String cacheKey, ChatRequest request, ChatResponse response) {
+        byte[] encoded;
         try {
-            String jsonValue = objectMapper.writeValueAsString(response);
-            redisTemplate.opsForValue().set(cacheKey, jsonValue, Duration.ofHours(24));
-            log.debug("Stored in L2 cache (Redis) with 24h TTL");
-        } catch (JsonProcessingException e) {
-            log.warn("Failed to serialize response for L2 cache: {}", e.getMessage());
+            encoded = codec.encode(response);
+        } catch (IllegalStateException e) {
+            log.warn("Failed to encode response for caching: {}", e.getMessage());
+            return;
         }
 
-        // Store in L3 (Qdrant semantic)
-        semanticCacheService.ifPresent(s -> s.put(request, response));
-        log.debug("Stored in L3 cache (Qdrant)");
+        // Store in L1 (Caffeine)
+        l1Cache.put(cacheKey, encoded);
+        log.debug("Stored in L1 cache (Caffeine), {} bytes", encoded.length);
 
-        // L4: S3 archival (if enabled)
-        if (s3CacheService.isEnabled()) {
-            s3CacheService.put(cacheKey, response);
-            log.debug("Stored in L4 cache (S3 cold storage)");
-        }
+        // Queue L2 (Redis), L3 (Qdrant semantic) and L4 (S3 archival)
+        writeBehind.writeAll(new CacheWrite(cacheKey, request.getConcatenatedContent(), encoded));
     }
 
     /**
      * Promote cache hit to upper tiers
+     *
+     * @return the encoded response, or {@code null} if it could not be encoded
      */
-    private void promoteToUpperTiers(String cacheKey, ChatResponse response) {
+    private byte[] promoteToUpperTiers(String cacheKey, ChatResponse response) {
+        byte[] encoded;
+        try {
+            encoded = codec.encode(response);
+        } catch (IllegalStateException e) {
+            log.warn("Failed to encode response for promotion: {}", e.getMessage());
+            return null;
+        }
+
         // Promote to L1
-        l1Cache.put(cacheKey, response);
+        l1Cache.put(cacheKey, encoded);
 
         // Promote to L2
-        try {
-            String jsonValue = objectMapper.writeValueAsString(response);
-            redisTemplate.opsForValue().set(cacheKey, jsonValue, Duration.ofHours(24));
-        } catch (JsonProcessingException e) {
-            log.warn("Failed to promote to L2 cache: {}", e.getMessage());
-        }
+        writeBehind.writeL2(new CacheWrite(cacheKey, null, encoded));
+        return encoded;
     }
 
     /**
      * Generate cache key from request
      */
     private String generateCacheKey(ChatRequest request) {
-        try {
-            String content = request.getConcatenatedContent();
-            String model = request.getModel();
-            String temperature = String.valueOf(request.getTemperature());
-            String maxTokens = String.valueOf(request.getMaxTokens());
-            String fingerprint = content + "|" + model + "|" + temperature + "|" + maxTokens;
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hash = digest.digest(fingerprint.getBytes(StandardCharsets.UTF_8));
-
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hash) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1)
-                    hexString.append('0');
-                hexString.append(hex);
-            }
-
-            return "neurogate:cache:" + hexString.toString().substring(0, 32);
-        } catch (Exception e) {
-            log.error("Failed to generate cache key", e);
-            return "neurogate:cache:error";
-        }
+        return cacheKeyGenerator.generate(request);
     }
 
     /**
      * Record cache hit metrics
      */
-    private void recordCacheHit(String tier, String latency) {
-        log.info("CACHE HIT - Tier: {}, Latency: {}", tier, latency);
-        metrics.recordCacheHit();
+    private void recordCacheHit(CacheTier tier, long startNanos) {
+        log.info("CACHE HIT - Tier: {}, Latency: {}us", tier, (System.nanoTime() - startNanos) / 1000);
+        metrics.recordCacheHit(tier.name());
+    }
+
+    /**
+     * Record probe latency for a tier (exported as a histogram)
+     */
+    private void recordTierLatency(CacheTier tier, boolean hit, long startNanos) {
+        metrics.recordCacheTierLatency(tier.name(), hit, System.nanoTime() - startNanos);
     }
 
     /**
@@ -213,11 +351,27 @@ public class TieredCacheService {
     public CacheStats getStats() {
         return CacheStats.builder()
                 .l1Size(l1Cache.estimatedSize())
+                .l1WeightBytes(l1Cache.policy().eviction()
+                        .map(eviction -> eviction.weightedSize().orElse(0L))
+                        .orElse(0L))
                 .l1HitRate(l1Cache.stats().hitRate())
                 .l1MissRate(l1Cache.stats().missRate())
                 .build();
     }
 
+    /**
+     * Cache tier that served a hit
+     */
+    public enum CacheTier {
+        L1, L2, L3, L4
+    }
+
+    /**
+     * A cached response together with the tier that served it
+     */
+    public record CacheHit(CacheTier tier, ChatResponse response) {
+    }
+
     /**
      * Cache statistics model
      */
@@ -225,6 +379,7 @@ public class TieredCacheService {
     @lombok.Data
     public static class CacheStats {
         private long l1Size;
+        private long l1WeightBytes;
         private double l1HitRate;
         private double l1MissRate;
     }
@@ -0,0 +1,192 @@
+package com.neurogate.router.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Bounded write-behind queue for a single cache tier.
+ *
+ * <p>Producers never block: {@link #offer} either enqueues or drops the write
+ * (counted in {@code neurogate.cache.writebehind.dropped}). A dedicated worker
+ * thread drains the queue in batches of up to {@code batchSize} entries and hands
+ * each batch to the tier writer, so a slow tier only ever delays its own queue.
+ * Once a batch has its first entry, the worker waits up to {@code lingerMs} for it
+ * to fill before flushing, so a steady trickle of writes still goes out in batches.
+ * It stops lingering on shutdown.</p>
+ *
+ * @param <T> the queued write type
+ */
+@Slf4j
+class WriteBehindQueue<T> {
+
+    private final String tier;
+    private final BlockingQueue<T> queue;
+    private final int batchSize;
+    private final long lingerMs;
+    private final Consumer<List<T>> writer;
+
+    private final Counter enqueued;
+    private final Counter dropped;
+    private final Counter written;
+    private final Counter failed;
+    private final DistributionSummary batchSizes;
+    private final Timer flushLatency;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    WriteBehindQueue(String tier, int capacity, int batchSize, long lingerMs,
+                     Consumer<List<T>> writer, MeterRegistry registry) {
+        this.tier = tier;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.lingerMs = Math.max(1, lingerMs);
+        this.writer = writer;
+
+        this.enqueued = Counter.builder("neurogate.cache.writebehind.enqueued")
+                .description("Cache writes accepted by the write-behind queue")
+                .tag("tier", tier)
+                .register(registry);
+        this.dropped = Counter.builder("neurogate.cache.writebehind.dropped")
+                .description("Cache writes dropped because the write-behind queue was full")
+                .tag("tier", tier)
+                .register(registry);
+        this.written = Counter.builder("neurogate.cache.writebehind.written")
+                .description("Cache writes flushed to the tier")
+                .tag("tier", tier)
+                .register(registry);
+        this.failed = Counter.builder("neurogate.cache.writebehind.failed")
+                .description("Cache writes lost because the tier write failed")
+                .tag("tier", tier)
+                .register(registry);
+        this.batchSizes = DistributionSummary.builder("neurogate.cache.writebehind.batch.size")
+                .description("Entries per write-behind flush")
+                .tag("tier", tier)
+                .register(registry);
+        this.flushLatency = Timer.builder("neurogate.cache.writebehind.flush.latency")
+                .description("Time to write one batch to the tier")
+                .tag("tier", tier)
+                .register(registry);
+        Gauge.builder("neurogate.cache.writebehind.queue.depth", queue, BlockingQueue::size)
+                .description("Pending cache writes")
+                .tag("tier", tier)
+                .register(registry);
+    }
+
+    /**
+     * Enqueue a write without blocking.
+     *
+     * @return false if the queue was full and the write was dropped
+     */
+    boolean offer(T item) {
+        if (queue.offer(item)) {
+            enqueued.increment();
+            return true;
+        }
+        dropped.increment();
+        log.debug("Write-behind queue for {} is full, dropping cache write", tier);
+        return false;
+    }
+
+    int depth() {
+        return queue.size();
+    }
+
+    synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::drainLoop, "cache-write-behind-" + tier.toLowerCase());
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Stop the worker after it has flushed everything still queued.
+     */
+    synchronized void shutdown(long timeoutMs) {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            worker.join(timeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            log.warn("Write-behind worker for {} did not finish in {}ms, {} writes pending",
+                    tier, timeoutMs, queue.size());
+            worker.interrupt();
+        }
+    }
+
+    private void drainLoop() {
+        List<T> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                T first = queue.poll(lingerMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                fill(batch, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMs));
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                }
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Keep adding to the batch until it is full, the linger deadline passes or the
+     * queue is shutting down.
+     */
+    private void fill(List<T> batch, long deadlineNanos) throws InterruptedException {
+        while (running && batch.size() < batchSize) {
+            long remaining = deadlineNanos - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            T next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+            queue.drainTo(batch, batchSize - batch.size());
+        }
+    }
+
+    private void flush(List<T> batch) {
+        long start = System.nanoTime();
+        try {
+            writer.accept(batch);
+            written.increment(batch.size());
+        } catch (Exception e) {
+            failed.increment(batch.size());
+            log.warn("Write-behind flush of {} entries to {} failed: {}", batch.size(), tier, e.getMessage());
+        } finally {
+            batchSizes.record(batch.size());
+            flushLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
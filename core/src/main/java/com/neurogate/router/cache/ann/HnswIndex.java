@@ -0,0 +1,549 @@
+package com.neurogate.router.cache.ann;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+
+/**
+ * Hierarchical Navigable Small World graph for approximate nearest-neighbour
+ * search by cosine similarity (Malkov &amp; Yashunin, 2016).
+ *
+ * <p>Vectors are copied and normalized on insert, so similarity is a plain dot
+ * product over primitive {@code float[]}. Searches run concurrently under a read
+ * lock; inserts and removals take the write lock.</p>
+ *
+ * <p>Removed entries are tombstoned: they still route searches but are never
+ * returned. Tombstones degrade recall, so once {@link #needsRebuild()} reports
+ * true the owner should call {@link #rebuild()} off the request path. The rebuild
+ * constructs a fresh graph from the live entries without holding the lock, then
+ * replays concurrent changes and swaps it in.</p>
+ */
+public class HnswIndex {
+
+    private static final int MIN_TOMBSTONES_FOR_REBUILD = 64;
+    private static final double MAX_TOMBSTONE_RATIO = 0.25;
+
+    private final int dimension;
+    private final int maxLinks;
+    private final int maxLinksLayer0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final Random random;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private Graph graph = new Graph();
+    /**
+     * Changes made while a rebuild is in progress, replayed onto the new graph
+     */
+    private List<Change> pendingChanges;
+
+    public HnswIndex(int dimension, int maxLinks, int efConstruction) {
+        this(dimension, maxLinks, efConstruction, 42L);
+    }
+
+    public HnswIndex(int dimension, int maxLinks, int efConstruction, long seed) {
+        if (dimension <= 0 || maxLinks < 2 || efConstruction < 1) {
+            throw new IllegalArgumentException("Invalid HNSW parameters: dimension=" + dimension
+                    + ", m=" + maxLinks + ", efConstruction=" + efConstruction);
+        }
+        this.dimension = dimension;
+        this.maxLinks = maxLinks;
+        this.maxLinksLayer0 = maxLinks * 2;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1.0 / Math.log(maxLinks);
+        this.random = new Random(seed);
+    }
+
+    /**
+     * Insert a vector under the given key. Re-adding a live key with a different
+     * vector replaces its entry: the old node is tombstoned and a new one is linked
+     * in for the new vector.
+     *
+     * @return true if the key was not already present
+     */
+    public boolean add(String key, float[] vector) {
+        float[] normalized = normalize(vector);
+        lock.writeLock().lock();
+        try {
+            if (pendingChanges != null) {
+                pendingChanges.add(new Change(key, normalized));
+            }
+            return graph.insert(key, normalized);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove the entry for a key. The node stays in the graph as a tombstone
+     * until the next rebuild.
+     *
+     * @return true if the key was present
+     */
+    public boolean remove(String key) {
+        lock.writeLock().lock();
+        try {
+            if (pendingChanges != null) {
+                pendingChanges.add(new Change(key, null));
+            }
+            return graph.remove(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Find the {@code k} live entries most similar to the query.
+     *
+     * @param ef beam width at layer 0; higher trades latency for recall
+     * @return results ordered by descending similarity
+     */
+    public List<SearchResult> search(float[] query, int k, int ef) {
+        float[] normalized = normalize(query);
+        lock.readLock().lock();
+        try {
+            return graph.search(normalized, k, Math.max(ef, k));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Whether enough entries have been removed that the graph should be rebuilt
+     */
+    public boolean needsRebuild() {
+        lock.readLock().lock();
+        try {
+            return !rebuilding.get()
+                    && graph.tombstones >= MIN_TOMBSTONES_FOR_REBUILD
+                    && graph.tombstones > graph.nodes.size() * MAX_TOMBSTONE_RATIO;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rebuild the graph from live entries, dropping tombstones. Searches and
+     * writes proceed against the old graph meanwhile. No-op if a rebuild is
+     * already running.
+     */
+    public void rebuild() {
+        rebuild(key -> true);
+    }
+
+    /**
+     * Rebuild as {@link #rebuild()}, also dropping live entries whose key the
+     * owner no longer holds. Changes made during the rebuild are replayed as is.
+     *
+     * @param retain whether the entry for a key should be kept
+     */
+    public void rebuild(Predicate<String> retain) {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<Node> live = new ArrayList<>();
+            lock.writeLock().lock();
+            try {
+                for (Node node : graph.nodesByKey.values()) {
+                    if (retain.test(node.key)) {
+                        live.add(node);
+                    }
+                }
+                pendingChanges = new ArrayList<>();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            Graph fresh = new Graph();
+            for (Node node : live) {
+                fresh.insert(node.key, node.vector);
+            }
+
+            lock.writeLock().lock();
+            try {
+                if (pendingChanges != null) {
+                    for (Change change : pendingChanges) {
+                        if (change.vector() == null) {
+                            fresh.remove(change.key());
+                        } else {
+                            fresh.insert(change.key(), change.vector());
+                        }
+                    }
+                    graph = fresh;
+                }
+            } finally {
+                pendingChanges = null;
+                lock.writeLock().unlock();
+            }
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * Number of live entries
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return graph.nodesByKey.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of graph nodes, including tombstones awaiting rebuild
+     */
+    public int nodeCount() {
+        lock.readLock().lock();
+        try {
+            return graph.nodes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            graph = new Graph();
+            // An in-flight rebuild sees this and discards its result
+            pendingChanges = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int dimension() {
+        return dimension;
+    }
+
+    /**
+     * Approximate heap footprint of one node (vector plus layer-0 links), used for
+     * memory accounting by callers.
+     */
+    public static long estimateNodeBytes(int dimension, int maxLinks) {
+        return 96L + dimension * 4L + maxLinks * 2L * 4L;
+    }
+
+    /**
+     * Cosine similarity of two vectors of equal length
+     */
+    public static float cosine(float[] a, float[] b) {
+        return dot(a, b) / (float) Math.sqrt((double) dot(a, a) * dot(b, b));
+    }
+
+    private float[] normalize(float[] vector) {
+        if (vector.length != dimension) {
+            throw new IllegalArgumentException(
+                    "Expected vector of dimension " + dimension + " but got " + vector.length);
+        }
+        float norm = (float) Math.sqrt(dot(vector, vector));
+        float[] normalized = new float[dimension];
+        if (norm == 0f) {
+            return normalized;
+        }
+        for (int i = 0; i < dimension; i++) {
+            normalized[i] = vector[i] / norm;
+        }
+        return normalized;
+    }
+
+    /**
+     * Unrolled so the JIT can keep four independent accumulators in flight.
+     */
+    private static float dot(float[] a, float[] b) {
+        float s0 = 0f, s1 = 0f, s2 = 0f, s3 = 0f;
+        int i = 0;
+        int bound = a.length & ~3;
+        for (; i < bound; i += 4) {
+            s0 += a[i] * b[i];
+            s1 += a[i + 1] * b[i + 1];
+            s2 += a[i + 2] * b[i + 2];
+            s3 += a[i + 3] * b[i + 3];
+        }
+        for (; i < a.length; i++) {
+            s0 += a[i] * b[i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    private int randomLevel() {
+        return (int) (-Math.log(1.0 - random.nextDouble()) * levelMultiplier);
+    }
+
+    private int maxLinksAt(int level) {
+        return level == 0 ? maxLinksLayer0 : maxLinks;
+    }
+
+    /**
+     * Graph state. Mutated only under the write lock, or privately by a rebuild
+     * before it is published.
+     */
+    private final class Graph {
+
+        final Map<String, Node> nodesByKey = new HashMap<>();
+        final List<Node> nodes = new ArrayList<>();
+        Node entryPoint;
+        int tombstones;
+
+        boolean insert(String key, float[] vector) {
+            Node existing = nodesByKey.get(key);
+            if (existing != null) {
+                if (Arrays.equals(existing.vector, vector)) {
+                    return false;
+                }
+                // Links were chosen for the old vector, so the node is replaced, not moved
+                remove(key);
+            }
+
+            int level = randomLevel();
+            Node node = new Node(nodes.size(), key, vector, level, maxLinks, maxLinksLayer0);
+            nodes.add(node);
+            nodesByKey.put(key, node);
+
+            if (entryPoint == null) {
+                entryPoint = node;
+                return existing == null;
+            }
+
+            Node current = entryPoint;
+            for (int l = entryPoint.level; l > level; l--) {
+                current = greedyClosest(vector, current, l);
+            }
+            for (int l = Math.min(level, entryPoint.level); l >= 0; l--) {
+                List<Candidate> candidates = sortedDescending(searchLayer(vector, current, efConstruction, l));
+                int[] selected = selectNeighbors(candidates, maxLinksAt(l));
+                for (int neighbourId : selected) {
+                    node.addLink(l, neighbourId);
+                    connect(nodes.get(neighbourId), node, l);
+                }
+                current = candidates.get(0).node;
+            }
+
+            if (level > entryPoint.level) {
+                entryPoint = node;
+            }
+            return existing == null;
+        }
+
+        boolean remove(String key) {
+            Node node = nodesByKey.remove(key);
+            if (node == null) {
+                return false;
+            }
+            node.deleted = true;
+            tombstones++;
+            return true;
+        }
+
+        List<SearchResult> search(float[] query, int k, int ef) {
+            if (entryPoint == null || nodesByKey.isEmpty()) {
+                return List.of();
+            }
+            Node current = entryPoint;
+            for (int level = entryPoint.level; level > 0; level--) {
+                current = greedyClosest(query, current, level);
+            }
+
+            List<Candidate> found = sortedDescending(searchLayer(query, current, ef, 0));
+            List<SearchResult> results = new ArrayList<>(Math.min(k, found.size()));
+            for (Candidate candidate : found) {
+                if (results.size() == k) {
+                    break;
+                }
+                if (!candidate.node.deleted) {
+                    results.add(new SearchResult(candidate.node.key, candidate.similarity));
+                }
+            }
+            return results;
+        }
+
+        /**
+         * Add a back-link from {@code from} to {@code to}, pruning {@code from}'s
+         * links with the neighbour-selection heuristic when it is already full.
+         */
+        private void connect(Node from, Node to, int level) {
+            int capacity = maxLinksAt(level);
+            if (from.linkCounts[level] < capacity) {
+                from.addLink(level, to.id);
+                return;
+            }
+            List<Candidate> candidates = new ArrayList<>(capacity + 1);
+            candidates.add(new Candidate(to, dot(from.vector, to.vector)));
+            for (int i = 0; i < from.linkCounts[level]; i++) {
+                Node neighbour = nodes.get(from.links[level][i]);
+                candidates.add(new Candidate(neighbour, dot(from.vector, neighbour.vector)));
+            }
+            candidates.sort(BY_SIMILARITY_DESC);
+            int[] selected = selectNeighbors(candidates, capacity);
+            System.arraycopy(selected, 0, from.links[level], 0, selected.length);
+            from.linkCounts[level] = selected.length;
+        }
+
+        /**
+         * Neighbour-selection heuristic: keep a candidate only if it is closer to
+         * the base vector than to any neighbour already kept, which preserves links
+         * across clusters. Remaining slots are filled with the closest pruned
+         * candidates.
+         */
+        private int[] selectNeighbors(List<Candidate> sortedCandidates, int limit) {
+            List<Candidate> kept = new ArrayList<>(limit);
+            List<Candidate> pruned = new ArrayList<>();
+            for (Candidate candidate : sortedCandidates) {
+                if (kept.size() >= limit) {
+                    break;
+                }
+                boolean diverse = true;
+                for (Candidate selected : kept) {
+                    if (dot(candidate.node.vector, selected.node.vector) > candidate.similarity) {
+                        diverse = false;
+                        break;
+                    }
+                }
+                if (diverse) {
+                    kept.add(candidate);
+                } else {
+                    pruned.add(candidate);
+                }
+            }
+            for (int i = 0; i < pruned.size() && kept.size() < limit; i++) {
+                kept.add(pruned.get(i));
+            }
+
+            int[] ids = new int[kept.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = kept.get(i).node.id;
+            }
+            return ids;
+        }
+
+        private Node greedyClosest(float[] query, Node start, int level) {
+            Node current = start;
+            float best = dot(query, current.vector);
+            boolean improved = true;
+            while (improved) {
+                improved = false;
+                int[] links = current.links[level];
+                for (int i = 0; i < current.linkCounts[level]; i++) {
+                    Node neighbour = nodes.get(links[i]);
+                    float similarity = dot(query, neighbour.vector);
+                    if (similarity > best) {
+                        best = similarity;
+                        current = neighbour;
+                        improved = true;
+                    }
+                }
+            }
+            return current;
+        }
+
+        /**
+         * Beam search within one layer.
+         *
+         * @return up to {@code ef} closest nodes, as a min-heap on similarity
+         */
+        private PriorityQueue<Candidate> searchLayer(float[] query, Node entry, int ef, int level) {
+            BitSet visited = new BitSet(nodes.size());
+            PriorityQueue<Candidate> frontier = new PriorityQueue<>(BY_SIMILARITY_DESC);
+            PriorityQueue<Candidate> results = new PriorityQueue<>(BY_SIMILARITY);
+
+            Candidate start = new Candidate(entry, dot(query, entry.vector));
+            visited.set(entry.id);
+            frontier.add(start);
+            results.add(start);
+
+            while (!frontier.isEmpty()) {
+                Candidate current = frontier.poll();
+                if (results.size() >= ef && current.similarity < results.peek().similarity) {
+                    break;
+                }
+                Node node = current.node;
+                int[] links = node.links[level];
+                for (int i = 0; i < node.linkCounts[level]; i++) {
+                    int neighbourId = links[i];
+                    if (visited.get(neighbourId)) {
+                        continue;
+                    }
+                    visited.set(neighbourId);
+                    Node neighbour = nodes.get(neighbourId);
+                    float similarity = dot(query, neighbour.vector);
+                    if (results.size() < ef || similarity > results.peek().similarity) {
+                        Candidate candidate = new Candidate(neighbour, similarity);
+                        frontier.add(candidate);
+                        results.add(candidate);
+                        if (results.size() > ef) {
+                            results.poll();
+                        }
+                    }
+                }
+            }
+            return results;
+        }
+    }
+
+    private static final Comparator<Candidate> BY_SIMILARITY = Comparator.comparingDouble(Candidate::similarity);
+    private static final Comparator<Candidate> BY_SIMILARITY_DESC = BY_SIMILARITY.reversed();
+
+    private static List<Candidate> sortedDescending(PriorityQueue<Candidate> heap) {
+        List<Candidate> sorted = new ArrayList<>(heap);
+        sorted.sort(BY_SIMILARITY_DESC);
+        return sorted;
+    }
+
+    /**
+     * A search hit
+     *
+     * @param key        key passed to {@link #add}
+     * @param similarity cosine similarity to the query
+     */
+    public record SearchResult(String key, float similarity) {
+    }
+
+    private record Candidate(Node node, float similarity) {
+    }
+
+    /**
+     * An add ({@code vector != null}) or removal recorded during a rebuild
+     */
+    private record Change(String key, float[] vector) {
+    }
+
+    private static final class Node {
+        final int id;
+        final String key;
+        final float[] vector;
+        final int level;
+        final int[][] links;
+        final int[] linkCounts;
+        boolean deleted;
+
+        Node(int id, String key, float[] vector, int level, int maxLinks, int maxLinksLayer0) {
+            this.id = id;
+            this.key = key;
+            this.vector = vector;
+            this.level = level;
+            this.links = new int[level + 1][];
+            this.linkCounts = new int[level + 1];
+            for (int l = 0; l <= level; l++) {
+                links[l] = new int[l == 0 ? maxLinksLayer0 : maxLinks];
+            }
+        }
+
+        void addLink(int level, int target) {
+            links[level][linkCounts[level]++] = target;
+        }
+    }
+}
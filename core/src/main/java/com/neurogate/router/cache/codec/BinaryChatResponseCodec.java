@@ -0,0 +1,314 @@
+package com.neurogate.router.cache.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neurogate.sentinel.model.ChatResponse;
+import com.neurogate.sentinel.model.Choice;
+import com.neurogate.sentinel.model.Message;
+import com.neurogate.sentinel.model.Usage;
+import com.neurogate.validation.model.ValidationMetadata;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact binary codec for cached responses, with optional LZ4 compression.
+ *
+ * <p>Layout: one format byte followed by the response fields in declaration order.
+ * Strings are length-prefixed UTF-8, integers are zig-zag varints, and open-ended
+ * fields ({@code Object} message content parts, {@code logprobs}, validation
+ * metadata) are embedded as JSON since they are rare on cached responses.</p>
+ *
+ * <p>Format bytes:</p>
+ * <ul>
+ *   <li>{@code 0x01} - uncompressed binary</li>
+ *   <li>{@code 0x02} - LZ4 block: varint uncompressed length, then compressed binary</li>
+ *   <li>{@code '{'} - legacy Jackson JSON entry, decoded for backwards compatibility</li>
+ * </ul>
+ */
+public class BinaryChatResponseCodec implements ChatResponseCodec {
+
+    static final byte FORMAT_BINARY = 0x01;
+    static final byte FORMAT_BINARY_LZ4 = 0x02;
+    private static final byte FORMAT_JSON = '{';
+
+    private static final int CONTENT_NULL = 0;
+    private static final int CONTENT_STRING = 1;
+    private static final int CONTENT_JSON = 2;
+
+    private final ObjectMapper objectMapper;
+    private final boolean compress;
+    private final int compressionThresholdBytes;
+    private final LZ4Compressor compressor;
+    private final LZ4FastDecompressor decompressor;
+
+    public BinaryChatResponseCodec(ObjectMapper objectMapper, boolean compress, int compressionThresholdBytes) {
+        this.objectMapper = objectMapper;
+        this.compress = compress;
+        this.compressionThresholdBytes = compressionThresholdBytes;
+        LZ4Factory factory = LZ4Factory.fastestInstance();
+        this.compressor = factory.fastCompressor();
+        this.decompressor = factory.fastDecompressor();
+    }
+
+    @Override
+    public byte[] encode(ChatResponse response) {
+        ByteSink sink = new ByteSink(256);
+        sink.writeByte(FORMAT_BINARY);
+        writeResponse(sink, response);
+        byte[] raw = sink.toByteArray();
+
+        if (!compress || raw.length < compressionThresholdBytes) {
+            return raw;
+        }
+        return compressPayload(raw);
+    }
+
+    @Override
+    public ChatResponse decode(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            throw new IllegalArgumentException("Empty cache entry");
+        }
+        return switch (bytes[0]) {
+            case FORMAT_BINARY -> readResponse(new ByteSource(bytes, 1));
+            case FORMAT_BINARY_LZ4 -> readResponse(new ByteSource(decompressPayload(bytes), 0));
+            case FORMAT_JSON -> readJson(bytes, ChatResponse.class);
+            default -> throw new IllegalArgumentException("Unknown cache entry format: " + bytes[0]);
+        };
+    }
+
+    @Override
+    public String name() {
+        return compress ? "binary-lz4" : "binary";
+    }
+
+    private byte[] compressPayload(byte[] raw) {
+        int payloadLength = raw.length - 1;
+        int maxCompressed = compressor.maxCompressedLength(payloadLength);
+
+        ByteSink header = new ByteSink(8);
+        header.writeByte(FORMAT_BINARY_LZ4);
+        header.writeVarLong(payloadLength);
+        byte[] headerBytes = header.toByteArray();
+
+        byte[] out = Arrays.copyOf(headerBytes, headerBytes.length + maxCompressed);
+        int compressedLength = compressor.compress(raw, 1, payloadLength, out, headerBytes.length, maxCompressed);
+        int total = headerBytes.length + compressedLength;
+
+        // Not worth it: store uncompressed
+        if (total >= raw.length) {
+            return raw;
+        }
+        return Arrays.copyOf(out, total);
+    }
+
+    private byte[] decompressPayload(byte[] bytes) {
+        ByteSource header = new ByteSource(bytes, 1);
+        int payloadLength = header.readVarInt();
+        byte[] payload = new byte[payloadLength];
+        try {
+            decompressor.decompress(bytes, header.position(), payload, 0, payloadLength);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Corrupt LZ4 cache entry", e);
+        }
+        return payload;
+    }
+
+    // ---- writers ----
+
+    private void writeResponse(ByteSink sink, ChatResponse r) {
+        sink.writeString(r.getId());
+        sink.writeString(r.getObject());
+        sink.writeString(r.getTraceId());
+        sink.writeString(r.getSessionId());
+        sink.writeNullableLong(r.getCreated());
+        sink.writeString(r.getModel());
+        writeChoices(sink, r.getChoices());
+        writeUsage(sink, r.getUsage());
+        sink.writeString(r.getSystemFingerprint());
+        sink.writeNullableBoolean(r.getCacheHit());
+        sink.writeString(r.getRoute());
+        sink.writeNullableLong(r.getLatencyMs());
+        sink.writeNullableInt(r.getPiiDetected());
+        sink.writeString(r.getError());
+        sink.writeNullableDouble(r.getCostUsd());
+        sink.writeNullableDouble(r.getSimilarity());
+        writeStringList(sink, r.getCitations());
+        sink.writeBytes(toJson(r.getValidation()));
+    }
+
+    private void writeChoices(ByteSink sink, List<Choice> choices) {
+        if (choices == null) {
+            sink.writeVarLong(0);
+            return;
+        }
+        sink.writeVarLong(choices.size() + 1L);
+        for (Choice choice : choices) {
+            sink.writeNullableInt(choice.getIndex());
+            writeMessage(sink, choice.getMessage());
+            writeMessage(sink, choice.getDelta());
+            sink.writeString(choice.getFinishReason());
+            sink.writeBytes(toJson(choice.getLogprobs()));
+        }
+    }
+
+    private void writeMessage(ByteSink sink, Message message) {
+        if (message == null) {
+            sink.writeByte(0);
+            return;
+        }
+        sink.writeByte(1);
+        sink.writeString(message.getRole());
+        sink.writeString(message.getName());
+
+        Object content = message.getContent();
+        if (content == null) {
+            sink.writeByte(CONTENT_NULL);
+        } else if (content instanceof String text) {
+            sink.writeByte(CONTENT_STRING);
+            sink.writeString(text);
+        } else {
+            sink.writeByte(CONTENT_JSON);
+            sink.writeBytes(toJson(content));
+        }
+    }
+
+    private void writeUsage(ByteSink sink, Usage usage) {
+        if (usage == null) {
+            sink.writeByte(0);
+            return;
+        }
+        sink.writeByte(1);
+        sink.writeNullableInt(usage.getPromptTokens());
+        sink.writeNullableInt(usage.getCompletionTokens());
+        sink.writeNullableInt(usage.getTotalTokens());
+    }
+
+    private void writeStringList(ByteSink sink, List<String> values) {
+        if (values == null) {
+            sink.writeVarLong(0);
+            return;
+        }
+        sink.writeVarLong(values.size() + 1L);
+        for (String value : values) {
+            sink.writeString(value);
+        }
+    }
+
+    // ---- readers ----
+
+    private ChatResponse readResponse(ByteSource source) {
+        return ChatResponse.builder()
+                .id(source.readString())
+                .object(source.readString())
+                .traceId(source.readString())
+                .sessionId(source.readString())
+                .created(source.readNullableLong())
+                .model(source.readString())
+                .choices(readChoices(source))
+                .usage(readUsage(source))
+                .systemFingerprint(source.readString())
+                .cacheHit(source.readNullableBoolean())
+                .route(source.readString())
+                .latencyMs(source.readNullableLong())
+                .piiDetected(source.readNullableInt())
+                .error(source.readString())
+                .costUsd(source.readNullableDouble())
+                .similarity(source.readNullableDouble())
+                .citations(readStringList(source))
+                .validation(fromJson(source.readBytes(), ValidationMetadata.class))
+                .build();
+    }
+
+    private List<Choice> readChoices(ByteSource source) {
+        int count = source.readVarInt() - 1;
+        if (count < 0) {
+            return null;
+        }
+        List<Choice> choices = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            choices.add(Choice.builder()
+                    .index(source.readNullableInt())
+                    .message(readMessage(source))
+                    .delta(readMessage(source))
+                    .finishReason(source.readString())
+                    .logprobs(fromJson(source.readBytes(), Object.class))
+                    .build());
+        }
+        return choices;
+    }
+
+    private Message readMessage(ByteSource source) {
+        if (source.readByte() == 0) {
+            return null;
+        }
+        String role = source.readString();
+        String name = source.readString();
+        Object content = switch (source.readByte()) {
+            case CONTENT_NULL -> null;
+            case CONTENT_STRING -> source.readString();
+            case CONTENT_JSON -> fromJson(source.readBytes(), Object.class);
+            default -> throw new IllegalArgumentException("Unknown message content type in cache entry");
+        };
+        return Message.builder()
+                .role(role)
+                .name(name)
+                .content(content)
+                .build();
+    }
+
+    private Usage readUsage(ByteSource source) {
+        if (source.readByte() == 0) {
+            return null;
+        }
+        return Usage.builder()
+                .promptTokens(source.readNullableInt())
+                .completionTokens(source.readNullableInt())
+                .totalTokens(source.readNullableInt())
+                .build();
+    }
+
+    private List<String> readStringList(ByteSource source) {
+        int count = source.readVarInt() - 1;
+        if (count < 0) {
+            return null;
+        }
+        List<String> values = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(source.readString());
+        }
+        return values;
+    }
+
+    // ---- JSON fallback for open-ended fields ----
+
+    private byte[] toJson(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode cache entry field", e);
+        }
+    }
+
+    private <T> T fromJson(byte[] bytes, Class<T> type) {
+        if (bytes == null) {
+            return null;
+        }
+        return readJson(bytes, type);
+    }
+
+    private <T> T readJson(byte[] bytes, Class<T> type) {
+        try {
+            return objectMapper.readValue(bytes, type);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid JSON in cache entry", e);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.neurogate.router.cache.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reader for buffers produced by {@link ByteSink}.
+ */
+final class ByteSource {
+
+    private final byte[] buf;
+    private int pos;
+
+    ByteSource(byte[] buf, int offset) {
+        this.buf = buf;
+        this.pos = offset;
+    }
+
+    int position() {
+        return pos;
+    }
+
+    int readByte() {
+        if (pos >= buf.length) {
+            throw new IllegalArgumentException("Truncated cache entry");
+        }
+        return buf[pos++] & 0xFF;
+    }
+
+    long readVarLong() {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in cache entry");
+    }
+
+    int readVarInt() {
+        long value = readVarLong();
+        if (value < 0 || value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Length out of range in cache entry: " + value);
+        }
+        return (int) value;
+    }
+
+    byte[] readBytes() {
+        int length = readLength();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = Arrays.copyOfRange(buf, pos, pos + length);
+        pos += length;
+        return bytes;
+    }
+
+    String readString() {
+        int length = readLength();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(buf, pos, length, StandardCharsets.UTF_8);
+        pos += length;
+        return value;
+    }
+
+    Long readNullableLong() {
+        if (readByte() == 0) {
+            return null;
+        }
+        long n = readVarLong();
+        return (n >>> 1) ^ -(n & 1);
+    }
+
+    Integer readNullableInt() {
+        Long value = readNullableLong();
+        return value == null ? null : value.intValue();
+    }
+
+    Boolean readNullableBoolean() {
+        int b = readByte();
+        return b == 0 ? null : b == 2;
+    }
+
+    Double readNullableDouble() {
+        if (readByte() == 0) {
+            return null;
+        }
+        if (pos + 8 > buf.length) {
+            throw new IllegalArgumentException("Truncated cache entry");
+        }
+        long bits = 0;
+        for (int i = 0; i < 8; i++) {
+            bits |= (long) (buf[pos++] & 0xFF) << (8 * i);
+        }
+        return Double.longBitsToDouble(bits);
+    }
+
+    /**
+     * @return the payload length, or -1 for null
+     */
+    private int readLength() {
+        int encoded = readVarInt();
+        int length = encoded - 1;
+        if (length > buf.length - pos) {
+            throw new IllegalArgumentException("Truncated cache entry");
+        }
+        return length;
+    }
+}
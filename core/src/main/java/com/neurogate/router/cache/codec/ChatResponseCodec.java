@@ -0,0 +1,31 @@
+package com.neurogate.router.cache.codec;
+
+import com.neurogate.sentinel.model.ChatResponse;
+
+/**
+ * Serializes cached {@link ChatResponse} objects to and from bytes.
+ *
+ * <p>The same encoded bytes are stored in the L1 (Caffeine) and L2 (Redis) tiers,
+ * so a response is encoded once per cache fill and L1 can be bounded by size.</p>
+ */
+public interface ChatResponseCodec {
+
+    /**
+     * Encode a response.
+     *
+     * @throws IllegalStateException if the response cannot be encoded
+     */
+    byte[] encode(ChatResponse response);
+
+    /**
+     * Decode a response previously produced by {@link #encode}.
+     *
+     * @throws IllegalArgumentException if the bytes are not a valid cache entry
+     */
+    ChatResponse decode(byte[] bytes);
+
+    /**
+     * Codec name for logging and metrics.
+     */
+    String name();
+}
@@ -0,0 +1,42 @@
+package com.neurogate.router.cache.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neurogate.sentinel.model.ChatResponse;
+
+import java.io.IOException;
+
+/**
+ * Jackson JSON codec. Kept for compatibility with entries written before the
+ * binary codec and as a baseline for benchmarks.
+ */
+public class JsonChatResponseCodec implements ChatResponseCodec {
+
+    private final ObjectMapper objectMapper;
+
+    public JsonChatResponseCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public byte[] encode(ChatResponse response) {
+        try {
+            return objectMapper.writeValueAsBytes(response);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode response as JSON", e);
+        }
+    }
+
+    @Override
+    public ChatResponse decode(byte[] bytes) {
+        try {
+            return objectMapper.readValue(bytes, ChatResponse.class);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid JSON cache entry", e);
+        }
+    }
+
+    @Override
+    public String name() {
+        return "json";
+    }
+}
@@ -1,5 +1,6 @@
 package com.neurogate.router.intelligence;
 
+import com.neurogate.sentinel.model.RequestContent;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -17,14 +18,14 @@ import java.util.regex.Pattern;
 public class ComplexityAnalyzer {
 
     // Expanded Feature Sets with Weights
-    private static final Map<String, Integer> REASONING_FEATURES = Map.ofEntries(
+    static final Map<String, Integer> REASONING_FEATURES = Map.ofEntries(
             Map.entry("analyze", 3), Map.entry("explain", 2), Map.entry("evaluate", 3),
             Map.entry("step-by-step", 4), Map.entry("compare", 2), Map.entry("contrast", 2),
             Map.entry("derive", 4), Map.entry("prove", 5), Map.entry("solve", 3),
             Map.entry("optimize", 4), Map.entry("architecture", 3), Map.entry("implications", 3),
             Map.entry("strategy", 3), Map.entry("critical", 2), Map.entry("logic", 3));
 
-    private static final Map<String, Integer> CODING_FEATURES = Map.ofEntries(
+    static final Map<String, Integer> CODING_FEATURES = Map.ofEntries(
             Map.entry("function", 3), Map.entry("class", 3), Map.entry("method", 2),
             Map.entry("api", 3), Map.entry("bug", 4), Map.entry("fix", 3),
             Map.entry("error", 3), Map.entry("compile", 4), Map.entry("runtime", 4),
@@ -32,36 +33,56 @@ public class ComplexityAnalyzer {
             Map.entry("typescript", 2), Map.entry("sql", 3), Map.entry("database", 2),
             Map.entry("docker", 3), Map.entry("kubernetes", 4), Map.entry("aws", 3));
 
-    private static final Map<String, Integer> CREATIVE_FEATURES = Map.ofEntries(
+    static final Map<String, Integer> CREATIVE_FEATURES = Map.ofEntries(
             Map.entry("story", 4), Map.entry("poem", 4), Map.entry("narrative", 3),
             Map.entry("character", 3), Map.entry("plot", 3), Map.entry("imagine", 4),
             Map.entry("screenplay", 5), Map.entry("dialogue", 3), Map.entry("lyrics", 4),
             Map.entry("style", 2), Map.entry("tone", 2), Map.entry("metaphor", 3));
 
     // Regex Patterns for Pattern Matching Features
-    private static final Pattern CODE_BLOCK_PATTERN = Pattern.compile("```|`[^`]+`");
-    private static final Pattern MATH_PATTERN = Pattern.compile("[0-9+\\-*/()=<>]{5,}");
-    private static final Pattern COMPLEX_SENTENCE_PATTERN = Pattern
+    static final Pattern CODE_BLOCK_PATTERN = Pattern.compile("```|`[^`]+`");
+    static final Pattern MATH_PATTERN = Pattern.compile("[0-9+\\-*/()=<>]{5,}");
+    static final Pattern COMPLEX_SENTENCE_PATTERN = Pattern
             .compile("(?i)(however|moreover|consequently|furthermore|although|despite)");
 
     /**
      * Analyze prompt complexity using statistical feature weighting
      */
     public ComplexityScore analyze(String prompt) {
-        String lowerPrompt = prompt.toLowerCase();
-        int wordCount = prompt.split("\\s+").length;
+        return analyze(prompt, prompt.toLowerCase(), prompt.split("\\s+").length);
+    }
+
+    /**
+     * Analyze the complexity of a request's messages, reusing its derived content
+     */
+    public ComplexityScore analyze(RequestContent content) {
+        return analyze(content.text(), content.normalizedText(), content.wordCount());
+    }
+
+    private ComplexityScore analyze(String prompt, String lowerPrompt, int wordCount) {
 
         // Calculate Feature Vectors
         double reasoningScore = calculateFeatureScore(lowerPrompt, REASONING_FEATURES);
         double codingScore = calculateFeatureScore(lowerPrompt, CODING_FEATURES);
         double creativeScore = calculateFeatureScore(lowerPrompt, CREATIVE_FEATURES);
 
+        return score(prompt, reasoningScore, codingScore, creativeScore,
+                CODE_BLOCK_PATTERN.matcher(prompt).find(), MATH_PATTERN.matcher(prompt).find(),
+                COMPLEX_SENTENCE_PATTERN.matcher(prompt).results().count(), wordCount);
+    }
+
+    /**
+     * Score from feature values already extracted from the prompt, as by
+     * {@link IntentScanner}.
+     */
+    ComplexityScore score(String prompt, double reasoningScore, double codingScore, double creativeScore,
+                          boolean codeBlock, boolean math, long complexConnectives, int wordCount) {
+
         // Pattern Adjustments
-        if (CODE_BLOCK_PATTERN.matcher(prompt).find())
+        if (codeBlock)
             codingScore += 15.0;
-        if (MATH_PATTERN.matcher(prompt).find())
+        if (math)
             reasoningScore += 10.0;
-        long complexConnectives = COMPLEX_SENTENCE_PATTERN.matcher(prompt).results().count();
         reasoningScore += (complexConnectives * 2.0);
 
         // Normalize Scores to 1-10 Scale
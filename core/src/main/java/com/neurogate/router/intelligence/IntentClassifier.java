@@ -1,11 +1,16 @@
 package com.neurogate.router.intelligence;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.neurogate.router.cache.ContentHash;
 import com.neurogate.router.intelligence.model.Intent;
 import com.neurogate.router.intelligence.model.IntentClassification;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.security.SecureRandom;
 import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -13,13 +18,20 @@ import java.util.regex.Pattern;
 /**
  * Classifies prompt intent for intelligent model routing.
  * Uses pattern matching and complexity analysis.
+ *
+ * <p>All patterns and complexity features are matched in one pass by an
+ * {@link IntentScanner}. Results are cached by a 64-bit hash of the prompt (the
+ * {@code intent.classifications} cache metrics), since agents and retries send the
+ * same prompts repeatedly; cached results are shared and must not be modified.</p>
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class IntentClassifier {
 
     private final ComplexityAnalyzer complexityAnalyzer;
+    private final IntentScanner scanner;
+    private final Cache<Long, Cached> classifications;
+    private final long seed = new SecureRandom().nextLong();
 
     // Intent detection patterns with weights
     private static final Map<Intent, List<WeightedPattern>> INTENT_PATTERNS = new EnumMap<>(Intent.class);
@@ -135,6 +147,17 @@ public class IntentClassifier {
         ));
     }
 
+    public IntentClassifier(ComplexityAnalyzer complexityAnalyzer, IntentRoutingConfig config,
+                            MeterRegistry meterRegistry) {
+        this.complexityAnalyzer = complexityAnalyzer;
+        this.scanner = new IntentScanner(INTENT_PATTERNS);
+        this.classifications = Caffeine.newBuilder()
+                .maximumSize(config.getClassificationCacheSize())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, classifications, "intent.classifications");
+    }
+
     /**
      * Classify the intent of a prompt.
      */
@@ -147,6 +170,40 @@ public class IntentClassifier {
                     .build();
         }
 
+        long key = ContentHash.hash64(prompt, seed);
+        Cached cached = classifications.getIfPresent(key);
+        if (cached != null && cached.length() == prompt.length()) {
+            return cached.classification();
+        }
+
+        IntentClassification classification = IntentScanner.isExact(prompt)
+                ? classifyScanned(prompt)
+                : classifyWithRegexes(prompt);
+        classification.setAllScores(Collections.unmodifiableMap(classification.getAllScores()));
+        classification.setMatchedFeatures(Collections.unmodifiableList(classification.getMatchedFeatures()));
+        classifications.put(key, new Cached(prompt.length(), classification));
+        return classification;
+    }
+
+    private IntentClassification classifyScanned(String prompt) {
+        IntentScanner.Scan scan = scanner.scan(prompt);
+        ComplexityScore complexity = scan.complexity(complexityAnalyzer, countWords(prompt));
+
+        Map<Intent, Double> scores = new EnumMap<>(Intent.class);
+        List<String> matchedFeatures = new ArrayList<>();
+
+        for (Intent intent : Intent.values()) {
+            scores.put(intent, scan.intentScore(intent, matchedFeatures));
+        }
+
+        return classification(scores, complexity, matchedFeatures);
+    }
+
+    /**
+     * Classification matching each pattern as a separate regex. Used for the few texts
+     * {@link IntentScanner} cannot match exactly, and as its reference.
+     */
+    IntentClassification classifyWithRegexes(String prompt) {
         // Get complexity analysis
         ComplexityScore complexity = complexityAnalyzer.analyze(prompt);
 
@@ -159,6 +216,11 @@ public class IntentClassifier {
             scores.put(intent, score);
         }
 
+        return classification(scores, complexity, matchedFeatures);
+    }
+
+    private IntentClassification classification(Map<Intent, Double> scores, ComplexityScore complexity,
+                                                List<String> matchedFeatures) {
         // Adjust scores based on complexity analysis
         adjustScoresForComplexity(scores, complexity);
 
@@ -185,6 +247,32 @@ public class IntentClassifier {
                 .build();
     }
 
+    /**
+     * Words as counted by {@code prompt.split("\\s+").length}, without the split.
+     */
+    static int countWords(String prompt) {
+        int words = 0;
+        boolean inWord = false;
+        for (int i = 0; i < prompt.length(); i++) {
+            boolean space = isSpace(prompt.charAt(i));
+            if (!space && !inWord) {
+                words++;
+            }
+            inWord = !space;
+        }
+        if (words == 0) {
+            // "" splits into one empty element, blank text into none
+            return prompt.isEmpty() ? 1 : 0;
+        }
+        // A leading separator splits off an empty first element
+        return isSpace(prompt.charAt(0)) ? words + 1 : words;
+    }
+
+    // The characters matched by \s
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
     private double calculateIntentScore(String prompt, Intent intent, List<String> matchedFeatures) {
         List<WeightedPattern> patterns = INTENT_PATTERNS.get(intent);
         if (patterns == null) return 0.0;
@@ -231,7 +319,7 @@ public class IntentClassifier {
     /**
      * Pattern with associated weight.
      */
-    private static class WeightedPattern {
+    static class WeightedPattern {
         final Pattern pattern;
         final double weight;
 
@@ -240,4 +328,7 @@ public class IntentClassifier {
             this.weight = weight;
         }
     }
-}
\ No newline at end of file
+
+    private record Cached(int length, IntentClassification classification) {
+    }
+}
@@ -2,7 +2,6 @@ package com.neurogate.router.intelligence;
 
 import com.neurogate.router.intelligence.model.*;
 import com.neurogate.sentinel.model.ChatRequest;
-import com.neurogate.sentinel.model.Message;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -115,19 +114,7 @@ public class IntentRouter {
         if (request.getMessages() == null || request.getMessages().isEmpty()) {
             return "";
         }
-
-        // Get the last user message
-        StringBuilder sb = new StringBuilder();
-        for (Message msg : request.getMessages()) {
-            if ("user".equals(msg.getRole())) {
-                String content = msg.getStrContent();
-                if (content != null) {
-                    sb.append(content).append(" ");
-                }
-            }
-        }
-
-        return sb.toString().trim();
+        return request.content().userText();
     }
 
     /**
@@ -27,6 +27,11 @@ public class IntentRoutingConfig {
      */
     private double confidenceThreshold = 0.6;
 
+    /**
+     * Recent prompt classifications kept in memory (0 disables the cache).
+     */
+    private long classificationCacheSize = 10_000;
+
     /**
      * Intent to model mappings (loaded from config).
      */
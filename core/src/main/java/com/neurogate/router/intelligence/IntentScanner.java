@@ -0,0 +1,188 @@
+package com.neurogate.router.intelligence;
+
+import com.neurogate.router.intelligence.IntentClassifier.WeightedPattern;
+import com.neurogate.router.intelligence.model.Intent;
+import com.neurogate.vault.streaming.ToxicityAutomaton;
+import com.neurogate.vault.streaming.ToxicityPattern;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Intent patterns and complexity features compiled into one {@link ToxicityAutomaton},
+ * so a prompt is scanned once for all of them instead of once per regex and keyword.
+ *
+ * <p>Each slot is an intent pattern, a complexity keyword or a complexity pattern.
+ * Intent patterns the automaton cannot compile (the {@code ^}-anchored ones) are
+ * matched as regexes after the scan. Complex connectives are only counted with their
+ * regex when the scan found one, since the score needs non-overlapping matches.</p>
+ *
+ * <p>The automaton lower-cases per character, like {@code String.toLowerCase} and
+ * {@code (?i)} for every character except {@code U+0130} and {@code U+212A}, which
+ * lower-case to ASCII; {@link #isExact} reports texts containing them, which callers
+ * classify with the regexes instead.</p>
+ */
+@Slf4j
+final class IntentScanner {
+
+    private enum Kind { INTENT, REASONING, CODING, CREATIVE, CODE_BLOCK, MATH, CONNECTIVE }
+
+    private record Slot(Kind kind, Intent intent, WeightedPattern pattern, int weight) {
+    }
+
+    private final List<Slot> slots = new ArrayList<>();
+    private final ToxicityAutomaton automaton;
+    private final int[] slotOf;
+    private final List<Integer> fallbackSlots = new ArrayList<>();
+    // Slots of each intent's patterns, which are added contiguously: [first, end)
+    private final int[] firstSlot = new int[Intent.values().length];
+    private final int[] endSlot = new int[Intent.values().length];
+
+    IntentScanner(Map<Intent, List<WeightedPattern>> intentPatterns) {
+        List<ToxicityPattern> patterns = new ArrayList<>();
+        Map<ToxicityPattern, Integer> indexOf = new IdentityHashMap<>();
+
+        for (Intent intent : Intent.values()) {
+            firstSlot[intent.ordinal()] = slots.size();
+            for (WeightedPattern wp : intentPatterns.getOrDefault(intent, List.of())) {
+                add(new Slot(Kind.INTENT, intent, wp, 0), wp.pattern, patterns, indexOf);
+            }
+            endSlot[intent.ordinal()] = slots.size();
+        }
+        addKeywords(Kind.REASONING, ComplexityAnalyzer.REASONING_FEATURES, patterns, indexOf);
+        addKeywords(Kind.CODING, ComplexityAnalyzer.CODING_FEATURES, patterns, indexOf);
+        addKeywords(Kind.CREATIVE, ComplexityAnalyzer.CREATIVE_FEATURES, patterns, indexOf);
+        add(new Slot(Kind.CODE_BLOCK, null, null, 0), ComplexityAnalyzer.CODE_BLOCK_PATTERN, patterns, indexOf);
+        add(new Slot(Kind.MATH, null, null, 0), ComplexityAnalyzer.MATH_PATTERN, patterns, indexOf);
+        add(new Slot(Kind.CONNECTIVE, null, null, 0), ComplexityAnalyzer.COMPLEX_SENTENCE_PATTERN, patterns, indexOf);
+
+        this.automaton = ToxicityAutomaton.compile(patterns);
+        this.slotOf = automaton.patterns().stream().mapToInt(indexOf::get).toArray();
+        for (ToxicityPattern pattern : automaton.fallbackPatterns()) {
+            fallbackSlots.add(indexOf.get(pattern));
+        }
+        log.info("Intent scanner compiled {} patterns and features ({} matched as regex)",
+                slots.size(), fallbackSlots.size());
+    }
+
+    /**
+     * Whether {@link #scan} gives the same features as the regexes for this text.
+     */
+    static boolean isExact(String text) {
+        return text.indexOf('\u0130') < 0 && text.indexOf('\u212A') < 0;
+    }
+
+    /**
+     * Match every intent pattern and complexity feature against the prompt.
+     */
+    Scan scan(String prompt) {
+        boolean[] hits = new boolean[slots.size()];
+        ToxicityAutomaton.State state = automaton.advance(automaton.start(), prompt, pattern -> {
+            hits[slotOf[pattern]] = true;
+            return true;
+        });
+        automaton.finish(state, pattern -> {
+            hits[slotOf[pattern]] = true;
+            return true;
+        });
+        for (int slot : fallbackSlots) {
+            hits[slot] = slots.get(slot).pattern().pattern.matcher(prompt).find();
+        }
+        return new Scan(prompt, hits);
+    }
+
+    int slots() {
+        return slots.size();
+    }
+
+    private void add(Slot slot, Pattern pattern, List<ToxicityPattern> patterns,
+                     Map<ToxicityPattern, Integer> indexOf) {
+        ToxicityPattern compiled = ToxicityPattern.builder()
+                .regex(pattern.pattern())
+                .pattern(pattern)
+                .category(slot.kind() + (slot.intent() != null ? ":" + slot.intent() : ""))
+                .build();
+        indexOf.put(compiled, slots.size());
+        patterns.add(compiled);
+        slots.add(slot);
+    }
+
+    private void addKeywords(Kind kind, Map<String, Integer> keywords, List<ToxicityPattern> patterns,
+                             Map<ToxicityPattern, Integer> indexOf) {
+        keywords.forEach((keyword, weight) ->
+                add(new Slot(kind, null, null, weight), Pattern.compile(literal(keyword)), patterns, indexOf));
+    }
+
+    // Regex matching the keyword as is: the automaton does not parse \Q...\E
+    private static String literal(String keyword) {
+        StringBuilder regex = new StringBuilder(keyword.length() + 4);
+        for (int i = 0; i < keyword.length(); i++) {
+            char c = keyword.charAt(i);
+            if (!Character.isLetterOrDigit(c)) {
+                regex.append('\\');
+            }
+            regex.append(c);
+        }
+        return regex.toString();
+    }
+
+    /**
+     * Patterns and features found in one prompt.
+     */
+    final class Scan {
+        private final String prompt;
+        private final boolean[] hits;
+
+        private Scan(String prompt, boolean[] hits) {
+            this.prompt = prompt;
+            this.hits = hits;
+        }
+
+        /**
+         * Weight of the heaviest matching pattern of the intent, adding a feature for
+         * each pattern that raises it, in pattern order.
+         */
+        double intentScore(Intent intent, List<String> matchedFeatures) {
+            double maxScore = 0.0;
+            for (int i = firstSlot[intent.ordinal()]; i < endSlot[intent.ordinal()]; i++) {
+                WeightedPattern wp = slots.get(i).pattern();
+                if (hits[i] && wp.weight > maxScore) {
+                    maxScore = wp.weight;
+                    matchedFeatures.add(intent.name() + ":" + wp.pattern.pattern());
+                }
+            }
+            return maxScore;
+        }
+
+        ComplexityScore complexity(ComplexityAnalyzer analyzer, int wordCount) {
+            double reasoning = 0;
+            double coding = 0;
+            double creative = 0;
+            boolean codeBlock = false;
+            boolean math = false;
+            long connectives = 0;
+            for (int i = 0; i < hits.length; i++) {
+                if (!hits[i]) {
+                    continue;
+                }
+                Slot slot = slots.get(i);
+                switch (slot.kind()) {
+                    case REASONING -> reasoning += slot.weight();
+                    case CODING -> coding += slot.weight();
+                    case CREATIVE -> creative += slot.weight();
+                    case CODE_BLOCK -> codeBlock = true;
+                    case MATH -> math = true;
+                    case CONNECTIVE -> connectives =
+                            ComplexityAnalyzer.COMPLEX_SENTENCE_PATTERN.matcher(prompt).results().count();
+                    default -> {
+                    }
+                }
+            }
+            return analyzer.score(prompt, reasoning, coding, creative, codeBlock, math, connectives, wordCount);
+        }
+    }
+}
@@ -2,9 +2,11 @@ package com.neurogate.router.provider;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neurogate.router.upstream.UpstreamWebClientFactory;
 import com.neurogate.sentinel.model.*;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -29,7 +31,7 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class AnthropicProvider implements LLMProvider {
 
-        private final WebClient.Builder webClientBuilder;
+        private final UpstreamWebClientFactory webClientFactory;
         private final ObjectMapper objectMapper;
 
         @Value("${neurogate.anthropic.api-key:#{null}}")
@@ -40,6 +42,8 @@ public class AnthropicProvider implements LLMProvider {
 
         private static final String API_VERSION = "2023-06-01";
 
+        private WebClient webClient;
+
         private static final Map<String, String> MODEL_EQUIVALENTS = Map.of(
                         "gpt-4", "claude-3-opus-20240229",
                         "gpt-4-turbo", "claude-3-opus-20240229",
@@ -48,6 +52,17 @@ public class AnthropicProvider implements LLMProvider {
                         "claude-3-sonnet", "claude-3-sonnet-20240229",
                         "claude-3-haiku", "claude-3-haiku-20240307");
 
+        @PostConstruct
+        void initClient() {
+                webClient = webClientFactory.create(getName(), baseUrl, headers -> {
+                        headers.set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+                        headers.set("anthropic-version", API_VERSION);
+                        if (apiKey != null) {
+                                headers.set("x-api-key", apiKey);
+                        }
+                });
+        }
+
         @Override
         public String getName() {
                 return "anthropic";
@@ -88,47 +103,41 @@ public class AnthropicProvider implements LLMProvider {
         @CircuitBreaker(name = "anthropic", fallbackMethod = "generateFallback")
         @Retry(name = "anthropic")
         public ChatResponse generate(ChatRequest request) {
+                return generateAsync(request).block();
+        }
+
+        @Override
+        public Mono<ChatResponse> generateAsync(ChatRequest request) {
                 if (!isAvailable()) {
-                        throw new IllegalStateException(
-                                        "Anthropic provider is not configured. Set neurogate.anthropic.api-key");
+                        return Mono.error(new IllegalStateException(
+                                        "Anthropic provider is not configured. Set neurogate.anthropic.api-key"));
                 }
 
                 log.debug("Anthropic provider generating completion for model: {}", request.getModel());
 
-                try {
-                        WebClient client = webClientBuilder
-                                        .baseUrl(baseUrl)
-                                        .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                                        .defaultHeader("x-api-key", apiKey)
-                                        .defaultHeader("anthropic-version", API_VERSION)
-                                        .build();
-
-                        // Build Anthropic API request
-                        Map<String, Object> anthropicRequest = Map.of(
-                                        "model", getEquivalentModel(request.getModel()),
-                                        "max_tokens", request.getMaxTokens() != null ? request.getMaxTokens() : 4096,
-                                        "messages", List.of(
-                                                        Map.of(
-                                                                        "role", "user",
-                                                                        "content", request.getConcatenatedContent())),
-                                        "temperature",
-                                        request.getTemperature() != null ? request.getTemperature() : 0.7);
-
-                        // Call Anthropic API
-                        Mono<String> responseMono = client.post()
-                                        .uri("/v1/messages")
-                                        .bodyValue(anthropicRequest)
-                                        .retrieve()
-                                        .bodyToMono(String.class)
-                                        .timeout(Duration.ofSeconds(30));
-
-                        String responseBody = responseMono.block();
-                        return convertToNeuroGateResponse(responseBody, request.getModel());
-
-                } catch (Exception e) {
-                        log.error("Error calling Anthropic API", e);
-                        throw new RuntimeException("Anthropic API call failed: " + e.getMessage(), e);
-                }
+                // Build Anthropic API request
+                Map<String, Object> anthropicRequest = Map.of(
+                                "model", getEquivalentModel(request.getModel()),
+                                "max_tokens", request.getMaxTokens() != null ? request.getMaxTokens() : 4096,
+                                "messages", List.of(
+                                                Map.of(
+                                                                "role", "user",
+                                                                "content", request.getConcatenatedContent())),
+                                "temperature",
+                                request.getTemperature() != null ? request.getTemperature() : 0.7);
+
+                // Call Anthropic API
+                return webClient.post()
+                                .uri("/v1/messages")
+                                .bodyValue(anthropicRequest)
+                                .retrieve()
+                                .bodyToMono(String.class)
+                                .timeout(Duration.ofSeconds(30))
+                                .map(responseBody -> convertToNeuroGateResponse(responseBody, request.getModel()))
+                                .onErrorMap(e -> {
+                                        log.error("Error calling Anthropic API", e);
+                                        return new RuntimeException("Anthropic API call failed: " + e.getMessage(), e);
+                                });
         }
 
         @Override
@@ -143,13 +152,6 @@ public class AnthropicProvider implements LLMProvider {
                 log.debug("Anthropic provider generating streaming completion for model: {}", request.getModel());
 
                 try {
-                        WebClient client = webClientBuilder
-                                        .baseUrl(baseUrl)
-                                        .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                                        .defaultHeader("x-api-key", apiKey)
-                                        .defaultHeader("anthropic-version", API_VERSION)
-                                        .build();
-
                         // Build Anthropic API request
                         Map<String, Object> anthropicRequest = Map.of(
                                         "model", getEquivalentModel(request.getModel()),
@@ -163,7 +165,7 @@ public class AnthropicProvider implements LLMProvider {
                                         "stream", true);
 
                         // Call Anthropic API with streaming
-                        return client.post()
+                        return webClient.post()
                                         .uri("/v1/messages")
                                         .bodyValue(anthropicRequest)
                                         .retrieve()
@@ -259,6 +261,11 @@ public class AnthropicProvider implements LLMProvider {
                 return MODEL_EQUIVALENTS.getOrDefault(requestedModel, "claude-3-sonnet-20240229");
         }
 
+        @Override
+        public Map<String, String> getModelEquivalents() {
+                return MODEL_EQUIVALENTS;
+        }
+
         /**
          * Convert Anthropic API response to NeuroGate ChatResponse format
          */
@@ -2,9 +2,11 @@ package com.neurogate.router.provider;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neurogate.router.upstream.UpstreamWebClientFactory;
 import com.neurogate.sentinel.model.*;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -29,7 +31,7 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class AzureOpenAiProvider implements LLMProvider {
 
-        private final WebClient.Builder webClientBuilder;
+        private final UpstreamWebClientFactory webClientFactory;
         private final ObjectMapper objectMapper;
 
         @Value("${neurogate.azure.api-key:#{null}}")
@@ -44,6 +46,8 @@ public class AzureOpenAiProvider implements LLMProvider {
         @Value("${neurogate.azure.api-version:2024-02-15-preview}")
         private String apiVersion;
 
+        private WebClient webClient;
+
         private static final Map<String, String> MODEL_EQUIVALENTS = Map.of(
                         "gpt-4", "gpt-4",
                         "gpt-4-turbo", "gpt-4-turbo",
@@ -51,6 +55,16 @@ public class AzureOpenAiProvider implements LLMProvider {
                         "claude-3-opus", "gpt-4",
                         "gemini-pro", "gpt-35-turbo");
 
+        @PostConstruct
+        void initClient() {
+                webClient = webClientFactory.create(getName(), endpoint, headers -> {
+                        headers.set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+                        if (apiKey != null) {
+                                headers.set("api-key", apiKey);
+                        }
+                });
+        }
+
         @Override
         public String getName() {
                 return "azure";
@@ -94,51 +108,46 @@ public class AzureOpenAiProvider implements LLMProvider {
         @CircuitBreaker(name = "azure", fallbackMethod = "generateFallback")
         @Retry(name = "azure")
         public ChatResponse generate(ChatRequest request) {
+                return generateAsync(request).block();
+        }
+
+        @Override
+        public Mono<ChatResponse> generateAsync(ChatRequest request) {
                 if (!isAvailable()) {
-                        throw new IllegalStateException(
-                                        "Azure OpenAI provider is not configured. Set API key, endpoint, and deployment name.");
+                        return Mono.error(new IllegalStateException(
+                                        "Azure OpenAI provider is not configured. Set API key, endpoint, and deployment name."));
                 }
 
                 log.debug("Azure OpenAI provider generating completion for model: {}", request.getModel());
 
-                try {
-                        WebClient client = webClientBuilder
-                                        .baseUrl(endpoint)
-                                        .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                                        .defaultHeader("api-key", apiKey)
-                                        .build();
-
-                        // Build Azure OpenAI request (similar to OpenAI but with Azure-specific URL)
-                        Map<String, Object> azureRequest = Map.of(
-                                        "messages", List.of(
-                                                        Map.of(
-                                                                        "role", "user",
-                                                                        "content", request.getConcatenatedContent())),
-                                        "temperature",
-                                        request.getTemperature() != null ? request.getTemperature() : 0.7,
-                                        "max_tokens", request.getMaxTokens() != null ? request.getMaxTokens() : 4096,
-                                        "top_p", request.getTopP() != null ? request.getTopP() : 1.0);
-
-                        // Call Azure OpenAI API
-                        // URL format:
-                        // /openai/deployments/{deployment-id}/chat/completions?api-version={api-version}
-                        String uri = String.format("/openai/deployments/%s/chat/completions?api-version=%s",
-                                        deploymentName, apiVersion);
-
-                        Mono<String> responseMono = client.post()
-                                        .uri(uri)
-                                        .bodyValue(azureRequest)
-                                        .retrieve()
-                                        .bodyToMono(String.class)
-                                        .timeout(Duration.ofSeconds(30));
-
-                        String responseBody = responseMono.block();
-                        return convertToNeuroGateResponse(responseBody, request.getModel());
-
-                } catch (Exception e) {
-                        log.error("Error calling Azure OpenAI API", e);
-                        throw new RuntimeException("Azure OpenAI API call failed: " + e.getMessage(), e);
-                }
+                // Build Azure OpenAI request (similar to OpenAI but with Azure-specific URL)
+                Map<String, Object> azureRequest = Map.of(
+                                "messages", List.of(
+                                                Map.of(
+                                                                "role", "user",
+                                                                "content", request.getConcatenatedContent())),
+                                "temperature",
+                                request.getTemperature() != null ? request.getTemperature() : 0.7,
+                                "max_tokens", request.getMaxTokens() != null ? request.getMaxTokens() : 4096,
+                                "top_p", request.getTopP() != null ? request.getTopP() : 1.0);
+
+                // Call Azure OpenAI API
+                // URL format:
+                // /openai/deployments/{deployment-id}/chat/completions?api-version={api-version}
+                String uri = String.format("/openai/deployments/%s/chat/completions?api-version=%s",
+                                deploymentName, apiVersion);
+
+                return webClient.post()
+                                .uri(uri)
+                                .bodyValue(azureRequest)
+                                .retrieve()
+                                .bodyToMono(String.class)
+                                .timeout(Duration.ofSeconds(30))
+                                .map(responseBody -> convertToNeuroGateResponse(responseBody, request.getModel()))
+                                .onErrorMap(e -> {
+                                        log.error("Error calling Azure OpenAI API", e);
+                                        return new RuntimeException("Azure OpenAI API call failed: " + e.getMessage(), e);
+                                });
         }
 
         @Override
@@ -153,12 +162,6 @@ public class AzureOpenAiProvider implements LLMProvider {
                 log.debug("Azure OpenAI provider generating streaming completion for model: {}", request.getModel());
 
                 try {
-                        WebClient client = webClientBuilder
-                                        .baseUrl(endpoint)
-                                        .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                                        .defaultHeader("api-key", apiKey)
-                                        .build();
-
                         // Build Azure OpenAI request (similar to OpenAI but with Azure-specific URL)
                         Map<String, Object> azureRequest = Map.of(
                                         "messages", List.of(
@@ -177,7 +180,7 @@ public class AzureOpenAiProvider implements LLMProvider {
                         String uri = String.format("/openai/deployments/%s/chat/completions?api-version=%s",
                                         deploymentName, apiVersion);
 
-                        return client.post()
+                        return webClient.post()
                                         .uri(uri)
                                         .bodyValue(azureRequest)
                                         .retrieve()
@@ -259,6 +262,11 @@ public class AzureOpenAiProvider implements LLMProvider {
                 return MODEL_EQUIVALENTS.getOrDefault(requestedModel, "gpt-35-turbo");
         }
 
+        @Override
+        public Map<String, String> getModelEquivalents() {
+                return MODEL_EQUIVALENTS;
+        }
+
         /**
          * Convert Azure OpenAI response to NeuroGate ChatResponse format
          * (Azure OpenAI uses the same format as OpenAI)
@@ -105,4 +105,9 @@ public class BedrockProvider implements LLMProvider {
         return MODEL_EQUIVALENTS.getOrDefault(requestedModel,
                 "anthropic.claude-3-sonnet-20240229-v1:0");
     }
+
+    @Override
+    public Map<String, String> getModelEquivalents() {
+        return MODEL_EQUIVALENTS;
+    }
 }
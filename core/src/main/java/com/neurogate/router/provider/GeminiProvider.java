@@ -7,6 +7,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -85,6 +86,18 @@ public class GeminiProvider implements LLMProvider {
                 return geminiClient.generateCompletion(request, model);
         }
 
+        @Override
+        public Mono<ChatResponse> generateAsync(ChatRequest request) {
+                if (!isAvailable()) {
+                        return Mono.error(new IllegalStateException(
+                                        "Gemini provider is not configured. Set neurogate.gemini.api-key"));
+                }
+
+                log.debug("Gemini provider generating completion for model: {}", request.getModel());
+                String model = getEquivalentModel(request.getModel());
+                return geminiClient.generateCompletionAsync(request, model);
+        }
+
         @Override
         public Flux<ChatResponse> generateStream(ChatRequest request) {
                 if (!isAvailable()) {
@@ -101,4 +114,9 @@ public class GeminiProvider implements LLMProvider {
         public String getEquivalentModel(String requestedModel) {
                 return MODEL_EQUIVALENTS.getOrDefault(requestedModel, "gemini-pro");
         }
+
+        @Override
+        public Map<String, String> getModelEquivalents() {
+                return MODEL_EQUIVALENTS;
+        }
 }
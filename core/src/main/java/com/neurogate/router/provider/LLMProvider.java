@@ -3,8 +3,11 @@ package com.neurogate.router.provider;
 import com.neurogate.sentinel.model.ChatRequest;
 import com.neurogate.sentinel.model.ChatResponse;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Unified interface for all LLM providers in NeuroGate.
@@ -123,6 +126,26 @@ public interface LLMProvider {
      */
     ChatResponse generate(ChatRequest request);
 
+    /**
+     * Generate a chat completion (non-streaming) without blocking the caller.
+     *
+     * <p>Providers backed by a reactive HTTP client should override this and
+     * implement {@link #generate} as {@code generateAsync(request).block()}, so no
+     * thread is held while the upstream call is in flight. The default adapts the
+     * blocking {@link #generate} for SDK-based providers by running it on the
+     * bounded elastic scheduler.</p>
+     *
+     * <p>Implementations should signal failures as errors rather than returning a
+     * degraded response, so the router can apply resilience and fallback.</p>
+     *
+     * @param request the chat request containing model, messages, and parameters
+     * @return mono emitting the complete chat response
+     */
+    default Mono<ChatResponse> generateAsync(ChatRequest request) {
+        return Mono.fromCallable(() -> generate(request))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
     /**
      * Generate a streaming chat completion.
      *
@@ -163,4 +186,16 @@ public interface LLMProvider {
      * @return equivalent model ID for this provider, or the original if no mapping
      */
     String getEquivalentModel(String requestedModel);
+
+    /**
+     * Explicit cross-provider model mappings used by {@link #getEquivalentModel}.
+     *
+     * <p>The keys are added to the router's {@link RoutingTable}, so models that this
+     * provider only maps (e.g. a competitor's model id) are routed by lookup too.</p>
+     *
+     * @return requested model → equivalent model for this provider
+     */
+    default Map<String, String> getModelEquivalents() {
+        return Map.of();
+    }
 }
@@ -6,19 +6,30 @@ import com.neurogate.experiment.model.Experiment;
 import com.neurogate.experiment.model.ExperimentResult;
 import com.neurogate.experiment.model.Variant;
 import com.neurogate.metrics.NeuroGateMetrics;
+import com.neurogate.router.adaptive.AdaptiveProviderSelector;
+import com.neurogate.router.resilience.HedgePolicy;
+import com.neurogate.router.resilience.HedgingService;
 import com.neurogate.router.resilience.ResilienceService;
 import com.neurogate.router.shadow.ShadowDeploymentService;
+import com.neurogate.router.stream.StreamProcessorChain;
 import com.neurogate.sentinel.model.ChatRequest;
 import com.neurogate.sentinel.model.ChatResponse;
+import com.neurogate.tenant.TenantContext;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -32,6 +43,7 @@ import java.util.UUID;
  *   <li>A/B testing experiments</li>
  *   <li>Shadow deployments for comparison testing</li>
  *   <li>Fallback chains when primary providers fail</li>
+ *   <li>Tail-latency hedging of slow direct calls ({@code neurogate.router.hedging})</li>
  * </ul>
  *
  * <h2>Routing Flow</h2>
@@ -42,9 +54,9 @@ import java.util.UUID;
  * </pre>
  *
  * <h2>Streaming Support</h2>
- * <p>The router supports both synchronous ({@link #route}) and streaming
- * ({@link #routeStream}) request handling. Streaming responses are processed
- * through a pipeline that includes:</p>
+ * <p>The router supports synchronous ({@link #route}), non-blocking
+ * ({@link #routeAsync}) and streaming ({@link #routeStream}) request handling.
+ * Streaming responses are processed through a pipeline that includes:</p>
  * <ul>
  *   <li>PII token restoration (reversing tokenization from input sanitization)</li>
  *   <li>Content safety guardrails (detecting harmful content in real-time)</li>
@@ -70,7 +82,7 @@ public class MultiProviderRouter {
     private final List<LLMProvider> providers;
     private final NeuroGateMetrics metrics;
     private final ResilienceService resilienceService;
-    private final com.neurogate.vault.PiiSanitizationService piiSanitizationService;
+    private final StreamProcessorChain streamProcessorChain;
 
     // Optional: A/B testing integration
     private ExperimentService experimentService;
@@ -78,23 +90,32 @@ public class MultiProviderRouter {
     // Optional: Intent-based routing
     private com.neurogate.router.intelligence.IntentRouter intentRouter;
 
-    // Optional: Streaming guardrails
-    private com.neurogate.vault.streaming.StreamingGuardrail streamingGuardrail;
-
     // Shadow deployment service
     private ShadowDeploymentService shadowDeploymentService;
 
+    // Optional: latency-aware ordering of fallback candidates
+    private AdaptiveProviderSelector adaptiveSelector;
+
+    // Optional: tail-latency hedging of the direct provider call
+    private HedgingService hedgingService;
+    private HedgePolicy hedgePolicy;
+
+    // Model -> provider routes, built on first use and swapped whole on refresh
+    private volatile RoutingTable routingTable;
+    // Providers that were available when the routing table was built
+    private volatile Set<String> routingTableAvailability = Set.of();
+
     @Autowired
     public MultiProviderRouter(
             List<LLMProvider> providers,
             NeuroGateMetrics metrics,
             ResilienceService resilienceService,
-            com.neurogate.vault.PiiSanitizationService piiSanitizationService
+            StreamProcessorChain streamProcessorChain
     ) {
         this.providers = providers;
         this.metrics = metrics;
         this.resilienceService = resilienceService;
-        this.piiSanitizationService = piiSanitizationService;
+        this.streamProcessorChain = streamProcessorChain;
     }
 
     @Autowired(required = false)
@@ -116,12 +137,102 @@ public class MultiProviderRouter {
     }
 
     @Autowired(required = false)
-    public void setStreamingGuardrail(com.neurogate.vault.streaming.StreamingGuardrail streamingGuardrail) {
-        this.streamingGuardrail = streamingGuardrail;
-        log.info("🛡️ Streaming guardrails integration enabled");
+    public void setAdaptiveProviderSelector(AdaptiveProviderSelector adaptiveSelector) {
+        this.adaptiveSelector = adaptiveSelector;
+        log.info("Adaptive provider selection enabled");
+    }
+
+    @Autowired(required = false)
+    public void setHedgingService(HedgingService hedgingService) {
+        this.hedgingService = hedgingService;
+    }
+
+    @Autowired(required = false)
+    public void setHedgePolicy(HedgePolicy hedgePolicy) {
+        this.hedgePolicy = hedgePolicy;
     }
 
     public ChatResponse route(ChatRequest request) {
+        RoutePlan plan = planRoute(request);
+        request = plan.request();
+        String requestedModel = request.getModel();
+
+        LLMProvider directProvider = getRoutingTable().route(requestedModel).direct();
+
+        if (directProvider != null && directProvider.isAvailable()) {
+            LLMProvider provider = directProvider;
+            log.info("Routing to direct provider: {} for model: {}", provider.getName(), requestedModel);
+            metrics.recordProviderRequest(provider.getName());
+
+            // Execute with circuit breaker and retry, fallback to other providers
+            final ChatRequest finalRequest = request;
+            ChatResponse response = resilienceService.execute(
+                    provider.getName(),
+                    () -> generateDirect(provider, finalRequest),
+                    throwable -> {
+                        log.warn("Direct provider {} failed with resilience: {}", provider.getName(),
+                                throwable.getMessage());
+                        metrics.recordProviderFailure(provider.getName());
+                        return routeToFallbackProviders(finalRequest, finalRequest.getModel(), provider.getName());
+                    });
+
+            // Record experiment result if in A/B test
+            recordExperimentResult(plan.experimentContext(), response, true, null);
+            return response;
+        }
+
+        // No direct provider, go straight to fallbacks
+        ChatResponse response = routeToFallbackProviders(request, requestedModel, null);
+        recordExperimentResult(plan.experimentContext(), response, true, null);
+        return response;
+    }
+
+    /**
+     * Non-blocking counterpart of {@link #route}.
+     *
+     * <p>Applies the same shadow, intent and A/B decisions, then calls
+     * {@link LLMProvider#generateAsync} under the provider's circuit breaker and retry
+     * (Resilience4j Reactor operators) and walks the fallback chain on failure. No
+     * thread is held while an upstream call is in flight.</p>
+     *
+     * @param request the chat request
+     * @return mono emitting the response, or {@link AllProvidersFailedException}
+     */
+    public Mono<ChatResponse> routeAsync(ChatRequest request) {
+        return Mono.defer(() -> {
+            RoutePlan plan = planRoute(request);
+            ChatRequest routedRequest = plan.request();
+            String requestedModel = routedRequest.getModel();
+
+            LLMProvider directProvider = getRoutingTable().route(requestedModel).direct();
+            Mono<ChatResponse> response;
+
+            if (directProvider != null && directProvider.isAvailable()) {
+                LLMProvider provider = directProvider;
+                log.info("Routing to direct provider: {} for model: {}", provider.getName(), requestedModel);
+                metrics.recordProviderRequest(provider.getName());
+
+                response = resilienceService.executeAsync(
+                        provider.getName(),
+                        () -> generateDirectAsync(provider, routedRequest),
+                        throwable -> {
+                            log.warn("Direct provider {} failed with resilience: {}", provider.getName(),
+                                    throwable.getMessage());
+                            metrics.recordProviderFailure(provider.getName());
+                            return routeToFallbackProvidersAsync(routedRequest, requestedModel, provider.getName());
+                        });
+            } else {
+                response = routeToFallbackProvidersAsync(routedRequest, requestedModel, null);
+            }
+
+            return response.doOnNext(r -> recordExperimentResult(plan.experimentContext(), r, true, null));
+        });
+    }
+
+    /**
+     * Apply shadow mode, intent routing and A/B assignment, which may rewrite the model.
+     */
+    private RoutePlan planRoute(ChatRequest request) {
         String requestedModel = request.getModel();
         log.debug("Multi-provider routing request for model: {}", requestedModel);
 
@@ -164,7 +275,6 @@ public class MultiProviderRouter {
                         experiment.getName(), variant, experimentModel);
 
                 // Override the requested model
-                requestedModel = experimentModel;
                 request = request.toBuilder().model(experimentModel).build();
 
                 // Save context for result recording
@@ -178,35 +288,7 @@ public class MultiProviderRouter {
         }
         // -----------------------------------------
 
-        Optional<LLMProvider> directProvider = findProviderForModel(requestedModel);
-
-        if (directProvider.isPresent() && directProvider.get().isAvailable()) {
-            LLMProvider provider = directProvider.get();
-            log.info("Routing to direct provider: {} for model: {}", provider.getName(), requestedModel);
-            metrics.recordProviderRequest(provider.getName());
-
-            // Execute with circuit breaker and retry, fallback to other providers
-            final ExperimentContext finalExpContext = experimentContext;
-            final ChatRequest finalRequest = request;
-            ChatResponse response = resilienceService.execute(
-                    provider.getName(),
-                    () -> provider.generate(finalRequest),
-                    throwable -> {
-                        log.warn("Direct provider {} failed with resilience: {}", provider.getName(),
-                                throwable.getMessage());
-                        metrics.recordProviderFailure(provider.getName());
-                        return routeToFallbackProviders(finalRequest, finalRequest.getModel(), provider.getName());
-                    });
-
-            // Record experiment result if in A/B test
-            recordExperimentResult(finalExpContext, response, true, null);
-            return response;
-        }
-
-        // No direct provider, go straight to fallbacks
-        ChatResponse response = routeToFallbackProviders(request, requestedModel, null);
-        recordExperimentResult(experimentContext, response, true, null);
-        return response;
+        return new RoutePlan(request, experimentContext);
     }
 
     /**
@@ -248,39 +330,30 @@ public class MultiProviderRouter {
             long startTimeMs
     ) {}
 
+    /**
+     * Request after routing decisions, with the A/B context to record against.
+     */
+    private record RoutePlan(ChatRequest request, ExperimentContext experimentContext) {}
+
     /**
      * Route to fallback providers when primary fails
      */
     private ChatResponse routeToFallbackProviders(ChatRequest request, String requestedModel, String excludeProvider) {
-        List<LLMProvider> fallbackProviders = getAvailableProvidersByPriority();
+        List<RoutingTable.Candidate> fallbackProviders = getFallbackCandidates(requestedModel, excludeProvider);
 
-        for (LLMProvider provider : fallbackProviders) {
-            if (!provider.isAvailable() || provider.getName().equals(excludeProvider)) {
-                continue;
-            }
-
-            String equivalentModel = provider.getEquivalentModel(requestedModel);
+        for (RoutingTable.Candidate candidate : fallbackProviders) {
+            LLMProvider provider = candidate.provider();
+            String equivalentModel = candidate.model();
             log.info("Routing to fallback provider: {} with equivalent model: {} (original: {})",
                     provider.getName(), equivalentModel, requestedModel);
 
-            ChatRequest fallbackRequest = ChatRequest.builder()
-                    .model(equivalentModel)
-                    .messages(request.getMessages())
-                    .temperature(request.getTemperature())
-                    .maxTokens(request.getMaxTokens())
-                    .topP(request.getTopP())
-                    .frequencyPenalty(request.getFrequencyPenalty())
-                    .presencePenalty(request.getPresencePenalty())
-                    .stop(request.getStop())
-                    .stream(request.getStream())
-                    .user(request.getUser())
-                    .build();
+            ChatRequest fallbackRequest = toFallbackRequest(request, equivalentModel);
 
             try {
                 metrics.recordProviderRequest(provider.getName());
                 ChatResponse response = resilienceService.execute(
                         provider.getName(),
-                        () -> provider.generate(fallbackRequest),
+                        () -> generate(provider, fallbackRequest),
                         null // No further fallback within this level
                 );
                 response.setRoute(provider.getName() + "-fallback");
@@ -291,10 +364,55 @@ public class MultiProviderRouter {
             }
         }
 
-        List<String> attemptedProviders = fallbackProviders.stream()
-                .map(LLMProvider::getName)
-                .toList();
-        throw new AllProvidersFailedException(attemptedProviders);
+        throw new AllProvidersFailedException(attemptedProviders(fallbackProviders, excludeProvider));
+    }
+
+    /**
+     * Reactive fallback chain: providers are tried one at a time in priority order
+     * and the first successful response wins.
+     */
+    private Mono<ChatResponse> routeToFallbackProvidersAsync(ChatRequest request, String requestedModel,
+                                                             String excludeProvider) {
+        List<RoutingTable.Candidate> fallbackProviders = getFallbackCandidates(requestedModel, excludeProvider);
+
+        return Flux.fromIterable(fallbackProviders)
+                .concatMap(candidate -> {
+                    LLMProvider provider = candidate.provider();
+                    String equivalentModel = candidate.model();
+                    log.info("Routing to fallback provider: {} with equivalent model: {} (original: {})",
+                            provider.getName(), equivalentModel, requestedModel);
+
+                    ChatRequest fallbackRequest = toFallbackRequest(request, equivalentModel);
+                    metrics.recordProviderRequest(provider.getName());
+                    return resilienceService.executeAsync(
+                                    provider.getName(),
+                                    () -> generateAsync(provider, fallbackRequest),
+                                    null) // No further fallback within this level
+                            .doOnNext(response -> response.setRoute(provider.getName() + "-fallback"))
+                            .onErrorResume(e -> {
+                                log.warn("Fallback provider {} failed: {}", provider.getName(), e.getMessage());
+                                metrics.recordProviderFailure(provider.getName());
+                                return Mono.empty();
+                            });
+                })
+                .next()
+                .switchIfEmpty(Mono.error(() -> new AllProvidersFailedException(
+                        attemptedProviders(fallbackProviders, excludeProvider))));
+    }
+
+    private ChatRequest toFallbackRequest(ChatRequest request, String equivalentModel) {
+        return ChatRequest.builder()
+                .model(equivalentModel)
+                .messages(request.getMessages())
+                .temperature(request.getTemperature())
+                .maxTokens(request.getMaxTokens())
+                .topP(request.getTopP())
+                .frequencyPenalty(request.getFrequencyPenalty())
+                .presencePenalty(request.getPresencePenalty())
+                .stop(request.getStop())
+                .stream(request.getStream())
+                .user(request.getUser())
+                .build();
     }
 
     public Flux<ChatResponse> routeStream(ChatRequest request) {
@@ -304,16 +422,16 @@ public class MultiProviderRouter {
         Flux<ChatResponse> resultFlux = Flux.empty();
 
         // Try to find a provider that directly supports the requested model
-        Optional<LLMProvider> directProvider = findProviderForModel(requestedModel);
+        LLMProvider directProvider = getRoutingTable().route(requestedModel).direct();
 
-        if (directProvider.isPresent() && directProvider.get().isAvailable()) {
+        if (directProvider != null && directProvider.isAvailable()) {
             try {
                 log.info("Routing streaming to direct provider: {} for model: {}",
-                        directProvider.get().getName(), requestedModel);
-                resultFlux = directProvider.get().generateStream(request);
+                        directProvider.getName(), requestedModel);
+                resultFlux = directProvider.generateStream(request);
             } catch (Exception e) {
                 log.warn("Direct provider {} streaming failed, trying fallback: {}",
-                        directProvider.get().getName(), e.getMessage());
+                        directProvider.getName(), e.getMessage());
                 // Fallthrough to fallback logic
                 resultFlux = routeStreamFallback(request, requestedModel);
             }
@@ -321,136 +439,22 @@ public class MultiProviderRouter {
             resultFlux = routeStreamFallback(request, requestedModel);
         }
 
-        // --- STREAMING PII REDACTION ---
-        com.neurogate.vault.StreamingPiiRestorer piiRestorer = new com.neurogate.vault.StreamingPiiRestorer(
-                piiSanitizationService);
-
-        // We use 'handle' to maintain state references if needed, but 'map' is fine if
-        // we append a flush.
-        // To properly flush, we need to construct a valid ChatResponse. We can capture
-        // metadata from the first packet.
-        java.util.concurrent.atomic.AtomicReference<ChatResponse> lastResponseRef = new java.util.concurrent.atomic.AtomicReference<>();
-
-        // Reset streaming guardrail for new stream
-        if (streamingGuardrail != null) {
-            streamingGuardrail.reset();
-        }
-
-        // Track if stream was aborted by guardrail
-        java.util.concurrent.atomic.AtomicBoolean guardrailAborted = new java.util.concurrent.atomic.AtomicBoolean(false);
-
-        return resultFlux
-                .map(chatResponse -> {
-                    lastResponseRef.set(chatResponse); // Capture metadata
-                    if (chatResponse.getChoices() != null && !chatResponse.getChoices().isEmpty()) {
-                        String content = chatResponse.getChoices().get(0).getDelta().getStrContent();
-                        if (content != null) {
-                            // --- PII Redaction ---
-                            String restored = piiRestorer.processChunk(content);
-                            if (!restored.equals(content) && !restored.isEmpty()) {
-                                chatResponse.setPiiDetected(1);
-                            }
-
-                            // --- Streaming Guardrail ---
-                            if (streamingGuardrail != null && streamingGuardrail.isEnabled()) {
-                                com.neurogate.vault.streaming.StreamingResult guardResult =
-                                        streamingGuardrail.processToken(restored);
-
-                                if (!guardResult.isShouldContinue()) {
-                                    // Mark as aborted and modify response
-                                    guardrailAborted.set(true);
-                                    chatResponse.getChoices().get(0).getDelta().setContent(
-                                            "\n\n[Stream terminated: " + guardResult.getAbortReason() + "]");
-                                    chatResponse.getChoices().get(0).setFinishReason("content_filter");
-                                    log.warn("🛡️ Stream guardrail triggered: {}",
-                                            guardResult.getViolationCategory());
-                                } else {
-                                    // Use potentially modified token
-                                    chatResponse.getChoices().get(0).getDelta().setContent(
-                                            guardResult.getToken() != null ? guardResult.getToken() : restored);
-                                }
-                            } else {
-                                chatResponse.getChoices().get(0).getDelta().setContent(restored);
-                            }
-                        }
-                    }
-                    return chatResponse;
-                })
-                // Stop stream early if guardrail aborted
-                .takeUntil(response -> {
-                    if (response.getChoices() != null && !response.getChoices().isEmpty()) {
-                        String finishReason = response.getChoices().get(0).getFinishReason();
-                        return "content_filter".equals(finishReason);
-                    }
-                    return false;
-                })
-                .concatWith(Flux.defer(() -> {
-                    // Skip flush if guardrail aborted
-                    if (guardrailAborted.get()) {
-                        return Flux.empty();
-                    }
-
-                    String remainder = piiRestorer.flush();
-                    if (remainder == null || remainder.isEmpty()) {
-                        return Flux.empty();
-                    }
-
-                    // Create a flush packet using metadata from the last seen response
-                    ChatResponse template = lastResponseRef.get();
-                    if (template == null)
-                        return Flux.empty(); // Should not happen if stream emitted something
-
-                    ChatResponse flushPacket = ChatResponse.builder()
-                            .id(template.getId())
-                            .object(template.getObject())
-                            .created(template.getCreated())
-                            .model(template.getModel())
-                            .traceId(template.getTraceId())
-                            .sessionId(template.getSessionId())
-                            .choices(java.util.List.of(com.neurogate.sentinel.model.Choice.builder()
-                                    .index(0)
-                                    .delta(com.neurogate.sentinel.model.Message.builder()
-                                            .role("assistant") // Delta role
-                                            .content(remainder)
-                                            .build())
-                                    .build()))
-                            .build();
-                    return Flux.just(flushPacket);
-                }))
-                .doFinally(signal -> {
-                    // Clean up guardrail state
-                    if (streamingGuardrail != null) {
-                        streamingGuardrail.reset();
-                    }
-                });
+        // PII restoration, guardrails and batching
+        return streamProcessorChain.process(resultFlux);
     }
 
     private Flux<ChatResponse> routeStreamFallback(ChatRequest request, String requestedModel) {
         // Try fallback providers
-        List<LLMProvider> fallbackProviders = getAvailableProvidersByPriority();
-
-        for (LLMProvider provider : fallbackProviders) {
-            if (!provider.isAvailable()) {
-                continue;
-            }
+        List<RoutingTable.Candidate> fallbackProviders = getFallbackCandidates(requestedModel, null);
 
+        for (RoutingTable.Candidate candidate : fallbackProviders) {
+            LLMProvider provider = candidate.provider();
             try {
-                String equivalentModel = provider.getEquivalentModel(requestedModel);
+                String equivalentModel = candidate.model();
                 log.info("Routing streaming to fallback provider: {} with equivalent model: {}",
                         provider.getName(), equivalentModel);
 
-                ChatRequest fallbackRequest = ChatRequest.builder()
-                        .model(equivalentModel)
-                        .messages(request.getMessages())
-                        .temperature(request.getTemperature())
-                        .maxTokens(request.getMaxTokens())
-                        .topP(request.getTopP())
-                        .frequencyPenalty(request.getFrequencyPenalty())
-                        .presencePenalty(request.getPresencePenalty())
-                        .stop(request.getStop())
-                        .stream(request.getStream())
-                        .user(request.getUser())
-                        .build();
+                ChatRequest fallbackRequest = toFallbackRequest(request, equivalentModel);
 
                 return provider.generateStream(fallbackRequest);
 
@@ -459,37 +463,199 @@ public class MultiProviderRouter {
                 // Continue to next fallback
             }
         }
-        List<String> attemptedProviders = fallbackProviders.stream()
-                .map(LLMProvider::getName)
-                .toList();
-        return Flux.error(new AllProvidersFailedException("All LLM providers failed for streaming", attemptedProviders));
+        return Flux.error(new AllProvidersFailedException("All LLM providers failed for streaming",
+                attemptedProviders(fallbackProviders, null)));
     }
 
     /**
-     * Find provider that directly supports the requested model
+     * Current routing table, built from the registered providers on first use.
      */
-    private Optional<LLMProvider> findProviderForModel(String model) {
-        return providers.stream()
-                .filter(p -> p.supportsModel(model))
-                .findFirst();
+    public RoutingTable getRoutingTable() {
+        RoutingTable table = routingTable;
+        if (table == null) {
+            table = refreshRoutingTable();
+        }
+        return table;
     }
 
     /**
-     * Get all available providers sorted by priority
+     * Rebuild the routing table from the providers' current model lists and swap it
+     * in. In-flight requests keep the table they started with.
      */
-    private List<LLMProvider> getAvailableProvidersByPriority() {
-        return providers.stream()
-                .filter(LLMProvider::isAvailable)
-                .sorted(Comparator.comparingInt(p -> p.getMetadata().getPriority()))
-                .toList();
+    public synchronized RoutingTable refreshRoutingTable() {
+        routingTableAvailability = availableProviders();
+        RoutingTable table = RoutingTable.build(providers);
+        routingTable = table;
+        log.info("Routing table built: {} models across {} providers", table.models().size(), providers.size());
+        return table;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        refreshRoutingTable();
+    }
+
+    /**
+     * Rebuild the routing table once a provider has become available or unavailable
+     * since it was built. A provider that is disabled or unreachable may report no
+     * models (Ollama lists its local ones), so its routes only appear after a rebuild.
+     */
+    @Scheduled(fixedDelayString = "${neurogate.router.routing-table-check-interval-ms:30000}")
+    public void refreshOnAvailabilityChange() {
+        if (routingTable == null) {
+            return;
+        }
+        Set<String> available = availableProviders();
+        if (!available.equals(routingTableAvailability)) {
+            log.info("Provider availability changed from {} to {}, rebuilding routing table",
+                    routingTableAvailability, available);
+            refreshRoutingTable();
+        }
+    }
+
+    private Set<String> availableProviders() {
+        Set<String> available = new HashSet<>();
+        for (LLMProvider provider : providers) {
+            if (provider.isAvailable()) {
+                available.add(provider.getName());
+            }
+        }
+        return available;
+    }
+
+    /**
+     * Available fallback providers, best first: by expected latency when adaptive
+     * selection is enabled, otherwise by static priority.
+     */
+    private List<RoutingTable.Candidate> getFallbackCandidates(String requestedModel, String excludeProvider) {
+        List<RoutingTable.Candidate> candidates = available(
+                getRoutingTable().route(requestedModel).candidatesExcluding(excludeProvider));
+        return adaptiveSelector != null ? adaptiveSelector.rank(candidates) : candidates;
+    }
+
+    /**
+     * Candidates whose provider is available. The precomputed list is returned as is
+     * unless a provider is down, so the common case does not allocate.
+     */
+    private static List<RoutingTable.Candidate> available(List<RoutingTable.Candidate> candidates) {
+        for (int i = 0; i < candidates.size(); i++) {
+            if (!candidates.get(i).provider().isAvailable()) {
+                List<RoutingTable.Candidate> available = new ArrayList<>(candidates.subList(0, i));
+                for (int j = i + 1; j < candidates.size(); j++) {
+                    if (candidates.get(j).provider().isAvailable()) {
+                        available.add(candidates.get(j));
+                    }
+                }
+                return available;
+            }
+        }
+        return candidates;
+    }
+
+    private List<String> attemptedProviders(List<RoutingTable.Candidate> fallbackProviders, String excludeProvider) {
+        List<String> attempted = new ArrayList<>(fallbackProviders.size() + 1);
+        if (excludeProvider != null) {
+            attempted.add(excludeProvider);
+        }
+        for (RoutingTable.Candidate candidate : fallbackProviders) {
+            attempted.add(candidate.provider().getName());
+        }
+        return attempted;
+    }
+
+    /**
+     * Direct provider call, hedged when the hedging policy applies.
+     */
+    private ChatResponse generateDirect(LLMProvider provider, ChatRequest request) {
+        Duration hedgeDelay = hedgeDelay(provider, request, TenantContext.getCurrentOrgIdOrDefault());
+        if (hedgeDelay == null) {
+            return generate(provider, request);
+        }
+        return hedge(provider, request, generateAsync(provider, request), hedgeDelay).block();
+    }
+
+    /**
+     * Async direct call. The tenant is read from the Reactor context under
+     * {@link TenantContext#CONTEXT_KEY}, as this may run on a thread other than the
+     * request thread.
+     */
+    private Mono<ChatResponse> generateDirectAsync(LLMProvider provider, ChatRequest request) {
+        return Mono.deferContextual(context -> {
+            Duration hedgeDelay = hedgeDelay(provider, request, TenantContext.getOrgIdOrDefault(context));
+            Mono<ChatResponse> primary = generateAsync(provider, request);
+            return hedgeDelay == null ? primary : hedge(provider, request, primary, hedgeDelay);
+        });
+    }
+
+    /**
+     * How long the primary provider may run before it is hedged, or null if this
+     * request is not hedged.
+     */
+    private Duration hedgeDelay(LLMProvider provider, ChatRequest request, String tenant) {
+        if (hedgingService == null || hedgePolicy == null || adaptiveSelector == null
+                || !hedgePolicy.appliesTo(request.getModel(), tenant)) {
+            return null;
+        }
+        return hedgePolicy.delay(adaptiveSelector.stats(provider, request.getModel()));
+    }
+
+    private Mono<ChatResponse> hedge(LLMProvider provider, ChatRequest request, Mono<ChatResponse> primary,
+                                     Duration delay) {
+        return hedgingService.hedgeAfter(provider.getName(), primary, delay,
+                () -> hedgeCall(request, provider.getName()),
+                outcome -> metrics.recordHedge(outcome.name().toLowerCase()));
+    }
+
+    /**
+     * The hedge: the next-best available provider, with the model translated. Returns
+     * null (no hedge) when there is no other provider or the hedge budget is spent.
+     */
+    private Mono<ChatResponse> hedgeCall(ChatRequest request, String primaryProvider) {
+        List<RoutingTable.Candidate> candidates = getFallbackCandidates(request.getModel(), primaryProvider);
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        if (!hedgePolicy.tryAcquire()) {
+            metrics.recordHedge("budget_exhausted");
+            return null;
+        }
+
+        RoutingTable.Candidate candidate = candidates.get(0);
+        LLMProvider provider = candidate.provider();
+        ChatRequest hedgeRequest = toFallbackRequest(request, candidate.model());
+        log.info("Hedging {} with provider: {} (model: {})", primaryProvider, provider.getName(), candidate.model());
+        metrics.recordHedge("fired");
+        metrics.recordProviderRequest(provider.getName());
+        return resilienceService.executeAsync(
+                        provider.getName(),
+                        () -> generateAsync(provider, hedgeRequest),
+                        null)
+                .doOnNext(response -> response.setRoute(provider.getName() + "-hedge"));
+    }
+
+    private ChatResponse generate(LLMProvider provider, ChatRequest request) {
+        if (adaptiveSelector == null) {
+            return provider.generate(request);
+        }
+        return adaptiveSelector.track(provider, request.getModel(), () -> provider.generate(request));
+    }
+
+    private Mono<ChatResponse> generateAsync(LLMProvider provider, ChatRequest request) {
+        if (adaptiveSelector == null) {
+            return provider.generateAsync(request);
+        }
+        return adaptiveSelector.trackAsync(provider, request.getModel(), () -> provider.generateAsync(request));
     }
 
     /**
-     * Get status of all providers
+     * Get status of all providers, including observed latency and load when adaptive
+     * selection is enabled
      */
     public List<ProviderMetadata> getProvidersStatus() {
         return providers.stream()
-                .map(LLMProvider::getMetadata)
+                .map(provider -> adaptiveSelector != null
+                        ? adaptiveSelector.describe(provider)
+                        : provider.getMetadata())
                 .toList();
     }
 }
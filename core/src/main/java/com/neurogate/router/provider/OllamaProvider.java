@@ -1,6 +1,7 @@
 package com.neurogate.router.provider;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.neurogate.router.upstream.UpstreamWebClientFactory;
 import com.neurogate.sentinel.model.ChatRequest;
 import com.neurogate.sentinel.model.ChatResponse;
 import com.neurogate.sentinel.model.Choice;
@@ -8,12 +9,12 @@ import com.neurogate.sentinel.model.Message;
 import com.neurogate.sentinel.model.Usage;
 import lombok.Builder;
 import lombok.Data;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -28,7 +29,6 @@ import java.util.stream.Collectors;
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class OllamaProvider implements LLMProvider {
 
     @Value("${neurogate.ollama.base-url:http://localhost:11434}")
@@ -37,7 +37,11 @@ public class OllamaProvider implements LLMProvider {
     @Value("${neurogate.ollama.enabled:true}")
     private boolean enabled;
 
-    private final WebClient.Builder webClientBuilder;
+    private final WebClient webClient;
+
+    public OllamaProvider(UpstreamWebClientFactory webClientFactory) {
+        this.webClient = webClientFactory.create("ollama");
+    }
 
     @Override
     public String getName() {
@@ -50,7 +54,7 @@ public class OllamaProvider implements LLMProvider {
             return Collections.emptyList();
         }
         try {
-            OllamaTagsResponse response = webClientBuilder.build()
+            OllamaTagsResponse response = webClient
                     .get()
                     .uri(baseUrl + "/api/tags")
                     .retrieve()
@@ -74,7 +78,7 @@ public class OllamaProvider implements LLMProvider {
             return false;
         try {
             // Simple health check via version endpoint
-            String version = webClientBuilder.build()
+            String version = webClient
                     .get()
                     .uri(baseUrl + "/api/version")
                     .retrieve()
@@ -107,21 +111,24 @@ public class OllamaProvider implements LLMProvider {
 
     @Override
     public ChatResponse generate(ChatRequest request) {
+        return generateAsync(request).block();
+    }
+
+    @Override
+    public Mono<ChatResponse> generateAsync(ChatRequest request) {
         log.debug("Ollama provider generating completion for model: {}", request.getModel());
 
         long startTime = System.currentTimeMillis();
 
         OllamaChatRequest ollamaRequest = mapToOllamaRequest(request, false);
 
-        OllamaChatResponse ollamaResponse = webClientBuilder.build()
+        return webClient
                 .post()
                 .uri(baseUrl + "/api/chat")
                 .bodyValue(ollamaRequest)
                 .retrieve()
                 .bodyToMono(OllamaChatResponse.class)
-                .block();
-
-        return mapToChatResponse(ollamaResponse, request.getModel(), startTime);
+                .map(ollamaResponse -> mapToChatResponse(ollamaResponse, request.getModel(), startTime));
     }
 
     @Override
@@ -131,7 +138,7 @@ public class OllamaProvider implements LLMProvider {
         long startTime = System.currentTimeMillis();
         OllamaChatRequest ollamaRequest = mapToOllamaRequest(request, true);
 
-        return webClientBuilder.build()
+        return webClient
                 .post()
                 .uri(baseUrl + "/api/chat")
                 .bodyValue(ollamaRequest)
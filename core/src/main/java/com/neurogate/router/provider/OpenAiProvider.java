@@ -102,4 +102,9 @@ public class OpenAiProvider implements LLMProvider {
     public String getEquivalentModel(String requestedModel) {
         return MODEL_EQUIVALENTS.getOrDefault(requestedModel, "gpt-4o-mini");
     }
+
+    @Override
+    public Map<String, String> getModelEquivalents() {
+        return MODEL_EQUIVALENTS;
+    }
 }
@@ -10,7 +10,7 @@ import java.math.BigDecimal;
  * Used for intelligent routing decisions.
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 public class ProviderMetadata {
 
     /**
@@ -29,10 +29,30 @@ public class ProviderMetadata {
     private boolean enabled;
 
     /**
-     * Average response latency in milliseconds
+     * Average response latency in milliseconds (advertised; used as the prior for adaptive routing)
      */
     private long avgLatencyMs;
 
+    /**
+     * Observed latency EWMA in milliseconds, across all models
+     */
+    private double observedLatencyMs;
+
+    /**
+     * Observed error rate EWMA (0.0 - 1.0)
+     */
+    private double errorRate;
+
+    /**
+     * Requests currently in flight
+     */
+    private int inFlightRequests;
+
+    /**
+     * Expected latency of the next request, as ranked by the adaptive router
+     */
+    private double expectedLatencyMs;
+
     /**
      * Cost per 1K input tokens (in USD)
      */
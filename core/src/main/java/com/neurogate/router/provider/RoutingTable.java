@@ -0,0 +1,161 @@
+package com.neurogate.router.provider;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable model → provider routing table.
+ *
+ * <p>Built from each provider's supported models and model equivalents, so routing a
+ * known model is a single hash lookup: the provider that serves it directly, and every
+ * provider in priority order with the model it would be translated to on fallback.
+ * The router swaps whole tables, so readers never see a partially built one.</p>
+ *
+ * <p>Provider availability is not part of the table; it changes at runtime and is
+ * checked per request. The router rebuilds the table when availability changes, as
+ * a provider's model list may depend on it.</p>
+ */
+public final class RoutingTable {
+
+    private static final int MAX_ON_DEMAND_ROUTES = 1_000;
+
+    private final Map<String, Route> routes;
+    private final Cache<String, Route> onDemandRoutes = Caffeine.newBuilder()
+            .maximumSize(MAX_ON_DEMAND_ROUTES)
+            .build();
+    private final List<LLMProvider> registrationOrder;
+    private final List<LLMProvider> providersByPriority;
+    private final Instant builtAt;
+
+    private RoutingTable(Map<String, Route> routes, List<LLMProvider> registrationOrder,
+                         List<LLMProvider> providersByPriority) {
+        this.routes = routes;
+        this.registrationOrder = registrationOrder;
+        this.providersByPriority = providersByPriority;
+        this.builtAt = Instant.now();
+    }
+
+    /**
+     * Build a table for the given providers.
+     *
+     * @param providers providers in registration order; the first one supporting a model
+     *                  serves it directly
+     */
+    public static RoutingTable build(List<LLMProvider> providers) {
+        List<LLMProvider> byPriority = providers.stream()
+                .sorted(Comparator.comparingInt(p -> p.getMetadata().getPriority()))
+                .toList();
+
+        Set<String> models = new LinkedHashSet<>();
+        for (LLMProvider provider : providers) {
+            models.addAll(provider.getSupportedModels());
+            models.addAll(provider.getModelEquivalents().keySet());
+        }
+
+        Map<String, Route> routes = new HashMap<>(models.size() * 2);
+        for (String model : models) {
+            routes.put(model, resolve(model, providers, byPriority));
+        }
+        return new RoutingTable(Collections.unmodifiableMap(routes), List.copyOf(providers), byPriority);
+    }
+
+    /**
+     * Route for a model. Models not in the table (e.g. a local model name passed straight
+     * through) are resolved against the same providers on first use, and kept for the
+     * lifetime of the table in a cache bounded to {@value #MAX_ON_DEMAND_ROUTES} models,
+     * since their names come from requests.
+     */
+    public Route route(String model) {
+        Route route = routes.get(model);
+        if (route != null) {
+            return route;
+        }
+        if (model == null) {
+            return resolve(null, registrationOrder, providersByPriority);
+        }
+        return onDemandRoutes.get(model, name -> resolve(name, registrationOrder, providersByPriority));
+    }
+
+    public Set<String> models() {
+        return routes.keySet();
+    }
+
+    public List<LLMProvider> providersByPriority() {
+        return providersByPriority;
+    }
+
+    public Instant builtAt() {
+        return builtAt;
+    }
+
+    private static Route resolve(String model, List<LLMProvider> providers, List<LLMProvider> byPriority) {
+        LLMProvider direct = null;
+        for (LLMProvider provider : providers) {
+            if (provider.supportsModel(model)) {
+                direct = provider;
+                break;
+            }
+        }
+
+        List<Candidate> candidates = new ArrayList<>(byPriority.size());
+        for (LLMProvider provider : byPriority) {
+            String equivalent = provider.getEquivalentModel(model);
+            if (equivalent != null) {
+                candidates.add(new Candidate(provider, equivalent));
+            }
+        }
+
+        Map<String, List<Candidate>> excluding = new HashMap<>(candidates.size() * 2);
+        for (Candidate excluded : candidates) {
+            List<Candidate> others = new ArrayList<>(candidates.size() - 1);
+            for (Candidate candidate : candidates) {
+                if (candidate != excluded) {
+                    others.add(candidate);
+                }
+            }
+            excluding.put(excluded.provider().getName(), List.copyOf(others));
+        }
+        return new Route(model, direct, List.copyOf(candidates), Collections.unmodifiableMap(excluding));
+    }
+
+    /**
+     * Routing for one requested model.
+     *
+     * @param model      requested model id
+     * @param direct     provider serving the model as-is, or {@code null}
+     * @param candidates every provider in priority order, with its equivalent model
+     * @param excluding  by provider name, {@code candidates} without that provider
+     */
+    public record Route(String model, LLMProvider direct, List<Candidate> candidates,
+                        Map<String, List<Candidate>> excluding) {
+
+        /**
+         * Candidates other than the named provider, in priority order. Precomputed, so
+         * this does not allocate.
+         *
+         * @param provider provider to leave out, or {@code null} for every candidate
+         */
+        public List<Candidate> candidatesExcluding(String provider) {
+            if (provider == null) {
+                return candidates;
+            }
+            return excluding.getOrDefault(provider, candidates);
+        }
+    }
+
+    /**
+     * A provider and the model a request is translated to when routed there
+     */
+    public record Candidate(LLMProvider provider, String model) {
+    }
+}
@@ -0,0 +1,100 @@
+package com.neurogate.router.resilience;
+
+import com.neurogate.config.NeuroGateProperties;
+import com.neurogate.router.adaptive.ProviderStats;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides whether and when a direct provider call is hedged.
+ *
+ * <p>Hedging applies to the models and tenants listed under
+ * {@code neurogate.router.hedging}. The hedge delay is the primary provider's observed
+ * latency quantile for the model, so only the slow tail gets a second call. Extra
+ * traffic is capped by a token bucket: every eligible request deposits
+ * {@code budgetRatio} of a token, every hedge takes a whole one, and at most
+ * {@code budgetBurst} tokens are kept. Hedges therefore never exceed
+ * {@code budgetRatio} of eligible traffic over time, whatever the upstream latency.</p>
+ */
+@Component
+public class HedgePolicy {
+
+    private static final long TOKEN = 1_000_000L;
+
+    private final NeuroGateProperties.Router.Hedging config;
+    private final AtomicLong budget = new AtomicLong();
+
+    public HedgePolicy(NeuroGateProperties properties) {
+        this.config = properties.getRouter().getHedging();
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    /**
+     * Whether requests for this model and tenant are hedged at all.
+     */
+    public boolean appliesTo(String model, String tenant) {
+        if (!config.isEnabled()) {
+            return false;
+        }
+        return (config.getModels().isEmpty() || config.getModels().contains(model))
+                && (config.getTenants().isEmpty() || config.getTenants().contains(tenant));
+    }
+
+    /**
+     * Delay after which the primary call is hedged, and credit the hedge budget for
+     * the request.
+     *
+     * @param stats primary provider's stats for the requested model
+     * @return the delay, or {@code null} while too few samples have been seen
+     */
+    public Duration delay(ProviderStats stats) {
+        deposit();
+        if (stats.successes() < config.getMinSamples()) {
+            return null;
+        }
+        double quantileMs = stats.latencyQuantileMs(config.getQuantile());
+        long delayMs = Math.max(config.getMinDelayMs(), (long) Math.ceil(quantileMs));
+        return Duration.ofMillis(delayMs);
+    }
+
+    /**
+     * Take one hedge from the budget.
+     *
+     * @return false when the budget is exhausted and the hedge must be skipped
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            long current = budget.get();
+            if (current < TOKEN) {
+                return false;
+            }
+            if (budget.compareAndSet(current, current - TOKEN)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Hedges currently available.
+     */
+    public double availableBudget() {
+        return (double) budget.get() / TOKEN;
+    }
+
+    private void deposit() {
+        long credit = (long) (config.getBudgetRatio() * TOKEN);
+        long cap = config.getBudgetBurst() * TOKEN;
+        while (true) {
+            long current = budget.get();
+            long next = Math.min(cap, current + credit);
+            if (next == current || budget.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+}
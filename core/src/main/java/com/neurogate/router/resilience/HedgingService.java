@@ -3,12 +3,19 @@ package com.neurogate.router.resilience;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.Disposables;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
 
+import java.time.Duration;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
@@ -58,6 +65,25 @@ public class HedgingService {
         }
     }
 
+    /**
+     * Tail-latency hedging: subscribe to {@code primary}, and if it has not produced a
+     * value after {@code delay}, subscribe to a backup call as well. The first value
+     * wins and the other call is cancelled. If the primary fails before the hedge
+     * fires, the error is propagated at once; once both are running, the call fails
+     * only when both have failed (with the primary's error).
+     *
+     * @param name      name for logging
+     * @param primary   the primary call
+     * @param delay     how long the primary runs alone
+     * @param backup    creates the hedge call when the delay elapses; may return
+     *                  {@code null} to skip hedging (e.g. budget exhausted)
+     * @param onOutcome notified once per fired hedge with whether it won
+     */
+    public <T> Mono<T> hedgeAfter(String name, Mono<T> primary, Duration delay,
+                                  Supplier<Mono<T>> backup, Consumer<HedgeOutcome> onOutcome) {
+        return Mono.create(sink -> new Race<>(name, sink, backup, onOutcome).start(primary, delay));
+    }
+
     /**
      * Executes all suppliers concurrently and returns all successful results.
      * Used for Consensus/Voting patterns.
@@ -83,4 +109,97 @@ public class HedgingService {
                 .filter(java.util.Objects::nonNull)
                 .collect(Collectors.toList());
     }
+
+    /**
+     * Result of a fired hedge
+     */
+    public enum HedgeOutcome {
+        /**
+         * The hedge answered first.
+         */
+        WON,
+        /**
+         * The primary answered first, or both failed: the extra call was wasted.
+         */
+        WASTED
+    }
+
+    /**
+     * State of one hedged call. Transitions are synchronized; there are at most three
+     * events (timer, primary, hedge), so the lock is uncontended in practice.
+     */
+    private static final class Race<T> {
+
+        private final String name;
+        private final MonoSink<T> sink;
+        private final Supplier<Mono<T>> backup;
+        private final Consumer<HedgeOutcome> onOutcome;
+        private final Disposable.Composite calls = Disposables.composite();
+
+        private boolean done;
+        private boolean hedged;
+        private int pending = 1;
+        private Throwable primaryError;
+
+        Race(String name, MonoSink<T> sink, Supplier<Mono<T>> backup, Consumer<HedgeOutcome> onOutcome) {
+            this.name = name;
+            this.sink = sink;
+            this.backup = backup;
+            this.onOutcome = onOutcome;
+        }
+
+        void start(Mono<T> primary, Duration delay) {
+            sink.onDispose(calls);
+            calls.add(Mono.delay(delay).subscribe(tick -> fire()));
+            calls.add(primary
+                    .switchIfEmpty(Mono.error(() -> new NoSuchElementException(name + " returned no response")))
+                    .subscribe(value -> succeed(value, false), error -> fail(error, false)));
+        }
+
+        private synchronized void fire() {
+            if (done) {
+                return;
+            }
+            Mono<T> call = backup.get();
+            if (call == null) {
+                return;
+            }
+            hedged = true;
+            pending++;
+            log.debug("Hedging '{}' after primary exceeded its delay", name);
+            calls.add(call
+                    .switchIfEmpty(Mono.error(() -> new NoSuchElementException(name + " hedge returned no response")))
+                    .subscribe(value -> succeed(value, true), error -> fail(error, true)));
+        }
+
+        private synchronized void succeed(T value, boolean fromHedge) {
+            if (done) {
+                return;
+            }
+            done = true;
+            if (hedged) {
+                onOutcome.accept(fromHedge ? HedgeOutcome.WON : HedgeOutcome.WASTED);
+            }
+            sink.success(value);
+        }
+
+        private synchronized void fail(Throwable error, boolean fromHedge) {
+            if (done) {
+                return;
+            }
+            if (fromHedge) {
+                log.warn("Hedge for '{}' failed: {}", name, error.getMessage());
+            } else {
+                primaryError = error;
+            }
+            if (--pending > 0) {
+                return;
+            }
+            done = true;
+            if (hedged) {
+                onOutcome.accept(HedgeOutcome.WASTED);
+            }
+            sink.error(primaryError != null ? primaryError : error);
+        }
+    }
 }
@@ -2,11 +2,14 @@ package com.neurogate.router.resilience;
 
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.retry.RetryOperator;
 import io.github.resilience4j.retry.Retry;
 import io.github.resilience4j.retry.RetryRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -47,4 +50,38 @@ public class ResilienceService {
             throw t;
         }
     }
+
+    /**
+     * Reactive counterpart of {@link #execute}: decorates the publisher with the same
+     * Circuit Breaker and Retry instances via the Resilience4j Reactor operators,
+     * without holding a thread while the call is in flight.
+     *
+     * @param name     Name of the component/provider (e.g. "openai")
+     * @param supplier Creates the operation; invoked again on every retry
+     * @param fallback The fallback publisher to switch to on failure, or {@code null}
+     * @param <T>      Return type
+     * @return Mono of the result or fallback
+     */
+    public <T> Mono<T> executeAsync(String name, Supplier<Mono<T>> supplier, Function<Throwable, Mono<T>> fallback) {
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(name);
+        Retry retry = retryRegistry.retry(name);
+        io.micrometer.core.instrument.Timer timer = meterRegistry.timer("neurogate.upstream.latency", "provider", name);
+
+        Mono<T> decorated = Mono.defer(supplier)
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(RetryOperator.of(retry));
+
+        Mono<T> timed = Mono.defer(() -> {
+            io.micrometer.core.instrument.Timer.Sample sample = io.micrometer.core.instrument.Timer.start(meterRegistry);
+            return decorated.doFinally(signal -> sample.stop(timer));
+        });
+
+        return timed.onErrorResume(t -> {
+            log.warn("Resilience execution failed for {}: {}", name, t.getMessage());
+            if (fallback != null) {
+                return fallback.apply(t);
+            }
+            return Mono.error(t);
+        });
+    }
 }
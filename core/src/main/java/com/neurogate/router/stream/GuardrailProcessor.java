@@ -1,15 +1,12 @@
 package com.neurogate.router.stream;
 
 import com.neurogate.sentinel.model.ChatResponse;
-import com.neurogate.sentinel.model.Choice;
 import com.neurogate.vault.streaming.StreamingGuardrail;
 import com.neurogate.vault.streaming.StreamingResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
-import reactor.core.publisher.Flux;
-
-import java.util.concurrent.atomic.AtomicBoolean;
+import reactor.util.context.ContextView;
 
 /**
  * Processes streaming responses for content safety guardrails.
@@ -23,60 +20,38 @@ public class GuardrailProcessor implements StreamProcessor {
     private final StreamingGuardrail streamingGuardrail;
 
     @Override
-    public Flux<ChatResponse> process(Flux<ChatResponse> stream) {
-        if (!isEnabled()) {
-            return stream;
-        }
-
-        streamingGuardrail.reset();
-        AtomicBoolean aborted = new AtomicBoolean(false);
-
-        return stream
-                .map(response -> processResponse(response, aborted))
-                .takeUntil(response -> isAbortSignal(response))
-                .doFinally(signal -> streamingGuardrail.reset());
-    }
-
-    private ChatResponse processResponse(ChatResponse response, AtomicBoolean aborted) {
-        if (aborted.get()) {
-            return response;
-        }
-
-        if (response.getChoices() == null || response.getChoices().isEmpty()) {
-            return response;
-        }
-
-        Choice choice = response.getChoices().get(0);
-        if (choice.getDelta() == null) {
-            return response;
-        }
-
-        String content = choice.getDelta().getStrContent();
-        if (content == null) {
-            return response;
-        }
-
-        StreamingResult result = streamingGuardrail.processToken(content);
-
-        if (!result.isShouldContinue()) {
-            aborted.set(true);
-            choice.getDelta().setContent(
-                    "\n\n[Stream terminated: " + result.getAbortReason() + "]");
-            choice.setFinishReason("content_filter");
-            log.warn("🛡️ Stream guardrail triggered: {}", result.getViolationCategory());
-        } else if (result.getToken() != null) {
-            choice.getDelta().setContent(result.getToken());
-        }
-
-        return response;
+    public Stage open(ContextView context) {
+        // Guardrail state is per stream, never shared between streams
+        StreamingGuardrail.Session session = streamingGuardrail.openSession();
+
+        return new Stage() {
+            @Override
+            public String apply(String content, ChatResponse chunk) {
+                if (content.isEmpty()) {
+                    return content;
+                }
+
+                StreamingResult result = session.processToken(content);
+
+                if (!result.isShouldContinue()) {
+                    return terminate(result, chunk);
+                }
+                return result.getToken() != null ? result.getToken() : content;
+            }
+
+            @Override
+            public String flush(ChatResponse chunk) {
+                // Matches ending in a word boundary at the very end of the text
+                StreamingResult result = session.finish();
+                return result.isShouldContinue() ? "" : terminate(result, chunk);
+            }
+        };
     }
 
-    private boolean isAbortSignal(ChatResponse response) {
-        if (response.getChoices() == null || response.getChoices().isEmpty()) {
-            return false;
-        }
-        String finishReason = response.getChoices().get(0).getFinishReason();
-        return "content_filter".equals(finishReason);
+    private static String terminate(StreamingResult result, ChatResponse chunk) {
+        chunk.getChoices().get(0).setFinishReason(StreamProcessorChain.CONTENT_FILTER);
+        log.warn("🛡️ Stream guardrail triggered: {}", result.getViolationCategory());
+        return "\n\n[Stream terminated: " + result.getAbortReason() + "]";
     }
 
     @Override
@@ -93,11 +68,4 @@ public class GuardrailProcessor implements StreamProcessor {
     public boolean isEnabled() {
         return streamingGuardrail != null && streamingGuardrail.isEnabled();
     }
-
-    @Override
-    public void reset() {
-        if (streamingGuardrail != null) {
-            streamingGuardrail.reset();
-        }
-    }
 }
@@ -1,94 +1,52 @@
 package com.neurogate.router.stream;
 
 import com.neurogate.sentinel.model.ChatResponse;
-import com.neurogate.sentinel.model.Choice;
-import com.neurogate.sentinel.model.Message;
-import com.neurogate.vault.PiiSanitizationService;
+import com.neurogate.vault.PiiRestorerFactory;
 import com.neurogate.vault.StreamingPiiRestorer;
+import com.neurogate.vault.tokenizer.TokenVault;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
-import reactor.core.publisher.Flux;
-
-import java.util.List;
-import java.util.concurrent.atomic.AtomicReference;
+import reactor.util.context.ContextView;
 
 /**
  * Processes streaming responses to restore PII tokens.
  * Handles chunked tokens like "<EMAIL_1>" that may span multiple chunks.
+ *
+ * <p>Tokens are resolved against the request's {@link TokenVault}, taken from the
+ * Reactor context under {@link TokenVault#CONTEXT_KEY}. Streams without a vault, or
+ * whose prompt had no PII, pass through untouched.</p>
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class PiiRedactionProcessor implements StreamProcessor {
 
-    private final PiiSanitizationService piiSanitizationService;
-    private final ThreadLocal<StreamingPiiRestorer> restorerHolder = new ThreadLocal<>();
+    private final PiiRestorerFactory piiRestorerFactory;
 
     @Override
-    public Flux<ChatResponse> process(Flux<ChatResponse> stream) {
-        StreamingPiiRestorer restorer = new StreamingPiiRestorer(piiSanitizationService);
-        AtomicReference<ChatResponse> lastResponseRef = new AtomicReference<>();
-
-        return stream
-                .map(response -> processResponse(response, restorer, lastResponseRef))
-                .concatWith(Flux.defer(() -> createFlushPacket(restorer, lastResponseRef.get())));
-    }
-
-    private ChatResponse processResponse(
-            ChatResponse response,
-            StreamingPiiRestorer restorer,
-            AtomicReference<ChatResponse> lastResponseRef) {
-
-        lastResponseRef.set(response);
-
-        if (response.getChoices() == null || response.getChoices().isEmpty()) {
-            return response;
-        }
-
-        Choice choice = response.getChoices().get(0);
-        if (choice.getDelta() == null) {
-            return response;
-        }
-
-        String content = choice.getDelta().getStrContent();
-        if (content == null) {
-            return response;
+    public Stage open(ContextView context) {
+        TokenVault tokenVault = context.getOrDefault(TokenVault.CONTEXT_KEY, null);
+        if (tokenVault == null || !tokenVault.hasTokens()) {
+            return (content, chunk) -> content;
         }
-
-        String restored = restorer.processChunk(content);
-        if (!restored.equals(content) && !restored.isEmpty()) {
-            response.setPiiDetected(1);
-        }
-
-        choice.getDelta().setContent(restored);
-        return response;
-    }
-
-    private Flux<ChatResponse> createFlushPacket(StreamingPiiRestorer restorer, ChatResponse template) {
-        String remainder = restorer.flush();
-
-        if (remainder == null || remainder.isEmpty() || template == null) {
-            return Flux.empty();
-        }
-
-        ChatResponse flushPacket = ChatResponse.builder()
-                .id(template.getId())
-                .object(template.getObject())
-                .created(template.getCreated())
-                .model(template.getModel())
-                .traceId(template.getTraceId())
-                .sessionId(template.getSessionId())
-                .choices(List.of(Choice.builder()
-                        .index(0)
-                        .delta(Message.builder()
-                                .role("assistant")
-                                .content(remainder)
-                                .build())
-                        .build()))
-                .build();
-
-        return Flux.just(flushPacket);
+        StreamingPiiRestorer restorer = piiRestorerFactory.createRestorer(tokenVault);
+
+        return new Stage() {
+            @Override
+            public String apply(String content, ChatResponse chunk) {
+                String restored = restorer.processChunk(content);
+                if (!restored.equals(content) && !restored.isEmpty()) {
+                    chunk.setPiiDetected(1);
+                }
+                return restored;
+            }
+
+            @Override
+            public String flush(ChatResponse chunk) {
+                return restorer.flush();
+            }
+        };
     }
 
     @Override
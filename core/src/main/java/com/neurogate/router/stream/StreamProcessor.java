@@ -1,21 +1,23 @@
 package com.neurogate.router.stream;
 
 import com.neurogate.sentinel.model.ChatResponse;
-import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
 
 /**
  * Processor interface for stream transformations.
- * Implements the Decorator Pattern for streaming responses.
+ *
+ * <p>Processors do not build Flux stages themselves: {@link StreamProcessorChain}
+ * opens one {@link Stage} per processor for each stream and runs all of them in a
+ * single operator, in {@link #getPriority()} order, for every chunk.</p>
  */
 public interface StreamProcessor {
 
     /**
-     * Process a stream of chat responses.
+     * Create the state for one stream. Called once per subscription.
      *
-     * @param stream the input stream
-     * @return the processed stream
+     * @param context the subscriber's Reactor context, e.g. for request-scoped state
      */
-    Flux<ChatResponse> process(Flux<ChatResponse> stream);
+    Stage open(ContextView context);
 
     /**
      * Get the priority of this processor (lower = runs first).
@@ -35,9 +37,35 @@ public interface StreamProcessor {
     }
 
     /**
-     * Reset any internal state (called before each new stream).
+     * Per-stream state of a processor. Chunks of a stream arrive in order and never
+     * concurrently.
      */
-    default void reset() {
-        // Default no-op
+    interface Stage {
+
+        /**
+         * Transform the delta text of one chunk.
+         *
+         * <p>To end the stream, set the chunk's finish reason to
+         * {@link StreamProcessorChain#CONTENT_FILTER}; later processors are skipped and
+         * the chunk is the last one emitted.</p>
+         *
+         * @param content text left by earlier processors, never null
+         * @param chunk   the chunk carrying the text, for flags such as {@code piiDetected}
+         * @return text for later processors; empty to hold it back
+         */
+        String apply(String content, ChatResponse chunk);
+
+        /**
+         * Text still held back when the stream completes.
+         *
+         * <p>Called once at the end of the stream, so it is also where a processor
+         * reports a violation it can only detect at the end: as in {@link #apply}, set
+         * the chunk's finish reason to {@link StreamProcessorChain#CONTENT_FILTER}.</p>
+         *
+         * @param chunk the extra chunk the flushed text is emitted in
+         */
+        default String flush(ChatResponse chunk) {
+            return "";
+        }
     }
 }
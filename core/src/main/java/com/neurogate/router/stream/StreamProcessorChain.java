@@ -1,27 +1,62 @@
 package com.neurogate.router.stream;
 
+import com.neurogate.config.NeuroGateProperties;
 import com.neurogate.sentinel.model.ChatResponse;
+import com.neurogate.sentinel.model.Choice;
+import com.neurogate.sentinel.model.Message;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
+import reactor.util.context.ContextView;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Chains multiple stream processors together.
- * Processors are applied in priority order.
+ * The post-processing pipeline for streamed responses.
+ *
+ * <p>Processors are applied in priority order, fused into a single {@code map}: for
+ * each chunk the delta text passes through every enabled processor's {@link
+ * StreamProcessor.Stage} in one call, instead of one Flux stage per processor. When
+ * the upstream completes, text the processors still hold back is flushed through
+ * the remaining processors and emitted as one extra chunk, which also carries a
+ * {@link #CONTENT_FILTER} finish reason set by a processor at the end of the stream.</p>
+ *
+ * <p>With {@code neurogate.streaming.batching.enabled}, processed chunks are
+ * coalesced into fewer, larger deltas. Time spent in each processor is exported as
+ * {@code neurogate.stream.processor.latency} tagged {@code processor}.</p>
  */
 @Slf4j
 @Component
 public class StreamProcessorChain {
 
+    /**
+     * Finish reason of a chunk that ends the stream on a content policy violation.
+     */
+    public static final String CONTENT_FILTER = "content_filter";
+
     private final List<StreamProcessor> processors;
+    private final List<Timer> timers;
+    private final NeuroGateProperties.Streaming.Batching batching;
 
-    public StreamProcessorChain(List<StreamProcessor> processors) {
+    public StreamProcessorChain(List<StreamProcessor> processors, NeuroGateProperties properties,
+                                MeterRegistry meterRegistry) {
         this.processors = processors.stream()
                 .sorted(Comparator.comparingInt(StreamProcessor::getPriority))
                 .toList();
+        this.timers = this.processors.stream()
+                .map(processor -> Timer.builder("neurogate.stream.processor.latency")
+                        .description("Time spent in a stream processor per chunk")
+                        .tag("processor", processor.getName())
+                        .publishPercentiles(0.5, 0.95, 0.99)
+                        .register(meterRegistry))
+                .toList();
+        this.batching = properties.getStreaming().getBatching();
 
         log.info("Initialized stream processor chain with {} processors: {}",
                 this.processors.size(),
@@ -35,38 +70,198 @@ public class StreamProcessorChain {
      * @return the processed stream
      */
     public Flux<ChatResponse> process(Flux<ChatResponse> stream) {
-        Flux<ChatResponse> current = stream;
+        // Processor state is per subscription, so retries start from a clean slate
+        Flux<ChatResponse> processed = Flux.deferContextual(context -> {
+            Pipeline pipeline = open(context);
+            if (pipeline == null) {
+                return stream;
+            }
+            return stream
+                    .map(pipeline::apply)
+                    .takeUntil(chunk -> pipeline.aborted)
+                    .concatWith(Flux.defer(pipeline::flush));
+        });
+
+        if (!batching.isEnabled()) {
+            return processed;
+        }
+        return processed
+                .bufferTimeout(batching.getMaxChunks(), Duration.ofMillis(batching.getMaxDelayMs()), true)
+                .concatMapIterable(StreamProcessorChain::coalesce);
+    }
+
+    /**
+     * Get all registered processors.
+     */
+    public List<StreamProcessor> getProcessors() {
+        return processors;
+    }
 
-        for (StreamProcessor processor : processors) {
+    private Pipeline open(ContextView context) {
+        List<StreamProcessor.Stage> stages = new ArrayList<>(processors.size());
+        List<Timer> stageTimers = new ArrayList<>(processors.size());
+        for (int i = 0; i < processors.size(); i++) {
+            StreamProcessor processor = processors.get(i);
             if (!processor.isEnabled()) {
                 log.trace("Skipping disabled processor: {}", processor.getName());
                 continue;
             }
 
             try {
-                processor.reset();
-                current = processor.process(current);
-                log.trace("Applied stream processor: {}", processor.getName());
+                stages.add(processor.open(context));
+                stageTimers.add(timers.get(i));
             } catch (Exception e) {
                 log.warn("Stream processor '{}' initialization failed: {}",
                         processor.getName(), e.getMessage());
             }
         }
+        if (stages.isEmpty()) {
+            return null;
+        }
+        return new Pipeline(stages.toArray(new StreamProcessor.Stage[0]), stageTimers.toArray(new Timer[0]));
+    }
+
+    /**
+     * Merge a batch of chunks into one carrying the concatenated delta text and the
+     * last chunk's metadata and finish reason. Batches containing a chunk without a
+     * delta (e.g. a usage-only chunk) are passed through unchanged.
+     */
+    static List<ChatResponse> coalesce(List<ChatResponse> chunks) {
+        if (chunks.size() < 2) {
+            return chunks;
+        }
+        StringBuilder content = new StringBuilder();
+        String role = null;
+        boolean piiDetected = false;
+        for (ChatResponse chunk : chunks) {
+            Message delta = delta(chunk);
+            if (delta == null) {
+                return chunks;
+            }
+            String text = delta.getStrContent();
+            if (text != null) {
+                content.append(text);
+            }
+            if (role == null) {
+                role = delta.getRole();
+            }
+            piiDetected |= chunk.getPiiDetected() != null && chunk.getPiiDetected() > 0;
+        }
 
-        return current;
+        ChatResponse merged = chunks.get(chunks.size() - 1);
+        Message delta = delta(merged);
+        delta.setContent(content.toString());
+        if (delta.getRole() == null) {
+            delta.setRole(role);
+        }
+        if (piiDetected) {
+            merged.setPiiDetected(1);
+        }
+        return List.of(merged);
     }
 
     /**
-     * Reset all processors.
+     * The text-carrying message of a chunk: its delta, or its message for providers
+     * that stream whole message objects (Ollama).
      */
-    public void resetAll() {
-        processors.forEach(StreamProcessor::reset);
+    private static Message delta(ChatResponse chunk) {
+        if (chunk.getChoices() == null || chunk.getChoices().isEmpty()) {
+            return null;
+        }
+        Choice choice = chunk.getChoices().get(0);
+        return choice.getDelta() != null ? choice.getDelta() : choice.getMessage();
     }
 
     /**
-     * Get all registered processors.
+     * The opened stages of one stream.
      */
-    public List<StreamProcessor> getProcessors() {
-        return processors;
+    private static final class Pipeline {
+        private final StreamProcessor.Stage[] stages;
+        private final Timer[] timers;
+        private ChatResponse last;
+        private boolean aborted;
+
+        private Pipeline(StreamProcessor.Stage[] stages, Timer[] timers) {
+            this.stages = stages;
+            this.timers = timers;
+        }
+
+        ChatResponse apply(ChatResponse chunk) {
+            last = chunk;
+            Message delta = delta(chunk);
+            if (delta == null || delta.getStrContent() == null) {
+                return chunk;
+            }
+            delta.setContent(run(0, stages.length, delta.getStrContent(), chunk));
+            return chunk;
+        }
+
+        Flux<ChatResponse> flush() {
+            if (aborted || last == null) {
+                return Flux.empty();
+            }
+
+            // Create a flush packet using metadata and the chunk shape of the last seen response
+            Message held = Message.builder()
+                    .role("assistant")
+                    .build();
+            boolean messageShaped = delta(last) != null && last.getChoices().get(0).getDelta() == null;
+            ChatResponse packet = ChatResponse.builder()
+                    .id(last.getId())
+                    .object(last.getObject())
+                    .created(last.getCreated())
+                    .model(last.getModel())
+                    .traceId(last.getTraceId())
+                    .sessionId(last.getSessionId())
+                    .choices(List.of(Choice.builder()
+                            .index(0)
+                            .delta(messageShaped ? null : held)
+                            .message(messageShaped ? held : null)
+                            .build()))
+                    .build();
+
+            // Stage i sees what the stages before it flushed, then adds its own remainder,
+            // so each remainder passes through every later stage exactly once
+            String text = "";
+            for (int i = 0; i < stages.length; i++) {
+                if (!text.isEmpty()) {
+                    text = run(i, i + 1, text, packet);
+                    if (aborted) {
+                        break;
+                    }
+                }
+                text = text + stages[i].flush(packet);
+                if (CONTENT_FILTER.equals(packet.getChoices().get(0).getFinishReason())) {
+                    aborted = true;
+                    break;
+                }
+            }
+
+            if (text.isEmpty() && !aborted) {
+                return Flux.empty();
+            }
+            held.setContent(text);
+            return Flux.just(packet);
+        }
+
+        /**
+         * Pass text through stages {@code from} (inclusive) to {@code to} (exclusive),
+         * stopping at one that ends the stream.
+         */
+        private String run(int from, int to, String text, ChatResponse chunk) {
+            Choice choice = chunk.getChoices().get(0);
+            String finishReason = choice.getFinishReason();
+            for (int i = from; i < to; i++) {
+                long start = System.nanoTime();
+                text = stages[i].apply(text, chunk);
+                timers[i].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+
+                if (CONTENT_FILTER.equals(choice.getFinishReason()) && !CONTENT_FILTER.equals(finishReason)) {
+                    aborted = true;
+                    break;
+                }
+            }
+            return text;
+        }
     }
 }
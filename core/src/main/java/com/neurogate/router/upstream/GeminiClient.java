@@ -5,6 +5,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.neurogate.sentinel.model.*;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -28,7 +29,7 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class GeminiClient {
 
-        private final WebClient.Builder webClientBuilder;
+        private final UpstreamWebClientFactory webClientFactory;
         private final ObjectMapper objectMapper;
         private final io.micrometer.core.instrument.MeterRegistry meterRegistry;
 
@@ -38,67 +39,74 @@ public class GeminiClient {
         @Value("${neurogate.gemini.base-url:https://generativelanguage.googleapis.com}")
         private String baseUrl;
 
+        private WebClient webClient;
+
+        @PostConstruct
+        void initClient() {
+                webClient = webClientFactory.create("gemini", baseUrl,
+                                headers -> headers.set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE));
+        }
+
         /**
          * Generate chat completion using Gemini with resilience patterns.
          */
         @CircuitBreaker(name = "gemini", fallbackMethod = "generateFallback")
         @Retry(name = "gemini")
         public ChatResponse generateCompletion(ChatRequest request, String model) {
+                return generateCompletionAsync(request, model).block();
+        }
+
+        /**
+         * Generate chat completion using Gemini without blocking the caller.
+         */
+        public Mono<ChatResponse> generateCompletionAsync(ChatRequest request, String model) {
                 if (apiKey == null || apiKey.isBlank()) {
-                        throw new IllegalStateException("Gemini API key is not configured");
+                        return Mono.error(new IllegalStateException("Gemini API key is not configured"));
                 }
 
                 log.debug("Sending request to Gemini: model={}", model);
                 meterRegistry.counter("neurogate.upstream.requests", "provider", "gemini").increment();
 
-                try {
-                        WebClient client = webClientBuilder
-                                        .baseUrl(baseUrl)
-                                        .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                                        .build();
-
-                        // Build Gemini API request
-                        Map<String, Object> geminiRequest = Map.of(
-                                        "contents", List.of(
-                                                        Map.of(
-                                                                        "parts", List.of(
-                                                                                        Map.of("text", request
-                                                                                                        .getConcatenatedContent())))),
-                                        "generationConfig", Map.of(
-                                                        "temperature",
-                                                        request.getTemperature() != null ? request.getTemperature()
-                                                                        : 0.7,
-                                                        "maxOutputTokens",
-                                                        request.getMaxTokens() != null ? request.getMaxTokens() : 2048,
-                                                        "topP", request.getTopP() != null ? request.getTopP() : 0.95));
-
-                        // Call Gemini API
-                        Mono<String> responseMono = client.post()
-                                        .uri("/v1beta/models/" + model + ":generateContent?key=" + apiKey)
-                                        .bodyValue(geminiRequest)
-                                        .retrieve()
-                                        .bodyToMono(String.class)
-                                        .timeout(Duration.ofSeconds(30));
-
-                        String responseBody = responseMono.block();
-                        ChatResponse response = convertToNeuroGateResponse(responseBody, request.getModel());
-
-                        // Record cost (Estimate)
-                        if (response.getUsage() != null) {
-                                // Gemini Pro is roughly $0.000125/1k input, $0.000375/1k output (very cheap)
-                                double cost = (response.getUsage().getPromptTokens() / 1000.0 * 0.000125) +
-                                                (response.getUsage().getCompletionTokens() / 1000.0 * 0.000375);
-                                response.setCostUsd(cost);
-                                meterRegistry.counter("neurogate.upstream.cost", "provider", "gemini").increment(cost);
-                        }
-
-                        return response;
-
-                } catch (Exception e) {
-                        log.error("Error calling Gemini API", e);
-                        meterRegistry.counter("neurogate.upstream.errors", "provider", "gemini").increment();
-                        throw new RuntimeException("Gemini API call failed: " + e.getMessage(), e);
-                }
+                // Build Gemini API request
+                Map<String, Object> geminiRequest = Map.of(
+                                "contents", List.of(
+                                                Map.of(
+                                                                "parts", List.of(
+                                                                                Map.of("text", request
+                                                                                                .getConcatenatedContent())))),
+                                "generationConfig", Map.of(
+                                                "temperature",
+                                                request.getTemperature() != null ? request.getTemperature()
+                                                                : 0.7,
+                                                "maxOutputTokens",
+                                                request.getMaxTokens() != null ? request.getMaxTokens() : 2048,
+                                                "topP", request.getTopP() != null ? request.getTopP() : 0.95));
+
+                // Call Gemini API
+                return webClient.post()
+                                .uri("/v1beta/models/" + model + ":generateContent?key=" + apiKey)
+                                .bodyValue(geminiRequest)
+                                .retrieve()
+                                .bodyToMono(String.class)
+                                .timeout(Duration.ofSeconds(30))
+                                .map(responseBody -> {
+                                        ChatResponse response = convertToNeuroGateResponse(responseBody, request.getModel());
+
+                                        // Record cost (Estimate)
+                                        if (response.getUsage() != null) {
+                                                // Gemini Pro is roughly $0.000125/1k input, $0.000375/1k output (very cheap)
+                                                double cost = (response.getUsage().getPromptTokens() / 1000.0 * 0.000125) +
+                                                                (response.getUsage().getCompletionTokens() / 1000.0 * 0.000375);
+                                                response.setCostUsd(cost);
+                                                meterRegistry.counter("neurogate.upstream.cost", "provider", "gemini").increment(cost);
+                                        }
+                                        return response;
+                                })
+                                .onErrorMap(e -> {
+                                        log.error("Error calling Gemini API", e);
+                                        meterRegistry.counter("neurogate.upstream.errors", "provider", "gemini").increment();
+                                        return new RuntimeException("Gemini API call failed: " + e.getMessage(), e);
+                                });
         }
 
         /**
@@ -198,11 +206,6 @@ public class GeminiClient {
                 log.debug("Sending streaming request to Gemini: model={}", model);
 
                 try {
-                        WebClient client = webClientBuilder
-                                        .baseUrl(baseUrl)
-                                        .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
-                                        .build();
-
                         // Build Gemini API request (same as completion)
                         Map<String, Object> geminiRequest = Map.of(
                                         "contents", List.of(
@@ -219,7 +222,7 @@ public class GeminiClient {
                                                         "topP", request.getTopP() != null ? request.getTopP() : 0.95));
 
                         // Call Gemini API with alt=sse
-                        return client.post()
+                        return webClient.post()
                                         .uri("/v1beta/models/" + model + ":streamGenerateContent?key=" + apiKey
                                                         + "&alt=sse")
                                         .bodyValue(geminiRequest)
@@ -0,0 +1,100 @@
+package com.neurogate.router.upstream;
+
+import com.neurogate.config.NeuroGateProperties;
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Builds the long-lived WebClient each LLM provider uses for upstream calls.
+ *
+ * <p>Every provider gets a dedicated Reactor Netty {@link ConnectionProvider} named
+ * after it, so a slow upstream cannot exhaust connections meant for another. Pools
+ * keep connections alive between requests (avoiding a TLS handshake per call),
+ * evict idle connections in the background and negotiate HTTP/2 on https
+ * upstreams. Pool metrics are published as {@code reactor.netty.connection.provider.*}
+ * with a {@code provider} tag, including the
+ * {@code reactor.netty.connection.provider.pending.connections.time} acquire-latency timer.</p>
+ */
+@Slf4j
+@Component
+public class UpstreamWebClientFactory {
+
+    private final WebClient.Builder webClientBuilder;
+    private final NeuroGateProperties.Upstream config;
+    private final Map<String, ConnectionProvider> pools = new ConcurrentHashMap<>();
+
+    public UpstreamWebClientFactory(WebClient.Builder webClientBuilder, NeuroGateProperties properties) {
+        this.webClientBuilder = webClientBuilder;
+        this.config = properties.getUpstream();
+    }
+
+    /**
+     * Create a client for callers that pass absolute URIs.
+     */
+    public WebClient create(String provider) {
+        return create(provider, null, headers -> { });
+    }
+
+    /**
+     * Create a client bound to a base URL with default headers.
+     *
+     * @param provider       provider name, used for the pool name and metric tags
+     * @param baseUrl        upstream base URL, or {@code null} for absolute URIs
+     * @param defaultHeaders headers sent with every request
+     */
+    public WebClient create(String provider, String baseUrl, Consumer<HttpHeaders> defaultHeaders) {
+        NeuroGateProperties.Upstream.Pool pool = config.poolFor(provider);
+        HttpClient httpClient = HttpClient.create(pools.computeIfAbsent(provider, name -> newPool(name, pool)))
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, pool.getConnectTimeoutMs())
+                .option(ChannelOption.SO_KEEPALIVE, pool.isKeepAlive())
+                .keepAlive(pool.isKeepAlive());
+
+        boolean secure = baseUrl != null && baseUrl.startsWith("https://");
+        if (secure && pool.isHttp2()) {
+            httpClient = httpClient.protocol(HttpProtocol.H2, HttpProtocol.HTTP11).secure();
+        } else {
+            httpClient = httpClient.protocol(HttpProtocol.HTTP11);
+        }
+
+        WebClient.Builder builder = webClientBuilder.clone()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .defaultHeaders(defaultHeaders);
+        if (baseUrl != null) {
+            builder.baseUrl(baseUrl);
+        }
+        log.info("Upstream client for {} created (maxConnections={}, http2={})",
+                provider, pool.getMaxConnections(), secure && pool.isHttp2());
+        return builder.build();
+    }
+
+    private ConnectionProvider newPool(String provider, NeuroGateProperties.Upstream.Pool pool) {
+        return ConnectionProvider.builder(provider)
+                .maxConnections(pool.getMaxConnections())
+                .pendingAcquireMaxCount(pool.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(Duration.ofMillis(pool.getPendingAcquireTimeoutMs()))
+                .maxIdleTime(Duration.ofSeconds(pool.getMaxIdleTimeSeconds()))
+                .maxLifeTime(Duration.ofSeconds(pool.getMaxLifeTimeSeconds()))
+                .evictInBackground(Duration.ofSeconds(pool.getEvictInBackgroundSeconds()))
+                .metrics(true)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pools.values().forEach(pool -> pool.disposeLater().block(Duration.ofSeconds(5)));
+        pools.clear();
+    }
+}
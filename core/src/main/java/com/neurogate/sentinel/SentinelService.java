@@ -3,15 +3,15 @@ package com.neurogate.sentinel;
 import com.neurogate.exception.NeuroGateException;
 import com.neurogate.pulse.PulseEventPublisher;
 import com.neurogate.pulse.model.PulseEvent;
+import com.neurogate.router.cache.ReadThroughCacheStage;
 import com.neurogate.router.provider.MultiProviderRouter;
 import com.neurogate.sentinel.model.ChatRequest;
 import com.neurogate.sentinel.model.ChatResponse;
 import com.neurogate.sentinel.model.Message;
-import com.neurogate.vault.PiiRestorerFactory;
 import com.neurogate.vault.PiiSanitizationService;
-import com.neurogate.vault.StreamingPiiRestorer;
 import com.neurogate.vault.model.SanitizedPrompt;
 import com.neurogate.vault.neuroguard.ActiveDefenseService;
+import com.neurogate.vault.tokenizer.TokenVault;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
@@ -22,6 +22,9 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.context.Context;
 
 import java.time.Instant;
 import java.util.ArrayList;
@@ -37,23 +40,17 @@ public class SentinelService {
 
     private final MultiProviderRouter multiProviderRouter;
     private final PiiSanitizationService piiSanitizationService;
-    private final PiiRestorerFactory piiRestorerFactory;
     private final ActiveDefenseService activeDefenseService;
     private final PulseEventPublisher pulseEventPublisher;
     private final com.neurogate.agent.AgentLoopDetector agentLoopDetector;
     private final com.neurogate.validation.StructuredOutputService structuredOutputService;
     private final CircuitBreakerRegistry circuitBreakerRegistry;
     private final RetryRegistry retryRegistry;
+    private final ReadThroughCacheStage readThroughCacheStage;
 
     @SuppressWarnings("unused")
     public ChatResponse processRequest(ChatRequest request) {
-        String requestId = UUID.randomUUID().toString();
-
-        publishReceivedEvent(requestId, request);
-        enrichRequestLogging(request);
-        validateRequest(request);
-        agentLoopDetector.validateRequest(request);
-
+        String requestId = admitRequest(request);
         long startTime = System.currentTimeMillis();
 
         try {
@@ -64,19 +61,10 @@ public class SentinelService {
                 log.debug("Using structured output validation for json_schema response format");
                 response = structuredOutputService.generateWithValidation(request);
             } else {
-                response = multiProviderRouter.route(request);
+                response = readThroughCacheStage.route(request, multiProviderRouter::route, multiProviderRouter::routeAsync);
             }
 
-            long latency = System.currentTimeMillis() - startTime;
-            response.setLatencyMs(latency);
-
-            publishResponseEvent(requestId, request, response, latency);
-
-            log.info("Request completed in {}ms, cache hit: {}, route: {}, validation: {}",
-                    latency, response.getCacheHit(), response.getRoute(),
-                    response.getValidation() != null ? response.getValidation().isSchemaValid() : "N/A");
-
-            return response;
+            return completeRequest(requestId, request, response, startTime);
 
         } catch (Exception e) {
             publishErrorEvent(requestId, request, e);
@@ -91,6 +79,62 @@ public class SentinelService {
         }
     }
 
+    /**
+     * Process a non-streaming chat request without holding a thread while the
+     * upstream call is in flight.
+     *
+     * <p>Admission checks run on the subscribing thread. Structured output
+     * validation retries are still blocking and, like response post-processing, run
+     * on the bounded elastic scheduler.</p>
+     */
+    public Mono<ChatResponse> processRequestAsync(ChatRequest request) {
+        return Mono.defer(() -> {
+            String requestId = admitRequest(request);
+            long startTime = System.currentTimeMillis();
+
+            Mono<ChatResponse> response;
+            if (requiresStructuredOutputValidation(request)) {
+                log.debug("Using structured output validation for json_schema response format");
+                response = Mono.fromCallable(() -> structuredOutputService.generateWithValidation(request))
+                        .subscribeOn(Schedulers.boundedElastic());
+            } else {
+                response = readThroughCacheStage.routeAsync(request, multiProviderRouter::routeAsync);
+            }
+
+            // Post-processing (Pulse events, usage tracking) blocks: keep it off upstream I/O threads
+            return response
+                    .publishOn(Schedulers.boundedElastic())
+                    .map(r -> completeRequest(requestId, request, r, startTime))
+                    .doOnError(e -> {
+                        publishErrorEvent(requestId, request, e);
+                        log.error("Error processing chat request", e);
+                    });
+        });
+    }
+
+    private String admitRequest(ChatRequest request) {
+        String requestId = UUID.randomUUID().toString();
+
+        publishReceivedEvent(requestId, request);
+        enrichRequestLogging(request);
+        validateRequest(request);
+        agentLoopDetector.validateRequest(request);
+        return requestId;
+    }
+
+    private ChatResponse completeRequest(String requestId, ChatRequest request, ChatResponse response, long startTime) {
+        long latency = System.currentTimeMillis() - startTime;
+        response.setLatencyMs(latency);
+
+        publishResponseEvent(requestId, request, response, latency);
+
+        log.info("Request completed in {}ms, cache hit: {}, route: {}, validation: {}",
+                latency, response.getCacheHit(), response.getRoute(),
+                response.getValidation() != null ? response.getValidation().isSchemaValid() : "N/A");
+
+        return response;
+    }
+
     /**
      * Check if the request requires structured output validation.
      */
@@ -111,7 +155,8 @@ public class SentinelService {
         agentLoopDetector.validateRequest(request);
 
         String originalPrompt = request.getConcatenatedContent();
-        SanitizedPrompt sanitizedPrompt = piiSanitizationService.sanitize(originalPrompt);
+        TokenVault tokenVault = new TokenVault();
+        SanitizedPrompt sanitizedPrompt = piiSanitizationService.sanitize(originalPrompt, tokenVault);
 
         if (sanitizedPrompt.isContainsPii()) {
             log.info("PII detected and sanitized for streaming: {} entities",
@@ -120,67 +165,46 @@ public class SentinelService {
 
         ChatRequest sanitizedRequest = createSanitizedRequest(request, sanitizedPrompt.getSanitizedText());
 
-        // Thread-safe restorer for this stream
-        StreamingPiiRestorer restorer = piiRestorerFactory.createRestorer();
         CircuitBreaker streamCircuitBreaker = circuitBreakerRegistry.circuitBreaker("streaming");
         Retry streamRetry = retryRegistry.retry("streaming");
 
-        return Flux.concat(
-                multiProviderRouter.routeStream(sanitizedRequest)
-                        .transformDeferred(CircuitBreakerOperator.of(streamCircuitBreaker))
-                        .transformDeferred(RetryOperator.of(streamRetry))
-                        .map(chunk -> {
-                            if (sanitizedPrompt.isContainsPii() && chunk.getChoices() != null) {
-                                chunk.getChoices().forEach(choice -> {
-                                    if (choice.getMessage() != null && choice.getMessage().getContent() != null) {
-                                        String content = choice.getMessage().getStrContent();
-                                        String restoredContent = restorer.processChunk(content);
-                                        choice.getMessage().setContent(restoredContent);
-                                    }
-                                });
-                            }
-                            return chunk;
-                        }),
-                reactor.core.publisher.Mono.fromSupplier(() -> {
-                    String remaining = restorer.flush();
-                    if (remaining != null && !remaining.isEmpty()) {
-                        ChatResponse finalChunk = new ChatResponse();
-                        finalChunk.setId("pii-flush-" + System.currentTimeMillis());
-                        finalChunk.setModel(request.getModel());
-                        finalChunk.setCreated(System.currentTimeMillis() / 1000);
-
-                        com.neurogate.sentinel.model.Choice choice = new com.neurogate.sentinel.model.Choice();
-                        choice.setIndex(0);
-
-                        com.neurogate.sentinel.model.Message message = new com.neurogate.sentinel.model.Message();
-                        message.setRole("assistant");
-                        message.setContent(remaining);
-
-                        choice.setMessage(message);
-                        finalChunk.setChoices(java.util.List.of(choice));
-                        return finalChunk;
-                    }
-                    return null;
-                }).flatMap(response -> response != null ? reactor.core.publisher.Mono.just(response)
-                        : reactor.core.publisher.Mono.empty()))
+        // PII placeholders are restored by the router's StreamProcessorChain from this request's vault
+        return multiProviderRouter.routeStream(sanitizedRequest)
+                .transformDeferred(CircuitBreakerOperator.of(streamCircuitBreaker))
+                .transformDeferred(RetryOperator.of(streamRetry))
                 .doOnError(error -> {
                     log.error("Error in streaming response", error);
-                });
+                })
+                .contextWrite(Context.of(TokenVault.CONTEXT_KEY, tokenVault));
     }
 
     private void validateRequest(ChatRequest request) {
-        if (request.getMessages() != null) {
-            request.getMessages().stream()
-                    .filter(m -> "user".equals(m.getRole()))
-                    .reduce((first, second) -> second)
-                    .ifPresent(msg -> {
-                        String original = msg.getStrContent();
-                        String sanitized = activeDefenseService.validatePrompt(original);
-                        if (!original.equals(sanitized)) {
-                            log.info("Prompt sanitized by Active Defense: {} -> {}", original, sanitized);
-                            msg.setContent(sanitized);
-                        }
-                    });
+        if (request.getMessages() == null) {
+            return;
+        }
+        List<Message> userMessages = request.getMessages().stream()
+                .filter(m -> "user".equals(m.getRole()))
+                .toList();
+        if (userMessages.isEmpty()) {
+            return;
+        }
+
+        // Only the latest turn is sanitized. Earlier turns are only checked for blocking
+        // threats, mostly from the verdict cache since they were analyzed on earlier turns
+        Message msg = userMessages.get(userMessages.size() - 1);
+        String original = msg.getStrContent();
+        String sanitized = activeDefenseService.validatePrompt(original);
+        if (!original.equals(sanitized)) {
+            log.info("Prompt sanitized by Active Defense: {} -> {}", original, sanitized);
+            msg.setContent(sanitized);
+        }
+
+        if (userMessages.size() > 1) {
+            List<String> history = new ArrayList<>(userMessages.size() - 1);
+            for (int i = 0; i < userMessages.size() - 1; i++) {
+                history.add(userMessages.get(i).getStrContent());
+            }
+            activeDefenseService.validateHistory(history);
         }
     }
 
@@ -271,7 +295,7 @@ public class SentinelService {
                 .build());
     }
 
-    private void publishErrorEvent(String requestId, ChatRequest request, Exception e) {
+    private void publishErrorEvent(String requestId, ChatRequest request, Throwable e) {
         pulseEventPublisher.publish(PulseEvent.builder()
                 .id(requestId)
                 .type(PulseEvent.EventType.ERROR)
@@ -5,9 +5,12 @@ import com.neurogate.auth.RequiresRole;
 import com.neurogate.auth.Role;
 import com.neurogate.auth.SecurityUtils;
 import com.neurogate.auth.UsageTracker;
+import com.neurogate.config.NeuroGateProperties;
 import com.neurogate.sentinel.SentinelService;
 import com.neurogate.sentinel.model.ChatRequest;
 import com.neurogate.sentinel.model.ChatResponse;
+import com.neurogate.tenant.TenantContext;
+import io.micrometer.context.integration.Slf4jThreadLocalAccessor;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -17,6 +20,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -24,12 +28,22 @@ import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
 
 import jakarta.validation.Valid;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Main entry point for chat completion requests.
  * Mimics the OpenAI API specification at /v1/chat/completions.
+ *
+ * <p>Non-streaming completions are served asynchronously: the handler returns a
+ * {@link Mono}, so no request thread is held while the upstream call is in flight. They
+ * fail with a 504 after {@code neurogate.router.request-timeout-ms}.</p>
  */
 @Slf4j
 @RestController
@@ -41,6 +55,7 @@ public class ChatController {
 
     private final SentinelService sentinelService;
     private final UsageTracker usageTracker;
+    private final NeuroGateProperties properties;
 
     @Operation(
         summary = "Create chat completion",
@@ -62,7 +77,7 @@ public class ChatController {
     @PostMapping(value = "/chat/completions", produces = { MediaType.APPLICATION_JSON_VALUE,
             MediaType.TEXT_EVENT_STREAM_VALUE })
     @RequiresRole(Role.DEVELOPER)
-    public ResponseEntity<?> createChatCompletion(
+    public Mono<ResponseEntity<?>> createChatCompletion(
             @Valid @RequestBody ChatRequest request,
             @Parameter(description = "Canary weight for A/B testing (0-100)")
             @RequestHeader(value = "X-Canary-Weight", required = false) Integer canaryWeight,
@@ -82,30 +97,28 @@ public class ChatController {
             request.setSessionId(sessionId);
         }
 
+        // Resolved on the request thread: the response completes on other threads, which
+        // see the org and the MDC entries only through the Reactor context
+        Context context = requestContext(request);
+
         if (Boolean.TRUE.equals(request.getStream())) {
-            Flux<ChatResponse> streamResponse = Flux.defer(() -> {
-                        populateMdc(request);
-                        return sentinelService.processStreamRequest(request);
-                    })
-                    .doFinally(signalType -> org.slf4j.MDC.clear());
+            Flux<ChatResponse> streamResponse = Flux.defer(() -> sentinelService.processStreamRequest(request))
+                    .contextWrite(context);
 
-            return ResponseEntity.ok()
+            return Mono.just(ResponseEntity.ok()
                     .contentType(MediaType.TEXT_EVENT_STREAM)
-                    .body(streamResponse);
+                    .body(streamResponse));
         }
 
-        populateMdc(request);
-        try {
-                ChatResponse response = sentinelService.processRequest(request);
-                Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-                SecurityUtils.getApiPrincipal(authentication)
-                        .ifPresent(principal -> trackApiKeyUsage(principal, response));
-                return ResponseEntity.ok()
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return Mono.defer(() -> sentinelService.processRequestAsync(request))
+                .timeout(Duration.ofMillis(properties.getRouter().getRequestTimeoutMs()))
+                .doOnNext(response -> SecurityUtils.getApiPrincipal(authentication)
+                        .ifPresent(principal -> trackApiKeyUsage(principal, response)))
+                .<ResponseEntity<?>>map(response -> ResponseEntity.ok()
                         .contentType(MediaType.APPLICATION_JSON)
-                        .body(response);
-        } finally {
-            org.slf4j.MDC.clear();
-        }
+                        .body(response))
+                .contextWrite(context);
     }
 
     private void trackApiKeyUsage(ApiPrincipal principal, ChatResponse response) {
@@ -115,13 +128,19 @@ public class ChatController {
         usageTracker.trackTokenAndCost(principal.apiKeyId(), principal.orgId(), tokens, cost);
     }
 
-    private void populateMdc(ChatRequest request) {
-        if (request.getTraceId() != null) {
-            org.slf4j.MDC.put("traceId", request.getTraceId());
+    private Context requestContext(ChatRequest request) {
+        Map<String, String> mdc = new HashMap<>();
+        String traceId = request.getTraceId() != null ? request.getTraceId() : MDC.get("traceId");
+        String sessionId = request.getSessionId() != null ? request.getSessionId() : MDC.get("sessionId");
+        if (traceId != null) {
+            mdc.put("traceId", traceId);
         }
-        if (request.getSessionId() != null) {
-            org.slf4j.MDC.put("sessionId", request.getSessionId());
+        if (sessionId != null) {
+            mdc.put("sessionId", sessionId);
         }
+        return Context.of(
+                TenantContext.CONTEXT_KEY, TenantContext.getCurrentOrgIdOrDefault(),
+                Slf4jThreadLocalAccessor.KEY, mdc);
     }
 
     @GetMapping("/health")
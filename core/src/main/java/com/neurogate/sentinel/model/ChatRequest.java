@@ -1,10 +1,15 @@
 package com.neurogate.sentinel.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
@@ -72,6 +77,16 @@ public class ChatRequest {
     @JsonProperty("response_format")
     private ResponseFormat responseFormat;
 
+    /**
+     * Derived content of the current messages; not part of the builder, so copies
+     * start without it.
+     */
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final transient ContentHolder derivedContent = new ContentHolder();
+
     @Data
     @NoArgsConstructor
     @AllArgsConstructor
@@ -111,14 +126,33 @@ public class ChatRequest {
         private Boolean includeCitations;
     }
 
+    /**
+     * Text derived from the messages, computed once per request and shared by every
+     * stage that needs it. Recomputed if the message list or a message's content is
+     * replaced; edits inside a multimodal content list are not detected.
+     */
+    public RequestContent content() {
+        return derivedContent.get(messages);
+    }
+
     /**
      * Gets the concatenated content of all messages for embedding/caching.
      */
-    @com.fasterxml.jackson.annotation.JsonIgnore
+    @JsonIgnore
     public String getConcatenatedContent() {
-        return messages.stream()
-                .map(Message::getStrContent)
-                .reduce("", (a, b) -> a + " " + b)
-                .trim();
+        return content().text();
+    }
+
+    private static final class ContentHolder {
+        private volatile RequestContent content;
+
+        RequestContent get(List<Message> messages) {
+            RequestContent current = content;
+            if (current == null || !current.isCurrent(messages)) {
+                current = RequestContent.of(messages);
+                content = current;
+            }
+            return current;
+        }
     }
 }
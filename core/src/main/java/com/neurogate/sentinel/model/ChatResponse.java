@@ -12,7 +12,7 @@ import java.util.List;
  * OpenAI-compatible Chat Completion Response.
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class ChatResponse {
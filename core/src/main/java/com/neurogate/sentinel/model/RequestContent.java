@@ -0,0 +1,208 @@
+package com.neurogate.sentinel.model;
+
+import com.neurogate.router.cache.ContentHash;
+
+import java.util.List;
+
+/**
+ * Text derived from the messages of one {@link ChatRequest}: the concatenated text,
+ * its lower-cased form, the user text, a word count, a token estimate and content
+ * hashes.
+ *
+ * <p>Obtained from {@link ChatRequest#content()}, so the cache key, embedding, intent
+ * and complexity analysis, loop detection and cost tracking of a request share one
+ * copy. Each value is computed on first use, in one linear pass; previously every
+ * stage rebuilt the concatenated text itself with quadratic string concatenation.</p>
+ *
+ * <p>Values are not synchronized: two threads may both compute one, with the same
+ * result.</p>
+ */
+public final class RequestContent {
+
+    private static final RequestContent EMPTY = new RequestContent(List.of());
+
+    private final List<Message> messages;
+    // Message contents the values were derived from, to detect later changes
+    private final Object[] sources;
+
+    private String text;
+    private String normalizedText;
+    private String userText;
+    private int wordCount = -1;
+    private volatile boolean hashed;
+    private long contentHash;
+    private long[] messageHashes;
+
+    private RequestContent(List<Message> messages) {
+        this.messages = messages;
+        this.sources = new Object[messages.size()];
+        for (int i = 0; i < sources.length; i++) {
+            sources[i] = messages.get(i).getContent();
+        }
+    }
+
+    /**
+     * Content of the messages, as of now. Prefer {@link ChatRequest#content()}, which
+     * reuses it.
+     */
+    public static RequestContent of(List<Message> messages) {
+        return messages == null || messages.isEmpty() ? EMPTY : new RequestContent(messages);
+    }
+
+    /**
+     * Message texts separated by single spaces, trimmed.
+     */
+    public String text() {
+        String result = text;
+        if (result == null) {
+            result = join(null);
+            text = result;
+        }
+        return result;
+    }
+
+    /**
+     * {@link #text()} lower-cased, for case-insensitive keyword matching.
+     */
+    public String normalizedText() {
+        String result = normalizedText;
+        if (result == null) {
+            result = text().toLowerCase();
+            normalizedText = result;
+        }
+        return result;
+    }
+
+    /**
+     * Texts of the user messages only, separated by single spaces, trimmed.
+     */
+    public String userText() {
+        String result = userText;
+        if (result == null) {
+            result = join("user");
+            userText = result;
+        }
+        return result;
+    }
+
+    /**
+     * Whitespace-separated words of {@link #text()}, counted as
+     * {@code text().split("\\s+").length} would for the trimmed text (so 1 when it
+     * is empty).
+     */
+    public int wordCount() {
+        int result = wordCount;
+        if (result < 0) {
+            result = countWords(text());
+            wordCount = result;
+        }
+        return result;
+    }
+
+    /**
+     * Rough token count of {@link #text()}, at four characters per token.
+     */
+    public int tokenEstimate() {
+        return Math.max(1, text().length() / 4);
+    }
+
+    /**
+     * 64-bit hash of {@link #text()}, for in-memory lookups.
+     */
+    public long contentHash() {
+        hash();
+        return contentHash;
+    }
+
+    /**
+     * 64-bit hash of the text of the message at this index.
+     */
+    public long messageHash(int index) {
+        hash();
+        return messageHashes[index];
+    }
+
+    public int messageCount() {
+        return messages.size();
+    }
+
+    /**
+     * Whether these values were derived from exactly these messages and contents.
+     */
+    boolean isCurrent(List<Message> current) {
+        if (current == null || current.isEmpty()) {
+            return messages.isEmpty();
+        }
+        if (current != messages || current.size() != sources.length) {
+            return false;
+        }
+        for (int i = 0; i < sources.length; i++) {
+            if (current.get(i).getContent() != sources[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String join(String role) {
+        String first = null;
+        StringBuilder builder = null;
+        for (Message message : messages) {
+            if (role != null && !role.equals(message.getRole())) {
+                continue;
+            }
+            String content = message.getStrContent();
+            if (first == null) {
+                first = content;
+                continue;
+            }
+            if (builder == null) {
+                builder = new StringBuilder(estimateLength()).append(first);
+            }
+            builder.append(' ').append(content);
+        }
+        if (first == null) {
+            return "";
+        }
+        return (builder != null ? builder.toString() : first).trim();
+    }
+
+    private int estimateLength() {
+        int length = 0;
+        for (Object source : sources) {
+            length += source instanceof String s ? s.length() + 1 : 16;
+        }
+        return length;
+    }
+
+    private void hash() {
+        if (hashed) {
+            return;
+        }
+        long[] hashes = new long[messages.size()];
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = ContentHash.hash64(messages.get(i).getStrContent(), 0);
+        }
+        messageHashes = hashes;
+        contentHash = ContentHash.hash64(text(), 0);
+        hashed = true;
+    }
+
+    private static int countWords(String text) {
+        int words = 0;
+        boolean inWord = false;
+        for (int i = 0; i < text.length(); i++) {
+            boolean space = isSplitWhitespace(text.charAt(i));
+            if (!space && !inWord) {
+                words++;
+            }
+            inWord = !space;
+        }
+        return Math.max(1, words);
+    }
+
+    // The characters matched by \s
+    private static boolean isSplitWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
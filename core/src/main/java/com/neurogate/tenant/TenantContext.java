@@ -1,10 +1,18 @@
 package com.neurogate.tenant;
 
+import reactor.util.context.ContextView;
+
 public final class TenantContext {
 
     private static final ThreadLocal<String> CURRENT_ORG = new ThreadLocal<>();
     public static final String DEFAULT_ORG_ID = "default-org";
 
+    /**
+     * Reactor context key for the org id of a reactive pipeline, whose operators run on
+     * threads that never see the request thread's {@link #CURRENT_ORG}.
+     */
+    public static final String CONTEXT_KEY = TenantContext.class.getName();
+
     private TenantContext() {
     }
 
@@ -21,6 +29,15 @@ public final class TenantContext {
         return (orgId == null || orgId.isBlank()) ? DEFAULT_ORG_ID : orgId;
     }
 
+    /**
+     * Org id stored in a Reactor context under {@link #CONTEXT_KEY}, falling back to the
+     * current thread's org and then to {@link #DEFAULT_ORG_ID}.
+     */
+    public static String getOrgIdOrDefault(ContextView context) {
+        String orgId = context.getOrDefault(CONTEXT_KEY, null);
+        return (orgId == null || orgId.isBlank()) ? getCurrentOrgIdOrDefault() : orgId;
+    }
+
     public static void clear() {
         CURRENT_ORG.remove();
     }
@@ -0,0 +1,101 @@
+package com.neurogate.validation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.neurogate.router.cache.ContentHash;
+import com.networknt.schema.JsonSchema;
+import com.networknt.schema.JsonSchemaFactory;
+import com.networknt.schema.SpecVersion;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.SecureRandom;
+import java.util.Map;
+
+/**
+ * Bounded cache of compiled JSON schemas, keyed by a hash of the schema's canonical
+ * form.
+ *
+ * <p>Structured output requests send the same few schemas over and over, and compiling
+ * one costs far more than validating a response against it. The canonical form is the
+ * schema serialized with object keys sorted, so schemas differing only in key order
+ * share an entry; it is compared in full on every hit. Each entry also holds the
+ * {@link StreamingSchema} used to check streamed responses.</p>
+ *
+ * <p>Hit rate is exported as the {@code cache.gets} metrics of the
+ * {@code validation.schemas} cache.</p>
+ */
+@Slf4j
+@Component
+public class JsonSchemaCache {
+
+    private final ObjectMapper canonicalMapper;
+    private final JsonSchemaFactory schemaFactory = JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V7);
+    private final Cache<Long, Compiled> schemas;
+    private final long seed = new SecureRandom().nextLong();
+
+    public JsonSchemaCache(
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${neurogate.validation.schema-cache.max-entries:1000}") long maxEntries
+    ) {
+        this.canonicalMapper = objectMapper.copy().configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+        this.schemas = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, schemas, "validation.schemas");
+        log.info("JSON schema cache enabled (max {} entries)", maxEntries);
+    }
+
+    /**
+     * The compiled schema, compiling and caching it on a miss.
+     *
+     * @throws IllegalArgumentException if the schema cannot be serialized
+     */
+    public Compiled get(Map<String, Object> schema) {
+        String canonical;
+        try {
+            canonical = canonicalMapper.writeValueAsString(schema);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid JSON schema: " + e.getMessage(), e);
+        }
+
+        long key = ContentHash.hash64(canonical, seed);
+        Compiled cached = schemas.getIfPresent(key);
+        if (cached != null && cached.canonical().equals(canonical)) {
+            return cached;
+        }
+
+        JsonSchema jsonSchema = schemaFactory.getSchema(canonicalMapper.valueToTree(schema));
+        // Validators are otherwise created lazily by the first validation, racing concurrent ones
+        jsonSchema.initializeValidators();
+        Compiled compiled = new Compiled(canonical, jsonSchema, StreamingSchema.compile(schema));
+        schemas.put(key, compiled);
+        return compiled;
+    }
+
+    /**
+     * Share of lookups answered from the cache.
+     */
+    public double hitRate() {
+        return schemas.stats().hitRate();
+    }
+
+    public void invalidateAll() {
+        schemas.invalidateAll();
+    }
+
+    /**
+     * A schema compiled for full validation and for streamed responses. Shared between
+     * requests.
+     */
+    public record Compiled(String canonical, JsonSchema schema, StreamingSchema streaming) {
+    }
+}
@@ -0,0 +1,411 @@
+package com.neurogate.validation;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.neurogate.validation.model.ValidationError;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Checks a streamed JSON document against a {@link StreamingSchema} as it arrives, so
+ * a generation that has already broken the schema can be cancelled and retried.
+ *
+ * <p>The document is tokenized with Jackson's non-blocking parser; each value is checked
+ * once it is complete, and an object's required properties once it is closed. Only a
+ * response that starts with the document, optionally inside a {@code ```json} fence,
+ * is checked, since that is the document {@link StructuredOutputValidator} extracts
+ * from it. Anything else, and text the parser rejects, leaves the validator
+ * {@linkplain #isChecking() unchecked}: the full validation of the complete response
+ * still decides, including its auto-fixes.</p>
+ *
+ * <p>A violation is final: no continuation of the response matches the schema, unless
+ * a response opening with a bare document follows it with a second, fenced one.</p>
+ *
+ * <p>Not thread-safe; use one instance per stream.</p>
+ */
+public final class StreamingJsonValidator {
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    // A fence is recognized once its line is complete, or this long without a newline
+    private static final int MAX_FENCE_LINE = 16;
+
+    private enum Status { WAITING, CHECKING, COMPLETE, UNCHECKED, VIOLATED }
+
+    private final StreamingSchema schema;
+    private final Deque<Frame> frames = new ArrayDeque<>();
+    private Status status = Status.WAITING;
+    private StringBuilder lead = new StringBuilder();
+    private boolean fenced;
+    private JsonParser parser;
+    private ByteArrayFeeder feeder;
+    private char pendingHighSurrogate;
+    private ValidationError violation;
+
+    StreamingJsonValidator(StreamingSchema schema) {
+        this.schema = schema;
+    }
+
+    /**
+     * Check the next part of the response.
+     *
+     * @return whether the response so far violates the schema
+     */
+    public boolean accept(CharSequence chunk) {
+        if (chunk == null || chunk.isEmpty()) {
+            return status == Status.VIOLATED;
+        }
+        if (status == Status.WAITING) {
+            lead.append(chunk);
+            int start = documentStart();
+            if (start < 0) {
+                return false;
+            }
+            String text = lead.substring(start);
+            lead = null;
+            startParser();
+            feed(text);
+        } else if (status == Status.CHECKING) {
+            feed(chunk);
+        }
+        return status == Status.VIOLATED;
+    }
+
+    /**
+     * Whether the response so far violates the schema.
+     */
+    public boolean isViolated() {
+        return status == Status.VIOLATED;
+    }
+
+    /**
+     * Whether the response is still being checked: it started with a document that
+     * is not complete yet and parsed so far.
+     */
+    public boolean isChecking() {
+        return status == Status.WAITING || status == Status.CHECKING;
+    }
+
+    /**
+     * The violation found, if any.
+     */
+    public List<ValidationError> getErrors() {
+        return violation != null ? List.of(violation) : List.of();
+    }
+
+    // Offset in lead where the document starts, or -1 while undecided or unchecked
+    private int documentStart() {
+        int i = skipWhitespace(lead, 0);
+        if (i == lead.length()) {
+            return -1;
+        }
+        char first = lead.charAt(i);
+        if (first == '{' || first == '[') {
+            return i;
+        }
+        if (first != '`' || fenced) {
+            status = Status.UNCHECKED;
+            return -1;
+        }
+
+        int newline = lead.indexOf("\n", i);
+        if (newline < 0) {
+            if (lead.length() - i > MAX_FENCE_LINE) {
+                status = Status.UNCHECKED;
+            }
+            return -1;
+        }
+        String fence = lead.substring(i, newline).trim();
+        if (!fence.equals("```") && !fence.equals("```json")) {
+            status = Status.UNCHECKED;
+            return -1;
+        }
+        fenced = true;
+        lead.delete(0, newline + 1);
+        return documentStart();
+    }
+
+    private static int skipWhitespace(CharSequence text, int from) {
+        int i = from;
+        while (i < text.length() && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private void startParser() {
+        try {
+            parser = JSON.createNonBlockingByteArrayParser();
+        } catch (IOException e) {
+            status = Status.UNCHECKED;
+            return;
+        }
+        feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        status = Status.CHECKING;
+    }
+
+    private void feed(CharSequence chunk) {
+        if (status != Status.CHECKING) {
+            return;
+        }
+        StringBuilder text = new StringBuilder(chunk.length() + 1);
+        if (pendingHighSurrogate != 0) {
+            text.append(pendingHighSurrogate);
+            pendingHighSurrogate = 0;
+        }
+        text.append(chunk);
+        // Encoded with its low surrogate, which comes with the next chunk
+        if (Character.isHighSurrogate(text.charAt(text.length() - 1))) {
+            pendingHighSurrogate = text.charAt(text.length() - 1);
+            text.setLength(text.length() - 1);
+        }
+        if (text.isEmpty()) {
+            return;
+        }
+
+        byte[] bytes = text.toString().getBytes(StandardCharsets.UTF_8);
+        try {
+            feeder.feedInput(bytes, 0, bytes.length);
+            JsonToken token;
+            while (status == Status.CHECKING && (token = parser.nextToken()) != JsonToken.NOT_AVAILABLE
+                    && token != null) {
+                onToken(token);
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Left to the full validation, which may auto-fix it
+            status = Status.UNCHECKED;
+        }
+    }
+
+    private void onToken(JsonToken token) throws IOException {
+        switch (token) {
+            case FIELD_NAME -> {
+                Frame object = frames.peek();
+                String name = parser.currentName();
+                object.field = name;
+                if (object.seen != null) {
+                    object.seen.add(name);
+                }
+                if (!object.schema.allowsProperty(name)) {
+                    violate(object.path, "additionalProperties",
+                            "property '" + name + "' is not defined in the schema and the schema does not allow "
+                                    + "additional properties");
+                }
+            }
+            case START_OBJECT, START_ARRAY -> {
+                StreamingSchema valueSchema = nextValue();
+                String path = nextPath();
+                int type = token == JsonToken.START_OBJECT ? StreamingSchema.OBJECT : StreamingSchema.ARRAY;
+                if (checkType(valueSchema, type, path)) {
+                    frames.push(new Frame(valueSchema, path, token == JsonToken.START_OBJECT));
+                }
+            }
+            case END_OBJECT -> {
+                Frame object = frames.pop();
+                for (String name : object.schema.required) {
+                    if (!object.seen.contains(name)) {
+                        violate(object.path, "required", "required property '" + name + "' is missing");
+                        return;
+                    }
+                }
+                completeValue();
+            }
+            case END_ARRAY -> {
+                Frame array = frames.pop();
+                if (array.schema.minItems >= 0 && array.count < array.schema.minItems) {
+                    violate(array.path, "minItems", "there must be a minimum of " + array.schema.minItems + " items");
+                    return;
+                }
+                completeValue();
+            }
+            default -> {
+                StreamingSchema valueSchema = nextValue();
+                String path = nextPath();
+                if (checkScalar(valueSchema, token, path)) {
+                    completeValue();
+                }
+            }
+        }
+    }
+
+    // Schema of the value about to start, counting it as an array item
+    private StreamingSchema nextValue() {
+        Frame parent = frames.peek();
+        if (parent == null) {
+            return schema;
+        }
+        if (parent.object) {
+            return parent.schema.property(parent.field);
+        }
+        parent.count++;
+        if (parent.schema.maxItems >= 0 && parent.count > parent.schema.maxItems) {
+            violate(parent.path, "maxItems", "there must be a maximum of " + parent.schema.maxItems + " items");
+        }
+        return parent.schema.items;
+    }
+
+    private String nextPath() {
+        Frame parent = frames.peek();
+        if (parent == null) {
+            return "$";
+        }
+        return parent.object ? parent.path + "." + parent.field : parent.path + "[" + (parent.count - 1) + "]";
+    }
+
+    private void completeValue() {
+        if (frames.isEmpty() && status == Status.CHECKING) {
+            status = Status.COMPLETE;
+        }
+    }
+
+    private boolean checkType(StreamingSchema valueSchema, int type, String path) {
+        if (status != Status.CHECKING) {
+            return false;
+        }
+        if ((valueSchema.types & type) == 0) {
+            violate(path, "type", typeName(type) + " found, " + expectedTypes(valueSchema.types) + " expected");
+            return false;
+        }
+        return true;
+    }
+
+    private boolean checkScalar(StreamingSchema valueSchema, JsonToken token, String path) throws IOException {
+        Object value;
+        int type;
+        switch (token) {
+            case VALUE_STRING -> {
+                value = parser.getText();
+                type = StreamingSchema.STRING;
+            }
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> {
+                BigDecimal number = parser.getDecimalValue();
+                value = number;
+                type = token == JsonToken.VALUE_NUMBER_INT ? StreamingSchema.INTEGER
+                        : number.signum() == 0 || number.stripTrailingZeros().scale() <= 0
+                                ? StreamingSchema.NUMBER | StreamingSchema.INTEGER
+                                : StreamingSchema.NUMBER;
+            }
+            case VALUE_TRUE, VALUE_FALSE -> {
+                value = token == JsonToken.VALUE_TRUE;
+                type = StreamingSchema.BOOLEAN;
+            }
+            case VALUE_NULL -> {
+                value = StreamingSchema.NULL_VALUE;
+                type = StreamingSchema.NULL;
+            }
+            default -> {
+                // Embedded objects and the like are not produced when parsing text
+                return true;
+            }
+        }
+        if (!checkType(valueSchema, type, path)) {
+            return false;
+        }
+
+        for (List<Object> allowed : valueSchema.allowedValues) {
+            if (!containsValue(allowed, value)) {
+                violate(path, "enum", "does not have a value in the enumeration " + allowed);
+                return false;
+            }
+        }
+        if (value instanceof String text) {
+            // Limits hold for both UTF-16 units and code points
+            if (valueSchema.maxLength >= 0 && text.codePointCount(0, text.length()) > valueSchema.maxLength) {
+                violate(path, "maxLength", "may only be " + valueSchema.maxLength + " characters long");
+                return false;
+            }
+            if (valueSchema.minLength >= 0 && text.length() < valueSchema.minLength) {
+                violate(path, "minLength", "must be at least " + valueSchema.minLength + " characters long");
+                return false;
+            }
+        } else if (value instanceof BigDecimal number) {
+            double approximate = parser.getDoubleValue();
+            if (valueSchema.minimum != null && number.compareTo(valueSchema.minimum) < 0
+                    && approximate < valueSchema.minimum.doubleValue()) {
+                violate(path, "minimum", "must have a minimum value of " + valueSchema.minimum);
+                return false;
+            }
+            if (valueSchema.maximum != null && number.compareTo(valueSchema.maximum) > 0
+                    && approximate > valueSchema.maximum.doubleValue()) {
+                violate(path, "maximum", "must have a maximum value of " + valueSchema.maximum);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Numbers match when equal as decimals or as doubles, whichever the validator compares
+    private boolean containsValue(List<Object> allowed, Object value) throws IOException {
+        for (Object candidate : allowed) {
+            if (candidate.equals(value)) {
+                return true;
+            }
+            if (candidate instanceof BigDecimal expected && value instanceof BigDecimal actual
+                    && (expected.compareTo(actual) == 0 || expected.doubleValue() == parser.getDoubleValue())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void violate(String path, String type, String message) {
+        if (status != Status.CHECKING) {
+            return;
+        }
+        violation = ValidationError.builder()
+                .path(path)
+                .message(path + ": " + message)
+                .errorType(type)
+                .build();
+        status = Status.VIOLATED;
+    }
+
+    private static String typeName(int type) {
+        return switch (type) {
+            case StreamingSchema.OBJECT -> "object";
+            case StreamingSchema.ARRAY -> "array";
+            case StreamingSchema.STRING -> "string";
+            case StreamingSchema.INTEGER -> "integer";
+            case StreamingSchema.BOOLEAN -> "boolean";
+            case StreamingSchema.NULL -> "null";
+            default -> "number";
+        };
+    }
+
+    private static String expectedTypes(int types) {
+        StringBuilder expected = new StringBuilder();
+        for (int type = StreamingSchema.OBJECT; type <= StreamingSchema.NULL; type <<= 1) {
+            // number covers integer
+            if ((types & type) != 0 && !(type == StreamingSchema.INTEGER && (types & StreamingSchema.NUMBER) != 0)) {
+                expected.append(expected.isEmpty() ? "" : "/").append(typeName(type));
+            }
+        }
+        return expected.isEmpty() ? "nothing" : expected.toString();
+    }
+
+    private static final class Frame {
+        final StreamingSchema schema;
+        final String path;
+        final boolean object;
+        // Property names seen, kept only when some are required
+        final Set<String> seen;
+        String field;
+        int count;
+
+        Frame(StreamingSchema schema, String path, boolean object) {
+            this.schema = schema;
+            this.path = path;
+            this.object = object;
+            this.seen = object && !schema.required.isEmpty() ? new HashSet<>() : null;
+        }
+    }
+}
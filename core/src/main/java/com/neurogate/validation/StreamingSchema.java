@@ -0,0 +1,219 @@
+package com.neurogate.validation;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The constraints of a JSON schema that can be checked on a document prefix, compiled
+ * once per schema for {@link StreamingJsonValidator}.
+ *
+ * <p>All keywords at a location must hold, so checking a subset of them never rejects
+ * a document the full validator accepts. Checked: {@code type}, {@code enum},
+ * {@code const}, {@code properties}, {@code additionalProperties}, {@code required},
+ * {@code items} (a single schema), {@code minItems}, {@code maxItems},
+ * {@code minLength}, {@code maxLength}, {@code minimum} and {@code maximum}. Everything
+ * else is left to the full validation of the complete document. A location with a
+ * {@code $ref} is unconstrained, since draft 7 ignores the keywords next to it.</p>
+ *
+ * <p>Instances are immutable and shared between streams.</p>
+ */
+public final class StreamingSchema {
+
+    // Value types, as bits; a number with a fraction is NUMBER only
+    static final int OBJECT = 1;
+    static final int ARRAY = 1 << 1;
+    static final int STRING = 1 << 2;
+    static final int NUMBER = 1 << 3;
+    static final int INTEGER = 1 << 4;
+    static final int BOOLEAN = 1 << 5;
+    static final int NULL = 1 << 6;
+    static final int ANY_TYPE = (1 << 7) - 1;
+
+    // Stands in for JSON null in enum and const values
+    static final Object NULL_VALUE = new Object() {
+        @Override
+        public String toString() {
+            return "null";
+        }
+    };
+
+    // Deeper schemas are left unconstrained rather than compiled recursively
+    private static final int MAX_DEPTH = 64;
+
+    static final StreamingSchema ANY = new StreamingSchema(ANY_TYPE);
+    private static final StreamingSchema NOTHING = new StreamingSchema(0);
+
+    final int types;
+    final Map<String, StreamingSchema> properties;
+    final boolean closed;
+    final StreamingSchema additionalProperties;
+    final List<String> required;
+    final StreamingSchema items;
+    final int minItems;
+    final int maxItems;
+    final int minLength;
+    final int maxLength;
+    final BigDecimal minimum;
+    final BigDecimal maximum;
+    // enum and const: the value must be in every list
+    final List<List<Object>> allowedValues;
+
+    private StreamingSchema(int types) {
+        this.types = types;
+        this.properties = Map.of();
+        this.closed = false;
+        this.additionalProperties = this;
+        this.required = List.of();
+        this.items = this;
+        this.minItems = -1;
+        this.maxItems = -1;
+        this.minLength = -1;
+        this.maxLength = -1;
+        this.minimum = null;
+        this.maximum = null;
+        this.allowedValues = List.of();
+    }
+
+    private StreamingSchema(Map<?, ?> schema, int depth) {
+        // OpenAPI's nullable is honoured by the full validator as well
+        this.types = types(schema.get("type")) | (Boolean.TRUE.equals(schema.get("nullable")) ? NULL : 0);
+
+        Map<String, StreamingSchema> props = new HashMap<>();
+        if (schema.get("properties") instanceof Map<?, ?> declared) {
+            declared.forEach((name, property) -> props.put(String.valueOf(name), compile(property, depth + 1)));
+        }
+        this.properties = props;
+
+        // Properties matching patternProperties are not additional
+        Object additional = schema.containsKey("patternProperties") ? null : schema.get("additionalProperties");
+        this.closed = Boolean.FALSE.equals(additional);
+        this.additionalProperties = additional instanceof Map<?, ?> ? compile(additional, depth + 1) : ANY;
+
+        List<String> names = new ArrayList<>();
+        if (schema.get("required") instanceof List<?> list) {
+            list.forEach(name -> names.add(String.valueOf(name)));
+        }
+        this.required = names;
+
+        Object itemSchema = schema.get("items");
+        this.items = itemSchema instanceof Map<?, ?> || itemSchema instanceof Boolean
+                ? compile(itemSchema, depth + 1)
+                : ANY;
+        this.minItems = count(schema.get("minItems"));
+        this.maxItems = count(schema.get("maxItems"));
+        this.minLength = count(schema.get("minLength"));
+        this.maxLength = count(schema.get("maxLength"));
+        this.minimum = decimal(schema.get("minimum"));
+        this.maximum = decimal(schema.get("maximum"));
+
+        List<List<Object>> allowed = new ArrayList<>();
+        if (schema.get("enum") instanceof List<?> values) {
+            allowed.add(scalars(values));
+        }
+        if (schema.containsKey("const")) {
+            allowed.add(scalars(Collections.singletonList(schema.get("const"))));
+        }
+        this.allowedValues = allowed;
+    }
+
+    /**
+     * Compile a schema as parsed from JSON: a map, or {@code true} or {@code false}.
+     */
+    public static StreamingSchema compile(Object schema) {
+        return compile(schema, 0);
+    }
+
+    /**
+     * A validator for one document.
+     */
+    public StreamingJsonValidator validator() {
+        return new StreamingJsonValidator(this);
+    }
+
+    StreamingSchema property(String name) {
+        StreamingSchema property = properties.get(name);
+        return property != null ? property : additionalProperties;
+    }
+
+    boolean allowsProperty(String name) {
+        return !closed || properties.containsKey(name);
+    }
+
+    private static StreamingSchema compile(Object schema, int depth) {
+        if (Boolean.FALSE.equals(schema)) {
+            return NOTHING;
+        }
+        if (!(schema instanceof Map<?, ?> map) || map.containsKey("$ref") || depth > MAX_DEPTH) {
+            return ANY;
+        }
+        return new StreamingSchema(map, depth);
+    }
+
+    private static int types(Object type) {
+        if (type instanceof String name) {
+            return type(name);
+        }
+        if (type instanceof List<?> names && !names.isEmpty()) {
+            int types = 0;
+            for (Object name : names) {
+                types |= name instanceof String s ? type(s) : ANY_TYPE;
+            }
+            return types;
+        }
+        return ANY_TYPE;
+    }
+
+    private static int type(String name) {
+        return switch (name) {
+            case "object" -> OBJECT;
+            case "array" -> ARRAY;
+            case "string" -> STRING;
+            case "number" -> NUMBER | INTEGER;
+            case "integer" -> INTEGER;
+            case "boolean" -> BOOLEAN;
+            case "null" -> NULL;
+            default -> ANY_TYPE;
+        };
+    }
+
+    private static int count(Object value) {
+        if (!(value instanceof Number number) || number.doubleValue() < 0
+                || number.doubleValue() != Math.rint(number.doubleValue())) {
+            return -1;
+        }
+        return (int) Math.min(number.doubleValue(), Integer.MAX_VALUE);
+    }
+
+    private static BigDecimal decimal(Object value) {
+        if (!(value instanceof Number number)) {
+            return null;
+        }
+        try {
+            return new BigDecimal(number.toString());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // Objects and arrays never equal a scalar, so they are dropped
+    private static List<Object> scalars(List<?> values) {
+        List<Object> scalars = new ArrayList<>(values.size());
+        for (Object value : values) {
+            if (value == null) {
+                scalars.add(NULL_VALUE);
+            } else if (value instanceof Number) {
+                BigDecimal number = decimal(value);
+                if (number != null) {
+                    scalars.add(number);
+                }
+            } else if (value instanceof String || value instanceof Boolean) {
+                scalars.add(value);
+            }
+        }
+        return scalars;
+    }
+}
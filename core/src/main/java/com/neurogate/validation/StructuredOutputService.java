@@ -3,20 +3,29 @@ package com.neurogate.validation;
 import com.neurogate.router.provider.MultiProviderRouter;
 import com.neurogate.sentinel.model.ChatRequest;
 import com.neurogate.sentinel.model.ChatResponse;
+import com.neurogate.sentinel.model.Choice;
 import com.neurogate.sentinel.model.Message;
+import com.neurogate.sentinel.model.Usage;
 import com.neurogate.validation.model.ValidationMetadata;
 import com.neurogate.validation.model.ValidationResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service for generating structured LLM outputs with JSON schema validation.
  * Automatically retries when output doesn't match the expected schema.
+ *
+ * <p>With {@code neurogate.validation.early-abort} enabled, each attempt is streamed
+ * from the provider and checked as it arrives: an attempt that has provably broken the
+ * schema is cancelled and retried at once instead of generated to the end.</p>
  */
 @Slf4j
 @Service
@@ -25,10 +34,17 @@ public class StructuredOutputService {
 
     private final StructuredOutputValidator validator;
     private final MultiProviderRouter router;
+    private final JsonSchemaCache schemaCache;
 
     @Value("${neurogate.validation.max-retries:3}")
     private int maxRetries;
 
+    @Value("${neurogate.validation.early-abort:false}")
+    private boolean earlyAbort;
+
+    @Value("${neurogate.router.request-timeout-ms:120000}")
+    private long requestTimeoutMs;
+
     /**
      * Generate a response with schema validation and auto-retry.
      *
@@ -48,6 +64,8 @@ public class StructuredOutputService {
         ChatResponse lastResponse = null;
         ValidationResult lastResult = null;
         List<Message> originalMessages = new ArrayList<>(request.getMessages());
+        Map<String, Object> schema = request.getResponseFormat().getJsonSchema().getSchema();
+        StreamingSchema streamingSchema = earlyAbort && schema != null ? schemaCache.get(schema).streaming() : null;
 
         while (retries < maxRetries) {
             // Build request (with correction hint if retrying)
@@ -55,12 +73,21 @@ public class StructuredOutputService {
                     ? request
                     : buildRetryRequest(request, originalMessages, lastResponse, lastResult);
 
-            // Route to provider
-            lastResponse = router.route(currentRequest);
+            if (streamingSchema != null) {
+                // Streamed, and cancelled as soon as it breaks the schema
+                StreamingJsonValidator partial = streamingSchema.validator();
+                lastResponse = routeChecked(currentRequest, partial);
+                lastResult = partial.isViolated()
+                        ? ValidationResult.invalid(extractContent(lastResponse), partial.getErrors())
+                        : validator.validate(extractContent(lastResponse), request.getResponseFormat());
+            } else {
+                // Route to provider
+                lastResponse = router.route(currentRequest);
 
-            // Extract content and validate
-            String content = extractContent(lastResponse);
-            lastResult = validator.validate(content, request.getResponseFormat());
+                // Extract content and validate
+                String content = extractContent(lastResponse);
+                lastResult = validator.validate(content, request.getResponseFormat());
+            }
 
             if (lastResult.isValid()) {
                 log.debug("Structured output validation passed (retries: {})", retries);
@@ -98,6 +125,73 @@ public class StructuredOutputService {
         return lastResponse;
     }
 
+    /**
+     * Stream the completion through the validator, cancelling it on the first violation,
+     * and assemble the chunks received into one response.
+     *
+     * <p>Unlike {@link MultiProviderRouter#route}, the stream has no circuit breaker, retry
+     * or provider fallback once it has started. If it fails before its first chunk, the
+     * attempt is made again through {@link MultiProviderRouter#routeAsync}, which has them.
+     * The whole attempt, fallback included, is bounded by the request timeout; a stalled
+     * stream is cancelled when it runs out.</p>
+     */
+    private ChatResponse routeChecked(ChatRequest request, StreamingJsonValidator partial) {
+        StringBuilder content = new StringBuilder();
+        ChatResponse[] first = new ChatResponse[1];
+        String[] finishReason = new String[1];
+        Usage[] usage = new Usage[1];
+
+        ChatRequest streamRequest = request.toBuilder().stream(true).build();
+        Flux.defer(() -> router.routeStream(streamRequest))
+                .onErrorResume(error -> {
+                    if (first[0] != null) {
+                        return Flux.error(error);
+                    }
+                    log.warn("Structured output stream failed before its first chunk, routing without streaming: {}",
+                            error.getMessage());
+                    return router.routeAsync(request).flux();
+                })
+                .doOnNext(chunk -> {
+                    if (first[0] == null) {
+                        first[0] = chunk;
+                    }
+                    if (chunk.getUsage() != null) {
+                        usage[0] = chunk.getUsage();
+                    }
+                    if (chunk.getChoices() == null || chunk.getChoices().isEmpty()) {
+                        return;
+                    }
+                    Choice choice = chunk.getChoices().get(0);
+                    if (choice.getFinishReason() != null) {
+                        finishReason[0] = choice.getFinishReason();
+                    }
+                    Message message = choice.getDelta() != null ? choice.getDelta() : choice.getMessage();
+                    String delta = message != null ? message.getStrContent() : null;
+                    if (delta != null) {
+                        content.append(delta);
+                        partial.accept(delta);
+                    }
+                })
+                .takeUntil(chunk -> partial.isViolated())
+                .blockLast(Duration.ofMillis(requestTimeoutMs));
+
+        if (partial.isViolated()) {
+            log.debug("Structured output cancelled after {} chars: {}", content.length(), partial.getErrors());
+        }
+        return ChatResponse.builder()
+                .id(first[0] != null ? first[0].getId() : null)
+                .object("chat.completion")
+                .created(first[0] != null ? first[0].getCreated() : null)
+                .model(first[0] != null ? first[0].getModel() : request.getModel())
+                .choices(List.of(Choice.builder()
+                        .index(0)
+                        .message(Message.builder().role("assistant").content(content.toString()).build())
+                        .finishReason(finishReason[0])
+                        .build()))
+                .usage(usage[0])
+                .build();
+    }
+
     /**
      * Build a retry request with correction hints.
      */
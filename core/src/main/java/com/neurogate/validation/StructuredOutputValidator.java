@@ -7,8 +7,6 @@ import com.neurogate.sentinel.model.ChatRequest;
 import com.neurogate.validation.model.ValidationError;
 import com.neurogate.validation.model.ValidationResult;
 import com.networknt.schema.JsonSchema;
-import com.networknt.schema.JsonSchemaFactory;
-import com.networknt.schema.SpecVersion;
 import com.networknt.schema.ValidationMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -29,7 +27,7 @@ import java.util.regex.Pattern;
 public class StructuredOutputValidator {
 
     private final ObjectMapper objectMapper;
-    private final JsonSchemaFactory schemaFactory = JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V7);
+    private final JsonSchemaCache schemaCache;
 
     // Pattern to extract JSON from markdown code blocks
     private static final Pattern JSON_BLOCK_PATTERN = Pattern.compile(
@@ -76,9 +74,8 @@ public class StructuredOutputValidator {
             // Parse response as JSON
             JsonNode responseNode = objectMapper.readTree(jsonContent);
 
-            // Build JSON Schema
-            JsonNode schemaNode = objectMapper.valueToTree(schema);
-            JsonSchema jsonSchema = schemaFactory.getSchema(schemaNode);
+            // Compiled once per distinct schema
+            JsonSchema jsonSchema = schemaCache.get(schema).schema();
 
             // Validate
             Set<ValidationMessage> validationMessages = jsonSchema.validate(responseNode);
@@ -108,8 +105,7 @@ public class StructuredOutputValidator {
             if (fixed != null) {
                 try {
                     JsonNode fixedNode = objectMapper.readTree(fixed);
-                    JsonNode schemaNode = objectMapper.valueToTree(schema);
-                    JsonSchema jsonSchema = schemaFactory.getSchema(schemaNode);
+                    JsonSchema jsonSchema = schemaCache.get(schema).schema();
                     Set<ValidationMessage> msgs = jsonSchema.validate(fixedNode);
 
                     if (msgs.isEmpty()) {
@@ -1,15 +1,12 @@
 package com.neurogate.vault;
 
-import lombok.RequiredArgsConstructor;
+import com.neurogate.vault.tokenizer.TokenVault;
 import org.springframework.stereotype.Component;
 
 @Component
-@RequiredArgsConstructor
 public class PiiRestorerFactory {
 
-    private final PiiSanitizationService piiSanitizationService;
-
-    public StreamingPiiRestorer createRestorer() {
-        return new StreamingPiiRestorer(piiSanitizationService);
+    public StreamingPiiRestorer createRestorer(TokenVault tokenVault) {
+        return new StreamingPiiRestorer(tokenVault);
     }
 }
@@ -13,6 +13,9 @@ import java.util.Map;
 
 /**
  * Service for sanitizing text by detecting and replacing PII with tokens.
+ *
+ * <p>Token mappings live in a {@link TokenVault} per request, which callers create
+ * and keep for restoring the response.</p>
  */
 
 @Slf4j
@@ -21,20 +24,25 @@ import java.util.Map;
 public class PiiSanitizationService {
 
     private final List<PiiDetector> piiDetectors;
-    private final TokenVault tokenVault;
     private final com.neurogate.vault.detector.ImagePiiDetector imagePiiDetector;
 
+    /**
+     * Sanitize text into a new vault, available from the result's token map.
+     */
     public SanitizedPrompt sanitize(String text) {
+        return sanitize(text, new TokenVault());
+    }
+
+    /**
+     * Sanitize text, storing its tokens in the given request vault.
+     */
+    public SanitizedPrompt sanitize(String text, TokenVault tokenVault) {
         if (text == null || text.isEmpty()) {
             return new SanitizedPrompt(text, Map.of());
         }
 
         long startTime = System.currentTimeMillis();
-        List<PiiEntity> entities = new java.util.ArrayList<>();
-
-        for (PiiDetector detector : piiDetectors) {
-            entities.addAll(detector.detect(text));
-        }
+        List<PiiEntity> entities = detect(text);
 
         if (entities.isEmpty()) {
             log.debug("No PII detected in text");
@@ -43,8 +51,6 @@ public class PiiSanitizationService {
 
         log.info("Detected {} PII entities", entities.size());
 
-        entities.sort((a, b) -> Integer.compare(b.getStart(), a.getStart()));
-
         StringBuilder sanitized = new StringBuilder(text);
         for (PiiEntity entity : entities) {
             String token = tokenVault.tokenize(entity);
@@ -68,8 +74,15 @@ public class PiiSanitizationService {
      * Sanitizes multimodal content (String or List of Maps)
      */
     public com.neurogate.vault.model.SanitizedContentResult sanitizeContent(Object content) {
+        return sanitizeContent(content, new TokenVault());
+    }
+
+    /**
+     * Sanitizes multimodal content, storing its tokens in the given request vault
+     */
+    public com.neurogate.vault.model.SanitizedContentResult sanitizeContent(Object content, TokenVault tokenVault) {
         if (content instanceof String) {
-            SanitizedPrompt prompt = sanitize((String) content);
+            SanitizedPrompt prompt = sanitize((String) content, tokenVault);
             return com.neurogate.vault.model.SanitizedContentResult.builder()
                     .sanitizedContent(prompt.getSanitizedText())
                     .detectedEntities(prompt.getDetectedEntities())
@@ -89,7 +102,7 @@ public class PiiSanitizationService {
                     String type = (String) partMap.get("type");
 
                     if ("text".equals(type) && partMap.containsKey("text")) {
-                        SanitizedPrompt textRes = sanitize((String) partMap.get("text"));
+                        SanitizedPrompt textRes = sanitize((String) partMap.get("text"), tokenVault);
                         if (textRes.isContainsPii()) {
                             hasPii = true;
                             allEntities.addAll(textRes.getDetectedEntities());
@@ -132,31 +145,50 @@ public class PiiSanitizationService {
                 .build();
     }
 
-    public String desanitize(String sanitizedText) {
+    public String desanitize(String sanitizedText, TokenVault tokenVault) {
         if (sanitizedText == null || sanitizedText.isEmpty()) {
             return sanitizedText;
         }
 
-        String restored = tokenVault.detokenizeText(sanitizedText);
-        log.debug("Restored {} PII values in text", tokenVault.getStats().totalTokens());
-
-        return restored;
+        return tokenVault.detokenizeText(sanitizedText);
     }
 
     public boolean containsPii(String text) {
         for (PiiDetector detector : piiDetectors) {
-            if (!detector.detect(text).isEmpty()) {
+            if (detector.containsPii(text)) {
                 return true;
             }
         }
         return false;
     }
 
-    public PiiStats getStats() {
-        TokenVault.TokenStats vaultStats = tokenVault.getStats();
-        return new PiiStats(
-                vaultStats.totalTokens(),
-                vaultStats.tokensByType());
+    /**
+     * Entities from all detectors, without overlaps, last first so they can be
+     * replaced in place. Where spans overlap (e.g. an SSN found by both the pattern
+     * and the context detector) the earlier, then longer, span is kept.
+     */
+    private List<PiiEntity> detect(String text) {
+        List<PiiEntity> entities = new java.util.ArrayList<>();
+        for (PiiDetector detector : piiDetectors) {
+            entities.addAll(detector.detect(text));
+        }
+        if (entities.size() < 2) {
+            return entities;
+        }
+
+        entities.sort((a, b) -> a.getStart() != b.getStart()
+                ? Integer.compare(a.getStart(), b.getStart())
+                : Integer.compare(b.getEnd(), a.getEnd()));
+        List<PiiEntity> kept = new java.util.ArrayList<>(entities.size());
+        int keptEnd = -1;
+        for (PiiEntity entity : entities) {
+            if (entity.getStart() >= keptEnd) {
+                kept.add(entity);
+                keptEnd = entity.getEnd();
+            }
+        }
+        java.util.Collections.reverse(kept);
+        return kept;
     }
 
     private SanitizedPrompt createCleanPrompt(String text) {
@@ -168,7 +200,4 @@ public class PiiSanitizationService {
         prompt.setContainsPii(false);
         return prompt;
     }
-
-    public record PiiStats(int totalPiiDetected, Map<String, Integer> piiByType) {
-    }
 }
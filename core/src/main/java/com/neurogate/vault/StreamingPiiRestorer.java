@@ -1,73 +1,92 @@
 package com.neurogate.vault;
 
-import com.neurogate.vault.model.SanitizedPrompt;
+import com.neurogate.vault.tokenizer.TokenVault;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.LinkedList;
-import java.util.Map;
-import java.util.Queue;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-
 /**
  * Restores PII tokens in streaming responses (SSE).
- * Uses a sliding window buffer.
+ *
+ * <p>Each chunk is scanned once by a small state machine for {@code <TYPE_N>}
+ * placeholders. Text that cannot be part of a placeholder is returned immediately;
+ * only a suffix that could still become one (e.g. {@code "<EMAIL_"}) is held back
+ * until the next chunk completes or rules it out. Chunks without a pending suffix
+ * and without {@code '<'} are returned as-is.</p>
+ *
+ * <p>One instance per stream; not thread-safe.</p>
  */
 @Slf4j
 public class StreamingPiiRestorer {
 
-    private static final int BUFFER_SIZE = 5;
-    private static final Pattern TOKEN_PATTERN = Pattern.compile("<([A-Z_]+)_(\\d+)>");
+    /**
+     * Longest placeholder held back. Vault tokens are far shorter, so anything
+     * longer is plain text and must not stall the stream.
+     */
+    static final int MAX_TOKEN_LENGTH = 64;
+
+    // Outcome of feeding one character to the pending placeholder
+    private static final int CONTINUE = 0;
+    private static final int COMPLETE = 1;
+    private static final int REJECT = 2;
 
-    private final Queue<String> buffer = new LinkedList<>();
-    private final PiiSanitizationService piiSanitizationService;
+    private final TokenVault tokenVault;
 
-    public StreamingPiiRestorer(PiiSanitizationService piiSanitizationService) {
-        this.piiSanitizationService = piiSanitizationService;
+    // Held-back partial placeholder, always starting with '<' when non-empty
+    private final StringBuilder pending = new StringBuilder(MAX_TOKEN_LENGTH);
+    private int typeLength;
+    private char lastTypeChar;
+    private boolean inNumber;
+
+    public StreamingPiiRestorer(TokenVault tokenVault) {
+        this.tokenVault = tokenVault;
     }
 
     /**
      * Process a streaming chunk with PII restoration.
+     *
+     * @return the text that is safe to emit now, possibly empty
      */
     public String processChunk(String chunk) {
-        // Add chunk to buffer
-        buffer.add(chunk);
-
-        // Maintain buffer size
-        if (buffer.size() > BUFFER_SIZE) {
-            buffer.poll();
+        if (chunk == null || chunk.isEmpty()) {
+            return "";
         }
-
-        // Combine buffer contents to check for complete tokens
-        String combined = String.join("", buffer);
-
-        // Check if we have complete PII tokens
-        Matcher matcher = TOKEN_PATTERN.matcher(combined);
-
-        if (matcher.find()) {
-            // We found a complete token, restore all tokens in the combined string
-            String restored = piiSanitizationService.desanitize(combined);
-
-            // Clear buffer after restoration
-            buffer.clear();
-
-            return restored;
+        if (pending.isEmpty() && chunk.indexOf('<') < 0) {
+            return chunk;
         }
 
-        // Check if we have a partial token at the end
-        if (hasPartialToken(combined)) {
-            // Buffer partial tokens
-            log.debug("Detected partial token, buffering...");
-            return "";
+        StringBuilder out = new StringBuilder(chunk.length() + 16);
+        // Start of the chunk text not yet emitted, while nothing is pending
+        int emitFrom = 0;
+        for (int i = 0; i < chunk.length(); i++) {
+            char c = chunk.charAt(i);
+            if (!pending.isEmpty()) {
+                int step = advance(c);
+                if (step == CONTINUE) {
+                    pending.append(c);
+                    continue;
+                }
+                if (step == COMPLETE) {
+                    pending.append(c);
+                    out.append(restore(pending.toString()));
+                    pending.setLength(0);
+                    emitFrom = i + 1;
+                    continue;
+                }
+                // Not a placeholder after all: release it and rescan c as text
+                out.append(pending);
+                pending.setLength(0);
+                emitFrom = i;
+            }
+            if (c == '<') {
+                out.append(chunk, emitFrom, i);
+                open();
+            }
         }
-
-        // No complete or partial tokens, safe to return the chunk
-        // But keep the last few chunks in buffer in case a token spans multiple chunks
-        if (buffer.size() > 3) {
-            return buffer.poll();
+        if (pending.isEmpty()) {
+            out.append(chunk, emitFrom, chunk.length());
+        } else {
+            log.debug("Holding back partial token ({} chars)", pending.length());
         }
-
-        return "";
+        return out.toString();
     }
 
     /**
@@ -75,30 +94,58 @@ public class StreamingPiiRestorer {
      * Call this when the stream ends
      */
     public String flush() {
-        if (buffer.isEmpty()) {
+        if (pending.isEmpty()) {
             return "";
         }
-
-        String remaining = String.join("", buffer);
-        buffer.clear();
-
-        // Restore any remaining PII tokens
-        return piiSanitizationService.desanitize(remaining);
+        // An unfinished placeholder is plain text
+        String remaining = pending.toString();
+        pending.setLength(0);
+        return remaining;
     }
 
     /**
-     * Check if the combined string has a partial token at the end
+     * Reset the buffer (for new streaming request)
      */
-    private boolean hasPartialToken(String text) {
-        // Check for partial token patterns like "<EM" or "<EMAIL_" at the end
-        return text.matches(".*<[A-Z_]*$") || text.matches(".*<[A-Z_]+_\\d*$");
+    public void reset() {
+        pending.setLength(0);
+        log.debug("StreamingPiiRestorer buffer reset");
+    }
+
+    private void open() {
+        pending.append('<');
+        typeLength = 0;
+        lastTypeChar = 0;
+        inNumber = false;
     }
 
     /**
-     * Reset the buffer (for new streaming request)
+     * Feed one character to the pending placeholder, which follows
+     * {@code <[A-Z_]+_\d+>}.
      */
-    public void reset() {
-        buffer.clear();
-        log.debug("StreamingPiiRestorer buffer reset");
+    private int advance(char c) {
+        if (pending.length() >= MAX_TOKEN_LENGTH) {
+            return REJECT;
+        }
+        if (inNumber) {
+            if (c >= '0' && c <= '9') {
+                return CONTINUE;
+            }
+            return c == '>' ? COMPLETE : REJECT;
+        }
+        if ((c >= 'A' && c <= 'Z') || c == '_') {
+            typeLength++;
+            lastTypeChar = c;
+            return CONTINUE;
+        }
+        if (c >= '0' && c <= '9' && typeLength >= 2 && lastTypeChar == '_') {
+            inNumber = true;
+            return CONTINUE;
+        }
+        return REJECT;
+    }
+
+    private String restore(String token) {
+        String value = tokenVault.detokenize(token);
+        return value != null ? value : token;
     }
 }
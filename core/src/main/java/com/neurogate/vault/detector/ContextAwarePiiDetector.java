@@ -18,48 +18,57 @@ import java.util.regex.Pattern;
 @Component("contextAwarePiiDetector")
 public class ContextAwarePiiDetector implements PiiDetector {
 
-    // Regex for context-aware patterns
-    // Capture group 2 is the sensitive data
+    // Context-aware patterns, combined into one alternation so the text is scanned once.
+    // Each alternative captures its sensitive data in a named group.
     private static final List<ContextPattern> PATTERNS = List.of(
             // SSN: Look for "SSN", "Social Security", etc. before the number
             new ContextPattern(
-                    Pattern.compile(
-                            "(?i)(ssn|social security|social security number|soc sec)[^a-zA-Z0-9]*([0-9]{3}-[0-9]{2}-[0-9]{4}|[0-9]{9})"),
-                    PiiType.SSN, 2, 0.95),
+                    "(?:ssn|social security|social security number|soc sec)[^a-zA-Z0-9]*"
+                            + "(?<ssn>[0-9]{3}-[0-9]{2}-[0-9]{4}|[0-9]{9})",
+                    "ssn", PiiType.SSN, 0.95),
 
             // API Keys: Look for "api_key", "bearer", etc.
             new ContextPattern(
-                    Pattern.compile("(?i)(api[_-]?key|access[_-]?token|bearer)[^a-zA-Z0-9]*([a-zA-Z0-9_\\-]{20,})"),
-                    PiiType.API_KEY, 2, 0.99));
+                    "(?:api[_-]?key|access[_-]?token|bearer)[^a-zA-Z0-9]*(?<apikey>[a-zA-Z0-9_\\-]{20,})",
+                    "apikey", PiiType.API_KEY, 0.99));
+
+    private static final Pattern COMBINED = Pattern.compile("(?i)" + String.join("|",
+            PATTERNS.stream().map(ContextPattern::regex).toList()));
 
     @Override
     public List<PiiEntity> detect(String text) {
         List<PiiEntity> entities = new ArrayList<>();
 
-        for (ContextPattern contextPattern : PATTERNS) {
-            Matcher matcher = contextPattern.pattern.matcher(text);
-            while (matcher.find()) {
-                String value = matcher.group(contextPattern.groupIndex);
-                int start = matcher.start(contextPattern.groupIndex);
-                int end = matcher.end(contextPattern.groupIndex);
-
+        Matcher matcher = COMBINED.matcher(text);
+        while (matcher.find()) {
+            for (ContextPattern contextPattern : PATTERNS) {
+                int start = matcher.start(contextPattern.group);
+                if (start < 0) {
+                    continue;
+                }
                 entities.add(new PiiEntity(
                         contextPattern.type,
-                        value,
+                        matcher.group(contextPattern.group),
                         start,
-                        end,
+                        matcher.end(contextPattern.group),
                         contextPattern.confidence));
+                break;
             }
         }
 
         return entities;
     }
 
+    @Override
+    public boolean containsPii(String text) {
+        return COMBINED.matcher(text).find();
+    }
+
     @Override
     public String getName() {
         return "Context-Aware Detector";
     }
 
-    private record ContextPattern(Pattern pattern, PiiType type, int groupIndex, double confidence) {
+    private record ContextPattern(String regex, String group, PiiType type, double confidence) {
     }
 }
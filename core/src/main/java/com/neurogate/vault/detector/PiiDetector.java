@@ -17,6 +17,14 @@ public interface PiiDetector {
      */
     List<PiiEntity> detect(String text);
 
+    /**
+     * Whether the text contains any PII. Detectors that can stop at the first match
+     * should override this.
+     */
+    default boolean containsPii(String text) {
+        return !detect(text).isEmpty();
+    }
+
     /**
      * Get the name of this detector
      */
@@ -0,0 +1,387 @@
+package com.neurogate.vault.detector;
+
+import com.neurogate.vault.model.PiiType;
+
+/**
+ * Single-pass scanner for the structured PII types: email, SSN, phone, credit card
+ * and IPv4.
+ *
+ * <p>Instead of one regex scan per type, the text is walked once. Only two kinds of
+ * position can start a match: a run of email local-part characters followed by
+ * {@code '@'}, and a digit at a word boundary. Everything else is skipped after a
+ * character test. At a digit every numeric shape is tried in place (each is a
+ * fixed-length prefix check), and the Luhn and SSN rules only run for a shape that
+ * already matched.</p>
+ *
+ * <p>Shapes are those of the previous per-type regexes, with {@code \b} on ASCII
+ * word characters:</p>
+ * <ul>
+ *   <li>email {@code [A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\.[A-Za-z]{2,}}</li>
+ *   <li>SSN {@code \d{3}-\d{2}-\d{4}}</li>
+ *   <li>phone {@code (?:1[-.]?)?\(?\d{3}\)?[-.]?\d{3}[-.]?\d{4}}</li>
+ *   <li>credit card {@code (?:\d{4}[-\s]?){3}\d{4}}</li>
+ *   <li>IPv4, four dotted octets of at most 255</li>
+ * </ul>
+ *
+ * <p>Unlike the separate scans, spans never overlap: an email wins over digits in
+ * its local part, and at one position the longest valid shape wins.</p>
+ */
+final class PiiPatternScanner {
+
+    /**
+     * Receives matches in text order.
+     */
+    @FunctionalInterface
+    interface Sink {
+        /**
+         * @return false to stop scanning
+         */
+        boolean accept(PiiType type, int start, int end);
+    }
+
+    // Numeric shapes in tie-break order
+    private static final PiiType[] NUMERIC_TYPES = {
+            PiiType.SSN, PiiType.CREDIT_CARD, PiiType.IP_ADDRESS, PiiType.PHONE
+    };
+
+    private final CharSequence text;
+    private final int length;
+    // Secondary results of matchEmail / matchNumeric
+    private int emailStart;
+    private int lastType;
+
+    private PiiPatternScanner(CharSequence text) {
+        this.text = text;
+        this.length = text.length();
+    }
+
+    /**
+     * Scan the text, reporting non-overlapping matches to the sink.
+     */
+    static void scan(CharSequence text, Sink sink) {
+        new PiiPatternScanner(text).run(sink);
+    }
+
+    private void run(Sink sink) {
+        int[] ends = new int[NUMERIC_TYPES.length];
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (!isLocalChar(c)) {
+                // "(555) ..." only starts a phone number right after a word character
+                int end = c == '(' && i > 0 && isWordChar(text.charAt(i - 1)) ? matchPhoneNumber(i) : -1;
+                if (end > 0) {
+                    if (!sink.accept(PiiType.PHONE, i, end)) {
+                        return;
+                    }
+                    i = end;
+                } else {
+                    i++;
+                }
+                continue;
+            }
+
+            int runEnd = i + 1;
+            while (runEnd < length && isLocalChar(text.charAt(runEnd))) {
+                runEnd++;
+            }
+            if (runEnd < length && text.charAt(runEnd) == '@') {
+                int end = matchEmail(i, runEnd);
+                if (end > 0) {
+                    if (!sink.accept(PiiType.EMAIL, emailStart, end)) {
+                        return;
+                    }
+                    i = end;
+                    continue;
+                }
+            }
+
+            // Numeric shapes can only start at a digit on a word boundary
+            int next = runEnd;
+            for (int p = i; p < runEnd; p++) {
+                if (!isBoundary(p)) {
+                    continue;
+                }
+                int end = matchNumeric(p, ends);
+                if (end > 0) {
+                    if (!sink.accept(NUMERIC_TYPES[lastType], p, end)) {
+                        return;
+                    }
+                    next = Math.max(end, runEnd);
+                    if (end >= runEnd) {
+                        break;
+                    }
+                    p = end - 1;
+                }
+            }
+            i = next;
+        }
+    }
+
+    /**
+     * Longest valid numeric shape starting at {@code p}.
+     *
+     * @return its end (type in {@link #lastType}), or -1
+     */
+    private int matchNumeric(int p, int[] ends) {
+        if (text.charAt(p) == '+') {
+            // "+1..." only starts a phone number right after a word character
+            int i = literal(p + 1, '1');
+            lastType = 3;
+            return i > 0 ? matchPhoneNumber(optionalSeparator(i)) : -1;
+        }
+        if (!isDigit(text.charAt(p))) {
+            return -1;
+        }
+        ends[0] = matchSsn(p);
+        ends[1] = matchCard(p);
+        ends[2] = matchIp(p);
+        ends[3] = matchPhone(p);
+
+        // Validate lazily, longest candidate first
+        while (true) {
+            int best = -1;
+            for (int t = 0; t < ends.length; t++) {
+                if (ends[t] > 0 && (best < 0 || ends[t] > ends[best])) {
+                    best = t;
+                }
+            }
+            if (best < 0) {
+                return -1;
+            }
+            if (isValid(NUMERIC_TYPES[best], p, ends[best])) {
+                lastType = best;
+                return ends[best];
+            }
+            ends[best] = -1;
+        }
+    }
+
+    private boolean isValid(PiiType type, int start, int end) {
+        if (type == PiiType.CREDIT_CARD) {
+            return isValidCreditCard(start, end);
+        }
+        if (type == PiiType.SSN) {
+            return isValidSsn(start);
+        }
+        return true;
+    }
+
+    private int matchEmail(int runStart, int at) {
+        // Leftmost start on a word boundary
+        int start = -1;
+        for (int s = runStart; s < at; s++) {
+            if (isBoundary(s)) {
+                start = s;
+                break;
+            }
+        }
+        if (start < 0) {
+            return -1;
+        }
+
+        int domainStart = at + 1;
+        int domainEnd = domainStart;
+        while (domainEnd < length && isDomainChar(text.charAt(domainEnd))) {
+            domainEnd++;
+        }
+
+        // Longest domain ending in ".letters{2,}" on a word boundary
+        for (int e = domainEnd; e >= domainStart + 4; e--) {
+            if (!isLetter(text.charAt(e - 1)) || (e < length && isWordChar(text.charAt(e)))) {
+                continue;
+            }
+            int k = e - 1;
+            while (k > domainStart && isLetter(text.charAt(k - 1))) {
+                k--;
+            }
+            int dot = k - 1;
+            if (e - k >= 2 && dot > domainStart && text.charAt(dot) == '.') {
+                emailStart = start;
+                return e;
+            }
+        }
+        return -1;
+    }
+
+    private int matchSsn(int p) {
+        int i = digits(p, 3);
+        i = i > 0 ? literal(i, '-') : -1;
+        i = i > 0 ? digits(i, 2) : -1;
+        i = i > 0 ? literal(i, '-') : -1;
+        i = i > 0 ? digits(i, 4) : -1;
+        return i > 0 && isBoundary(i) ? i : -1;
+    }
+
+    private int matchCard(int p) {
+        int i = p;
+        for (int group = 0; group < 3; group++) {
+            i = digits(i, 4);
+            if (i < 0) {
+                return -1;
+            }
+            if (i < length && (text.charAt(i) == '-' || isWhitespace(text.charAt(i)))) {
+                i++;
+            }
+        }
+        i = digits(i, 4);
+        return i > 0 && isBoundary(i) ? i : -1;
+    }
+
+    private int matchIp(int p) {
+        int i = p;
+        for (int octet = 0; octet < 4; octet++) {
+            if (octet > 0) {
+                i = literal(i, '.');
+                if (i < 0) {
+                    return -1;
+                }
+            }
+            int value = 0;
+            int start = i;
+            while (i < length && isDigit(text.charAt(i)) && i - start < 4) {
+                value = value * 10 + (text.charAt(i) - '0');
+                i++;
+            }
+            if (i == start || i - start > 3 || value > 255) {
+                return -1;
+            }
+        }
+        return isBoundary(i) ? i : -1;
+    }
+
+    private int matchPhone(int p) {
+        // Optional country code "1", then the ten-digit number
+        if (p < length && text.charAt(p) == '1') {
+            int i = p + 1;
+            if (i < length && (text.charAt(i) == '-' || text.charAt(i) == '.')) {
+                i++;
+            }
+            int end = matchPhoneNumber(i);
+            if (end > 0) {
+                return end;
+            }
+        }
+        return matchPhoneNumber(p);
+    }
+
+    private int matchPhoneNumber(int p) {
+        int i = optional(p, '(');
+        i = digits(i, 3);
+        if (i < 0) {
+            return -1;
+        }
+        i = optional(i, ')');
+        i = optionalSeparator(i);
+        i = digits(i, 3);
+        if (i < 0) {
+            return -1;
+        }
+        i = optionalSeparator(i);
+        i = digits(i, 4);
+        return i > 0 && isBoundary(i) ? i : -1;
+    }
+
+    /**
+     * Luhn check over the 16 digits of a card match.
+     */
+    private boolean isValidCreditCard(int start, int end) {
+        int sum = 0;
+        int count = 0;
+        boolean alternate = false;
+        for (int i = end - 1; i >= start; i--) {
+            char c = text.charAt(i);
+            if (!isDigit(c)) {
+                continue;
+            }
+            int digit = c - '0';
+            if (alternate) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            count++;
+            alternate = !alternate;
+        }
+        return count == 16 && sum % 10 == 0;
+    }
+
+    /**
+     * Area not 000 or 666, group not 00, serial not 0000 ({@code ddd-dd-dddd} at start).
+     */
+    private boolean isValidSsn(int start) {
+        if (allZero(start, 3) || (text.charAt(start) == '6' && text.charAt(start + 1) == '6'
+                && text.charAt(start + 2) == '6')) {
+            return false;
+        }
+        return !allZero(start + 4, 2) && !allZero(start + 7, 4);
+    }
+
+    private boolean allZero(int start, int count) {
+        for (int i = start; i < start + count; i++) {
+            if (text.charAt(i) != '0') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return index after exactly {@code count} digits at {@code i}, or -1
+     */
+    private int digits(int i, int count) {
+        if (i < 0 || i + count > length) {
+            return -1;
+        }
+        for (int j = i; j < i + count; j++) {
+            if (!isDigit(text.charAt(j))) {
+                return -1;
+            }
+        }
+        return i + count;
+    }
+
+    private int literal(int i, char c) {
+        return i < length && text.charAt(i) == c ? i + 1 : -1;
+    }
+
+    private int optional(int i, char c) {
+        return i < length && text.charAt(i) == c ? i + 1 : i;
+    }
+
+    private int optionalSeparator(int i) {
+        return i < length && (text.charAt(i) == '-' || text.charAt(i) == '.') ? i + 1 : i;
+    }
+
+    private boolean isBoundary(int i) {
+        boolean before = i > 0 && isWordChar(text.charAt(i - 1));
+        boolean after = i < length && isWordChar(text.charAt(i));
+        return before != after;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isWordChar(char c) {
+        return isLetter(c) || isDigit(c) || c == '_';
+    }
+
+    private static boolean isLocalChar(char c) {
+        return isLetter(c) || isDigit(c) || c == '.' || c == '_' || c == '%' || c == '+' || c == '-';
+    }
+
+    private static boolean isDomainChar(char c) {
+        return isLetter(c) || isDigit(c) || c == '.' || c == '-';
+    }
+
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+}
@@ -1,11 +1,15 @@
 package com.neurogate.vault.guard;
 
 import com.neurogate.vault.neuroguard.JailbreakDetector;
+import com.neurogate.vault.neuroguard.NeuroGuardScanner;
 import com.neurogate.vault.neuroguard.model.ThreatDetectionResult;
+import com.neurogate.vault.neuroguard.model.ThreatDetectionResult.ThreatType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.Set;
+
 /**
  * Security guard for jailbreak attempt detection.
  */
@@ -21,6 +25,16 @@ public class JailbreakGuard implements SecurityGuard {
         return jailbreakDetector.analyze(content);
     }
 
+    @Override
+    public ThreatDetectionResult check(String content, NeuroGuardScanner.Scan scan) {
+        return scan != null ? jailbreakDetector.toResult(scan) : check(content);
+    }
+
+    @Override
+    public Set<ThreatType> scanTypes() {
+        return Set.of(ThreatType.JAILBREAK);
+    }
+
     @Override
     public GuardType getType() {
         return GuardType.JAILBREAK;
@@ -1,11 +1,15 @@
 package com.neurogate.vault.guard;
 
+import com.neurogate.vault.neuroguard.NeuroGuardScanner;
 import com.neurogate.vault.neuroguard.PromptInjectionDetector;
 import com.neurogate.vault.neuroguard.model.ThreatDetectionResult;
+import com.neurogate.vault.neuroguard.model.ThreatDetectionResult.ThreatType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.Set;
+
 /**
  * Security guard for prompt injection detection.
  */
@@ -21,6 +25,16 @@ public class PromptInjectionGuard implements SecurityGuard {
         return injectionDetector.analyze(content);
     }
 
+    @Override
+    public ThreatDetectionResult check(String content, NeuroGuardScanner.Scan scan) {
+        return scan != null ? injectionDetector.toResult(scan) : check(content);
+    }
+
+    @Override
+    public Set<ThreatType> scanTypes() {
+        return Set.of(ThreatType.PROMPT_INJECTION);
+    }
+
     @Override
     public GuardType getType() {
         return GuardType.PROMPT_INJECTION;
@@ -1,6 +1,10 @@
 package com.neurogate.vault.guard;
 
+import com.neurogate.vault.neuroguard.NeuroGuardScanner;
 import com.neurogate.vault.neuroguard.model.ThreatDetectionResult;
+import com.neurogate.vault.neuroguard.model.ThreatDetectionResult.ThreatType;
+
+import java.util.Set;
 
 /**
  * Chain of Responsibility interface for security guards.
@@ -16,6 +20,24 @@ public interface SecurityGuard {
      */
     ThreatDetectionResult check(String content);
 
+    /**
+     * Check content using a {@link NeuroGuardScanner} scan the chain has already run
+     * for the {@link #scanTypes()} of all its guards. Guards that do not use the
+     * scanner ignore it.
+     *
+     * @param scan Scan of the content, or null if it could not be run
+     */
+    default ThreatDetectionResult check(String content, NeuroGuardScanner.Scan scan) {
+        return check(content);
+    }
+
+    /**
+     * Threat types this guard reads from the shared scan.
+     */
+    default Set<ThreatType> scanTypes() {
+        return Set.of();
+    }
+
     /**
      * Get the guard type for identification.
      */
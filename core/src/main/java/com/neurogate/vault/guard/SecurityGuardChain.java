@@ -1,13 +1,17 @@
 package com.neurogate.vault.guard;
 
+import com.neurogate.vault.neuroguard.NeuroGuardScanner;
 import com.neurogate.vault.neuroguard.model.ThreatDetectionResult;
+import com.neurogate.vault.neuroguard.model.ThreatDetectionResult.ThreatType;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicLong;
@@ -15,6 +19,10 @@ import java.util.concurrent.atomic.AtomicLong;
 /**
  * Chain of Responsibility implementation for security guards.
  * Executes all guards in priority order and returns the highest threat result.
+ *
+ * <p>Guards backed by NeuroGuard rules declare their {@link SecurityGuard#scanTypes()};
+ * the chain scans the content once for all of them and hands each guard the shared
+ * scan instead of letting every guard rescan the content.</p>
  */
 @Slf4j
 @Component
@@ -44,10 +52,11 @@ public class SecurityGuardChain {
         totalScans.incrementAndGet();
 
         ThreatDetectionResult highestThreat = ThreatDetectionResult.safe();
+        NeuroGuardScanner.Scan scan = scan(content);
 
         for (SecurityGuard guard : guards) {
             try {
-                ThreatDetectionResult result = guard.check(content);
+                ThreatDetectionResult result = guard.check(content, scan);
 
                 if (result.isThreatDetected()) {
                     log.debug("Guard {} detected threat: {} (confidence: {})",
@@ -81,6 +90,26 @@ public class SecurityGuardChain {
         return highestThreat;
     }
 
+    /**
+     * One scan for the threat types of all guards, or null if none needs it or the
+     * scan failed (guards then check the content themselves).
+     */
+    private NeuroGuardScanner.Scan scan(String content) {
+        Set<ThreatType> types = EnumSet.noneOf(ThreatType.class);
+        for (SecurityGuard guard : guards) {
+            types.addAll(guard.scanTypes());
+        }
+        if (types.isEmpty()) {
+            return null;
+        }
+        try {
+            return NeuroGuardScanner.shared().scan(content, types);
+        } catch (Exception e) {
+            log.error("NeuroGuard scan failed: {}", e.getMessage(), e);
+            return null;
+        }
+    }
+
     /**
      * Get statistics about guard chain execution.
      */
@@ -6,6 +6,13 @@ package com.neurogate.vault.neuroguard;
 public interface ActiveDefenseService {
     String validatePrompt(String prompt);
 
+    /**
+     * Validate earlier messages of a conversation. Unlike {@link #validatePrompt}
+     * they are not sanitized, only rejected when one of them is blocked.
+     */
+    default void validateHistory(java.util.List<String> prompts) {
+    }
+
     com.neurogate.vault.neuroguard.model.ThreatDetectionResult analyzePrompt(String prompt);
 
     com.neurogate.vault.neuroguard.model.ThreatDetectionResult analyzeOutput(String output);
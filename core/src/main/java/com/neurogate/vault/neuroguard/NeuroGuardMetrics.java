@@ -0,0 +1,33 @@
+package com.neurogate.vault.neuroguard;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Exposes the {@link NeuroGuardScanner} counters: hits per rule, scans and scans
+ * that stopped early.
+ */
+@Component
+public class NeuroGuardMetrics {
+
+    public NeuroGuardMetrics(MeterRegistry registry) {
+        NeuroGuardScanner scanner = NeuroGuardScanner.shared();
+
+        for (int i = 0; i < scanner.rules().size(); i++) {
+            NeuroGuardScanner.Rule rule = scanner.rules().get(i);
+            int index = i;
+            FunctionCounter.builder("neurogate.neuroguard.rule.hits", scanner, s -> s.hits(index))
+                    .description("Prompts and outputs matching a NeuroGuard rule")
+                    .tag("rule", rule.id())
+                    .tag("type", rule.type().name().toLowerCase())
+                    .register(registry);
+        }
+        FunctionCounter.builder("neurogate.neuroguard.scans", scanner, NeuroGuardScanner::scans)
+                .description("NeuroGuard rule scans")
+                .register(registry);
+        FunctionCounter.builder("neurogate.neuroguard.early_exits", scanner, NeuroGuardScanner::earlyExits)
+                .description("NeuroGuard scans stopped early because the content was blocked")
+                .register(registry);
+    }
+}
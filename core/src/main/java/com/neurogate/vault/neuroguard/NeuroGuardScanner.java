@@ -0,0 +1,275 @@
+package com.neurogate.vault.neuroguard;
+
+import com.neurogate.router.cache.ContentHash;
+import com.neurogate.vault.neuroguard.model.ThreatDetectionResult.ThreatType;
+import com.neurogate.vault.streaming.ToxicityAutomaton;
+import com.neurogate.vault.streaming.ToxicityPattern;
+import lombok.extern.slf4j.Slf4j;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Scans text against all NeuroGuard rules (prompt injection, jailbreak and toxic
+ * content) in a single pass.
+ *
+ * <p>The text is normalized once (NFKC, invisible format characters dropped) and
+ * then fed through one {@link ToxicityAutomaton} holding every rule, which lower-cases
+ * as it goes. Hits are scored per threat type as they are found, and the scan stops
+ * as soon as one of the requested types is blocked: by a blocking rule, or by its
+ * score reaching the type's block threshold. A blocked type's score may therefore
+ * be lower than a full scan would give, and other types may be incomplete.</p>
+ *
+ * <p>The rule set is fixed, so a single shared instance is compiled on first use.
+ * Hits are counted per rule for metrics.</p>
+ */
+@Slf4j
+public final class NeuroGuardScanner {
+
+    private static final ThreatType[] TYPES = ThreatType.values();
+
+    private final List<Rule> rules;
+    private final ToxicityAutomaton automaton;
+    // Rule index of each automaton pattern
+    private final int[] ruleOf;
+    private final List<FallbackRule> fallbackRules = new ArrayList<>();
+    private final int specialCharRule;
+    private final LongAdder[] hits;
+    private final LongAdder scans = new LongAdder();
+    private final LongAdder earlyExits = new LongAdder();
+    private final long version;
+
+    NeuroGuardScanner(List<Rule> rules) {
+        this.rules = List.copyOf(rules);
+        this.hits = new LongAdder[this.rules.size()];
+
+        List<ToxicityPattern> patterns = new ArrayList<>();
+        Map<ToxicityPattern, Integer> indexOf = new IdentityHashMap<>();
+        int special = -1;
+        for (int i = 0; i < this.rules.size(); i++) {
+            hits[i] = new LongAdder();
+            Rule rule = this.rules.get(i);
+            if (rule.regex() == null) {
+                special = i;
+                continue;
+            }
+            ToxicityPattern pattern = ToxicityPattern.builder()
+                    .regex(rule.regex())
+                    .pattern(Pattern.compile(rule.regex(), Pattern.CASE_INSENSITIVE))
+                    .category(rule.id())
+                    .build();
+            patterns.add(pattern);
+            indexOf.put(pattern, i);
+        }
+        this.specialCharRule = special;
+        this.version = ContentHash.hash64(this.rules + NeuroGuardRules.thresholds(), 0);
+
+        this.automaton = ToxicityAutomaton.compile(patterns);
+        this.ruleOf = automaton.patterns().stream().mapToInt(indexOf::get).toArray();
+        for (ToxicityPattern pattern : automaton.fallbackPatterns()) {
+            fallbackRules.add(new FallbackRule(indexOf.get(pattern), pattern.getPattern()));
+        }
+        log.info("NeuroGuard scanner compiled {} rules ({} matched as regex)",
+                this.rules.size(), fallbackRules.size());
+    }
+
+    /**
+     * The scanner for {@link NeuroGuardRules#ALL}.
+     */
+    public static NeuroGuardScanner shared() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Scan text for the given threat types. Rules of other types are ignored.
+     */
+    public Scan scan(String text, Set<ThreatType> types) {
+        Scan scan = new Scan(types, rules.size());
+        if (text == null || text.isBlank()) {
+            return scan;
+        }
+        scans.increment();
+
+        // One pass to normalize and count special characters
+        int special = 0;
+        boolean plainAscii = true;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            if (!Character.isLetterOrDigit(c) && !Character.isWhitespace(c)) {
+                special++;
+            }
+            plainAscii &= c < 0x80;
+        }
+        String normalized = plainAscii ? text : normalize(text);
+
+        if (specialCharRule >= 0 && special > text.length() * NeuroGuardRules.SPECIAL_CHAR_RATIO) {
+            hit(scan, specialCharRule);
+        }
+        if (!scan.stopped) {
+            ToxicityAutomaton.State state = automaton.advance(automaton.start(), normalized,
+                    pattern -> hit(scan, ruleOf[pattern]));
+            if (!scan.stopped) {
+                automaton.finish(state, pattern -> hit(scan, ruleOf[pattern]));
+            }
+        }
+        for (FallbackRule fallback : fallbackRules) {
+            if (scan.stopped) {
+                break;
+            }
+            if (types.contains(rules.get(fallback.rule()).type()) && fallback.pattern().matcher(normalized).find()) {
+                hit(scan, fallback.rule());
+            }
+        }
+
+        if (scan.stopped) {
+            earlyExits.increment();
+        }
+        return scan;
+    }
+
+    /**
+     * Fingerprint of the rules, weights and thresholds: changes whenever a scan of the
+     * same text could give a different verdict.
+     */
+    public long version() {
+        return version;
+    }
+
+    public List<Rule> rules() {
+        return rules;
+    }
+
+    /**
+     * Times the rule at this index of {@link #rules()} has matched.
+     */
+    public long hits(int rule) {
+        return hits[rule].sum();
+    }
+
+    public long scans() {
+        return scans.sum();
+    }
+
+    /**
+     * Scans stopped before the end of the text because a type was blocked.
+     */
+    public long earlyExits() {
+        return earlyExits.sum();
+    }
+
+    /**
+     * @return false once the scan is blocked, to stop it
+     */
+    private boolean hit(Scan scan, int index) {
+        Rule rule = rules.get(index);
+        if (!scan.types.contains(rule.type()) || scan.matched[index]) {
+            return true;
+        }
+        scan.matched[index] = true;
+        scan.matchedRules.add(rule);
+        hits[index].increment();
+
+        int type = rule.type().ordinal();
+        scan.scores[type] += rule.weight();
+        if (rule.blocking() || scan.scores[type] >= NeuroGuardRules.blockThreshold(rule.type())) {
+            scan.blocked[type] = true;
+            scan.stopped = true;
+        }
+        return !scan.stopped;
+    }
+
+    /**
+     * NFKC folds compatibility forms such as full-width letters, and format characters
+     * (zero-width spaces and joiners, soft hyphens) are dropped, so they cannot be
+     * used to split a keyword.
+     */
+    static String normalize(String text) {
+        String folded = Normalizer.isNormalized(text, Normalizer.Form.NFKC)
+                ? text
+                : Normalizer.normalize(text, Normalizer.Form.NFKC);
+        StringBuilder out = null;
+        for (int i = 0, n = folded.length(); i < n; i++) {
+            char c = folded.charAt(i);
+            if (Character.getType(c) == Character.FORMAT) {
+                if (out == null) {
+                    out = new StringBuilder(n).append(folded, 0, i);
+                }
+            } else if (out != null) {
+                out.append(c);
+            }
+        }
+        return out != null ? out.toString() : folded;
+    }
+
+    /**
+     * A weighted rule. A blocking rule blocks its type on its own; otherwise the type
+     * is blocked once the weights of its hits reach the type's threshold.
+     *
+     * @param id       stable name, used as the metric tag
+     * @param regex    pattern, or null for a rule evaluated by the scanner itself
+     * @param label    how the hit is listed in {@code matchedPatterns}
+     */
+    public record Rule(String id, ThreatType type, String regex, double weight, boolean blocking, String label) {
+    }
+
+    /**
+     * Outcome of one scan: the rules hit and the score of each requested type.
+     */
+    public static final class Scan {
+        private final Set<ThreatType> types;
+        private final boolean[] matched;
+        private final List<Rule> matchedRules = new ArrayList<>();
+        private final double[] scores = new double[TYPES.length];
+        private final boolean[] blocked = new boolean[TYPES.length];
+        private boolean stopped;
+
+        private Scan(Set<ThreatType> types, int rules) {
+            this.types = types;
+            this.matched = new boolean[rules];
+        }
+
+        /**
+         * Sum of the weights of the type's hits, capped at 1.0.
+         */
+        public double score(ThreatType type) {
+            return Math.min(scores[type.ordinal()], 1.0);
+        }
+
+        public boolean isBlocked(ThreatType type) {
+            return blocked[type.ordinal()];
+        }
+
+        /**
+         * Labels of the type's hits, in the order they were found.
+         */
+        public List<String> matched(ThreatType type) {
+            List<String> labels = new ArrayList<>();
+            for (Rule rule : matchedRules) {
+                if (rule.type() == type) {
+                    labels.add(rule.label());
+                }
+            }
+            return labels;
+        }
+
+        /**
+         * Whether the scan stopped early because a type was blocked.
+         */
+        public boolean isStopped() {
+            return stopped;
+        }
+    }
+
+    private record FallbackRule(int rule, Pattern pattern) {
+    }
+
+    private static final class Holder {
+        private static final NeuroGuardScanner INSTANCE = new NeuroGuardScanner(NeuroGuardRules.ALL);
+    }
+}
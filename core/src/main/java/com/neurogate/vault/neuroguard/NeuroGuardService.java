@@ -1,12 +1,17 @@
 package com.neurogate.vault.neuroguard;
 
 import com.neurogate.vault.neuroguard.model.ThreatDetectionResult;
+import com.neurogate.vault.neuroguard.model.ThreatDetectionResult.ThreatType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Service;
 
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -19,6 +24,9 @@ import java.util.concurrent.atomic.AtomicLong;
 @RequiredArgsConstructor
 public class NeuroGuardService implements ActiveDefenseService {
 
+    private static final Set<ThreatType> PROMPT_THREATS = EnumSet.of(ThreatType.PROMPT_INJECTION,
+            ThreatType.JAILBREAK);
+
     private final PromptInjectionDetector injectionDetector;
     private final JailbreakDetector jailbreakDetector;
     private final com.neurogate.vault.detector.ContextAwarePiiDetector piiDetector;
@@ -30,6 +38,13 @@ public class NeuroGuardService implements ActiveDefenseService {
     private final AtomicLong requestsBlocked = new AtomicLong(0);
     private final Map<ThreatDetectionResult.ThreatType, AtomicLong> threatsByType = new ConcurrentHashMap<>();
 
+    private PromptVerdictCache verdictCache;
+
+    @Autowired(required = false)
+    public void setVerdictCache(PromptVerdictCache verdictCache) {
+        this.verdictCache = verdictCache;
+    }
+
     /**
      * Validate a prompt for security threats.
      */
@@ -48,18 +63,74 @@ public class NeuroGuardService implements ActiveDefenseService {
 
     /**
      * Comprehensive prompt analysis.
+     *
+     * <p>Injection and jailbreak rules are evaluated in one scan. If it blocks the
+     * prompt, the PII scan is skipped: the request is rejected either way. Verdicts
+     * come from the {@link PromptVerdictCache} when the same message was analyzed
+     * recently.</p>
      */
     public ThreatDetectionResult analyzePrompt(String prompt) {
         totalScans.incrementAndGet();
+        return record(verdict(prompt));
+    }
+
+    /**
+     * Analyze the messages of a conversation as a whole: the verdict of a blocked
+     * message, otherwise the highest confidence one. Each message's verdict is cached,
+     * so a conversation resent every turn only has its new messages scanned.
+     */
+    public ThreatDetectionResult analyzeConversation(List<String> prompts) {
+        totalScans.incrementAndGet();
 
-        ThreatDetectionResult injectionResult = injectionDetector.analyze(prompt);
-        ThreatDetectionResult jailbreakResult = jailbreakDetector.analyze(prompt);
+        ThreatDetectionResult highest = ThreatDetectionResult.safe();
+        for (String prompt : prompts) {
+            ThreatDetectionResult result = verdict(prompt);
+            if (result.isBlocked()) {
+                return record(result);
+            }
+            if (result.getConfidenceScore() > highest.getConfidenceScore()) {
+                highest = result;
+            }
+        }
+        return record(highest);
+    }
+
+    @Override
+    public void validateHistory(List<String> prompts) {
+        ThreatDetectionResult result = analyzeConversation(prompts);
+
+        if (result.isBlocked()) {
+            log.error("Request blocked due to security threat in conversation history: {}",
+                    result.getThreatType());
+            throw new SecurityThreatException(result);
+        }
+    }
+
+    private ThreatDetectionResult verdict(String prompt) {
+        NeuroGuardScanner scanner = NeuroGuardScanner.shared();
+        if (verdictCache == null) {
+            return analyze(scanner, prompt);
+        }
+        return verdictCache.get(prompt, scanner.version(), p -> analyze(scanner, p));
+    }
+
+    private ThreatDetectionResult analyze(NeuroGuardScanner scanner, String prompt) {
+        NeuroGuardScanner.Scan scan = scanner.scan(prompt, PROMPT_THREATS);
+        ThreatDetectionResult injectionResult = injectionDetector.toResult(scan);
+        ThreatDetectionResult jailbreakResult = jailbreakDetector.toResult(scan);
+
+        if (injectionResult.isBlocked() || jailbreakResult.isBlocked()) {
+            return getHighestConfidenceResult(
+                    injectionResult.isBlocked() ? injectionResult : ThreatDetectionResult.safe(),
+                    jailbreakResult.isBlocked() ? jailbreakResult : ThreatDetectionResult.safe());
+        }
 
         // PII Detection
         ThreatDetectionResult piiResult = scanForPii(prompt);
+        return getHighestConfidenceResult(injectionResult, jailbreakResult, piiResult);
+    }
 
-        ThreatDetectionResult result = getHighestConfidenceResult(injectionResult, jailbreakResult, piiResult);
-
+    private ThreatDetectionResult record(ThreatDetectionResult result) {
         if (result.isThreatDetected()) {
             threatsDetected.incrementAndGet();
             threatsByType.computeIfAbsent(result.getThreatType(), k -> new AtomicLong(0)).incrementAndGet();
@@ -139,11 +210,23 @@ public class NeuroGuardService implements ActiveDefenseService {
         Map<String, Long> threatCounts = new ConcurrentHashMap<>();
         threatsByType.forEach((type, count) -> threatCounts.put(type.name(), count.get()));
 
+        NeuroGuardScanner scanner = NeuroGuardScanner.shared();
+        Map<String, Long> ruleHits = new java.util.TreeMap<>();
+        for (int i = 0; i < scanner.rules().size(); i++) {
+            long hits = scanner.hits(i);
+            if (hits > 0) {
+                ruleHits.put(scanner.rules().get(i).id(), hits);
+            }
+        }
+
         return Map.of(
                 "total_scans", totalScans.get(),
                 "threats_detected", threatsDetected.get(),
                 "requests_blocked", requestsBlocked.get(),
                 "threats_by_type", threatCounts,
+                "rule_hits", ruleHits,
+                "early_exits", scanner.earlyExits(),
+                "verdict_cache_hit_rate", verdictCache != null ? verdictCache.hitRate() : 0.0,
                 "block_rate", totalScans.get() > 0
                         ? (double) requestsBlocked.get() / totalScans.get()
                         : 0.0);
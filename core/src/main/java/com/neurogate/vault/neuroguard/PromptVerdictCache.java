@@ -0,0 +1,105 @@
+package com.neurogate.vault.neuroguard;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.neurogate.config.NeuroGateProperties;
+import com.neurogate.router.cache.ContentHash;
+import com.neurogate.vault.neuroguard.model.ThreatDetectionResult;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of prompt verdicts, looked up by a 64-bit hash of each message.
+ *
+ * <p>Agents resend the same system prompt and conversation prefix every turn, so most
+ * messages of a request were already analyzed. The key mixes in the version of the
+ * rules and thresholds the verdict was computed with, so a rule change makes every
+ * older verdict unreachable without an explicit flush. A 64-bit hash can be made to
+ * collide whatever its seed, so each entry also holds the SHA-256 digest of its
+ * message and the rules version, and a hit only counts if both match.</p>
+ *
+ * <p>PII verdicts are never cached: their matched patterns are the PII values found.
+ * Cached results are shared between requests and must not be modified. Hit rate
+ * is exported as the {@code cache.gets} metrics of the {@code neuroguard.verdicts}
+ * cache.</p>
+ */
+@Slf4j
+@Component
+public class PromptVerdictCache {
+
+    private final boolean enabled;
+    private final Cache<Long, Verdict> verdicts;
+    private final long seed = new SecureRandom().nextLong();
+
+    public PromptVerdictCache(NeuroGateProperties properties, MeterRegistry meterRegistry) {
+        NeuroGateProperties.NeuroGuard.VerdictCache config = properties.getNeuroguard().getVerdictCache();
+        this.enabled = config.isEnabled();
+        this.verdicts = Caffeine.newBuilder()
+                .maximumSize(config.getMaxEntries())
+                .expireAfterWrite(Duration.ofSeconds(config.getTtlSeconds()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verdicts, "neuroguard.verdicts");
+        log.info("NeuroGuard verdict cache {} (max {} entries, ttl {}s)",
+                enabled ? "enabled" : "disabled", config.getMaxEntries(), config.getTtlSeconds());
+    }
+
+    /**
+     * Cached verdict of the message, or the analyzer's verdict, which is then cached.
+     *
+     * @param rulesVersion version of the rules the analyzer applies
+     */
+    public ThreatDetectionResult get(String message, long rulesVersion,
+            Function<String, ThreatDetectionResult> analyzer) {
+        if (!enabled || message == null) {
+            return analyzer.apply(message);
+        }
+
+        long key = ContentHash.hash64(message, seed ^ rulesVersion);
+        byte[] digest = sha256(message);
+        Verdict cached = verdicts.getIfPresent(key);
+        if (cached != null && cached.rulesVersion() == rulesVersion
+                && MessageDigest.isEqual(cached.digest(), digest)) {
+            return cached.result();
+        }
+
+        // Analyzed outside the cache so a slow scan never holds a cache lock
+        ThreatDetectionResult result = analyzer.apply(message);
+        if (result != null && result.getThreatType() != ThreatDetectionResult.ThreatType.PII_LEAK) {
+            verdicts.put(key, new Verdict(rulesVersion, digest, result));
+        }
+        return result;
+    }
+
+    /**
+     * Share of lookups answered from the cache.
+     */
+    public double hitRate() {
+        return verdicts.stats().hitRate();
+    }
+
+    public void invalidateAll() {
+        verdicts.invalidateAll();
+    }
+
+    private static byte[] sha256(String message) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(message.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to provide SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Verdict(long rulesVersion, byte[] digest, ThreatDetectionResult result) {
+    }
+}
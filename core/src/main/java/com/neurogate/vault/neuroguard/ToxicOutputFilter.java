@@ -1,38 +1,25 @@
 package com.neurogate.vault.neuroguard;
 
 import com.neurogate.vault.neuroguard.model.ThreatDetectionResult;
+import com.neurogate.vault.neuroguard.model.ThreatDetectionResult.ThreatType;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 import java.util.regex.Pattern;
 
 /**
  * Filters toxic or harmful content from LLM responses.
+ *
+ * <p>Harmful content patterns are {@link NeuroGuardRules#TOXIC}, matched by the
+ * shared {@link NeuroGuardScanner}.</p>
  */
 @Slf4j
 @Component
 public class ToxicOutputFilter {
 
-    private static final List<Pattern> HARMFUL_PATTERNS = List.of(
-            // Weapons/Violence
-            Pattern.compile("(?i)how to (make|build|create) (a )?(bomb|explosive|weapon)"),
-            Pattern.compile("(?i)instructions (for|to) (harm|hurt|kill)"),
-            Pattern.compile("(?i)step[- ]?by[- ]?step (guide|instructions) (to|for) (attack|hack)"),
-
-            // Illegal activities
-            Pattern.compile("(?i)how to (hack|break into|steal)"),
-            Pattern.compile("(?i)(synthesize|manufacture|produce) (drugs|meth|cocaine)"),
-            Pattern.compile("(?i)bypass (security|authentication|password)"),
-
-            // Self-harm
-            Pattern.compile("(?i)methods? (of|for|to) (suicide|self[- ]?harm)"),
-            Pattern.compile("(?i)how to (hurt|harm|end) yourself"),
-
-            // Hate speech indicators
-            Pattern.compile("(?i)(all|every) \\b(jews|muslims|blacks|whites)\\b.*(should|must|need to).*"),
-            Pattern.compile("(?i)\\b(inferior|subhuman)\\b.*(race|people|group)"));
+    private static final Set<ThreatType> TYPES = Set.of(ThreatType.TOXIC_CONTENT);
 
     // Content to redact (replaced with placeholders)
     private static final List<Pattern> REDACT_PATTERNS = List.of(
@@ -48,23 +35,20 @@ public class ToxicOutputFilter {
             return ThreatDetectionResult.safe();
         }
 
-        List<String> matchedPatterns = new ArrayList<>();
-        double confidenceScore = 0.0;
-
-        // Check harmful patterns
-        for (Pattern pattern : HARMFUL_PATTERNS) {
-            if (pattern.matcher(output).find()) {
-                matchedPatterns.add(pattern.pattern());
-                confidenceScore += 0.4;
-            }
-        }
-
-        confidenceScore = Math.min(confidenceScore, 1.0);
+        return toResult(NeuroGuardScanner.shared().scan(output, TYPES));
+    }
 
+    /**
+     * Toxicity verdict from a scan that included {@link ThreatType#TOXIC_CONTENT}.
+     */
+    public ThreatDetectionResult toResult(NeuroGuardScanner.Scan scan) {
+        List<String> matchedPatterns = scan.matched(ThreatType.TOXIC_CONTENT);
         if (matchedPatterns.isEmpty()) {
             return ThreatDetectionResult.safe();
         }
 
+        double confidenceScore = scan.score(ThreatType.TOXIC_CONTENT);
+
         log.warn("Toxic output detected: {} patterns matched, confidence: {}",
                 matchedPatterns.size(), confidenceScore);
 
@@ -73,7 +57,7 @@ public class ToxicOutputFilter {
                 .threatType(ThreatDetectionResult.ThreatType.TOXIC_CONTENT)
                 .confidenceScore(confidenceScore)
                 .matchedPatterns(matchedPatterns)
-                .blocked(confidenceScore >= 0.5)
+                .blocked(scan.isBlocked(ThreatType.TOXIC_CONTENT))
                 .message("Potentially harmful content detected in response")
                 .build();
     }
@@ -1,184 +1,257 @@
 package com.neurogate.vault.streaming;
 
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.util.regex.Matcher;
+import java.util.List;
+import java.util.function.IntPredicate;
 
 /**
  * Real-time content moderation for streaming LLM responses.
  * Processes tokens as they arrive and can abort streams early.
+ *
+ * <p>All configured patterns are compiled into one {@link ToxicityAutomaton}, so each
+ * token is consumed once regardless of the number of patterns. State lives in a
+ * {@link Session} per stream: open one when the stream is subscribed and drop it
+ * when the stream ends. Sessions are independent, so streams interleaved on the
+ * same thread cannot see each other's text.</p>
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class StreamingGuardrail {
 
     private final StreamingGuardrailConfig config;
+    private final ToxicityAutomaton automaton;
 
-    // Thread-local state for each stream
-    private static final ThreadLocal<GuardrailState> STATE = ThreadLocal.withInitial(GuardrailState::new);
+    public StreamingGuardrail(StreamingGuardrailConfig config) {
+        this.config = config;
+        this.automaton = ToxicityAutomaton.compile(config.getCompiledPatterns());
+        log.info("🛡️ Streaming guardrail compiled {} patterns ({} matched as regex)",
+                automaton.patterns().size(), automaton.fallbackPatterns().size());
+    }
+
+    /**
+     * Start moderating a new stream.
+     */
+    public Session openSession() {
+        return new Session();
+    }
+
+    /**
+     * Check if guardrails are enabled.
+     */
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
 
     /**
-     * Process a single token from the stream.
-     *
-     * @param token The token to process
-     * @return Result indicating whether to continue and any modifications
+     * Moderation state of one stream. Not thread-safe: tokens of a stream must be
+     * processed in order, as Reactor delivers them.
      */
-    public StreamingResult processToken(String token) {
-        if (!config.isEnabled()) {
-            return StreamingResult.ok(token, 0);
+    public final class Session {
+        private ToxicityAutomaton.State matchState = automaton.start();
+        private int toxicityScore = 0;
+        private int warningCount = 0;
+        private boolean aborted = false;
+        private String abortReason;
+
+        // Only needed for patterns the automaton cannot compile
+        private final StringBuilder buffer = automaton.fallbackPatterns().isEmpty() ? null : new StringBuilder();
+
+        // Outcome of the token being processed
+        private ToxicityPattern abortedBy;
+        private ToxicityPattern filteredBy;
+        private ToxicityPattern warnedBy;
+        private final IntPredicate onMatch = index -> onMatch(automaton.patterns().get(index));
+
+        private Session() {
         }
 
-        GuardrailState state = STATE.get();
+        public int getToxicityScore() {
+            return toxicityScore;
+        }
 
-        // Check if already aborted
-        if (state.isAborted()) {
-            return StreamingResult.alreadyAborted(state.getAbortReason());
+        public int getWarningCount() {
+            return warningCount;
         }
 
-        // Add token to buffer
-        state.getBuffer().append(token);
+        public boolean isAborted() {
+            return aborted;
+        }
 
-        // Trim buffer to max size (keep most recent)
-        if (state.getBuffer().length() > config.getBufferSize()) {
-            int excess = state.getBuffer().length() - config.getBufferSize();
-            state.getBuffer().delete(0, excess);
+        public String getAbortReason() {
+            return abortReason;
         }
 
-        String bufferContent = state.getBuffer().toString();
+        /**
+         * Process a single token from the stream.
+         *
+         * @param token The token to process
+         * @return Result indicating whether to continue and any modifications
+         */
+        public StreamingResult processToken(String token) {
+            if (!config.isEnabled()) {
+                return StreamingResult.ok(token, 0);
+            }
 
-        // Check patterns against buffer
-        for (ToxicityPattern pattern : config.getCompiledPatterns()) {
-            Matcher matcher = pattern.getPattern().matcher(bufferContent);
+            // Check if already aborted
+            if (aborted) {
+                return StreamingResult.alreadyAborted(abortReason);
+            }
 
-            if (matcher.find()) {
-                return handlePatternMatch(state, pattern, token);
+            abortedBy = null;
+            filteredBy = null;
+            warnedBy = null;
+            matchState = automaton.advance(matchState, token, onMatch);
+            if (buffer != null && abortedBy == null) {
+                matchFallbackPatterns(token);
             }
+            return evaluate(token);
         }
 
-        // Check if toxicity threshold exceeded
-        if (state.getToxicityScore() > config.getToxicityThreshold()) {
-            state.setAborted(true);
-            state.setAbortReason("Cumulative toxicity threshold exceeded");
-
-            log.warn("🛡️ Stream aborted: toxicity {} > threshold {}",
-                    state.getToxicityScore(), config.getToxicityThreshold());
+        /**
+         * End the stream, reporting patterns whose match ends with a {@code \b} at the
+         * end of the text. That text has already been passed on and cannot be replaced,
+         * so a trailing FILTER match ends the stream like an ABORT.
+         *
+         * @return the outcome; not {@code shouldContinue} if the stream ends on a violation
+         */
+        public StreamingResult finish() {
+            if (!config.isEnabled()) {
+                return StreamingResult.ok("", 0);
+            }
+            if (aborted) {
+                return StreamingResult.alreadyAborted(abortReason);
+            }
 
-            return StreamingResult.abort(
-                    "Content policy: cumulative toxicity exceeded safe threshold",
-                    "TOXICITY_THRESHOLD"
-            );
+            abortedBy = null;
+            filteredBy = null;
+            warnedBy = null;
+            automaton.finish(matchState, onMatch);
+            if (abortedBy == null) {
+                abortedBy = filteredBy;
+            }
+            return evaluate("");
         }
 
-        // Check max warnings
-        if (state.getWarningCount() > config.getMaxWarnings()) {
-            state.setAborted(true);
-            state.setAbortReason("Too many content warnings");
+        /**
+         * Outcome of the matches recorded for a token.
+         */
+        private StreamingResult evaluate(String token) {
+            if (abortedBy != null) {
+                aborted = true;
+                abortReason = abortedBy.getDescription();
 
-            log.warn("🛡️ Stream aborted: {} warnings exceeded max {}",
-                    state.getWarningCount(), config.getMaxWarnings());
+                log.warn("🛡️ Stream ABORTED: {} - {}",
+                        abortedBy.getCategory(), abortedBy.getDescription());
 
-            return StreamingResult.abort(
-                    "Content policy: too many warnings triggered",
-                    "MAX_WARNINGS"
-            );
-        }
+                return StreamingResult.abort(
+                        "Content policy violation: " + abortedBy.getDescription(),
+                        abortedBy.getCategory()
+                );
+            }
 
-        return StreamingResult.ok(token, state.getToxicityScore());
-    }
+            // Check if toxicity threshold exceeded
+            if (toxicityScore > config.getToxicityThreshold()) {
+                aborted = true;
+                abortReason = "Cumulative toxicity threshold exceeded";
 
-    /**
-     * Handle a pattern match based on its severity and action.
-     */
-    private StreamingResult handlePatternMatch(
-            GuardrailState state,
-            ToxicityPattern pattern,
-            String token
-    ) {
-        log.debug("🛡️ Pattern matched: {} (severity: {}, action: {})",
-                pattern.getCategory(), pattern.getSeverity(), pattern.getAction());
-
-        // Add toxicity points
-        state.setToxicityScore(state.getToxicityScore() + pattern.getToxicityPoints());
-
-        switch (pattern.getAction()) {
-            case ABORT:
-                state.setAborted(true);
-                state.setAbortReason(pattern.getDescription());
+                log.warn("🛡️ Stream aborted: toxicity {} > threshold {}",
+                        toxicityScore, config.getToxicityThreshold());
 
-                log.warn("🛡️ Stream ABORTED: {} - {}",
-                        pattern.getCategory(), pattern.getDescription());
+                return StreamingResult.abort(
+                        "Content policy: cumulative toxicity exceeded safe threshold",
+                        "TOXICITY_THRESHOLD"
+                );
+            }
+
+            // Check max warnings
+            if (warningCount > config.getMaxWarnings()) {
+                aborted = true;
+                abortReason = "Too many content warnings";
+
+                log.warn("🛡️ Stream aborted: {} warnings exceeded max {}",
+                        warningCount, config.getMaxWarnings());
 
                 return StreamingResult.abort(
-                        "Content policy violation: " + pattern.getDescription(),
-                        pattern.getCategory()
+                        "Content policy: too many warnings triggered",
+                        "MAX_WARNINGS"
                 );
+            }
 
-            case FILTER:
+            if (filteredBy != null) {
                 // Replace the token with [FILTERED]
-                state.incrementWarningCount();
-                log.info("🛡️ Content filtered: {}", pattern.getCategory());
-
                 return StreamingResult.builder()
                         .token("[FILTERED]")
                         .shouldContinue(true)
-                        .toxicityLevel(state.getToxicityScore())
-                        .warningCount(state.getWarningCount())
-                        .violationCategory(pattern.getCategory())
+                        .toxicityLevel(toxicityScore)
+                        .warningCount(warningCount)
+                        .violationCategory(filteredBy.getCategory())
                         .build();
+            }
 
-            case WARN:
-                state.incrementWarningCount();
-                log.info("🛡️ Warning triggered: {} (count: {}, toxicity: {})",
-                        pattern.getCategory(), state.getWarningCount(), state.getToxicityScore());
-
-                return StreamingResult.warn(token, state.getToxicityScore(), state.getWarningCount());
+            if (warnedBy != null) {
+                return StreamingResult.warn(token, toxicityScore, warningCount);
+            }
 
-            case LOG:
-            default:
-                log.debug("🛡️ Pattern logged: {}", pattern.getCategory());
-                return StreamingResult.ok(token, state.getToxicityScore());
+            return StreamingResult.ok(token, toxicityScore);
         }
-    }
 
-    /**
-     * Reset state for a new stream.
-     * MUST be called at the start of each new stream.
-     */
-    public void reset() {
-        STATE.remove();
-        log.debug("🛡️ Guardrail state reset for new stream");
-    }
-
-    /**
-     * Get current state (for debugging/monitoring).
-     */
-    public GuardrailState getCurrentState() {
-        return STATE.get();
-    }
+        /**
+         * Apply a pattern match based on its severity and action.
+         *
+         * @return false to stop scanning the token (stream aborted)
+         */
+        private boolean onMatch(ToxicityPattern pattern) {
+            log.debug("🛡️ Pattern matched: {} (severity: {}, action: {})",
+                    pattern.getCategory(), pattern.getSeverity(), pattern.getAction());
+
+            // Add toxicity points
+            toxicityScore += pattern.getToxicityPoints();
+
+            switch (pattern.getAction()) {
+                case ABORT:
+                    abortedBy = pattern;
+                    return false;
+
+                case FILTER:
+                    warningCount++;
+                    filteredBy = pattern;
+                    log.info("🛡️ Content filtered: {}", pattern.getCategory());
+                    return true;
+
+                case WARN:
+                    warningCount++;
+                    warnedBy = pattern;
+                    log.info("🛡️ Warning triggered: {} (count: {}, toxicity: {})",
+                            pattern.getCategory(), warningCount, toxicityScore);
+                    return true;
+
+                case LOG:
+                default:
+                    log.debug("🛡️ Pattern logged: {}", pattern.getCategory());
+                    return true;
+            }
+        }
 
-    /**
-     * Check if guardrails are enabled.
-     */
-    public boolean isEnabled() {
-        return config.isEnabled();
-    }
+        private void matchFallbackPatterns(String token) {
+            buffer.append(token);
 
-    /**
-     * Internal state for tracking stream analysis.
-     */
-    @lombok.Data
-    public static class GuardrailState {
-        private StringBuilder buffer = new StringBuilder();
-        private int toxicityScore = 0;
-        private int warningCount = 0;
-        private boolean aborted = false;
-        private String abortReason;
+            // Trim buffer to max size (keep most recent)
+            if (buffer.length() > config.getBufferSize()) {
+                buffer.delete(0, buffer.length() - config.getBufferSize());
+            }
 
-        public void incrementWarningCount() {
-            this.warningCount++;
+            List<ToxicityPattern> fallbackPatterns = automaton.fallbackPatterns();
+            for (ToxicityPattern pattern : fallbackPatterns) {
+                if (pattern.getPattern().matcher(buffer).find()) {
+                    // Consume the match so it is reported once
+                    buffer.setLength(0);
+                    if (!onMatch(pattern)) {
+                        return;
+                    }
+                }
+            }
         }
     }
-}
\ No newline at end of file
+}
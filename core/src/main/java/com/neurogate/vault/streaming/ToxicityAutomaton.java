@@ -0,0 +1,640 @@
+package com.neurogate.vault.streaming;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntPredicate;
+
+/**
+ * All streaming guardrail patterns compiled into one incremental matcher.
+ *
+ * <p>The regexes are parsed into a single Thompson NFA, which is run as a lazily built
+ * DFA: each DFA state is the set of live NFA states, and its transitions are
+ * computed the first time a character is seen and then cached. The cache is shared
+ * by every stream, so a stream only holds a reference to its current {@link State}
+ * and consumes each character once, without re-scanning a buffer.</p>
+ *
+ * <p>Matching is unanchored and case-insensitive, like {@link ToxicityPattern#fromConfig}.
+ * The supported syntax is what guardrail patterns use: literals, {@code .}, character
+ * classes, {@code \s \d \w} and their negations, {@code \b}, groups, alternation,
+ * and the {@code ? * +} and {@code {m,n}} quantifiers. A pattern using anything else
+ * (anchors, backreferences, lookaround) is left out of the automaton and reported by
+ * {@link #fallbackPatterns()}, so the caller can match it as a regex instead.</p>
+ *
+ * <p>A {@code \b} depends on the next character, so a match ending in one is
+ * reported when that character is consumed, or by {@link #finish} at the end of the
+ * text.</p>
+ */
+@Slf4j
+public final class ToxicityAutomaton {
+
+    /**
+     * DFA states kept in the shared cache; beyond this, new states are still
+     * computed but not cached.
+     */
+    private static final int MAX_CACHED_STATES = 10_000;
+    private static final int MAX_REPEAT = 100;
+    private static final int ASCII = 128;
+
+    private final List<ToxicityPattern> patterns;
+    private final List<ToxicityPattern> fallbackPatterns;
+
+    // NFA: each state has at most one character transition plus epsilon transitions
+    private final CharPredicate[] charTest;
+    private final int[] charTarget;
+    private final int[][] epsilon;
+    private final int[] acceptOf;
+    // Word boundary assertions: the state moves to charTarget if the boundary holds
+    private final boolean[] boundary;
+    private final boolean hasBoundaries;
+
+    private final int[] startClosure;
+    private final State start;
+    private final Map<StateKey, State> cache = new ConcurrentHashMap<>();
+
+    private ToxicityAutomaton(List<ToxicityPattern> patterns, List<ToxicityPattern> fallbackPatterns,
+                              NfaBuilder nfa, int[] starts) {
+        this.patterns = List.copyOf(patterns);
+        this.fallbackPatterns = List.copyOf(fallbackPatterns);
+        int size = nfa.size();
+        this.charTest = nfa.charTest.toArray(new CharPredicate[0]);
+        this.charTarget = new int[size];
+        this.epsilon = new int[size][];
+        this.acceptOf = new int[size];
+        this.boundary = new boolean[size];
+        boolean anyBoundary = false;
+        for (int s = 0; s < size; s++) {
+            charTarget[s] = nfa.charTarget.get(s);
+            epsilon[s] = nfa.epsilon.get(s).stream().mapToInt(Integer::intValue).toArray();
+            acceptOf[s] = nfa.acceptOf.get(s);
+            boundary[s] = nfa.boundary.get(s);
+            anyBoundary |= boundary[s];
+        }
+        this.hasBoundaries = anyBoundary;
+        BitSet seen = new BitSet(size);
+        for (int s : starts) {
+            closure(s, seen, false);
+        }
+        this.startClosure = seen.stream().toArray();
+        this.start = intern(startClosure, false);
+    }
+
+    /**
+     * Compile patterns into one automaton. Patterns whose syntax is not supported are
+     * kept aside as {@link #fallbackPatterns()}.
+     */
+    public static ToxicityAutomaton compile(List<ToxicityPattern> patterns) {
+        NfaBuilder nfa = new NfaBuilder();
+        List<ToxicityPattern> compiled = new ArrayList<>();
+        List<ToxicityPattern> fallback = new ArrayList<>();
+        List<Integer> starts = new ArrayList<>();
+
+        for (ToxicityPattern pattern : patterns) {
+            Node node;
+            try {
+                node = new Parser(pattern.getRegex()).parse();
+            } catch (IllegalArgumentException e) {
+                log.info("Guardrail pattern {} is matched as a regex: {}", pattern.getCategory(), e.getMessage());
+                fallback.add(pattern);
+                continue;
+            }
+            int mark = nfa.size();
+            int begin = nfa.newState();
+            int end = nfa.compile(node, begin);
+            nfa.acceptOf.set(end, compiled.size());
+            starts.add(begin);
+            compiled.add(pattern);
+            log.trace("Guardrail pattern {} compiled to {} NFA states", pattern.getCategory(), nfa.size() - mark);
+        }
+        return new ToxicityAutomaton(compiled, fallback, nfa,
+                starts.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    /**
+     * Initial state of a stream.
+     */
+    public State start() {
+        return start;
+    }
+
+    /**
+     * Consume text and report every pattern whose match completes in it.
+     *
+     * @param state   current state of the stream
+     * @param text    next chunk of the stream
+     * @param onMatch called with the index in {@link #patterns()} of each completed
+     *                match; returning false stops consuming the text
+     * @return the state after the consumed text
+     */
+    public State advance(State state, CharSequence text, IntPredicate onMatch) {
+        for (int i = 0, n = text.length(); i < n; i++) {
+            State next = step(state, Character.toLowerCase(text.charAt(i)));
+            // A pattern is reported when it starts matching, not again while it stays matched
+            for (int pattern : next.accepts) {
+                if (!state.accepts(pattern) && !onMatch.test(pattern)) {
+                    return next;
+                }
+            }
+            state = next;
+        }
+        return state;
+    }
+
+    /**
+     * Report patterns whose match ends with a {@code \b} at the end of the text.
+     *
+     * @param state   state after the last {@link #advance} of the text
+     * @param onMatch as for {@link #advance}
+     */
+    public void finish(State state, IntPredicate onMatch) {
+        if (!state.afterWord) {
+            return;
+        }
+        BitSet expanded = resolveBoundaries(state);
+        for (int s = expanded.nextSetBit(0); s >= 0; s = expanded.nextSetBit(s + 1)) {
+            int pattern = acceptOf[s];
+            if (pattern >= 0 && !state.accepts(pattern) && !onMatch.test(pattern)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Patterns in the automaton, indexed as reported by {@link #advance}.
+     */
+    public List<ToxicityPattern> patterns() {
+        return patterns;
+    }
+
+    /**
+     * Patterns using syntax the automaton does not support.
+     */
+    public List<ToxicityPattern> fallbackPatterns() {
+        return fallbackPatterns;
+    }
+
+    public int cachedStates() {
+        return cache.size();
+    }
+
+    private State step(State state, char c) {
+        State next;
+        if (c < ASCII) {
+            next = state.ascii[c];
+            if (next == null) {
+                next = transition(state, c);
+                if (next.cached) {
+                    state.ascii[c] = next;
+                }
+            }
+            return next;
+        }
+        next = state.other.get(c);
+        if (next == null) {
+            next = transition(state, c);
+            if (next.cached) {
+                state.other.put(c, next);
+            }
+        }
+        return next;
+    }
+
+    private State transition(State state, char c) {
+        boolean word = isWord(c);
+        BitSet seen = new BitSet(charTarget.length);
+        int[] live = state.nfa;
+        if (hasBoundaries && state.afterWord != word) {
+            // Boundaries between the previous character and c hold
+            BitSet expanded = resolveBoundaries(state);
+            live = expanded.stream().toArray();
+            // Matches completed by a boundary are accepted before c: carry them over
+            for (int s : live) {
+                if (acceptOf[s] >= 0 && !state.accepts(acceptOf[s])) {
+                    seen.set(s);
+                }
+            }
+        }
+        for (int s : live) {
+            CharPredicate test = charTest[s];
+            if (test != null && test.test(c)) {
+                closure(charTarget[s], seen, false);
+            }
+        }
+        // Unanchored: a new match may start at every position
+        for (int s : startClosure) {
+            seen.set(s);
+        }
+        return intern(seen.stream().toArray(), hasBoundaries && word);
+    }
+
+    /**
+     * The state's NFA states plus those reached through its word boundaries.
+     */
+    private BitSet resolveBoundaries(State state) {
+        BitSet expanded = new BitSet(charTarget.length);
+        for (int s : state.nfa) {
+            closure(s, expanded, true);
+        }
+        return expanded;
+    }
+
+    private void closure(int state, BitSet seen, boolean crossBoundaries) {
+        if (seen.get(state)) {
+            return;
+        }
+        seen.set(state);
+        for (int next : epsilon[state]) {
+            closure(next, seen, crossBoundaries);
+        }
+        if (crossBoundaries && boundary[state]) {
+            closure(charTarget[state], seen, true);
+        }
+    }
+
+    private State intern(int[] nfaStates, boolean afterWord) {
+        StateKey key = new StateKey(nfaStates, afterWord);
+        State existing = cache.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        int[] accepts = Arrays.stream(nfaStates).map(s -> acceptOf[s]).filter(p -> p >= 0).distinct().toArray();
+        if (cache.size() >= MAX_CACHED_STATES) {
+            return new State(nfaStates, accepts, afterWord, false);
+        }
+        State created = new State(nfaStates, accepts, afterWord, true);
+        existing = cache.putIfAbsent(key, created);
+        return existing != null ? existing : created;
+    }
+
+    /**
+     * A position in the automaton: the set of live NFA states, with cached outgoing
+     * transitions. Immutable apart from the transition cache, whose racy updates are
+     * benign (a miss just recomputes the same state).
+     */
+    public static final class State {
+        private final int[] nfa;
+        private final int[] accepts;
+        // Whether the last character consumed was a word character (only tracked with \b)
+        private final boolean afterWord;
+        private final boolean cached;
+        private final State[] ascii = new State[ASCII];
+        private final Map<Character, State> other = new ConcurrentHashMap<>();
+
+        private State(int[] nfa, int[] accepts, boolean afterWord, boolean cached) {
+            this.nfa = nfa;
+            this.accepts = accepts;
+            this.afterWord = afterWord;
+            this.cached = cached;
+        }
+
+        private boolean accepts(int pattern) {
+            for (int accepted : accepts) {
+                if (accepted == pattern) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    private record StateKey(int[] nfa, boolean afterWord) {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof StateKey other && afterWord == other.afterWord && Arrays.equals(nfa, other.nfa);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * Arrays.hashCode(nfa) + (afterWord ? 1 : 0);
+        }
+    }
+
+    @FunctionalInterface
+    private interface CharPredicate {
+        boolean test(char c);
+    }
+
+    // ----------------------------------------------------------------- NFA construction
+
+    private static final class NfaBuilder {
+        private final List<CharPredicate> charTest = new ArrayList<>();
+        private final List<Integer> charTarget = new ArrayList<>();
+        private final List<List<Integer>> epsilon = new ArrayList<>();
+        private final List<Integer> acceptOf = new ArrayList<>();
+        private final List<Boolean> boundary = new ArrayList<>();
+
+        int size() {
+            return charTest.size();
+        }
+
+        int newState() {
+            charTest.add(null);
+            charTarget.add(-1);
+            epsilon.add(new ArrayList<>(2));
+            acceptOf.add(-1);
+            boundary.add(false);
+            return size() - 1;
+        }
+
+        /**
+         * Append the node after {@code from}, returning the state where it ends.
+         */
+        int compile(Node node, int from) {
+            if (node instanceof Chars chars) {
+                int state = newState();
+                epsilon.get(from).add(state);
+                int end = newState();
+                charTest.set(state, chars.test());
+                charTarget.set(state, end);
+                return end;
+            }
+            if (node instanceof Boundary) {
+                int state = newState();
+                epsilon.get(from).add(state);
+                int end = newState();
+                boundary.set(state, true);
+                charTarget.set(state, end);
+                return end;
+            }
+            if (node instanceof Concat concat) {
+                int end = from;
+                for (Node part : concat.parts()) {
+                    end = compile(part, end);
+                }
+                return end;
+            }
+            if (node instanceof Alternation alternation) {
+                int end = newState();
+                for (Node option : alternation.options()) {
+                    epsilon.get(compile(option, from)).add(end);
+                }
+                return end;
+            }
+            Repeat repeat = (Repeat) node;
+            int end = from;
+            for (int i = 0; i < repeat.min(); i++) {
+                end = compile(repeat.node(), end);
+            }
+            if (repeat.max() < 0) {
+                int loop = newState();
+                epsilon.get(end).add(loop);
+                epsilon.get(compile(repeat.node(), loop)).add(loop);
+                return loop;
+            }
+            int exit = newState();
+            epsilon.get(end).add(exit);
+            for (int i = repeat.min(); i < repeat.max(); i++) {
+                end = compile(repeat.node(), end);
+                epsilon.get(end).add(exit);
+            }
+            return exit;
+        }
+    }
+
+    private sealed interface Node permits Chars, Boundary, Concat, Alternation, Repeat {
+    }
+
+    private record Chars(CharPredicate test) implements Node {
+    }
+
+    private record Boundary() implements Node {
+    }
+
+    private record Concat(List<Node> parts) implements Node {
+    }
+
+    private record Alternation(List<Node> options) implements Node {
+    }
+
+    private record Repeat(Node node, int min, int max) implements Node {
+    }
+
+    // ----------------------------------------------------------------- regex parsing
+
+    /**
+     * Recursive-descent parser for the supported regex subset. Literals are lowered,
+     * and classes also accept the upper-case form of a character, to match the
+     * lower-cased input.
+     */
+    private static final class Parser {
+        private final String regex;
+        private int pos;
+
+        Parser(String regex) {
+            this.regex = regex;
+        }
+
+        Node parse() {
+            Node node = alternation();
+            if (pos < regex.length()) {
+                throw unsupported("unexpected '" + regex.charAt(pos) + "'");
+            }
+            return node;
+        }
+
+        private Node alternation() {
+            List<Node> options = new ArrayList<>();
+            options.add(concat());
+            while (peek('|')) {
+                pos++;
+                options.add(concat());
+            }
+            return options.size() == 1 ? options.get(0) : new Alternation(options);
+        }
+
+        private Node concat() {
+            List<Node> parts = new ArrayList<>();
+            while (pos < regex.length() && !peek('|') && !peek(')')) {
+                Node atom = atom();
+                if (atom != null) {
+                    parts.add(quantified(atom));
+                }
+            }
+            return new Concat(parts);
+        }
+
+        private Node atom() {
+            char c = regex.charAt(pos++);
+            switch (c) {
+                case '(':
+                    if (peek('?')) {
+                        if (regex.startsWith("?i)", pos)) {
+                            pos += 3;
+                            return null;
+                        }
+                        if (!regex.startsWith("?:", pos)) {
+                            throw unsupported("group construct at " + pos);
+                        }
+                        pos += 2;
+                    }
+                    Node group = alternation();
+                    expect(')');
+                    return group;
+                case '[':
+                    return new Chars(characterClass());
+                case '.':
+                    return new Chars(ch -> ch != '\n' && ch != '\r' && ch != '\u0085' && ch != 0x2028 && ch != 0x2029);
+                case '\\':
+                    if (peek('b')) {
+                        pos++;
+                        return new Boundary();
+                    }
+                    return new Chars(escape());
+                case '^', '$':
+                    throw unsupported("anchor '" + c + "'");
+                case '*', '+', '?', '{':
+                    throw unsupported("dangling quantifier at " + (pos - 1));
+                default:
+                    char lower = Character.toLowerCase(c);
+                    return new Chars(ch -> ch == lower);
+            }
+        }
+
+        private Node quantified(Node atom) {
+            if (pos >= regex.length()) {
+                return atom;
+            }
+            int min;
+            int max;
+            switch (regex.charAt(pos)) {
+                case '?' -> {
+                    min = 0;
+                    max = 1;
+                }
+                case '*' -> {
+                    min = 0;
+                    max = -1;
+                }
+                case '+' -> {
+                    min = 1;
+                    max = -1;
+                }
+                case '{' -> {
+                    int close = regex.indexOf('}', pos);
+                    if (close < 0) {
+                        throw unsupported("unterminated repetition");
+                    }
+                    String[] bounds = regex.substring(pos + 1, close).split(",", -1);
+                    try {
+                        min = Integer.parseInt(bounds[0].trim());
+                        max = bounds.length == 1 ? min
+                                : bounds[1].isBlank() ? -1 : Integer.parseInt(bounds[1].trim());
+                    } catch (NumberFormatException e) {
+                        throw unsupported("repetition " + regex.substring(pos, close + 1));
+                    }
+                    if (min > MAX_REPEAT || max > MAX_REPEAT || (max >= 0 && max < min)) {
+                        throw unsupported("repetition bound " + regex.substring(pos, close + 1));
+                    }
+                    pos = close;
+                }
+                default -> {
+                    return atom;
+                }
+            }
+            pos++;
+            // Lazy quantifiers find the same matches; possessive ones do not
+            if (peek('?')) {
+                pos++;
+            } else if (peek('+')) {
+                throw unsupported("possessive quantifier");
+            }
+            return new Repeat(atom, min, max);
+        }
+
+        private CharPredicate characterClass() {
+            boolean negated = peek('^');
+            if (negated) {
+                pos++;
+            }
+            List<CharPredicate> members = new ArrayList<>();
+            boolean first = true;
+            while (pos < regex.length() && (first || !peek(']'))) {
+                first = false;
+                char c = regex.charAt(pos++);
+                if (c == '[' || (c == '&' && peek('&'))) {
+                    throw unsupported("nested character class");
+                }
+                if (c == '\\') {
+                    members.add(escape());
+                    continue;
+                }
+                if (peek('-') && pos + 1 < regex.length() && regex.charAt(pos + 1) != ']') {
+                    char high = regex.charAt(pos + 1);
+                    if (high == '\\') {
+                        throw unsupported("escaped range bound");
+                    }
+                    pos += 2;
+                    char low = c;
+                    members.add(ch -> ch >= low && ch <= high);
+                } else {
+                    members.add(ch -> ch == c);
+                }
+            }
+            expect(']');
+            CharPredicate[] tests = members.toArray(new CharPredicate[0]);
+            CharPredicate any = ch -> {
+                char upper = Character.toUpperCase(ch);
+                for (CharPredicate test : tests) {
+                    if (test.test(ch) || test.test(upper)) {
+                        return true;
+                    }
+                }
+                return false;
+            };
+            return negated ? ch -> !any.test(ch) : any;
+        }
+
+        private CharPredicate escape() {
+            if (pos >= regex.length()) {
+                throw unsupported("trailing backslash");
+            }
+            char c = regex.charAt(pos++);
+            return switch (c) {
+                case 's' -> ToxicityAutomaton::isSpace;
+                case 'S' -> ch -> !isSpace(ch);
+                case 'd' -> ch -> ch >= '0' && ch <= '9';
+                case 'D' -> ch -> ch < '0' || ch > '9';
+                case 'w' -> ToxicityAutomaton::isWord;
+                case 'W' -> ch -> !isWord(ch);
+                case 't' -> ch -> ch == '\t';
+                case 'n' -> ch -> ch == '\n';
+                case 'r' -> ch -> ch == '\r';
+                case 'f' -> ch -> ch == '\f';
+                default -> {
+                    if (Character.isLetterOrDigit(c)) {
+                        throw unsupported("escape \\" + c);
+                    }
+                    yield ch -> ch == c;
+                }
+            };
+        }
+
+        private boolean peek(char c) {
+            return pos < regex.length() && regex.charAt(pos) == c;
+        }
+
+        private void expect(char c) {
+            if (!peek(c)) {
+                throw unsupported("expected '" + c + "' at " + pos);
+            }
+            pos++;
+        }
+
+        private IllegalArgumentException unsupported(String what) {
+            return new IllegalArgumentException("unsupported regex syntax (" + what + ") in " + regex);
+        }
+    }
+
+    private static boolean isSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static boolean isWord(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+}
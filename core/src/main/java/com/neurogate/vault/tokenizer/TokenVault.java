@@ -3,34 +3,56 @@ package com.neurogate.vault.tokenizer;
 import com.neurogate.vault.model.PiiEntity;
 import com.neurogate.vault.model.PiiType;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.annotation.Scope;
-import org.springframework.context.annotation.ScopedProxyMode;
-import org.springframework.stereotype.Component;
-import org.springframework.web.context.WebApplicationContext;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Request-scoped vault for storing PII token mappings.
+ * Vault for the PII token mappings of one request.
+ *
+ * <p>A vault is created per request and handed along explicitly, or through the
+ * Reactor context under {@link #CONTEXT_KEY}, rather than through a request-scoped
+ * bean proxy, so it also works on event-loop and virtual threads where no servlet
+ * request is bound.</p>
+ *
+ * <p>Tokens have the form {@code <CODE_N>} (e.g. {@code <EMAIL_1>}), where N counts
+ * values of that type from 1. Values are stored per type at index N - 1, so a token
+ * resolves by parsing it rather than hashing it, and {@link #detokenizeText} finds
+ * all tokens in a single scan of the text.</p>
+ *
+ * <p>Filled while a request is sanitized and read afterwards; not meant for
+ * concurrent writers.</p>
  */
 @Slf4j
-@Component
-@Scope(value = WebApplicationContext.SCOPE_REQUEST, proxyMode = ScopedProxyMode.TARGET_CLASS)
 public class TokenVault {
 
-    // Token format: <EMAIL_1>, <SSN_2>, etc.
-    private static final String TOKEN_FORMAT = "<%s_%d>";
+    /**
+     * Reactor context key under which the vault of the current request is stored.
+     */
+    public static final String CONTEXT_KEY = TokenVault.class.getName();
 
-    // Maps: token -> original value
-    private final Map<String, String> tokenToValue = new ConcurrentHashMap<>();
+    private static final PiiType[] TYPES = PiiType.values();
 
-    // Maps: original value -> token (for idempotency)
-    private final Map<String, String> valueToToken = new ConcurrentHashMap<>();
+    // Low-numbered tokens are shared by all vaults instead of built per request
+    private static final int CACHED_TOKENS = 64;
+    private static final String[][] TOKEN_CACHE = new String[TYPES.length][CACHED_TOKENS];
 
-    // Counters for each PII type
-    private final Map<PiiType, AtomicInteger> counters = new ConcurrentHashMap<>();
+    static {
+        for (PiiType type : TYPES) {
+            for (int n = 1; n <= CACHED_TOKENS; n++) {
+                TOKEN_CACHE[type.ordinal()][n - 1] = "<" + type.getCode() + "_" + n + ">";
+            }
+        }
+    }
+
+    // Original values per type, at index N - 1 of their token
+    @SuppressWarnings("unchecked")
+    private final List<String>[] values = new List[TYPES.length];
+
+    // Maps: original value -> token (for idempotency)
+    private final Map<String, String> valueToToken = new HashMap<>();
 
     /**
      * Create a token for a PII entity
@@ -46,18 +68,21 @@ public class TokenVault {
             return existingToken;
         }
 
-        // Generate new token
-        int counter = counters.computeIfAbsent(entity.getType(), k -> new AtomicInteger(0))
-                .incrementAndGet();
-
-        String token = String.format(TOKEN_FORMAT, entity.getType().getCode(), counter);
+        int ordinal = entity.getType().ordinal();
+        List<String> typeValues = values[ordinal];
+        if (typeValues == null) {
+            typeValues = new ArrayList<>();
+            values[ordinal] = typeValues;
+        }
+        typeValues.add(entity.getValue());
 
-        // Store bidirectional mapping
-        tokenToValue.put(token, entity.getValue());
+        String token = token(entity.getType(), typeValues.size());
         valueToToken.put(entity.getValue(), token);
 
-        log.debug("Created token {} for {} (type: {})",
-                token, maskValue(entity.getValue()), entity.getType());
+        if (log.isDebugEnabled()) {
+            log.debug("Created token {} for {} (type: {})",
+                    token, maskValue(entity.getValue()), entity.getType());
+        }
 
         return token;
     }
@@ -69,7 +94,7 @@ public class TokenVault {
      * @return Original value, or null if token not found
      */
     public String detokenize(String token) {
-        String value = tokenToValue.get(token);
+        String value = token != null ? lookup(token, 0, token.length()) : null;
         if (value == null) {
             log.warn("Attempted to detokenize unknown token: {}", token);
         }
@@ -80,55 +105,151 @@ public class TokenVault {
      * Replace all tokens in text with original values
      *
      * @param text Text containing tokens
-     * @return Text with tokens replaced by original values
+     * @return Text with tokens replaced by original values; the same instance if
+     *         there was nothing to replace
      */
     public String detokenizeText(String text) {
-        if (text == null || text.isEmpty() || tokenToValue.isEmpty()) {
+        if (text == null || text.isEmpty() || !hasTokens()) {
             return text;
         }
 
-        String result = text;
-        for (Map.Entry<String, String> entry : tokenToValue.entrySet()) {
-            result = result.replace(entry.getKey(), entry.getValue());
+        StringBuilder result = null;
+        // End of the text already copied to the result
+        int copied = 0;
+        int open = text.indexOf('<');
+        while (open >= 0) {
+            int close = text.indexOf('>', open + 1);
+            if (close < 0) {
+                break;
+            }
+            // A '<' inside the candidate starts a new one, e.g. "a < b <EMAIL_1>"
+            int nextOpen = text.lastIndexOf('<', close);
+            if (nextOpen != open) {
+                open = nextOpen;
+            }
+
+            String value = lookup(text, open, close + 1);
+            if (value != null) {
+                if (result == null) {
+                    result = new StringBuilder(text.length() + 64);
+                }
+                result.append(text, copied, open).append(value);
+                copied = close + 1;
+            }
+            open = text.indexOf('<', close + 1);
         }
 
-        return result;
+        if (result == null) {
+            return text;
+        }
+        return result.append(text, copied, text.length()).toString();
     }
 
     /**
      * Get all token mappings (for debugging/testing)
      */
     public Map<String, String> getTokenMappings() {
-        return Map.copyOf(tokenToValue);
+        return Map.copyOf(getAllTokens());
     }
 
     /**
      * Get statistics about tokenization
      */
     public TokenStats getStats() {
-        return new TokenStats(
-                tokenToValue.size(),
-                counters.entrySet().stream()
-                        .collect(java.util.stream.Collectors.toMap(
-                                e -> e.getKey().name(),
-                                e -> e.getValue().get())));
+        Map<String, Integer> tokensByType = new HashMap<>();
+        for (PiiType type : TYPES) {
+            List<String> typeValues = values[type.ordinal()];
+            if (typeValues != null) {
+                tokensByType.put(type.name(), typeValues.size());
+            }
+        }
+        return new TokenStats(valueToToken.size(), tokensByType);
     }
 
     /**
      * Clear all tokens (for testing)
      */
     public void clear() {
-        tokenToValue.clear();
+        java.util.Arrays.fill(values, null);
         valueToToken.clear();
-        counters.clear();
     }
 
     public boolean hasTokens() {
-        return !tokenToValue.isEmpty();
+        return !valueToToken.isEmpty();
     }
 
     public Map<String, String> getAllTokens() {
-        return new java.util.HashMap<>(tokenToValue);
+        Map<String, String> tokens = new HashMap<>();
+        valueToToken.forEach((value, token) -> tokens.put(token, value));
+        return tokens;
+    }
+
+    /**
+     * Token for the n-th value of a type, e.g. {@code <EMAIL_1>}.
+     */
+    static String token(PiiType type, int n) {
+        if (n <= CACHED_TOKENS) {
+            return TOKEN_CACHE[type.ordinal()][n - 1];
+        }
+        return "<" + type.getCode() + "_" + n + ">";
+    }
+
+    /**
+     * Value of the token spanning {@code text[start, end)}, or null if it is not a
+     * token of this vault.
+     */
+    private String lookup(CharSequence text, int start, int end) {
+        // Shortest token is "<X_1>"
+        if (end - start < 5 || text.charAt(start) != '<' || text.charAt(end - 1) != '>') {
+            return null;
+        }
+
+        // Counter: digits before '>', preceded by '_'
+        int n = 0;
+        int digitsStart = end - 1;
+        while (digitsStart > start && isDigit(text.charAt(digitsStart - 1))) {
+            digitsStart--;
+        }
+        int underscore = digitsStart - 1;
+        if (digitsStart == end - 1 || end - 1 - digitsStart > 9 || text.charAt(underscore) != '_'
+                || text.charAt(digitsStart) == '0') {
+            return null;
+        }
+        for (int i = digitsStart; i < end - 1; i++) {
+            n = n * 10 + (text.charAt(i) - '0');
+        }
+
+        PiiType type = typeOf(text, start + 1, underscore);
+        if (type == null) {
+            return null;
+        }
+        List<String> typeValues = values[type.ordinal()];
+        return typeValues != null && n <= typeValues.size() ? typeValues.get(n - 1) : null;
+    }
+
+    private static PiiType typeOf(CharSequence text, int start, int end) {
+        int length = end - start;
+        for (PiiType type : TYPES) {
+            String code = type.getCode();
+            if (code.length() != length) {
+                continue;
+            }
+            boolean matches = true;
+            for (int i = 0; i < length; i++) {
+                if (text.charAt(start + i) != code.charAt(i)) {
+                    matches = false;
+                    break;
+                }
+            }
+            if (matches) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
     }
 
     /**
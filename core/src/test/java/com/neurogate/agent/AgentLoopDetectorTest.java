@@ -0,0 +1,135 @@
+package com.neurogate.agent;
+
+import com.neurogate.sentinel.model.ChatRequest;
+import com.neurogate.sentinel.model.Message;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+
+class AgentLoopDetectorTest {
+
+    private static final String[] WORDS = {
+            "call", "the", "search", "tool", "with", "query", "result", "returned", "rows",
+            "observation", "thought", "next", "step", "is", "to", "read", "file", "and"
+    };
+
+    private SimpleMeterRegistry meterRegistry;
+    private AgentLoopDetector detector;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        detector = new AgentLoopDetector(meterRegistry);
+    }
+
+    @Test
+    void validateRequest_rejectsThirdIdenticalRequest() {
+        detector.validateRequest(request("s1", "Search for the weather in Paris"));
+        detector.validateRequest(request("s1", "Search for the weather in Paris"));
+
+        assertThatThrownBy(() -> detector.validateRequest(request("s1", "Search for the weather in Paris")))
+                .isInstanceOf(AgentLoopException.class)
+                .hasMessageContaining("s1");
+        assertThat(meterRegistry.get("neurogate.agent.loop.detected").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void validateRequest_rejectsNearDuplicateLongPrompts() {
+        String prompt = transcript(new Random(7), 2000);
+
+        detector.validateRequest(request("s1", prompt));
+        detector.validateRequest(request("s1", edit(prompt, 40, 'x')));
+
+        assertThatThrownBy(() -> detector.validateRequest(request("s1", edit(prompt, 50, 'y'))))
+                .isInstanceOf(AgentLoopException.class);
+    }
+
+    @Test
+    void validateRequest_allowsProgressingRequests() {
+        Random random = new Random(11);
+
+        for (int i = 0; i < 5; i++) {
+            ChatRequest request = request("s1", transcript(random, 2000));
+            assertDoesNotThrow(() -> detector.validateRequest(request));
+        }
+        assertThat(meterRegistry.get("neurogate.agent.loop.detection.latency").timer().count()).isEqualTo(5);
+    }
+
+    @Test
+    void validateRequest_skipsEditDistanceForUnrelatedPrompts() {
+        String prompt = transcript(new Random(7), 2000);
+        String report = "The quarterly report shows revenue growth of twelve percent across all regions. "
+                .repeat(25).substring(0, 2000);
+
+        detector.validateRequest(request("s1", prompt));
+        detector.validateRequest(request("s1", report));
+        detector.validateRequest(request("s1", prompt));
+
+        assertThat(meterRegistry.get("neurogate.agent.loop.prefiltered").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void validateRequest_tracksSessionsSeparately() {
+        detector.validateRequest(request("s1", "Retry the failed step"));
+        detector.validateRequest(request("s2", "Retry the failed step"));
+        detector.validateRequest(request("s1", "Retry the failed step"));
+
+        assertDoesNotThrow(() -> detector.validateRequest(request("s2", "Retry the failed step")));
+    }
+
+    @Test
+    void validateRequest_ignoresRequestsWithoutSession() {
+        for (int i = 0; i < 5; i++) {
+            assertDoesNotThrow(() -> detector.validateRequest(request(null, "Same prompt")));
+        }
+        assertThat(meterRegistry.get("neurogate.agent.loop.detection.latency").timer().count()).isZero();
+    }
+
+    @Test
+    void validateRequest_keepsSimilarityThresholdAtFivePercent() {
+        String prompt = "a".repeat(100);
+
+        // 5 of 100 characters changed is still 95% similar
+        detector.validateRequest(request("s1", prompt));
+        detector.validateRequest(request("s1", "bbbbb" + prompt.substring(5)));
+        assertThatThrownBy(() -> detector.validateRequest(request("s1", prompt)))
+                .isInstanceOf(AgentLoopException.class);
+
+        // 6 of 100 is not
+        detector.validateRequest(request("s2", prompt));
+        detector.validateRequest(request("s2", "bbbbbb" + prompt.substring(6)));
+        assertDoesNotThrow(() -> detector.validateRequest(request("s2", prompt)));
+    }
+
+    private static String transcript(Random random, int length) {
+        StringBuilder text = new StringBuilder();
+        while (text.length() < length) {
+            text.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        return text.substring(0, length);
+    }
+
+    // Replaces every step-th character
+    private static String edit(String text, int step, char replacement) {
+        StringBuilder edited = new StringBuilder(text);
+        for (int i = step; i < edited.length(); i += step) {
+            edited.setCharAt(i, replacement);
+        }
+        return edited.toString();
+    }
+
+    private static ChatRequest request(String sessionId, String content) {
+        return ChatRequest.builder()
+                .model("gpt-4o")
+                .sessionId(sessionId)
+                .messages(List.of(Message.builder().role("user").content(content).build()))
+                .build();
+    }
+}
@@ -0,0 +1,84 @@
+package com.neurogate.agent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BandedEditDistanceTest {
+
+    @Test
+    void distance_matchesFullLevenshteinWithinLimit() {
+        Random random = new Random(42);
+
+        for (int trial = 0; trial < 2000; trial++) {
+            String a = randomText(random, random.nextInt(60));
+            String b = random.nextBoolean() ? mutate(random, a, random.nextInt(8)) : randomText(random, random.nextInt(60));
+            int limit = random.nextInt(12);
+
+            int full = levenshtein(a, b);
+            assertThat(BandedEditDistance.distance(a, b, limit))
+                    .as("%s / %s, limit %d", a, b, limit)
+                    .isEqualTo(full <= limit ? full : limit + 1);
+        }
+    }
+
+    @Test
+    void distance_skipsCommonPrefixAndSuffix() {
+        String prefix = "x".repeat(5000);
+
+        assertThat(BandedEditDistance.distance(prefix + "abc" + prefix, prefix + "adc" + prefix, 0)).isEqualTo(1);
+        assertThat(BandedEditDistance.distance(prefix + "abc" + prefix, prefix + "adc" + prefix, 1)).isEqualTo(1);
+    }
+
+    @Test
+    void distance_handlesEmptyTexts() {
+        assertThat(BandedEditDistance.distance("", "", 0)).isZero();
+        assertThat(BandedEditDistance.distance("", "abc", 5)).isEqualTo(3);
+        assertThat(BandedEditDistance.distance("abc", "", 1)).isEqualTo(2);
+    }
+
+    private static String randomText(Random random, int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            text.append((char) ('a' + random.nextInt(4)));
+        }
+        return text.toString();
+    }
+
+    private static String mutate(Random random, String text, int edits) {
+        StringBuilder mutated = new StringBuilder(text);
+        for (int e = 0; e < edits; e++) {
+            char c = (char) ('a' + random.nextInt(4));
+            if (mutated.length() == 0) {
+                mutated.append(c);
+                continue;
+            }
+            int at = random.nextInt(mutated.length());
+            switch (random.nextInt(3)) {
+                case 0 -> mutated.setCharAt(at, c);
+                case 1 -> mutated.insert(at, c);
+                default -> mutated.deleteCharAt(at);
+            }
+        }
+        return mutated.toString();
+    }
+
+    private static int levenshtein(String x, String y) {
+        int[][] dp = new int[x.length() + 1][y.length() + 1];
+        for (int i = 0; i <= x.length(); i++) {
+            for (int j = 0; j <= y.length(); j++) {
+                if (i == 0) {
+                    dp[i][j] = j;
+                } else if (j == 0) {
+                    dp[i][j] = i;
+                } else {
+                    dp[i][j] = Math.min(Math.min(dp[i - 1][j - 1] + (x.charAt(i - 1) == y.charAt(j - 1) ? 0 : 1),
+                            dp[i - 1][j] + 1), dp[i][j - 1] + 1);
+                }
+            }
+        }
+        return dp[x.length()][y.length()];
+    }
+}
@@ -63,6 +63,7 @@ class BudgetManagementServiceTest {
 
         // Update spending by 15 -> Total 85 (85% > 80%)
         budgetManagementService.updateSpending("user-1", BudgetAlert.EntityType.USER, new BigDecimal("15.00"));
+        budgetManagementService.flushSpending();
 
         // Verify alert triggered
         assertTrue(mockAlert.getAlertTriggered());
@@ -81,12 +82,48 @@ class BudgetManagementServiceTest {
 
         // Update by 10 -> Total 20 (20%)
         budgetManagementService.updateSpending("user-1", BudgetAlert.EntityType.USER, new BigDecimal("10.00"));
+        budgetManagementService.flushSpending();
 
         assertFalse(mockAlert.getAlertTriggered());
         verify(notificationService, never()).sendBudgetAlert(any());
         verify(budgetAlertRepository).save(mockAlert);
     }
 
+    @Test
+    void testUpdateSpending_AppliesSummedSpendingOncePerFlush() {
+        BudgetAlert mockAlert = BudgetAlert.createForUser(
+                "user-1", new BigDecimal("100.00"), BudgetAlert.BudgetPeriod.MONTHLY, 80, true);
+        mockAlert.setCurrentSpending(new BigDecimal("10.00"));
+
+        when(budgetAlertRepository.findActiveAlert(eq("user-1"), eq(BudgetAlert.EntityType.USER), any(Instant.class)))
+                .thenReturn(Optional.of(mockAlert));
+
+        for (int i = 0; i < 3; i++) {
+            budgetManagementService.updateSpending("user-1", BudgetAlert.EntityType.USER, new BigDecimal("5.00"));
+        }
+        verify(budgetAlertRepository, never()).findActiveAlert(any(), any(), any());
+        assertEquals(1, budgetManagementService.flushSpending());
+        assertEquals(0, budgetManagementService.flushSpending());
+
+        assertEquals(new BigDecimal("25.00"), mockAlert.getCurrentSpending());
+        verify(budgetAlertRepository, times(1)).save(mockAlert);
+    }
+
+    @Test
+    void testShouldThrottle_CountsSpendingNotFlushedYet() {
+        BudgetAlert mockAlert = BudgetAlert.createForUser(
+                "user-1", new BigDecimal("100.00"), BudgetAlert.BudgetPeriod.MONTHLY, 80, true);
+        mockAlert.setCurrentSpending(new BigDecimal("95.00"));
+
+        when(budgetAlertRepository.findActiveAlert(eq("user-1"), eq(BudgetAlert.EntityType.USER), any(Instant.class)))
+                .thenReturn(Optional.of(mockAlert));
+
+        assertFalse(budgetManagementService.shouldThrottle("user-1"));
+        budgetManagementService.updateSpending("user-1", BudgetAlert.EntityType.USER, new BigDecimal("5.00"));
+        assertTrue(budgetManagementService.shouldThrottle("user-1"));
+        budgetManagementService.flushSpending();
+    }
+
     @Test
     void testShouldThrottle() {
         BudgetAlert mockAlert = BudgetAlert.createForUser(
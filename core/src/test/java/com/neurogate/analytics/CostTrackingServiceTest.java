@@ -0,0 +1,112 @@
+package com.neurogate.analytics;
+
+import com.neurogate.config.PricingConfig;
+import com.neurogate.router.intelligence.ComplexityAnalyzer;
+import com.neurogate.sentinel.model.ChatRequest;
+import com.neurogate.sentinel.model.ChatResponse;
+import com.neurogate.sentinel.model.Message;
+import com.neurogate.sentinel.model.Usage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class CostTrackingServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UsageRecordWriter usageRecordWriter;
+    private CostTrackingService costTrackingService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        usageRecordWriter = new UsageRecordWriter(jdbcTemplate, meterRegistry, 2, 100, 10);
+        costTrackingService = new CostTrackingService(usageRecordWriter, new ComplexityAnalyzer(), new PricingConfig());
+    }
+
+    @AfterEach
+    void tearDown() {
+        usageRecordWriter.shutdown();
+    }
+
+    @Test
+    void recordUsage_queuesRecordWithoutDatabaseIo() {
+        costTrackingService.recordUsage(new ChatRequest(), response("resp-1", "gemini-fallback"),
+                "user-1", "team-1", null, 120);
+
+        verifyNoInteractions(jdbcTemplate);
+        assertThat(meterRegistry.get("neurogate.analytics.ingest.queue.depth").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void usageRecordWriter_insertsQueuedRecordsInOneBatch() {
+        costTrackingService.recordUsage(new ChatRequest(), response("resp-1", "openai"), "user-1", null, null, 120);
+        costTrackingService.recordUsage(new ChatRequest(), response("resp-2", "anthropic-fallback"),
+                "user-1", null, null, 80, 42);
+
+        usageRecordWriter.start();
+        usageRecordWriter.shutdown();
+
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(UsageRecordWriter.INSERT_SQL), batch.capture());
+        assertThat(batch.getValue()).hasSize(2);
+        assertThat(batch.getValue().get(1)).contains("anthropic", "resp-2", 80L, 42);
+        assertThat(meterRegistry.get("neurogate.analytics.ingest.batch.size").summary().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("neurogate.analytics.ingest.written").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recordUsage_withoutRoutingScore_scoresRequestContent() {
+        ChatRequest request = ChatRequest.builder()
+                .messages(List.of(Message.builder().role("user")
+                        .content("Explain step-by-step how to optimize this SQL query").build()))
+                .build();
+        int expected = new ComplexityAnalyzer().analyze(request.content()).getOverallScore();
+
+        costTrackingService.recordUsage(request, response("resp-1", "openai"), "user-1", null, null, 120);
+        usageRecordWriter.start();
+        usageRecordWriter.shutdown();
+
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(UsageRecordWriter.INSERT_SQL), batch.capture());
+        assertThat(batch.getValue().get(0)).contains(expected);
+    }
+
+    @Test
+    void usageRecordWriter_dropsRecordsWhenQueueIsFull() {
+        for (int i = 0; i < 3; i++) {
+            costTrackingService.recordUsage(new ChatRequest(), response("resp-" + i, "openai"),
+                    "user-1", null, null, 100);
+        }
+
+        assertThat(meterRegistry.get("neurogate.analytics.ingest.dropped").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("neurogate.analytics.ingest.queue.depth").gauge().value()).isEqualTo(2.0);
+    }
+
+    private static ChatResponse response(String id, String route) {
+        return ChatResponse.builder()
+                .id(id)
+                .model("unpriced-model")
+                .route(route)
+                .usage(Usage.builder().promptTokens(1000).completionTokens(500).totalTokens(1500).build())
+                .build();
+    }
+}
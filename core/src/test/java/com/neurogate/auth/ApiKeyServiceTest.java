@@ -0,0 +1,155 @@
+package com.neurogate.auth;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ApiKeyServiceTest {
+
+    private static final String RAW_KEY = "ng_live_abcdEFGHijklMNOPqrstUVWXyz012345";
+
+    @Mock
+    private ApiKeyRepository apiKeyRepository;
+
+    @Mock
+    private OrganizationRepository organizationRepository;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private VerifiedApiKeyCache verifiedKeyCache;
+    private ApiKeyLastUsedRecorder lastUsedRecorder;
+    private ApiKeyService apiKeyService;
+    private ApiKey apiKey;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        verifiedKeyCache = new VerifiedApiKeyCache(meterRegistry, true, 1000, 60);
+        lastUsedRecorder = new ApiKeyLastUsedRecorder(jdbcTemplate, meterRegistry);
+        apiKeyService = new ApiKeyService(apiKeyRepository, organizationRepository, passwordEncoder,
+                verifiedKeyCache, lastUsedRecorder);
+        apiKey = ApiKey.builder()
+                .id(UUID.randomUUID())
+                .keyPrefix(RAW_KEY.substring(0, 12))
+                .keyHash("$2a$10$hash")
+                .name("Backend Key")
+                .orgId("org-a")
+                .role(Role.DEVELOPER)
+                .isActive(Boolean.TRUE)
+                .build();
+    }
+
+    @Test
+    void validateKey_matchesHashOncePerTtl() {
+        when(apiKeyRepository.findByKeyPrefixAndIsActiveTrue(RAW_KEY.substring(0, 12))).thenReturn(List.of(apiKey));
+        when(passwordEncoder.matches(RAW_KEY, apiKey.getKeyHash())).thenReturn(true);
+
+        for (int i = 0; i < 10; i++) {
+            assertThat(apiKeyService.validateKey(RAW_KEY)).map(ApiKeyService.ValidatedApiKey::keyId)
+                    .contains(apiKey.getId());
+        }
+
+        verify(passwordEncoder, times(1)).matches(RAW_KEY, apiKey.getKeyHash());
+        verify(apiKeyRepository, times(1)).findByKeyPrefixAndIsActiveTrue(RAW_KEY.substring(0, 12));
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "auth.keys").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(9.0);
+    }
+
+    @Test
+    void validateKey_doesNotCacheRejectedKeys() {
+        when(apiKeyRepository.findByKeyPrefixAndIsActiveTrue(RAW_KEY.substring(0, 12))).thenReturn(List.of(apiKey));
+        when(passwordEncoder.matches(RAW_KEY, apiKey.getKeyHash())).thenReturn(false);
+
+        assertThat(apiKeyService.validateKey(RAW_KEY)).isEmpty();
+        assertThat(apiKeyService.validateKey(RAW_KEY)).isEmpty();
+
+        verify(passwordEncoder, times(2)).matches(RAW_KEY, apiKey.getKeyHash());
+    }
+
+    @Test
+    void revokeKey_invalidatesVerifiedKey() {
+        when(apiKeyRepository.findByKeyPrefixAndIsActiveTrue(RAW_KEY.substring(0, 12)))
+                .thenReturn(List.of(apiKey), List.of());
+        when(passwordEncoder.matches(RAW_KEY, apiKey.getKeyHash())).thenReturn(true);
+        when(apiKeyRepository.findById(apiKey.getId())).thenReturn(Optional.of(apiKey));
+
+        assertThat(apiKeyService.validateKey(RAW_KEY)).isPresent();
+        apiKeyService.revokeKey(apiKey.getId(), "org-a");
+
+        assertThat(apiKeyService.validateKey(RAW_KEY)).isEmpty();
+    }
+
+    @Test
+    void verifiedKeyCache_dropsKeysPastTheirExpiry() {
+        Instant now = Instant.now();
+        ApiKeyService.ValidatedApiKey key = new ApiKeyService.ValidatedApiKey(apiKey.getId(), "org-a", "Backend Key",
+                Role.DEVELOPER, null, now.plusSeconds(30));
+        verifiedKeyCache.put(RAW_KEY, key);
+
+        assertThat(verifiedKeyCache.get(RAW_KEY, now)).contains(key);
+        assertThat(verifiedKeyCache.get(RAW_KEY + "x", now)).isEmpty();
+        assertThat(verifiedKeyCache.get(RAW_KEY, now.plusSeconds(31))).isEmpty();
+        assertThat(verifiedKeyCache.get(RAW_KEY, now)).isEmpty();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void lastUsedRecorder_writesLatestUseOfEachKeyInOneBatch() {
+        UUID other = UUID.randomUUID();
+        Instant now = Instant.now();
+        lastUsedRecorder.record(apiKey.getId(), now);
+        lastUsedRecorder.record(apiKey.getId(), now.plusSeconds(5));
+        lastUsedRecorder.record(apiKey.getId(), now.plusSeconds(2));
+        lastUsedRecorder.record(other, now);
+
+        assertThat(lastUsedRecorder.flush()).isEqualTo(2);
+
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(ApiKeyLastUsedRecorder.UPDATE_SQL), batch.capture());
+        assertThat(batch.getValue()).hasSize(2).anySatisfy(row -> {
+            assertThat(row[1]).isEqualTo(apiKey.getId());
+            assertThat(row[0]).isEqualTo(Timestamp.from(now.plusSeconds(5)));
+        });
+        assertThat(lastUsedRecorder.flush()).isZero();
+        assertThat(meterRegistry.get("neurogate.auth.last-used.flushed").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void lastUsedRecorder_keepsUsesOfFailedFlush() {
+        doThrow(new QueryTimeoutException("timeout"))
+                .doReturn(new int[]{1})
+                .when(jdbcTemplate).batchUpdate(eq(ApiKeyLastUsedRecorder.UPDATE_SQL), anyList());
+        lastUsedRecorder.record(apiKey.getId(), Instant.now());
+
+        assertThat(lastUsedRecorder.flush()).isZero();
+        assertThat(meterRegistry.get("neurogate.auth.last-used.pending").gauge().value()).isEqualTo(1.0);
+        assertThat(lastUsedRecorder.flush()).isEqualTo(1);
+    }
+}
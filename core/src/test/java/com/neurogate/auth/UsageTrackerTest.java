@@ -0,0 +1,213 @@
+package com.neurogate.auth;
+
+import com.neurogate.exception.RateLimitException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.SetOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UsageTrackerTest {
+
+    private static final String ORG = "org-a";
+
+    @Mock
+    private StringRedisTemplate redisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    @Mock
+    private HashOperations<String, Object, Object> hashOperations;
+
+    @Mock
+    private SetOperations<String, String> setOperations;
+
+    @Mock
+    private OrganizationRepository organizationRepository;
+
+    @Mock
+    private ApiUsageRecordRepository apiUsageRecordRepository;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private UsageTracker usageTracker;
+    private final UUID keyA = UUID.randomUUID();
+    private final UUID keyB = UUID.randomUUID();
+    private final LocalDate today = LocalDate.now(ZoneOffset.UTC);
+    private final String orgMonthKey = "usage:org:" + ORG + ":" + YearMonth.from(today);
+    private final String dayKey = "usage:day:" + ORG + ":" + today;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        usageTracker = new UsageTracker(redisTemplate, organizationRepository, apiUsageRecordRepository,
+                jdbcTemplate, meterRegistry, 60, 60_000);
+        ReflectionTestUtils.setField(usageTracker, "freeMonthlyRequests", 5L);
+        lenient().when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        lenient().when(redisTemplate.opsForHash()).thenReturn(hashOperations);
+        lenient().when(redisTemplate.opsForSet()).thenReturn(setOperations);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_writesSummedCountsInOnePipeline() {
+        runPipelines();
+        for (int i = 0; i < 3; i++) {
+            usageTracker.trackRequest(keyA, ORG);
+        }
+        usageTracker.trackRequest(keyB, ORG);
+        usageTracker.trackRequest(keyB, ORG);
+        usageTracker.trackTokenAndCost(keyA, ORG, 100, new BigDecimal("0.25"));
+        usageTracker.trackTokenAndCost(keyA, ORG, 50, new BigDecimal("0.25"));
+
+        usageTracker.flush();
+        usageTracker.flush();
+
+        verify(redisTemplate, times(1)).executePipelined(any(SessionCallback.class));
+        verify(hashOperations).increment(dayKey, keyA + ":requests", 3L);
+        verify(hashOperations).increment(dayKey, keyB + ":requests", 2L);
+        verify(hashOperations).increment(dayKey, keyA + ":tokens", 150L);
+        verify(hashOperations).increment(dayKey, keyA + ":cost", 0.5);
+        verify(hashOperations, never()).increment(eq(dayKey), eq(keyB + ":tokens"), anyLong());
+        verify(setOperations).add("usage:day-orgs:" + today, ORG);
+        verify(valueOperations).increment(orgMonthKey, 5L);
+        assertThat(meterRegistry.get("neurogate.usage.flush.latency").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void enforceMonthlyLimit_readsRedisOncePerSnapshotAndCountsLocalRequests() {
+        when(valueOperations.get(orgMonthKey)).thenReturn("3");
+        when(organizationRepository.findById(ORG)).thenReturn(Optional.empty());
+
+        usageTracker.enforceMonthlyLimit(ORG);
+        usageTracker.trackRequest(keyA, ORG);
+        usageTracker.enforceMonthlyLimit(ORG);
+        usageTracker.trackRequest(keyA, ORG);
+
+        assertThatThrownBy(() -> usageTracker.enforceMonthlyLimit(ORG)).isInstanceOf(RateLimitException.class);
+        assertThat(usageTracker.getCurrentUsage(ORG).requests()).isEqualTo(5);
+        verify(valueOperations, times(1)).get(orgMonthKey);
+        verify(organizationRepository, times(1)).findById(ORG);
+    }
+
+    @Test
+    void enforceMonthlyLimit_doesNotCountFlushedRequestsTwice() {
+        runPipelines();
+        when(valueOperations.get(orgMonthKey)).thenReturn("1");
+        when(organizationRepository.findById(ORG)).thenReturn(Optional.empty());
+
+        usageTracker.enforceMonthlyLimit(ORG);
+        usageTracker.trackRequest(keyA, ORG);
+        usageTracker.trackRequest(keyA, ORG);
+        usageTracker.flush();
+
+        assertThat(usageTracker.getCurrentUsage(ORG).requests()).isEqualTo(3);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_keepsCountsOfFailedFlushForNextOne() {
+        when(redisTemplate.executePipelined(any(SessionCallback.class)))
+                .thenThrow(new RedisConnectionFailureException("down"))
+                .thenAnswer(invocation -> {
+                    invocation.<SessionCallback<Object>>getArgument(0).execute(redisTemplate);
+                    return List.of();
+                });
+        usageTracker.trackRequest(keyA, ORG);
+
+        usageTracker.flush();
+        usageTracker.trackRequest(keyA, ORG);
+        usageTracker.flush();
+
+        verify(hashOperations).increment(dayKey, keyA + ":requests", 2L);
+        verify(hashOperations, never()).increment(eq(dayKey), eq(keyA + ":requests"), eq(1L));
+        assertThat(meterRegistry.get("neurogate.usage.flush.failures").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void getHistory_readsTodayFromOneHash() {
+        when(apiUsageRecordRepository.findByOrgIdAndUsageDateBetweenOrderByUsageDateAsc(ORG, today.minusDays(1), today))
+                .thenReturn(List.of());
+        when(hashOperations.entries(dayKey)).thenReturn(Map.of(
+                keyA + ":requests", "3", keyA + ":tokens", "120", keyA + ":cost", "0.5",
+                keyB + ":requests", "2", keyB + ":cost", "0.25"));
+
+        assertThat(usageTracker.getHistory(ORG, today.minusDays(1), today))
+                .containsExactly(new UsageTracker.DailyUsage(today, 5, 120, new BigDecimal("0.75")));
+        verify(redisTemplate, never()).keys(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rollupDay_upsertsEveryKeyOfTheDayInOneBatch() {
+        LocalDate day = today.minusDays(1);
+        Cursor<String> cursor = mock(Cursor.class);
+        when(cursor.hasNext()).thenReturn(true, true, false);
+        when(cursor.next()).thenReturn(ORG, "org-b");
+        when(setOperations.scan(eq("usage:day-orgs:" + day), any(ScanOptions.class))).thenReturn(cursor);
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenReturn(List.of(
+                Map.of(keyA + ":requests", "3", keyA + ":tokens", "120", keyA + ":cost", "0.5"),
+                Map.of(keyB + ":requests", "2", "not-a-key:requests", "9")));
+
+        assertThat(usageTracker.rollupDay(day)).isEqualTo(2);
+
+        ArgumentCaptor<List<Object[]>> batch = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(eq(UsageTracker.UPSERT_SQL), batch.capture());
+        assertThat(batch.getValue()).hasSize(2).anySatisfy(row -> {
+            assertThat(row[1]).isEqualTo(ORG);
+            assertThat(row[2]).isEqualTo(keyA);
+            assertThat(row[3]).isEqualTo(Date.valueOf(day));
+            assertThat(row[4]).isEqualTo(3L);
+            assertThat(row[5]).isEqualTo(120L);
+            assertThat(row[6]).isEqualTo(new BigDecimal("0.5"));
+        });
+        verify(cursor).close();
+        verify(redisTemplate, never()).keys(any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void runPipelines() {
+        when(redisTemplate.executePipelined(any(SessionCallback.class))).thenAnswer(invocation -> {
+            invocation.<SessionCallback<Object>>getArgument(0).execute(redisTemplate);
+            return List.of();
+        });
+    }
+}
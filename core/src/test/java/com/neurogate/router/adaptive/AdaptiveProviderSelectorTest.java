@@ -0,0 +1,180 @@
+package com.neurogate.router.adaptive;
+
+import com.neurogate.config.NeuroGateProperties;
+import com.neurogate.router.provider.LLMProvider;
+import com.neurogate.router.provider.ProviderMetadata;
+import com.neurogate.router.provider.RoutingTable;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AdaptiveProviderSelectorTest {
+
+    private NeuroGateProperties properties;
+    private MeterRegistry meterRegistry;
+    private AdaptiveProviderSelector selector;
+
+    private LLMProvider fast;
+    private LLMProvider slow;
+
+    @BeforeEach
+    void setUp() {
+        properties = new NeuroGateProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        selector = new AdaptiveProviderSelector(properties, meterRegistry);
+
+        fast = provider("fast", 100);
+        slow = provider("slow", 2000);
+    }
+
+    @Test
+    void rank_leastLatencyOrdersByAdvertisedLatencyBeforeAnySamples() {
+        properties.getRouter().getAdaptive().setStrategy(NeuroGateProperties.Router.Adaptive.Strategy.LEAST_LATENCY);
+
+        List<RoutingTable.Candidate> ranked = selector.rank(candidates(slow, fast));
+
+        assertEquals(candidates(fast, slow), ranked);
+        assertEquals(1.0, meterRegistry.get("neurogate.routing.decisions")
+                .tag("provider", "fast").tag("strategy", "least_latency").counter().count());
+    }
+
+    @Test
+    void rank_p2cWithTwoCandidatesAlwaysPicksTheBetterOne() {
+        for (int i = 0; i < 50; i++) {
+            assertSame(fast, selector.rank(candidates(slow, fast)).get(0).provider());
+        }
+    }
+
+    @Test
+    void rank_returnsInputOrderWhenDisabled() {
+        properties.getRouter().getAdaptive().setEnabled(false);
+
+        assertEquals(candidates(slow, fast), selector.rank(candidates(slow, fast)));
+    }
+
+    @Test
+    void track_failuresPenalizeProvider() {
+        properties.getRouter().getAdaptive().setStrategy(NeuroGateProperties.Router.Adaptive.Strategy.LEAST_LATENCY);
+        properties.getRouter().getAdaptive().setAlpha(1.0);
+        properties.getRouter().getAdaptive().setErrorPenalty(100.0);
+
+        assertThrows(IllegalStateException.class, () -> selector.track(fast, "gpt-4", () -> {
+            throw new IllegalStateException("upstream down");
+        }));
+
+        ProviderStats stats = selector.stats(fast, "gpt-4");
+        assertEquals(1.0, stats.errorRate());
+        assertEquals(0, stats.inFlight());
+        assertEquals(candidates(slow, fast), selector.rank(candidates(fast, slow)));
+    }
+
+    @Test
+    void trackAsync_recordsLatencyOnSuccessAndReleasesInFlight() {
+        StepVerifier.create(selector.trackAsync(fast, "gpt-4", () -> {
+                    assertEquals(1, selector.stats(fast, "gpt-4").inFlight());
+                    return Mono.just("ok");
+                }))
+                .expectNext("ok")
+                .verifyComplete();
+
+        ProviderStats stats = selector.stats(fast, "gpt-4");
+        assertEquals(0, stats.inFlight());
+        assertEquals(1, stats.samples());
+        assertEquals(0.0, stats.errorRate());
+        // First success replaces the advertised prior
+        assertTrue(stats.latencyMs() < 100);
+        assertEquals(stats.latencyMs(), meterRegistry.get("neurogate.routing.provider.latency")
+                .tag("provider", "fast").tag("model", "gpt-4").gauge().value());
+    }
+
+    @Test
+    void stats_modelsBeyondTheCapShareTheOtherEntry() {
+        properties.getRouter().getAdaptive().setMaxModelsPerProvider(2);
+
+        ProviderStats gpt4 = selector.stats(fast, "gpt-4");
+        selector.stats(fast, "gpt-4o");
+        ProviderStats other = selector.stats(fast, "made-up-1");
+
+        assertSame(other, selector.stats(fast, "made-up-2"));
+        assertSame(gpt4, selector.stats(fast, "gpt-4"));
+        assertEquals(3, meterRegistry.find("neurogate.routing.provider.latency").gauges().size());
+        assertEquals(1, meterRegistry.find("neurogate.routing.provider.latency").tag("model", "other").gauges().size());
+    }
+
+    @Test
+    void evictIdle_dropsIdleStatsAndTheirGauges() {
+        properties.getRouter().getAdaptive().setIdleEvictionMs(1000);
+        ProviderStats idle = selector.stats(fast, "gpt-4");
+        ProviderStats busy = selector.stats(fast, "gpt-4o");
+        busy.begin();
+
+        selector.evictIdle(System.nanoTime() + TimeUnit.SECONDS.toNanos(2));
+
+        assertEquals(1, meterRegistry.find("neurogate.routing.provider.latency").gauges().size());
+        assertSame(busy, selector.stats(fast, "gpt-4o"));
+        ProviderStats recreated = selector.stats(fast, "gpt-4");
+        assertNotSame(idle, recreated);
+        recreated.begin();
+        assertEquals(1.0, meterRegistry.get("neurogate.routing.provider.inflight")
+                .tag("provider", "fast").tag("model", "gpt-4").gauge().value());
+    }
+
+    @Test
+    void describe_addsObservedStatsToMetadata() {
+        selector.track(slow, "gpt-4", () -> "ok");
+
+        ProviderMetadata described = selector.describe(slow);
+
+        assertEquals("slow", described.getName());
+        assertEquals(2000, described.getAvgLatencyMs());
+        assertTrue(described.getObservedLatencyMs() < 2000);
+        assertEquals(0, described.getInFlightRequests());
+    }
+
+    @Test
+    void providerStats_expectedLatencyGrowsWithInFlightCalls() {
+        ProviderStats stats = new ProviderStats(0.5, 100);
+
+        assertEquals(100.0, stats.expectedLatencyMs(4.0));
+        stats.begin();
+        assertEquals(200.0, stats.expectedLatencyMs(4.0));
+        stats.complete(300_000_000L, true);
+        assertEquals(300.0, stats.latencyMs());
+        stats.begin();
+        stats.complete(100_000_000L, false);
+        assertEquals(300.0, stats.latencyMs());
+        assertEquals(0.5, stats.errorRate());
+        assertEquals(900.0, stats.expectedLatencyMs(4.0));
+    }
+
+    private static LLMProvider provider(String name, long avgLatencyMs) {
+        LLMProvider provider = mock(LLMProvider.class);
+        when(provider.getName()).thenReturn(name);
+        when(provider.getMetadata()).thenReturn(ProviderMetadata.builder()
+                .name(name)
+                .avgLatencyMs(avgLatencyMs)
+                .build());
+        return provider;
+    }
+
+    private static List<RoutingTable.Candidate> candidates(LLMProvider... providers) {
+        return Arrays.stream(providers)
+                .map(provider -> new RoutingTable.Candidate(provider, "gpt-4"))
+                .toList();
+    }
+}
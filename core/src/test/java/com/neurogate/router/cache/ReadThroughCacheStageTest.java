@@ -0,0 +1,397 @@
+package com.neurogate.router.cache;
+
+import com.neurogate.config.NeuroGateProperties;
+import com.neurogate.metrics.NeuroGateMetrics;
+import com.neurogate.sentinel.model.ChatRequest;
+import com.neurogate.sentinel.model.ChatResponse;
+import com.neurogate.sentinel.model.Choice;
+import com.neurogate.sentinel.model.Message;
+import com.neurogate.tenant.TenantContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.slf4j.MDC;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReadThroughCacheStageTest {
+
+    @Mock
+    private TieredCacheService tieredCacheService;
+
+    @Mock
+    private NeuroGateMetrics metrics;
+
+    private NeuroGateProperties properties;
+
+    private ExecutorService executor;
+
+    private ReadThroughCacheStage stage;
+
+    @BeforeEach
+    void setUp() {
+        properties = new NeuroGateProperties();
+        executor = Executors.newCachedThreadPool();
+        stage = new ReadThroughCacheStage(tieredCacheService, new CacheKeyGenerator(), metrics, properties, executor);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void route_shouldServeCacheHitWithTierAndWithoutCallingUpstream() {
+        ChatResponse cached = response("cached answer");
+        when(tieredCacheService.lookup(anyString(), any()))
+                .thenReturn(Optional.of(new TieredCacheService.CacheHit(TieredCacheService.CacheTier.L2, cached)));
+
+        ChatResponse result = stage.route(request(), r -> {
+            throw new AssertionError("upstream must not be called on a cache hit");
+        });
+
+        assertTrue(result.isCacheHit());
+        assertEquals("cache-l2", result.getRoute());
+        assertNotSame(cached, result);
+        assertFalse(cached.isCacheHit());
+    }
+
+    @Test
+    void route_shouldStoreUpstreamResponseOnMiss() {
+        when(tieredCacheService.lookup(anyString(), any())).thenReturn(Optional.empty());
+        ChatResponse upstreamResponse = response("fresh answer");
+
+        ChatResponse result = stage.route(request(), r -> upstreamResponse);
+
+        assertEquals(upstreamResponse, result);
+        verify(tieredCacheService).put(anyString(), any(ChatRequest.class), eq(upstreamResponse));
+        verify(metrics).recordCacheMiss();
+    }
+
+    @Test
+    void route_shouldNotServeOneOrgsEntryToAnother() {
+        Map<String, ChatResponse> store = new ConcurrentHashMap<>();
+        when(tieredCacheService.lookup(anyString(), any())).thenAnswer(invocation -> Optional
+                .ofNullable(store.get(invocation.<String>getArgument(0)))
+                .map(cached -> new TieredCacheService.CacheHit(TieredCacheService.CacheTier.L2, cached)));
+        doAnswer(invocation -> store.put(invocation.getArgument(0), invocation.getArgument(2)))
+                .when(tieredCacheService).put(anyString(), any(ChatRequest.class), any());
+
+        try {
+            TenantContext.setCurrentOrgId("org-a");
+            assertEquals("org-a answer", content(stage.route(request(), r -> response("org-a answer"))));
+            assertTrue(stage.route(request(), r -> response("unused")).isCacheHit());
+
+            TenantContext.setCurrentOrgId("org-b");
+            ChatResponse orgB = stage.route(request(), r -> response("org-b answer"));
+            assertFalse(orgB.isCacheHit());
+            assertEquals("org-b answer", content(orgB));
+        } finally {
+            TenantContext.clear();
+        }
+
+        StepVerifier.create(stage.routeAsync(request(), r -> Mono.just(response("org-c answer")))
+                        .contextWrite(Context.of(TenantContext.CONTEXT_KEY, "org-c")))
+                .expectNextMatches(r -> !r.isCacheHit() && "org-c answer".equals(content(r)))
+                .verifyComplete();
+        assertEquals(3, store.size());
+    }
+
+    @Test
+    void route_shouldNotCacheStreamingRequests() {
+        ChatRequest streaming = request().toBuilder().stream(true).build();
+
+        stage.route(streaming, r -> response("streamed"));
+
+        verify(tieredCacheService, never()).lookup(anyString(), any());
+        verify(tieredCacheService, never()).put(anyString(), any(ChatRequest.class), any());
+    }
+
+    @Test
+    void route_shouldCollapseConcurrentIdenticalMissesIntoOneUpstreamCall() throws Exception {
+        when(tieredCacheService.lookup(anyString(), any())).thenReturn(Optional.empty());
+
+        int callers = 20;
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(callers);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService callerPool = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<ChatResponse>> futures = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                futures.add(callerPool.submit(() -> {
+                    started.countDown();
+                    return stage.route(request(), r -> {
+                        upstreamCalls.incrementAndGet();
+                        try {
+                            release.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        return response("single flight");
+                    });
+                }));
+            }
+
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Thread.sleep(200);
+            release.countDown();
+
+            for (Future<ChatResponse> future : futures) {
+                assertEquals("single flight", future.get(5, TimeUnit.SECONDS)
+                        .getChoices().get(0).getMessage().getStrContent());
+            }
+        } finally {
+            callerPool.shutdownNow();
+        }
+
+        assertEquals(1, upstreamCalls.get());
+        verify(tieredCacheService, times(1)).put(anyString(), any(ChatRequest.class), any());
+        verify(metrics, times(callers - 1)).recordCoalescedRequest();
+        assertEquals(0, stage.getInFlightCount());
+    }
+
+    @Test
+    void parallelLookup_shouldServeRemoteHitWithinBudget() {
+        properties.getCache().getLookup().setParallel(true);
+        when(tieredCacheService.lookupLocal(anyString())).thenReturn(Optional.empty());
+        when(tieredCacheService.lookupRemote(anyString(), any(), any())).thenReturn(CompletableFuture.completedFuture(
+                Optional.of(new TieredCacheService.CacheHit(TieredCacheService.CacheTier.L3, response("semantic")))));
+
+        ChatResponse result = stage.route(request(), r -> {
+            throw new AssertionError("upstream must not be called on a cache hit");
+        });
+
+        assertEquals("cache-l3", result.getRoute());
+        verify(tieredCacheService, never()).lookup(anyString(), any());
+    }
+
+    @Test
+    void parallelLookup_shouldStartProviderSpeculativelyWhenBudgetExpires() {
+        properties.getCache().getLookup().setParallel(true);
+        properties.getCache().getLookup().setBudgetMs(20);
+        when(tieredCacheService.lookupLocal(anyString())).thenReturn(Optional.empty());
+        when(tieredCacheService.lookupRemote(anyString(), any(), any())).thenReturn(new CompletableFuture<>());
+
+        ChatResponse result = stage.route(request(), r -> response("from provider"));
+
+        assertEquals("openai", result.getRoute());
+        verify(metrics, timeout(1000)).recordSpeculativeProviderCall("provider");
+        verify(tieredCacheService).put(anyString(), any(ChatRequest.class), any());
+    }
+
+    @Test
+    void parallelLookup_shouldLetLateCacheHitBeatSlowProvider() {
+        properties.getCache().getLookup().setParallel(true);
+        properties.getCache().getLookup().setBudgetMs(20);
+        CompletableFuture<Optional<TieredCacheService.CacheHit>> remote = new CompletableFuture<>();
+        when(tieredCacheService.lookupLocal(anyString())).thenReturn(Optional.empty());
+        when(tieredCacheService.lookupRemote(anyString(), any(), any())).thenReturn(remote);
+        executor.submit(() -> {
+            Thread.sleep(100);
+            return remote.complete(Optional.of(
+                    new TieredCacheService.CacheHit(TieredCacheService.CacheTier.L2, response("late hit"))));
+        });
+
+        CountDownLatch providerRelease = new CountDownLatch(1);
+        try {
+            ChatResponse result = stage.route(request(), r -> {
+                try {
+                    providerRelease.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return response("slow provider");
+            });
+
+            assertEquals("cache-l2", result.getRoute());
+            verify(metrics, timeout(1000)).recordSpeculativeProviderCall("cache");
+        } finally {
+            providerRelease.countDown();
+        }
+    }
+
+    @Test
+    void parallelLookup_shouldCancelSpeculativeProviderCallWhenCacheWins() throws Exception {
+        properties.getCache().getLookup().setParallel(true);
+        properties.getCache().getLookup().setBudgetMs(20);
+        CompletableFuture<Optional<TieredCacheService.CacheHit>> remote = new CompletableFuture<>();
+        when(tieredCacheService.lookupLocal(anyString())).thenReturn(Optional.empty());
+        when(tieredCacheService.lookupRemote(anyString(), any(), any())).thenReturn(remote);
+        executor.submit(() -> {
+            Thread.sleep(100);
+            return remote.complete(Optional.of(
+                    new TieredCacheService.CacheHit(TieredCacheService.CacheTier.L2, response("late hit"))));
+        });
+        CountDownLatch providerCancelled = new CountDownLatch(1);
+
+        ChatResponse result = stage.route(request(),
+                r -> {
+                    throw new AssertionError("the speculative call must use the reactive upstream");
+                },
+                r -> Mono.<ChatResponse>never().doOnCancel(providerCancelled::countDown));
+
+        assertEquals("cache-l2", result.getRoute());
+        assertTrue(providerCancelled.await(1, TimeUnit.SECONDS));
+        verify(tieredCacheService, never()).put(anyString(), any(ChatRequest.class), any());
+        assertEquals(0, stage.getInFlightCount());
+    }
+
+    @Test
+    void parallelLookup_shouldRunSpeculativeProviderCallWithCallerOrgAndMdc() {
+        properties.getCache().getLookup().setParallel(true);
+        properties.getCache().getLookup().setBudgetMs(20);
+        when(tieredCacheService.lookupLocal(anyString())).thenReturn(Optional.empty());
+        when(tieredCacheService.lookupRemote(anyString(), any(), any())).thenReturn(new CompletableFuture<>());
+
+        try {
+            TenantContext.setCurrentOrgId("org-a");
+            MDC.put("traceId", "trace-1");
+
+            ChatResponse result = stage.route(request(),
+                    r -> response(TenantContext.getCurrentOrgId() + "/" + MDC.get("traceId")));
+
+            assertEquals("org-a/trace-1", content(result));
+        } finally {
+            TenantContext.clear();
+            MDC.clear();
+        }
+    }
+
+    @Test
+    void routeAsync_shouldStoreUpstreamResponseOnMissAndServeHitsWithoutUpstream() {
+        ChatResponse upstreamResponse = response("fresh answer");
+        when(tieredCacheService.lookup(anyString(), any()))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(new TieredCacheService.CacheHit(TieredCacheService.CacheTier.L2, upstreamResponse)));
+
+        StepVerifier.create(stage.routeAsync(request(), r -> Mono.just(upstreamResponse)))
+                .expectNext(upstreamResponse)
+                .verifyComplete();
+        verify(tieredCacheService).put(anyString(), any(ChatRequest.class), eq(upstreamResponse));
+
+        StepVerifier.create(stage.routeAsync(request(), r -> Mono.error(new AssertionError("upstream must not be called"))))
+                .expectNextMatches(r -> "cache-l2".equals(r.getRoute()) && r.isCacheHit())
+                .verifyComplete();
+        assertEquals(0, stage.getInFlightCount());
+    }
+
+    @Test
+    void routeAsync_shouldCoalesceWithInFlightCall() {
+        when(tieredCacheService.lookup(anyString(), any())).thenReturn(Optional.empty());
+        Sinks.One<ChatResponse> upstream = Sinks.one();
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        Function<ChatRequest, Mono<ChatResponse>> route = r -> {
+            upstreamCalls.incrementAndGet();
+            return upstream.asMono();
+        };
+
+        CompletableFuture<ChatResponse> leader = stage.routeAsync(request(), route).toFuture();
+        verify(tieredCacheService, timeout(1000)).lookup(anyString(), any());
+        await(() -> stage.getInFlightCount() == 1);
+        CompletableFuture<ChatResponse> follower = stage.routeAsync(request(), route).toFuture();
+        verify(tieredCacheService, timeout(1000).times(2)).lookup(anyString(), any());
+        verify(metrics, timeout(1000).times(2)).recordCacheMiss();
+
+        upstream.tryEmitValue(response("single flight"));
+
+        assertEquals("single flight", leader.join().getChoices().get(0).getMessage().getStrContent());
+        assertEquals("single flight", follower.join().getChoices().get(0).getMessage().getStrContent());
+        assertEquals(1, upstreamCalls.get());
+        verify(metrics).recordCoalescedRequest();
+    }
+
+    @Test
+    void routeAsync_shouldServeFollowerWhenLeaderIsCancelled() {
+        when(tieredCacheService.lookup(anyString(), any())).thenReturn(Optional.empty());
+        Sinks.One<ChatResponse> upstream = Sinks.one();
+        AtomicInteger upstreamCalls = new AtomicInteger();
+        Function<ChatRequest, Mono<ChatResponse>> route = r -> {
+            upstreamCalls.incrementAndGet();
+            return upstream.asMono();
+        };
+
+        Disposable leader = stage.routeAsync(request(), route).subscribe();
+        await(() -> stage.getInFlightCount() == 1);
+        CompletableFuture<ChatResponse> follower = stage.routeAsync(request(), route).toFuture();
+        verify(tieredCacheService, timeout(1000).times(2)).lookup(anyString(), any());
+        verify(metrics, timeout(1000).times(2)).recordCacheMiss();
+
+        leader.dispose();
+        upstream.tryEmitValue(response("single flight"));
+
+        assertEquals("single flight", content(follower.join()));
+        assertEquals(1, upstreamCalls.get());
+        verify(tieredCacheService).put(anyString(), any(ChatRequest.class), any());
+        await(() -> stage.getInFlightCount() == 0);
+    }
+
+    private void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 1000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    private static String content(ChatResponse response) {
+        return response.getChoices().get(0).getMessage().getStrContent();
+    }
+
+    private ChatRequest request() {
+        return ChatRequest.builder()
+                .model("gpt-4o")
+                .temperature(0.0)
+                .messages(List.of(Message.builder().role("user").content("what is the capital of France?").build()))
+                .build();
+    }
+
+    private ChatResponse response(String content) {
+        return ChatResponse.builder()
+                .id("chatcmpl-1")
+                .model("gpt-4o")
+                .route("openai")
+                .choices(List.of(Choice.builder()
+                        .index(0)
+                        .message(Message.builder().role("assistant").content(content).build())
+                        .build()))
+                .build();
+    }
+}
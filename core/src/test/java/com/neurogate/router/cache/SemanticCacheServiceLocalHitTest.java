@@ -0,0 +1,67 @@
+package com.neurogate.router.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neurogate.config.NeuroGateProperties;
+import com.neurogate.sentinel.model.ChatRequest;
+import com.neurogate.sentinel.model.ChatResponse;
+import io.qdrant.client.QdrantClient;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * L1.5 hits, which are answered before Qdrant is configured or queried.
+ */
+@ExtendWith(MockitoExtension.class)
+class SemanticCacheServiceLocalHitTest {
+
+        @Mock
+        private EmbeddingService embeddingService;
+
+        @Mock
+        private NeuroGateProperties properties;
+
+        @Mock
+        private NeuroGateProperties.Qdrant qdrantConfig;
+
+        @Mock
+        private QdrantClient qdrantClient;
+
+        @Mock
+        private ObjectMapper objectMapper;
+
+        @Mock
+        private LocalSemanticCache localSemanticCache;
+
+        @Test
+        void testGet_LocalHitSkipsQdrant() {
+                SemanticCacheService semanticCacheService = new SemanticCacheService(
+                                embeddingService,
+                                properties,
+                                qdrantClient,
+                                objectMapper,
+                                localSemanticCache);
+                ChatRequest request = ChatRequest.builder().model("gpt-3.5").messages(List.of()).build();
+                float[] embedding = new float[] { 0.1f, 0.2f };
+                when(properties.getQdrant()).thenReturn(qdrantConfig);
+                when(embeddingService.generateEmbedding(any())).thenReturn(embedding);
+                when(qdrantConfig.getSimilarityThreshold()).thenReturn(0.9);
+                when(localSemanticCache.find(embedding, 0.9)).thenReturn(Optional.of(
+                                new LocalSemanticCache.Match(ChatResponse.builder().id("local").build(), 0.97)));
+
+                Optional<ChatResponse> result = semanticCacheService.get(request);
+
+                assertTrue(result.isPresent());
+                assertEquals("local", result.get().getId());
+                assertEquals(0.97, result.get().getSimilarity(), 0.001);
+                verifyNoInteractions(qdrantClient);
+        }
+}
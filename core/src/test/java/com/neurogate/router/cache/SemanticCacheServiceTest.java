@@ -41,6 +41,9 @@ class SemanticCacheServiceTest {
         @Mock
         private ObjectMapper objectMapper;
 
+        @Mock
+        private LocalSemanticCache localSemanticCache;
+
         private SemanticCacheService semanticCacheService;
 
         @BeforeEach
@@ -49,7 +52,8 @@ class SemanticCacheServiceTest {
                                 embeddingService,
                                 properties,
                                 qdrantClient,
-                                objectMapper);
+                                objectMapper,
+                                localSemanticCache);
 
                 when(properties.getQdrant()).thenReturn(qdrantConfig);
                 when(qdrantConfig.getCollectionName()).thenReturn("test_collection");
@@ -83,6 +87,7 @@ class SemanticCacheServiceTest {
                 assertTrue(result.isPresent());
                 assertEquals("test", result.get().getId());
                 assertEquals(0.95, result.get().getSimilarity(), 0.01);
+                verify(localSemanticCache).put(anyString(), any(float[].class), any(ChatResponse.class));
         }
 
         @Test
@@ -1,31 +1,45 @@
 package com.neurogate.router.cache;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neurogate.config.NeuroGateProperties;
 import com.neurogate.metrics.NeuroGateMetrics;
+import com.neurogate.router.cache.codec.BinaryChatResponseCodec;
+import com.neurogate.router.cache.codec.ChatResponseCodec;
 import com.neurogate.sentinel.model.ChatRequest;
+import com.neurogate.sentinel.model.ChatResponse;
 import com.neurogate.sentinel.model.Message;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
 import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
 class TieredCacheServiceTest {
 
     @Mock
-    private RedisTemplate<String, String> redisTemplate;
+    private RedisTemplate<String, byte[]> redisTemplate;
 
     @Mock
     private SemanticCacheService semanticCacheService;
@@ -39,6 +53,11 @@ class TieredCacheServiceTest {
     @Mock
     private EmbeddingService embeddingService;
 
+    @Mock
+    private CacheWriteBehindService writeBehind;
+
+    private final ChatResponseCodec codec = new BinaryChatResponseCodec(new ObjectMapper(), true, 1024);
+
     private TieredCacheService tieredCacheService;
 
     @BeforeEach
@@ -47,9 +66,13 @@ class TieredCacheServiceTest {
                 redisTemplate,
                 Optional.of(semanticCacheService),
                 s3CacheService,
-                new ObjectMapper(),
+                codec,
                 metrics,
-                embeddingService);
+                embeddingService,
+                new CacheKeyGenerator(),
+                writeBehind,
+                Executors.newCachedThreadPool(),
+                new NeuroGateProperties());
     }
 
     @Test
@@ -75,6 +98,135 @@ class TieredCacheServiceTest {
         assertNotEquals(key1, key2);
     }
 
+    @Test
+    void generateCacheKey_shouldSeparateMessageRolesAndBoundaries() {
+        ChatRequest split = ChatRequest.builder()
+                .model("gpt-4")
+                .messages(List.of(
+                        Message.builder().role("system").content("A").build(),
+                        Message.builder().role("user").content("B").build()))
+                .build();
+        ChatRequest joined = ChatRequest.builder()
+                .model("gpt-4")
+                .messages(List.of(Message.builder().role("user").content("A B").build()))
+                .build();
+        ChatRequest nucleus = joined.toBuilder().topP(0.5).build();
+
+        String splitKey = ReflectionTestUtils.invokeMethod(tieredCacheService, "generateCacheKey", split);
+        String joinedKey = ReflectionTestUtils.invokeMethod(tieredCacheService, "generateCacheKey", joined);
+        String nucleusKey = ReflectionTestUtils.invokeMethod(tieredCacheService, "generateCacheKey", nucleus);
+
+        assertNotEquals(splitKey, joinedKey);
+        assertNotEquals(joinedKey, nucleusKey);
+    }
+
+    @Test
+    void put_shouldOnlyInsertL1AndQueueRemainingTiers() {
+        ChatRequest request = ChatRequest.builder()
+                .model("gpt-4")
+                .messages(List.of(Message.builder().role("user").content("cache me").build()))
+                .build();
+        ChatResponse response = ChatResponse.builder().id("resp-1").model("gpt-4").build();
+
+        tieredCacheService.put(request, response);
+
+        verify(writeBehind).writeAll(any(CacheWrite.class));
+        verifyNoInteractions(redisTemplate, semanticCacheService);
+        assertEquals(response, tieredCacheService.get(request).orElseThrow());
+    }
+
+    @Test
+    void put_queuesSnapshotUnaffectedByLaterMutation() {
+        ChatRequest request = ChatRequest.builder()
+                .model("gpt-4")
+                .messages(List.of(Message.builder().role("user").content("snapshot me").build()))
+                .build();
+        ChatResponse response = ChatResponse.builder().id("resp-3").model("gpt-4").route("openai").build();
+
+        tieredCacheService.put(request, response);
+        response.setLatencyMs(1234L);
+        response.setRoute("cache-l1");
+
+        ArgumentCaptor<CacheWrite> write = ArgumentCaptor.forClass(CacheWrite.class);
+        verify(writeBehind).writeAll(write.capture());
+        ChatResponse queued = codec.decode(write.getValue().encoded());
+        assertEquals("openai", queued.getRoute());
+        assertNull(queued.getLatencyMs());
+        assertEquals(request.getConcatenatedContent(), write.getValue().prompt());
+    }
+
+    @Test
+    void lookup_shouldDecodeL2BytesAndPromoteThemToL1() {
+        ChatRequest request = ChatRequest.builder()
+                .model("gpt-4")
+                .messages(List.of(Message.builder().role("user").content("from redis").build()))
+                .build();
+        ChatResponse response = ChatResponse.builder().id("resp-2").model("gpt-4").build();
+        String cacheKey = new CacheKeyGenerator().generate(request);
+
+        ValueOperations<String, byte[]> valueOperations = org.mockito.Mockito.mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(cacheKey)).thenReturn(codec.encode(response));
+
+        Optional<TieredCacheService.CacheHit> first = tieredCacheService.lookup(cacheKey, request);
+        Optional<TieredCacheService.CacheHit> second = tieredCacheService.lookup(cacheKey, request);
+
+        assertEquals(TieredCacheService.CacheTier.L2, first.orElseThrow().tier());
+        assertEquals(response, first.get().response());
+        assertEquals(TieredCacheService.CacheTier.L1, second.orElseThrow().tier());
+        assertTrue(tieredCacheService.getStats().getL1WeightBytes() > 0);
+    }
+
+    @Test
+    void lookupRemote_shouldTreatSlowRedisAsMissAndServeSemanticHit() throws Exception {
+        ValueOperations<String, byte[]> valueOperations = org.mockito.Mockito.mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(anyString())).thenAnswer(invocation -> {
+            Thread.sleep(1000);
+            return null;
+        });
+        ChatResponse semanticHit = ChatResponse.builder().id("semantic").model("gpt-4").build();
+        when(semanticCacheService.get(any())).thenReturn(Optional.of(semanticHit));
+
+        NeuroGateProperties.Cache.Lookup lookup = new NeuroGateProperties.Cache.Lookup();
+        lookup.setL2DeadlineMs(20);
+        lookup.setL3DeadlineMs(500);
+
+        ChatRequest request = ChatRequest.builder()
+                .model("gpt-4")
+                .messages(List.of(Message.builder().role("user").content("similar prompt").build()))
+                .build();
+
+        long start = System.nanoTime();
+        Optional<TieredCacheService.CacheHit> hit = tieredCacheService
+                .lookupRemote("neurogate:cache:abc", request, lookup)
+                .get(2, TimeUnit.SECONDS);
+
+        assertTrue(hit.isPresent());
+        assertEquals(TieredCacheService.CacheTier.L3, hit.get().tier());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+    }
+
+    @Test
+    void lookupRemote_shouldCompleteEmptyWhenEveryTierMisses() throws Exception {
+        ValueOperations<String, byte[]> valueOperations = org.mockito.Mockito.mock(ValueOperations.class);
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.get(anyString())).thenReturn(null);
+        when(semanticCacheService.get(any())).thenReturn(Optional.empty());
+        when(s3CacheService.isEnabled()).thenReturn(false);
+
+        ChatRequest request = ChatRequest.builder()
+                .model("gpt-4")
+                .messages(List.of(Message.builder().role("user").content("novel prompt").build()))
+                .build();
+
+        Optional<TieredCacheService.CacheHit> hit = tieredCacheService
+                .lookupRemote("neurogate:cache:def", request, new NeuroGateProperties.Cache.Lookup())
+                .get(2, TimeUnit.SECONDS);
+
+        assertTrue(hit.isEmpty());
+    }
+
     @Test
     void invalidateAll_shouldClearRedisAndSemanticCache() {
         when(redisTemplate.keys("neurogate:cache:*")).thenReturn(Set.of("neurogate:cache:1", "neurogate:cache:2"));
@@ -0,0 +1,116 @@
+package com.neurogate.router.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WriteBehindQueueTest {
+
+    @Test
+    void offer_shouldDropAndCountWhenQueueIsFull() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        WriteBehindQueue<String> queue = new WriteBehindQueue<>("L2", 2, 10, 10, batch -> { }, registry);
+
+        assertTrue(queue.offer("a"));
+        assertTrue(queue.offer("b"));
+        assertFalse(queue.offer("c"));
+
+        assertEquals(2, queue.depth());
+        assertEquals(1.0, registry.get("neurogate.cache.writebehind.dropped").tag("tier", "L2").counter().count());
+        assertEquals(2.0, registry.get("neurogate.cache.writebehind.queue.depth").tag("tier", "L2").gauge().value());
+    }
+
+    @Test
+    void worker_shouldFlushQueuedWritesInBatches() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch flushed = new CountDownLatch(10);
+
+        WriteBehindQueue<String> queue = new WriteBehindQueue<>("L3", 100, 4, 10, batch -> {
+            batchSizes.add(batch.size());
+            batch.forEach(item -> flushed.countDown());
+        }, registry);
+
+        for (int i = 0; i < 10; i++) {
+            queue.offer("entry-" + i);
+        }
+        queue.start();
+
+        assertTrue(flushed.await(5, TimeUnit.SECONDS));
+        queue.shutdown(1000);
+
+        assertEquals(10, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 4));
+        assertEquals(10.0, registry.get("neurogate.cache.writebehind.written").tag("tier", "L3").counter().count());
+    }
+
+    @Test
+    void worker_shouldLingerForBatchToFill() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch flushed = new CountDownLatch(1);
+        WriteBehindQueue<String> queue = new WriteBehindQueue<>("L2", 100, 4, 5000, batch -> {
+            batchSizes.add(batch.size());
+            flushed.countDown();
+        }, registry);
+
+        queue.start();
+        queue.offer("entry-0");
+        Thread.sleep(50);
+        for (int i = 1; i < 4; i++) {
+            queue.offer("entry-" + i);
+        }
+
+        // Flushed as soon as the batch is full, well before the linger deadline
+        assertTrue(flushed.await(2, TimeUnit.SECONDS));
+        queue.shutdown(1000);
+
+        assertEquals(List.of(4), batchSizes);
+    }
+
+    @Test
+    void shutdown_shouldDrainPendingWrites() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        List<String> written = Collections.synchronizedList(new ArrayList<>());
+        WriteBehindQueue<String> queue = new WriteBehindQueue<>("L4", 100, 8, 10, written::addAll, registry);
+
+        queue.start();
+        for (int i = 0; i < 20; i++) {
+            queue.offer("entry-" + i);
+        }
+        queue.shutdown(5000);
+
+        assertEquals(20, written.size());
+        assertEquals(0, queue.depth());
+    }
+
+    @Test
+    void worker_shouldCountFailedBatchesAndKeepRunning() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        CountDownLatch secondBatch = new CountDownLatch(1);
+        WriteBehindQueue<String> queue = new WriteBehindQueue<>("L2", 100, 1, 10, batch -> {
+            if ("poison".equals(batch.get(0))) {
+                throw new IllegalStateException("redis down");
+            }
+            secondBatch.countDown();
+        }, registry);
+
+        queue.start();
+        queue.offer("poison");
+        queue.offer("healthy");
+
+        assertTrue(secondBatch.await(5, TimeUnit.SECONDS));
+        queue.shutdown(1000);
+
+        assertEquals(1.0, registry.get("neurogate.cache.writebehind.failed").tag("tier", "L2").counter().count());
+    }
+}
@@ -0,0 +1,186 @@
+package com.neurogate.router.cache.ann;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HnswIndexTest {
+
+    private static final int DIMENSION = 32;
+
+    @Test
+    void search_shouldMatchBruteForceOnNearDuplicateQueries() {
+        Random random = new Random(7);
+        float[][] vectors = randomVectors(random, 2000);
+        HnswIndex index = new HnswIndex(DIMENSION, 16, 100);
+        for (int i = 0; i < vectors.length; i++) {
+            index.add("k" + i, vectors[i]);
+        }
+
+        int queries = 200;
+        int matches = 0;
+        for (int q = 0; q < queries; q++) {
+            float[] query = perturb(random, vectors[random.nextInt(vectors.length)]);
+            List<HnswIndex.SearchResult> results = index.search(query, 1, 64);
+            if (!results.isEmpty() && results.get(0).key().equals("k" + bruteForce(vectors, query))) {
+                matches++;
+            }
+        }
+
+        assertTrue(matches >= queries * 0.95, "recall@1 was " + matches + "/" + queries);
+    }
+
+    @Test
+    void search_shouldReturnResultsInDescendingSimilarity() {
+        HnswIndex index = new HnswIndex(DIMENSION, 8, 50);
+        float[][] vectors = randomVectors(new Random(1), 300);
+        for (int i = 0; i < vectors.length; i++) {
+            index.add("k" + i, vectors[i]);
+        }
+
+        List<HnswIndex.SearchResult> results = index.search(vectors[42], 5, 32);
+
+        assertEquals(5, results.size());
+        assertEquals("k42", results.get(0).key());
+        assertEquals(1.0f, results.get(0).similarity(), 1e-4);
+        for (int i = 1; i < results.size(); i++) {
+            assertTrue(results.get(i - 1).similarity() >= results.get(i).similarity());
+        }
+    }
+
+    @Test
+    void remove_shouldHideEntryAndRebuildShouldDropTombstones() {
+        HnswIndex index = new HnswIndex(DIMENSION, 8, 50);
+        float[][] vectors = randomVectors(new Random(2), 400);
+        for (int i = 0; i < vectors.length; i++) {
+            index.add("k" + i, vectors[i]);
+        }
+
+        assertTrue(index.remove("k10"));
+        assertFalse(index.remove("k10"));
+        assertFalse(index.search(vectors[10], 3, 32).stream().anyMatch(r -> r.key().equals("k10")));
+
+        for (int i = 11; i < 200; i++) {
+            index.remove("k" + i);
+        }
+        assertTrue(index.needsRebuild());
+        index.rebuild();
+
+        assertEquals(210, index.size());
+        assertEquals(210, index.nodeCount());
+        assertEquals("k300", index.search(vectors[300], 1, 32).get(0).key());
+    }
+
+    @Test
+    void rebuild_shouldDropEntriesTheOwnerNoLongerHolds() {
+        HnswIndex index = new HnswIndex(DIMENSION, 8, 50);
+        float[][] vectors = randomVectors(new Random(3), 100);
+        for (int i = 0; i < vectors.length; i++) {
+            index.add("k" + i, vectors[i]);
+        }
+
+        index.rebuild(key -> !key.equals("k7"));
+
+        assertEquals(99, index.size());
+        assertEquals(99, index.nodeCount());
+        assertFalse(index.search(vectors[7], 3, 32).stream().anyMatch(r -> r.key().equals("k7")));
+        assertEquals("k8", index.search(vectors[8], 1, 32).get(0).key());
+    }
+
+    @Test
+    void add_shouldReplaceVectorOfExistingKey() {
+        HnswIndex index = new HnswIndex(DIMENSION, 8, 50);
+        float[][] vectors = randomVectors(new Random(4), 101);
+        for (int i = 0; i < 100; i++) {
+            index.add("k" + i, vectors[i]);
+        }
+
+        assertFalse(index.add("k5", vectors[5]));
+        assertEquals(100, index.nodeCount());
+
+        assertFalse(index.add("k5", vectors[100]));
+
+        assertEquals(100, index.size());
+        assertEquals(101, index.nodeCount());
+        assertEquals("k5", index.search(vectors[100], 1, 32).get(0).key());
+        assertEquals(1.0f, index.search(vectors[100], 1, 32).get(0).similarity(), 1e-4);
+        assertFalse(index.search(vectors[5], 3, 32).stream()
+                .anyMatch(r -> r.key().equals("k5") && r.similarity() > 0.99f));
+
+        index.rebuild();
+        assertEquals(100, index.nodeCount());
+        assertEquals("k5", index.search(vectors[100], 1, 32).get(0).key());
+    }
+
+    @Test
+    void add_shouldBeSafeUnderConcurrentWritersAndReaders() throws Exception {
+        HnswIndex index = new HnswIndex(DIMENSION, 8, 50);
+        float[][] vectors = randomVectors(new Random(3), 800);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < vectors.length; i++) {
+                int id = i;
+                futures.add(pool.submit(() -> index.add("k" + id, vectors[id])));
+                futures.add(pool.submit(() -> index.search(vectors[id], 1, 16)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(vectors.length, index.size());
+        assertEquals("k123", index.search(vectors[123], 1, 64).get(0).key());
+    }
+
+    @Test
+    void add_shouldRejectWrongDimension() {
+        HnswIndex index = new HnswIndex(DIMENSION, 8, 50);
+
+        assertThrows(IllegalArgumentException.class, () -> index.add("bad", new float[DIMENSION + 1]));
+    }
+
+    private static float[][] randomVectors(Random random, int count) {
+        float[][] vectors = new float[count][DIMENSION];
+        for (float[] vector : vectors) {
+            for (int d = 0; d < DIMENSION; d++) {
+                vector[d] = (float) random.nextGaussian();
+            }
+        }
+        return vectors;
+    }
+
+    private static float[] perturb(Random random, float[] vector) {
+        float[] query = vector.clone();
+        for (int d = 0; d < query.length; d++) {
+            query[d] += 0.1f * (float) random.nextGaussian();
+        }
+        return query;
+    }
+
+    private static int bruteForce(float[][] vectors, float[] query) {
+        int best = -1;
+        float bestSimilarity = -2f;
+        for (int i = 0; i < vectors.length; i++) {
+            float similarity = HnswIndex.cosine(query, vectors[i]);
+            if (similarity > bestSimilarity) {
+                bestSimilarity = similarity;
+                best = i;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,122 @@
+package com.neurogate.router.cache.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neurogate.sentinel.model.ChatResponse;
+import com.neurogate.sentinel.model.Choice;
+import com.neurogate.sentinel.model.Message;
+import com.neurogate.sentinel.model.Usage;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BinaryChatResponseCodecTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final BinaryChatResponseCodec codec = new BinaryChatResponseCodec(objectMapper, true, 1024);
+
+    @Test
+    void roundTrip_shouldPreserveEveryField() {
+        ChatResponse response = ChatResponse.builder()
+                .id("chatcmpl-123")
+                .object("chat.completion")
+                .traceId("trace-1")
+                .sessionId("session-1")
+                .created(1_700_000_000L)
+                .model("gpt-4o")
+                .choices(List.of(Choice.builder()
+                        .index(0)
+                        .message(Message.builder().role("assistant").content("Paris.").name("bot").build())
+                        .finishReason("stop")
+                        .build()))
+                .usage(Usage.builder().promptTokens(12).completionTokens(3).totalTokens(15).build())
+                .systemFingerprint("fp_1")
+                .cacheHit(false)
+                .route("openai")
+                .latencyMs(420L)
+                .piiDetected(0)
+                .costUsd(0.00042)
+                .similarity(0.97)
+                .citations(List.of("https://example.com/a", "https://example.com/b"))
+                .build();
+
+        byte[] encoded = codec.encode(response);
+
+        assertEquals(BinaryChatResponseCodec.FORMAT_BINARY, encoded[0]);
+        assertEquals(response, codec.decode(encoded));
+    }
+
+    @Test
+    void roundTrip_shouldPreserveNullsAndStructuredContent() {
+        ChatResponse response = ChatResponse.builder()
+                .id("chatcmpl-456")
+                .choices(List.of(Choice.builder()
+                        .message(Message.builder()
+                                .role("assistant")
+                                .content(List.of(Map.of("type", "text", "text", "hello")))
+                                .build())
+                        .build()))
+                .build();
+
+        assertEquals(response, codec.decode(codec.encode(response)));
+    }
+
+    @Test
+    void encode_shouldCompressLargeResponsesWithLz4() {
+        ChatResponse response = responseWithContent("The quick brown fox jumps over the lazy dog. ".repeat(200));
+
+        byte[] encoded = codec.encode(response);
+
+        assertEquals(BinaryChatResponseCodec.FORMAT_BINARY_LZ4, encoded[0]);
+        assertTrue(encoded.length < 2000);
+        assertEquals(response, codec.decode(encoded));
+    }
+
+    @Test
+    void encode_shouldBeSmallerThanJson() throws Exception {
+        ChatResponse response = responseWithContent("A short cached answer.");
+
+        byte[] binary = new BinaryChatResponseCodec(objectMapper, false, 1024).encode(response);
+        byte[] json = objectMapper.writeValueAsBytes(response);
+
+        assertTrue(binary.length < json.length, "binary=" + binary.length + " json=" + json.length);
+    }
+
+    @Test
+    void decode_shouldReadLegacyJsonEntries() throws Exception {
+        ChatResponse response = responseWithContent("written by an older gateway");
+
+        byte[] legacy = objectMapper.writeValueAsBytes(response);
+
+        assertEquals(response, codec.decode(legacy));
+    }
+
+    @Test
+    void decode_shouldRejectCorruptEntries() {
+        byte[] encoded = codec.encode(responseWithContent("truncate me"));
+        byte[] truncated = java.util.Arrays.copyOf(encoded, encoded.length / 2);
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(truncated));
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(new byte[] { 0x7f }));
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(new byte[0]));
+    }
+
+    private ChatResponse responseWithContent(String content) {
+        return ChatResponse.builder()
+                .id("chatcmpl-789")
+                .object("chat.completion")
+                .model("gpt-4o-mini")
+                .choices(List.of(Choice.builder()
+                        .index(0)
+                        .message(Message.builder().role("assistant").content(content).build())
+                        .finishReason("stop")
+                        .build()))
+                .usage(Usage.builder().promptTokens(20).completionTokens(40).totalTokens(60).build())
+                .route("openai")
+                .build();
+    }
+}
@@ -0,0 +1,135 @@
+package com.neurogate.router.intelligence;
+
+import com.neurogate.router.intelligence.model.Intent;
+import com.neurogate.router.intelligence.model.IntentClassification;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IntentClassifierTest {
+
+    // Golden set: prompt and the intent it has always been classified as
+    private static final List<Golden> GOLDEN = List.of(
+            new Golden("Write a function in Python that parses a CSV file and returns the rows as dictionaries",
+                    Intent.CODE_GENERATION, 0.9),
+            new Golden("Fix this bug: my Java code throws a NullPointerException at runtime", Intent.CODE_REVIEW, 1.0),
+            new Golden("What's wrong with my SQL query? It returns duplicate rows", Intent.CODE_REVIEW, 0.9),
+            new Golden("Explain how this recursive function works", Intent.CODE_EXPLANATION, 0.85),
+            new Golden("Walk me through the code in `main.py`", Intent.CODE_EXPLANATION, 0.9),
+            new Golden("Analyze the trade-offs step-by-step and reason about the implications for our architecture",
+                    Intent.REASONING, 1.0),
+            new Golden("Prove that the square root of 2 is irrational", Intent.REASONING, 0.9),
+            new Golden("Solve for x: 3x + 5 = 20", Intent.MATH_SCIENCE, 0.9),
+            new Golden("Calculate the derivative of x^2 + 3x", Intent.MATH_SCIENCE, 0.9),
+            new Golden("Write a poem about the ocean at night", Intent.CREATIVE_WRITING, 0.95),
+            new Golden("Once upon a time, in a world without color, a painter imagined...",
+                    Intent.CREATIVE_WRITING, 0.85),
+            new Golden("Summarize this article in three sentences", Intent.SUMMARIZATION, 0.95),
+            new Golden("TL;DR of the meeting notes below", Intent.SUMMARIZATION, 0.95),
+            new Golden("Translate this paragraph into French", Intent.TRANSLATION, 0.95),
+            new Golden("How do you say 'good morning' in Japanese?", Intent.TRANSLATION, 0.85),
+            new Golden("What is the capital of Australia?", Intent.QUESTION_ANSWERING, 0.8),
+            new Golden("Who was the first person to walk on the moon?", Intent.QUESTION_ANSWERING, 0.8),
+            new Golden("Analyze this dataset and find correlations between price and demand",
+                    Intent.DATA_ANALYSIS, 0.9),
+            new Golden("Plot the monthly revenue trends as a chart", Intent.DATA_ANALYSIS, 0.8),
+            new Golden("Please run the migration and then follow these steps", Intent.INSTRUCTION_FOLLOWING, 0.7),
+            new Golden("Step 1: open the file. Step 2: count the lines.", Intent.INSTRUCTION_FOLLOWING, 0.75),
+            new Golden("Hello! How are you today?", Intent.CONVERSATION, 0.9),
+            new Golden("Thanks, that was helpful", Intent.CONVERSATION, 0.7),
+            new Golden("```java\npublic class Foo {}\n```\nWhy does this not work?", Intent.CODE_REVIEW, 1.0),
+            new Golden("  Leading whitespace: compare and contrast REST and gRPC", Intent.REASONING, 0.8),
+            new Golden("Can you optimize the following function?\n\tdef f(x): return x*x*x", Intent.CODE_REVIEW, 0.75),
+            new Golden("What is 12 * 7 + 3?", Intent.QUESTION_ANSWERING, 0.8),
+            new Golden("Caf\u00E9 na\u00EFve r\u00E9sum\u00E9: write a story about a barista", Intent.CREATIVE_WRITING, 0.95),
+            new Golden("Create a REST API endpoint for user registration in Spring Boot", Intent.CODE_GENERATION, 0.0),
+            new Golden("However, the results were inconclusive; moreover, the sample was small. Furthermore, "
+                    + "although promising, the approach failed despite tuning.", Intent.CODE_GENERATION, 0.0),
+            new Golden("Give me a comprehensive overview of Kubernetes networking, Docker images and AWS deployment "
+                    + "strategy", Intent.CODE_GENERATION, 0.15),
+            new Golden("\u0130mplement a cache for the \u212A sensor readings", Intent.CODE_GENERATION, 0.0),
+            new Golden("just some text without any signal", Intent.CODE_GENERATION, 0.0));
+
+    private static final String[] FRAGMENTS = {
+            "write", "a", "function", "class", "create", "api", "implement", "code", "for", "fix", "debug",
+            "this", "the", "my", "what's", "wrong", "with", "why", "does", "not work", "find", "bug",
+            "explain", "how", "walk", "me", "through", "analyze", "step-by-step", "step by step", "prove",
+            "solve", "12 + 3", "equation", "story", "poem", "once upon", "summarize", "tl;dr", "key points",
+            "translate", "in spanish", "who", "was", "can", "data", "csv", "statistics", "please", "run",
+            "step 3:", "hi", "thank you", "however", "furthermoreover", "althoughowever", "comprehensive",
+            "Comprehensive", "```", "`x`", "(1+2)=3", "kubernetes", "SQL", "screenplay", "\u0130mplement",
+            "\u212Aey points", "caf\u00E9", "\u0131mplement", "\u017Folve", "\t", "\n", "  ", "WrItE A FuNcTiOn"
+    };
+
+    private SimpleMeterRegistry meterRegistry;
+    private IntentClassifier classifier;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        classifier = new IntentClassifier(new ComplexityAnalyzer(), new IntentRoutingConfig(), meterRegistry);
+    }
+
+    @Test
+    void classify_matchesGoldenSet() {
+        for (Golden golden : GOLDEN) {
+            IntentClassification classification = classifier.classify(golden.prompt());
+
+            assertThat(classification.getIntent()).as(golden.prompt()).isEqualTo(golden.intent());
+            assertThat(classification.getConfidence()).as(golden.prompt()).isEqualTo(golden.confidence());
+            assertThat(classification).as(golden.prompt()).isEqualTo(classifier.classifyWithRegexes(golden.prompt()));
+        }
+    }
+
+    @Test
+    void classify_matchesRegexClassificationOnGeneratedPrompts() {
+        Random random = new Random(42);
+
+        for (int i = 0; i < 5_000; i++) {
+            StringBuilder prompt = new StringBuilder(random.nextInt(5) == 0 ? " " : "");
+            for (int words = 1 + random.nextInt(20); words > 0; words--) {
+                String fragment = FRAGMENTS[random.nextInt(FRAGMENTS.length)];
+                prompt.append(random.nextInt(6) == 0 ? fragment.toUpperCase() : fragment)
+                        .append(random.nextInt(8) == 0 ? "" : " ");
+            }
+            if (prompt.toString().isBlank()) {
+                continue;
+            }
+
+            assertThat(classifier.classify(prompt.toString()))
+                    .as(prompt.toString())
+                    .isEqualTo(classifier.classifyWithRegexes(prompt.toString()));
+        }
+    }
+
+    @Test
+    void classify_cachesByContent() {
+        IntentClassification first = classifier.classify("Summarize this article in three sentences");
+        IntentClassification second = classifier.classify(new String("Summarize this article in three sentences"));
+
+        assertThat(second).isSameAs(first);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "intent.classifications").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void classify_blankPromptIsConversation() {
+        assertThat(classifier.classify("   ").getIntent()).isEqualTo(Intent.CONVERSATION);
+        assertThat(classifier.classify(null).getConfidence()).isZero();
+    }
+
+    @Test
+    void countWords_matchesSplit() {
+        for (String text : List.of("", "one", " one", "one two ", "\tone\n\ntwo  three", "x\u000By\fz\r")) {
+            assertThat(IntentClassifier.countWords(text)).as(text).isEqualTo(text.split("\\s+").length);
+        }
+    }
+
+    private record Golden(String prompt, Intent intent, double confidence) {
+    }
+}
@@ -1,25 +1,43 @@
 package com.neurogate.router.provider;
 
+import com.neurogate.config.NeuroGateProperties;
 import com.neurogate.metrics.NeuroGateMetrics;
+import com.neurogate.router.adaptive.AdaptiveProviderSelector;
+import com.neurogate.router.resilience.HedgePolicy;
+import com.neurogate.router.resilience.HedgingService;
 import com.neurogate.router.resilience.ResilienceService;
 import com.neurogate.router.shadow.ShadowDeploymentService;
+import com.neurogate.router.stream.PiiRedactionProcessor;
+import com.neurogate.router.stream.StreamProcessorChain;
 import com.neurogate.sentinel.model.ChatRequest;
 import com.neurogate.sentinel.model.ChatResponse;
 import com.neurogate.sentinel.model.Choice;
 import com.neurogate.sentinel.model.Message;
-import com.neurogate.vault.PiiSanitizationService;
+import com.neurogate.tenant.TenantContext;
+import com.neurogate.vault.PiiRestorerFactory;
+import com.neurogate.vault.model.PiiEntity;
+import com.neurogate.vault.model.PiiType;
+import com.neurogate.vault.tokenizer.TokenVault;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
+import reactor.util.context.Context;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -39,9 +57,6 @@ class MultiProviderRouterTest {
     @Mock
     private ResilienceService resilienceService;
 
-    @Mock
-    private PiiSanitizationService piiSanitizationService;
-
     @Mock
     private ShadowDeploymentService shadowDeploymentService;
 
@@ -59,13 +74,18 @@ class MultiProviderRouterTest {
 
         lenient().when(anthropicProvider.getName()).thenReturn("anthropic");
         lenient().when(anthropicProvider.isAvailable()).thenReturn(true);
+        lenient().when(openAiProvider.getMetadata()).thenReturn(ProviderMetadata.builder().name("openai").priority(1).build());
+        lenient().when(anthropicProvider.getMetadata()).thenReturn(ProviderMetadata.builder().name("anthropic").priority(2).build());
 
         // Setup Router with mocks
         router = new MultiProviderRouter(
                 List.of(openAiProvider, anthropicProvider),
                 metrics,
                 resilienceService,
-                piiSanitizationService);
+                new StreamProcessorChain(
+                        List.of(new PiiRedactionProcessor(new PiiRestorerFactory())),
+                        new NeuroGateProperties(),
+                        new SimpleMeterRegistry()));
         router.setShadowDeploymentService(shadowDeploymentService);
 
         // Standard Request
@@ -139,20 +159,144 @@ class MultiProviderRouterTest {
         verify(openAiProvider).generate(requestWithIntent);
     }
 
+    @Test
+    void testRefreshOnAvailabilityChange_RebuildsRoutingTableOnlyWhenAvailabilityChanges() {
+        RoutingTable first = router.refreshRoutingTable();
+
+        router.refreshOnAvailabilityChange();
+        assertSame(first, router.getRoutingTable());
+
+        when(anthropicProvider.isAvailable()).thenReturn(false);
+        router.refreshOnAvailabilityChange();
+        assertNotSame(first, router.getRoutingTable());
+    }
+
+    @Test
+    void testRouteAsync_UsesNonBlockingProviderCall() {
+        stubExecuteAsync();
+        when(openAiProvider.generateAsync(any())).thenReturn(Mono.just(testResponse));
+
+        StepVerifier.create(router.routeAsync(testRequest))
+                .expectNext(testResponse)
+                .verifyComplete();
+
+        verify(openAiProvider, never()).generate(any());
+        verify(resilienceService).executeAsync(eq("openai"), any(), any());
+    }
+
+    @Test
+    void testRouteAsync_FallsBackWhenDirectProviderFails() {
+        stubExecuteAsync();
+        when(openAiProvider.generateAsync(any())).thenReturn(Mono.error(new RuntimeException("upstream down")));
+        when(anthropicProvider.getEquivalentModel("gpt-4")).thenReturn("claude-3-opus-20240229");
+        when(anthropicProvider.generateAsync(any())).thenReturn(Mono.fromSupplier(() -> ChatResponse.builder()
+                .model("claude-3-opus-20240229")
+                .build()));
+
+        StepVerifier.create(router.routeAsync(testRequest))
+                .expectNextMatches(r -> "anthropic-fallback".equals(r.getRoute()))
+                .verifyComplete();
+
+        verify(metrics).recordProviderFailure("openai");
+        verify(anthropicProvider).generateAsync(argThat(req -> "claude-3-opus-20240229".equals(req.getModel())));
+    }
+
+    @Test
+    void testRouteAsync_FallbackReleasesInFlightSlotsOnce() {
+        stubExecuteAsync();
+        AdaptiveProviderSelector selector = new AdaptiveProviderSelector(new NeuroGateProperties(), new SimpleMeterRegistry());
+        router.setAdaptiveProviderSelector(selector);
+        when(openAiProvider.generateAsync(any())).thenReturn(Mono.error(new RuntimeException("upstream down")));
+        when(anthropicProvider.getEquivalentModel("gpt-4")).thenReturn("claude-3-opus-20240229");
+        when(anthropicProvider.generateAsync(any())).thenReturn(Mono.fromSupplier(() -> ChatResponse.builder()
+                .model("claude-3-opus-20240229")
+                .build()));
+
+        StepVerifier.create(router.routeAsync(testRequest))
+                .expectNextMatches(r -> "anthropic-fallback".equals(r.getRoute()))
+                .verifyComplete();
+
+        assertEquals(0, selector.stats(anthropicProvider, "claude-3-opus-20240229").inFlight());
+        assertEquals(0, selector.describe(anthropicProvider).getInFlightRequests());
+        assertEquals(0, selector.describe(openAiProvider).getInFlightRequests());
+    }
+
+    @Test
+    void testRouteAsync_HedgesSlowDirectProvider() {
+        stubExecuteAsync();
+        NeuroGateProperties properties = new NeuroGateProperties();
+        NeuroGateProperties.Router.Hedging hedging = properties.getRouter().getHedging();
+        hedging.setEnabled(true);
+        hedging.setMinSamples(0);
+        hedging.setMinDelayMs(10);
+        hedging.setBudgetRatio(1.0);
+        router.setAdaptiveProviderSelector(new AdaptiveProviderSelector(properties, new SimpleMeterRegistry()));
+        router.setHedgingService(new HedgingService(Runnable::run));
+        router.setHedgePolicy(new HedgePolicy(properties));
+
+        when(openAiProvider.getMetadata()).thenReturn(ProviderMetadata.builder().name("openai").priority(1).avgLatencyMs(20).build());
+        when(openAiProvider.generateAsync(any())).thenReturn(Mono.never());
+        when(anthropicProvider.getEquivalentModel("gpt-4")).thenReturn("claude-3-opus-20240229");
+        when(anthropicProvider.generateAsync(any())).thenReturn(Mono.fromSupplier(() -> ChatResponse.builder()
+                .model("claude-3-opus-20240229")
+                .build()));
+
+        StepVerifier.create(router.routeAsync(testRequest))
+                .expectNextMatches(r -> "anthropic-hedge".equals(r.getRoute()))
+                .verifyComplete();
+
+        verify(metrics).recordHedge("fired");
+        verify(metrics).recordHedge("won");
+        verify(metrics, never()).recordProviderFailure("openai");
+    }
+
+    @Test
+    void testRouteAsync_ResolvesHedgeTenantFromContextOnAnotherThread() {
+        stubExecuteAsync();
+        NeuroGateProperties properties = new NeuroGateProperties();
+        NeuroGateProperties.Router.Hedging hedging = properties.getRouter().getHedging();
+        hedging.setEnabled(true);
+        hedging.setTenants(List.of("org-hedged"));
+        hedging.setMinSamples(0);
+        hedging.setMinDelayMs(10);
+        hedging.setBudgetRatio(1.0);
+        router.setAdaptiveProviderSelector(new AdaptiveProviderSelector(properties, new SimpleMeterRegistry()));
+        router.setHedgingService(new HedgingService(Runnable::run));
+        router.setHedgePolicy(new HedgePolicy(properties));
+
+        when(openAiProvider.getMetadata()).thenReturn(ProviderMetadata.builder().name("openai").priority(1).avgLatencyMs(20).build());
+        when(openAiProvider.generateAsync(any())).thenReturn(Mono.never());
+        when(anthropicProvider.getEquivalentModel("gpt-4")).thenReturn("claude-3-opus-20240229");
+        when(anthropicProvider.generateAsync(any())).thenReturn(Mono.fromSupplier(() -> ChatResponse.builder()
+                .model("claude-3-opus-20240229")
+                .build()));
+
+        // The tenant is only in the Reactor context: the subscribing thread has no TenantContext
+        Mono<ChatResponse> result = router.routeAsync(testRequest)
+                .subscribeOn(Schedulers.boundedElastic())
+                .contextWrite(Context.of(TenantContext.CONTEXT_KEY, "org-hedged"));
+
+        StepVerifier.create(result)
+                .expectNextMatches(r -> "anthropic-hedge".equals(r.getRoute()))
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+
+        verify(metrics).recordHedge("fired");
+    }
+
     @Test
     void testStreamingPiiRedaction() {
-        // Given: PiiSanitizationService is set up
+        // Given: the request's vault holds <EMAIL_1>
         // We want to simulate a stream that contains PII tokens like <EMAIL_1>
-        // and expect the desanitize method to be called.
+        // and expect the placeholder to be restored once it is complete.
 
         ChatRequest streamRequest = ChatRequest.builder().model("gpt-4").stream(true).build();
 
         // Mock streaming response flux
-        // Chunk 1: "Contact " -> Buffers (Size 1) -> Returns ""
-        // Chunk 2: "<EMAIL" -> Buffers (Size 2) -> Returns ""
-        // Chunk 3: "_1>" -> Buffers (Size 3) -> Matches -> Returns "john@doe.com"
-        // Chunk 4: " for info." -> Buffers (Size 1) -> Returns ""
-        // Flush -> Returns " for info."
+        // Chunk 1: "Contact " -> No placeholder -> Returned as-is
+        // Chunk 2: "<EMAIL" -> Possible placeholder -> Held back, returns ""
+        // Chunk 3: "_1>" -> Completes "<EMAIL_1>" -> Returns "john@doe.com"
+        // Chunk 4: " for info." -> Returned as-is, nothing left to flush
 
         ChatResponse c1 = deltaResponse("Contact ");
         ChatResponse c2 = deltaResponse("<EMAIL");
@@ -161,26 +305,32 @@ class MultiProviderRouterTest {
 
         when(openAiProvider.generateStream(any())).thenReturn(Flux.just(c1, c2, c3, c4));
 
-        // Mock PiiSanitizationService to return restored value
-        // Note: Generic matches must come FIRST, specific matches LAST to override
-        when(piiSanitizationService.desanitize(anyString())).thenAnswer(i -> i.getArgument(0)); // Default return input
-        when(piiSanitizationService.desanitize(contains("<EMAIL_1>"))).thenReturn("john@doe.com");
+        TokenVault tokenVault = new TokenVault();
+        tokenVault.tokenize(new PiiEntity(PiiType.EMAIL, "john@doe.com", 0, 12));
 
         // When
-        Flux<ChatResponse> result = router.routeStream(streamRequest);
+        Flux<ChatResponse> result = router.routeStream(streamRequest)
+                .contextWrite(Context.of(TokenVault.CONTEXT_KEY, tokenVault));
 
         // Then
         StepVerifier.create(result)
-                .expectNextMatches(r -> "".equals(r.getChoices().get(0).getDelta().getStrContent())) // Chunk 1 buffered
-                .expectNextMatches(r -> "".equals(r.getChoices().get(0).getDelta().getStrContent())) // Chunk 2 buffered
-                .expectNextMatches(r -> "john@doe.com".equals(r.getChoices().get(0).getDelta().getStrContent())) // Chunk
-                                                                                                                 // 3
-                                                                                                                 // restored
-                .expectNextMatches(r -> "".equals(r.getChoices().get(0).getDelta().getStrContent())) // Chunk 4 buffered
-                .expectNextMatches(r -> " for info.".equals(r.getChoices().get(0).getDelta().getStrContent())) // Flush
+                .expectNextMatches(r -> "Contact ".equals(r.getChoices().get(0).getDelta().getStrContent()))
+                .expectNextMatches(r -> "".equals(r.getChoices().get(0).getDelta().getStrContent())) // Chunk 2 held back
+                .expectNextMatches(r -> "john@doe.com".equals(r.getChoices().get(0).getDelta().getStrContent()))
+                .expectNextMatches(r -> " for info.".equals(r.getChoices().get(0).getDelta().getStrContent()))
                 .verifyComplete();
     }
 
+    @SuppressWarnings("unchecked")
+    private void stubExecuteAsync() {
+        when(resilienceService.executeAsync(anyString(), any(), any())).thenAnswer(invocation -> {
+            Supplier<Mono<ChatResponse>> supplier = invocation.getArgument(1);
+            Function<Throwable, Mono<ChatResponse>> fallback = invocation.getArgument(2);
+            Mono<ChatResponse> call = Mono.defer(supplier);
+            return fallback == null ? call : call.onErrorResume(fallback);
+        });
+    }
+
     private ChatResponse deltaResponse(String content) {
         return ChatResponse.builder()
                 .choices(List.of(Choice.builder()
@@ -1,5 +1,7 @@
 package com.neurogate.router.provider;
 
+import com.neurogate.config.NeuroGateProperties;
+import com.neurogate.router.upstream.UpstreamWebClientFactory;
 import com.neurogate.sentinel.model.ChatRequest;
 import com.neurogate.sentinel.model.ChatResponse;
 import com.neurogate.sentinel.model.Message;
@@ -19,6 +21,7 @@ import static org.junit.jupiter.api.Assertions.*;
 class OllamaProviderTest {
 
     private MockWebServer mockWebServer;
+    private UpstreamWebClientFactory webClientFactory;
     private OllamaProvider ollamaProvider;
 
     @BeforeEach
@@ -26,8 +29,8 @@ class OllamaProviderTest {
         mockWebServer = new MockWebServer();
         mockWebServer.start();
 
-        WebClient.Builder webClientBuilder = WebClient.builder();
-        ollamaProvider = new OllamaProvider(webClientBuilder);
+        webClientFactory = new UpstreamWebClientFactory(WebClient.builder(), new NeuroGateProperties());
+        ollamaProvider = new OllamaProvider(webClientFactory);
 
         ReflectionTestUtils.setField(ollamaProvider, "baseUrl", mockWebServer.url("/").toString());
         ReflectionTestUtils.setField(ollamaProvider, "enabled", true);
@@ -35,6 +38,7 @@ class OllamaProviderTest {
 
     @AfterEach
     void tearDown() throws IOException {
+        webClientFactory.shutdown();
         mockWebServer.shutdown();
     }
 
@@ -83,6 +87,26 @@ class OllamaProviderTest {
         assertEquals("ollama", response.getRoute());
     }
 
+    @Test
+    void testGenerate_ReusesPooledConnection() throws InterruptedException {
+        String body = """
+                {"model": "llama3", "message": {"role": "assistant", "content": "hi"}, "done": true}
+                """;
+        mockWebServer.enqueue(new MockResponse().addHeader("Content-Type", "application/json").setBody(body));
+        mockWebServer.enqueue(new MockResponse().addHeader("Content-Type", "application/json").setBody(body));
+
+        ChatRequest request = ChatRequest.builder()
+                .model("llama3")
+                .messages(List.of(Message.builder().role("user").content("Hello").build()))
+                .build();
+        ollamaProvider.generate(request);
+        ollamaProvider.generate(request);
+
+        mockWebServer.takeRequest();
+        // Second request on the same connection has sequence number 1
+        assertEquals(1, mockWebServer.takeRequest().getSequenceNumber());
+    }
+
     @Test
     void testGetSupportedModels() {
         mockWebServer.enqueue(new MockResponse().setBody("0.1.32")); // For isAvailable check
@@ -0,0 +1,110 @@
+package com.neurogate.router.provider;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RoutingTableTest {
+
+    private LLMProvider openAi;
+    private LLMProvider anthropic;
+    private RoutingTable table;
+
+    @BeforeEach
+    void setUp() {
+        openAi = provider("openai", 2, List.of("gpt-4", "gpt-4o"),
+                Map.of("gpt-4", "gpt-4", "claude-3-opus", "gpt-4"), "gpt-4o-mini");
+        anthropic = provider("anthropic", 1, List.of("claude-3-opus-20240229"),
+                Map.of("gpt-4", "claude-3-opus-20240229"), "claude-3-sonnet-20240229");
+
+        table = RoutingTable.build(List.of(openAi, anthropic));
+    }
+
+    @Test
+    void build_indexesSupportedAndMappedModels() {
+        assertTrue(table.models().containsAll(List.of("gpt-4", "gpt-4o", "claude-3-opus-20240229", "claude-3-opus")));
+        assertEquals(List.of(anthropic, openAi), table.providersByPriority());
+    }
+
+    @Test
+    void route_resolvesDirectProviderAndFallbacksInPriorityOrder() {
+        RoutingTable.Route route = table.route("gpt-4");
+
+        assertSame(openAi, route.direct());
+        assertEquals(List.of(
+                new RoutingTable.Candidate(anthropic, "claude-3-opus-20240229"),
+                new RoutingTable.Candidate(openAi, "gpt-4")), route.candidates());
+    }
+
+    @Test
+    void route_mappedOnlyModelHasNoDirectProvider() {
+        RoutingTable.Route route = table.route("claude-3-opus");
+
+        assertNull(route.direct());
+        assertEquals("gpt-4", route.candidates().get(1).model());
+    }
+
+    @Test
+    void route_knownModelIsPrecomputed() {
+        RoutingTable.Route first = table.route("gpt-4o");
+
+        assertSame(first, table.route("gpt-4o"));
+        verify(openAi, times(1)).getEquivalentModel("gpt-4o");
+    }
+
+    @Test
+    void route_precomputesCandidatesExcludingEachProvider() {
+        RoutingTable.Route route = table.route("gpt-4");
+
+        assertEquals(List.of(new RoutingTable.Candidate(openAi, "gpt-4")), route.candidatesExcluding("anthropic"));
+        assertEquals(List.of(new RoutingTable.Candidate(anthropic, "claude-3-opus-20240229")),
+                route.candidatesExcluding("openai"));
+        assertSame(route.candidatesExcluding("openai"), route.candidatesExcluding("openai"));
+        assertSame(route.candidates(), route.candidatesExcluding(null));
+        assertSame(route.candidates(), route.candidatesExcluding("ollama"));
+    }
+
+    @Test
+    void route_unknownModelIsResolvedOnDemand() {
+        RoutingTable.Route route = table.route("llama3");
+
+        assertNull(route.direct());
+        assertEquals(List.of(
+                new RoutingTable.Candidate(anthropic, "claude-3-sonnet-20240229"),
+                new RoutingTable.Candidate(openAi, "gpt-4o-mini")), route.candidates());
+    }
+
+    @Test
+    void route_unknownModelIsResolvedOncePerTable() {
+        RoutingTable.Route first = table.route("llama3");
+
+        assertSame(first, table.route("llama3"));
+        verify(openAi, times(1)).getEquivalentModel("llama3");
+        verify(anthropic, times(1)).getEquivalentModel("llama3");
+    }
+
+    private static LLMProvider provider(String name, int priority, List<String> models,
+                                        Map<String, String> equivalents, String defaultModel) {
+        LLMProvider provider = mock(LLMProvider.class);
+        when(provider.getName()).thenReturn(name);
+        when(provider.getMetadata()).thenReturn(ProviderMetadata.builder().name(name).priority(priority).build());
+        when(provider.getSupportedModels()).thenReturn(models);
+        when(provider.getModelEquivalents()).thenReturn(equivalents);
+        when(provider.supportsModel(anyString())).thenAnswer(invocation -> models.contains(invocation.<String>getArgument(0)));
+        when(provider.getEquivalentModel(anyString()))
+                .thenAnswer(invocation -> equivalents.getOrDefault(invocation.<String>getArgument(0), defaultModel));
+        return provider;
+    }
+}
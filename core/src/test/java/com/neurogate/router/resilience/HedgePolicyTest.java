@@ -0,0 +1,103 @@
+package com.neurogate.router.resilience;
+
+import com.neurogate.config.NeuroGateProperties;
+import com.neurogate.router.adaptive.ProviderStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HedgePolicyTest {
+
+    private NeuroGateProperties properties;
+    private NeuroGateProperties.Router.Hedging config;
+    private HedgePolicy policy;
+
+    @BeforeEach
+    void setUp() {
+        properties = new NeuroGateProperties();
+        config = properties.getRouter().getHedging();
+        config.setEnabled(true);
+        policy = new HedgePolicy(properties);
+    }
+
+    @Test
+    void appliesTo_filtersByModelAndTenant() {
+        assertTrue(policy.appliesTo("gpt-4", "acme"));
+
+        config.setModels(List.of("gpt-4o"));
+        config.setTenants(List.of("acme"));
+
+        assertTrue(policy.appliesTo("gpt-4o", "acme"));
+        assertFalse(policy.appliesTo("gpt-4", "acme"));
+        assertFalse(policy.appliesTo("gpt-4o", "default-org"));
+
+        config.setEnabled(false);
+        assertFalse(policy.appliesTo("gpt-4o", "acme"));
+    }
+
+    @Test
+    void delay_usesObservedQuantileOnceWarmedUp() {
+        config.setMinSamples(20);
+        ProviderStats stats = new ProviderStats(0.2, 1000);
+
+        assertNull(policy.delay(stats));
+
+        for (int i = 1; i <= 100; i++) {
+            stats.begin();
+            stats.complete(i * 10_000_000L, true);
+        }
+
+        assertEquals(Duration.ofMillis(950), policy.delay(stats));
+    }
+
+    @Test
+    void delay_neverBelowMinimum() {
+        config.setMinSamples(1);
+        config.setMinDelayMs(200);
+        ProviderStats stats = new ProviderStats(0.2, 1000);
+        stats.begin();
+        stats.complete(5_000_000L, true);
+
+        assertEquals(Duration.ofMillis(200), policy.delay(stats));
+    }
+
+    @Test
+    void tryAcquire_limitsHedgesToBudgetRatio() {
+        config.setBudgetRatio(0.05);
+        ProviderStats stats = new ProviderStats(0.2, 1000);
+
+        int hedges = 0;
+        for (int i = 0; i < 1000; i++) {
+            policy.delay(stats);
+            if (policy.tryAcquire()) {
+                hedges++;
+            }
+        }
+
+        assertEquals(50, hedges);
+    }
+
+    @Test
+    void tryAcquire_unusedBudgetIsCappedAtBurst() {
+        config.setBudgetRatio(0.5);
+        config.setBudgetBurst(3);
+        ProviderStats stats = new ProviderStats(0.2, 1000);
+
+        for (int i = 0; i < 100; i++) {
+            policy.delay(stats);
+        }
+
+        assertEquals(3.0, policy.availableBudget());
+        assertTrue(policy.tryAcquire());
+        assertTrue(policy.tryAcquire());
+        assertTrue(policy.tryAcquire());
+        assertFalse(policy.tryAcquire());
+    }
+}
@@ -7,13 +7,20 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.test.publisher.PublisherProbe;
+
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
 
 @ExtendWith(MockitoExtension.class)
 class HedgingServiceTest {
@@ -27,7 +34,7 @@ class HedgingServiceTest {
     @BeforeEach
     void setUp() {
         // Simple synchronous executor for testing
-        doAnswer(invocation -> {
+        lenient().doAnswer(invocation -> {
             ((Runnable) invocation.getArgument(0)).run();
             return null;
         }).when(taskExecutor).execute(any(Runnable.class));
@@ -70,4 +77,91 @@ class HedgingServiceTest {
 
         assertThrows(RuntimeException.class, () -> hedgingService.hedge("test", List.of(fail1, fail2)));
     }
+
+    @Test
+    void testHedgeAfter_PrimaryAnswersBeforeDelay() {
+        AtomicInteger backups = new AtomicInteger();
+        List<HedgingService.HedgeOutcome> outcomes = new ArrayList<>();
+
+        StepVerifier.withVirtualTime(() -> hedgingService.hedgeAfter("test",
+                        Mono.just("primary").delayElement(Duration.ofMillis(50)),
+                        Duration.ofMillis(100),
+                        () -> {
+                            backups.incrementAndGet();
+                            return Mono.just("hedge");
+                        },
+                        outcomes::add))
+                .thenAwait(Duration.ofMillis(50))
+                .expectNext("primary")
+                .verifyComplete();
+
+        assertEquals(0, backups.get());
+        assertTrue(outcomes.isEmpty());
+    }
+
+    @Test
+    void testHedgeAfter_HedgeWinsAndPrimaryIsCancelled() {
+        PublisherProbe<String> primary = PublisherProbe.of(Mono.never());
+        List<HedgingService.HedgeOutcome> outcomes = new ArrayList<>();
+
+        StepVerifier.withVirtualTime(() -> hedgingService.hedgeAfter("test",
+                        primary.mono(),
+                        Duration.ofMillis(100),
+                        () -> Mono.just("hedge").delayElement(Duration.ofMillis(10)),
+                        outcomes::add))
+                .thenAwait(Duration.ofMillis(110))
+                .expectNext("hedge")
+                .verifyComplete();
+
+        primary.assertWasCancelled();
+        assertEquals(List.of(HedgingService.HedgeOutcome.WON), outcomes);
+    }
+
+    @Test
+    void testHedgeAfter_PrimaryWinsAfterHedgeFired() {
+        PublisherProbe<String> hedge = PublisherProbe.of(Mono.never());
+        List<HedgingService.HedgeOutcome> outcomes = new ArrayList<>();
+
+        StepVerifier.withVirtualTime(() -> hedgingService.hedgeAfter("test",
+                        Mono.just("primary").delayElement(Duration.ofMillis(150)),
+                        Duration.ofMillis(100),
+                        hedge::mono,
+                        outcomes::add))
+                .thenAwait(Duration.ofMillis(150))
+                .expectNext("primary")
+                .verifyComplete();
+
+        hedge.assertWasCancelled();
+        assertEquals(List.of(HedgingService.HedgeOutcome.WASTED), outcomes);
+    }
+
+    @Test
+    void testHedgeAfter_PrimaryFailureBeforeDelayFailsFast() {
+        AtomicInteger backups = new AtomicInteger();
+
+        StepVerifier.withVirtualTime(() -> hedgingService.hedgeAfter("test",
+                        Mono.<String>error(new IllegalStateException("primary down")),
+                        Duration.ofMillis(100),
+                        () -> {
+                            backups.incrementAndGet();
+                            return Mono.just("hedge");
+                        },
+                        outcome -> { }))
+                .expectErrorMessage("primary down")
+                .verify();
+
+        assertEquals(0, backups.get());
+    }
+
+    @Test
+    void testHedgeAfter_SkippedHedgeWaitsForPrimary() {
+        StepVerifier.withVirtualTime(() -> hedgingService.hedgeAfter("test",
+                        Mono.just("primary").delayElement(Duration.ofMillis(300)),
+                        Duration.ofMillis(100),
+                        () -> null,
+                        outcome -> { }))
+                .thenAwait(Duration.ofMillis(300))
+                .expectNext("primary")
+                .verifyComplete();
+    }
 }
@@ -7,6 +7,8 @@ import io.github.resilience4j.retry.RetryConfig;
 import io.github.resilience4j.retry.RetryRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
 
 import java.time.Duration;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -93,4 +95,36 @@ class ResilienceServiceTest {
         CircuitBreaker cb = circuitBreakerRegistry.circuitBreaker("flaky-provider");
         assertEquals(CircuitBreaker.State.OPEN, cb.getState());
     }
+
+    @Test
+    void testExecuteAsync_RetriesByResubscribing() {
+        AtomicInteger attempts = new AtomicInteger(0);
+
+        Mono<String> result = resilienceService.executeAsync(
+                "async-retry-provider",
+                () -> attempts.incrementAndGet() < 2
+                        ? Mono.<String>error(new RuntimeException("Transient failure"))
+                        : Mono.just("Success after retries"),
+                throwable -> Mono.just("Fallback"));
+
+        StepVerifier.create(result)
+                .expectNext("Success after retries")
+                .verifyComplete();
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void testExecuteAsync_FallbackAndCircuitBreaker() {
+        for (int i = 0; i < 5; i++) {
+            StepVerifier.create(resilienceService.executeAsync(
+                            "async-flaky-provider",
+                            () -> Mono.<String>error(new RuntimeException("Fail")),
+                            throwable -> Mono.just("Fallback")))
+                    .expectNext("Fallback")
+                    .verifyComplete();
+        }
+
+        CircuitBreaker cb = circuitBreakerRegistry.circuitBreaker("async-flaky-provider");
+        assertEquals(CircuitBreaker.State.OPEN, cb.getState());
+    }
 }
@@ -0,0 +1,281 @@
+package com.neurogate.router.stream;
+
+import com.neurogate.config.NeuroGateProperties;
+import com.neurogate.sentinel.model.ChatResponse;
+import com.neurogate.sentinel.model.Choice;
+import com.neurogate.sentinel.model.Message;
+import com.neurogate.vault.streaming.StreamingGuardrail;
+import com.neurogate.vault.streaming.StreamingGuardrailConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import reactor.util.context.ContextView;
+
+import java.util.List;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StreamProcessorChainTest {
+
+    private NeuroGateProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        properties = new NeuroGateProperties();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void process_runsProcessorsInPriorityOrderInOnePass() {
+        StreamProcessorChain chain = chain(
+                processor("second", 20, (text, chunk) -> text + "2"),
+                processor("first", 10, (text, chunk) -> text + "1"));
+
+        StepVerifier.create(chain.process(Flux.just(chunk("a"), chunk("b"))))
+                .expectNextMatches(r -> "a12".equals(content(r)))
+                .expectNextMatches(r -> "b12".equals(content(r)))
+                .verifyComplete();
+
+        assertEquals(List.of("first", "second"),
+                chain.getProcessors().stream().map(StreamProcessor::getName).toList());
+        assertEquals(2, meterRegistry.get("neurogate.stream.processor.latency")
+                .tag("processor", "first").timer().count());
+    }
+
+    @Test
+    void process_flushedTextPassesThroughLaterProcessors() {
+        StreamProcessorChain chain = chain(new HoldingProcessor(10),
+                processor("upper", 20, (text, chunk) -> text.toUpperCase()));
+
+        StepVerifier.create(chain.process(Flux.just(chunk("ab"), chunk("cd"))))
+                .expectNextMatches(r -> "".equals(content(r)))
+                .expectNextMatches(r -> "".equals(content(r)))
+                .expectNextMatches(r -> "ABCD".equals(content(r)))
+                .verifyComplete();
+    }
+
+    @Test
+    void process_flushedTextPassesThroughEachLaterProcessorOnce() {
+        StreamProcessorChain chain = chain(new HoldingProcessor(10),
+                processor("bracket", 20, (text, chunk) -> text.isEmpty() ? text : "<" + text + ">"),
+                processor("suffix", 30, (text, chunk) -> text.isEmpty() ? text : text + "!"));
+
+        StepVerifier.create(chain.process(Flux.just(chunk("ab"), chunk("cd"))))
+                .expectNextMatches(r -> "".equals(content(r)))
+                .expectNextMatches(r -> "".equals(content(r)))
+                .expectNextMatches(r -> "<abcd>!".equals(content(r)))
+                .verifyComplete();
+    }
+
+    @Test
+    void process_abortEndsStreamAndSkipsLaterProcessors() {
+        StreamProcessorChain chain = chain(
+                processor("guard", 10, (text, chunk) -> {
+                    if (text.contains("bad")) {
+                        chunk.getChoices().get(0).setFinishReason(StreamProcessorChain.CONTENT_FILTER);
+                        return "[terminated]";
+                    }
+                    return text;
+                }),
+                processor("suffix", 20, (text, chunk) -> text + "!"),
+                new HoldingProcessor(30));
+
+        StepVerifier.create(chain.process(Flux.just(chunk("ok"), chunk("bad"), chunk("never"))))
+                .expectNextMatches(r -> "".equals(content(r)))
+                .expectNextMatches(r -> "[terminated]".equals(content(r)))
+                .verifyComplete();
+    }
+
+    @Test
+    void process_handlesMessageShapedChunks() {
+        StreamProcessorChain chain = chain(new HoldingProcessor(10),
+                processor("guard", 20, (text, chunk) -> {
+                    if (text.contains("bad")) {
+                        chunk.getChoices().get(0).setFinishReason(StreamProcessorChain.CONTENT_FILTER);
+                        return "[terminated]";
+                    }
+                    return text.toUpperCase();
+                }));
+
+        StepVerifier.create(chain.process(Flux.just(messageChunk("ab"), messageChunk("cd"))))
+                .expectNextMatches(r -> "".equals(r.getChoices().get(0).getMessage().getStrContent()))
+                .expectNextMatches(r -> "".equals(r.getChoices().get(0).getMessage().getStrContent()))
+                .expectNextMatches(r -> "ABCD".equals(r.getChoices().get(0).getMessage().getStrContent())
+                        && r.getChoices().get(0).getDelta() == null)
+                .verifyComplete();
+
+        StepVerifier.create(chain.process(Flux.just(messageChunk("so bad"))))
+                .expectNextMatches(r -> "".equals(r.getChoices().get(0).getMessage().getStrContent()))
+                .expectNextMatches(r -> "[terminated]".equals(r.getChoices().get(0).getMessage().getStrContent())
+                        && StreamProcessorChain.CONTENT_FILTER.equals(r.getChoices().get(0).getFinishReason()))
+                .verifyComplete();
+    }
+
+    @Test
+    void process_guardrailEndsStreamOnViolationInFinalToken() {
+        StreamingGuardrailConfig config = new StreamingGuardrailConfig();
+        StreamingGuardrailConfig.PatternConfig pattern = new StreamingGuardrailConfig.PatternConfig();
+        pattern.setPattern("(?i)\\bfoobar\\b");
+        pattern.setSeverity("HIGH");
+        pattern.setCategory("CUSTOM");
+        pattern.setAction("FILTER");
+        pattern.setPoints(10);
+        pattern.setDescription("Custom word");
+        config.setPatterns(List.of(pattern));
+        config.init();
+        StreamProcessorChain chain = chain(new GuardrailProcessor(new StreamingGuardrail(config)));
+
+        StepVerifier.create(chain.process(Flux.just(chunk("say "), chunk("foobar"))))
+                .expectNextMatches(r -> "say ".equals(content(r)))
+                .expectNextMatches(r -> "foobar".equals(content(r)))
+                .expectNextMatches(r -> content(r).endsWith("Custom word]")
+                        && StreamProcessorChain.CONTENT_FILTER.equals(r.getChoices().get(0).getFinishReason()))
+                .verifyComplete();
+    }
+
+    @Test
+    void process_stateIsPerSubscription() {
+        StreamProcessorChain chain = chain(new HoldingProcessor(10));
+        Flux<ChatResponse> processed = chain.process(Flux.defer(() -> Flux.just(chunk("x"), chunk("y"))));
+
+        for (int i = 0; i < 2; i++) {
+            StepVerifier.create(processed)
+                    .expectNextCount(2)
+                    .expectNextMatches(r -> "xy".equals(content(r)))
+                    .verifyComplete();
+        }
+    }
+
+    @Test
+    void process_skipsDisabledProcessors() {
+        StreamProcessor disabled = new StreamProcessor() {
+            @Override
+            public Stage open(ContextView context) {
+                return (text, chunk) -> "disabled";
+            }
+
+            @Override
+            public int getPriority() {
+                return 10;
+            }
+
+            @Override
+            public String getName() {
+                return "disabled";
+            }
+
+            @Override
+            public boolean isEnabled() {
+                return false;
+            }
+        };
+        StreamProcessorChain chain = chain(disabled);
+
+        StepVerifier.create(chain.process(Flux.just(chunk("a"))))
+                .expectNextMatches(r -> "a".equals(content(r)))
+                .verifyComplete();
+    }
+
+    @Test
+    void process_batchingCoalescesDeltas() {
+        properties.getStreaming().getBatching().setEnabled(true);
+        properties.getStreaming().getBatching().setMaxChunks(3);
+        properties.getStreaming().getBatching().setMaxDelayMs(10_000);
+        StreamProcessorChain chain = chain(processor("noop", 10, (text, chunk) -> text));
+
+        ChatResponse last = chunk("e");
+        last.getChoices().get(0).setFinishReason("stop");
+
+        StepVerifier.create(chain.process(Flux.just(chunk("a"), chunk("b"), chunk("c"), chunk("d"), last)))
+                .expectNextMatches(r -> "abc".equals(content(r)))
+                .expectNextMatches(r -> "de".equals(content(r))
+                        && "stop".equals(r.getChoices().get(0).getFinishReason()))
+                .verifyComplete();
+    }
+
+    private StreamProcessorChain chain(StreamProcessor... processors) {
+        return new StreamProcessorChain(List.of(processors), properties, meterRegistry);
+    }
+
+    private static StreamProcessor processor(String name, int priority,
+                                             BiFunction<String, ChatResponse, String> apply) {
+        return new StreamProcessor() {
+            @Override
+            public Stage open(ContextView context) {
+                return apply::apply;
+            }
+
+            @Override
+            public int getPriority() {
+                return priority;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+        };
+    }
+
+    private static ChatResponse chunk(String content) {
+        return ChatResponse.builder()
+                .choices(List.of(Choice.builder()
+                        .delta(Message.builder().role("assistant").content(content).build())
+                        .build()))
+                .build();
+    }
+
+    private static ChatResponse messageChunk(String content) {
+        return ChatResponse.builder()
+                .choices(List.of(Choice.builder()
+                        .message(Message.builder().role("assistant").content(content).build())
+                        .build()))
+                .build();
+    }
+
+    private static String content(ChatResponse response) {
+        return response.getChoices().get(0).getDelta().getStrContent();
+    }
+
+    /**
+     * Holds back all text until the stream ends.
+     */
+    private static final class HoldingProcessor implements StreamProcessor {
+        private final int priority;
+
+        HoldingProcessor(int priority) {
+            this.priority = priority;
+        }
+
+        @Override
+        public Stage open(ContextView context) {
+            StringBuilder held = new StringBuilder();
+            return new Stage() {
+                @Override
+                public String apply(String content, ChatResponse chunk) {
+                    held.append(content);
+                    return "";
+                }
+
+                @Override
+                public String flush(ChatResponse chunk) {
+                    return held.toString();
+                }
+            };
+        }
+
+        @Override
+        public int getPriority() {
+            return priority;
+        }
+
+        @Override
+        public String getName() {
+            return "holding-" + priority;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.neurogate.router.upstream;
+
+import com.neurogate.config.NeuroGateProperties;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class UpstreamWebClientFactoryTest {
+
+    private MockWebServer mockWebServer;
+    private NeuroGateProperties properties;
+    private UpstreamWebClientFactory factory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        mockWebServer = new MockWebServer();
+        mockWebServer.start();
+        properties = new NeuroGateProperties();
+        factory = new UpstreamWebClientFactory(WebClient.builder(), properties);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        factory.shutdown();
+        mockWebServer.shutdown();
+    }
+
+    @Test
+    void create_shouldApplyBaseUrlAndDefaultHeaders() throws InterruptedException {
+        mockWebServer.enqueue(new MockResponse().setBody("ok"));
+        String baseUrl = mockWebServer.url("/").toString();
+        WebClient client = factory.create("anthropic", baseUrl.substring(0, baseUrl.length() - 1),
+                headers -> headers.set("x-api-key", "secret"));
+
+        String body = client.get().uri("/v1/models").retrieve().bodyToMono(String.class)
+                .block(Duration.ofSeconds(5));
+
+        RecordedRequest recorded = mockWebServer.takeRequest(5, TimeUnit.SECONDS);
+        assertEquals("ok", body);
+        assertEquals("/v1/models", recorded.getPath());
+        assertEquals("secret", recorded.getHeader("x-api-key"));
+    }
+
+    @Test
+    void create_shouldReuseConnectionsAcrossCallsForTheSameProvider() throws InterruptedException {
+        mockWebServer.enqueue(new MockResponse().setBody("first"));
+        mockWebServer.enqueue(new MockResponse().setBody("second"));
+        WebClient client = factory.create("ollama");
+        String url = mockWebServer.url("/api/version").toString();
+
+        client.get().uri(url).retrieve().bodyToMono(String.class).block(Duration.ofSeconds(5));
+        client.get().uri(url).retrieve().bodyToMono(String.class).block(Duration.ofSeconds(5));
+
+        assertEquals(0, mockWebServer.takeRequest().getSequenceNumber());
+        assertEquals(1, mockWebServer.takeRequest().getSequenceNumber());
+    }
+
+    @Test
+    void poolFor_shouldPreferProviderOverride() {
+        NeuroGateProperties.Upstream.Pool ollamaPool = new NeuroGateProperties.Upstream.Pool();
+        ollamaPool.setMaxConnections(8);
+        properties.getUpstream().getProviders().put("ollama", ollamaPool);
+
+        assertSame(ollamaPool, properties.getUpstream().poolFor("ollama"));
+        assertEquals(200, properties.getUpstream().poolFor("anthropic").getMaxConnections());
+    }
+}
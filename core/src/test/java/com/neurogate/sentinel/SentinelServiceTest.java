@@ -2,13 +2,12 @@ package com.neurogate.sentinel;
 
 import com.neurogate.agent.AgentLoopDetector;
 import com.neurogate.pulse.PulseEventPublisher;
+import com.neurogate.router.cache.ReadThroughCacheStage;
 import com.neurogate.router.provider.MultiProviderRouter;
 import com.neurogate.sentinel.model.ChatRequest;
 import com.neurogate.sentinel.model.Message;
 import com.neurogate.validation.StructuredOutputService;
-import com.neurogate.vault.PiiRestorerFactory;
 import com.neurogate.vault.PiiSanitizationService;
-import com.neurogate.vault.StreamingPiiRestorer;
 import com.neurogate.vault.model.SanitizedPrompt;
 import com.neurogate.vault.neuroguard.ActiveDefenseService;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
@@ -34,6 +33,7 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -44,8 +44,6 @@ class SentinelServiceTest {
     @Mock
     private PiiSanitizationService piiSanitizationService;
     @Mock
-    private PiiRestorerFactory piiRestorerFactory;
-    @Mock
     private ActiveDefenseService activeDefenseService;
     @Mock
     private PulseEventPublisher pulseEventPublisher;
@@ -57,6 +55,8 @@ class SentinelServiceTest {
     private CircuitBreakerRegistry circuitBreakerRegistry;
     @Mock
     private RetryRegistry retryRegistry;
+    @Mock
+    private ReadThroughCacheStage readThroughCacheStage;
 
     private SentinelService sentinelService;
 
@@ -65,13 +65,13 @@ class SentinelServiceTest {
         sentinelService = new SentinelService(
                 multiProviderRouter,
                 piiSanitizationService,
-                piiRestorerFactory,
                 activeDefenseService,
                 pulseEventPublisher,
                 agentLoopDetector,
                 structuredOutputService,
                 circuitBreakerRegistry,
-                retryRegistry);
+                retryRegistry,
+                readThroughCacheStage);
     }
 
     @Test
@@ -95,6 +95,24 @@ class SentinelServiceTest {
         assertNotSame(originalRequest.getMessages().get(0), sanitizedRequest.getMessages().get(0));
     }
 
+    @Test
+    void validateRequest_shouldSanitizeLatestTurnAndCheckEarlierTurns() {
+        when(activeDefenseService.validatePrompt(anyString())).thenAnswer(invocation -> invocation.getArgument(0));
+        ChatRequest request = ChatRequest.builder()
+                .model("gpt-4o")
+                .messages(List.of(
+                        Message.builder().role("system").content("You are a helpful assistant").build(),
+                        Message.builder().role("user").content("first turn").build(),
+                        Message.builder().role("assistant").content("first answer").build(),
+                        Message.builder().role("user").content("second turn").build()))
+                .build();
+
+        ReflectionTestUtils.invokeMethod(sentinelService, "validateRequest", request);
+
+        verify(activeDefenseService).validatePrompt("second turn");
+        verify(activeDefenseService).validateHistory(List.of("first turn"));
+    }
+
     @Test
     void processStreamRequest_shouldOpenCircuitAfterFiveConsecutiveFailures() {
         CircuitBreaker streamCircuitBreaker = CircuitBreaker.of(
@@ -117,11 +135,7 @@ class SentinelServiceTest {
         sanitizedPrompt.setContainsPii(false);
         sanitizedPrompt.setSanitizedText("request text");
         sanitizedPrompt.setDetectedEntities(List.of());
-        when(piiSanitizationService.sanitize(anyString())).thenReturn(sanitizedPrompt);
-
-        StreamingPiiRestorer restorer = org.mockito.Mockito.mock(StreamingPiiRestorer.class);
-        when(restorer.flush()).thenReturn("");
-        when(piiRestorerFactory.createRestorer()).thenReturn(restorer);
+        when(piiSanitizationService.sanitize(anyString(), any())).thenReturn(sanitizedPrompt);
 
         ChatRequest request = ChatRequest.builder()
                 .model("gpt-4o")
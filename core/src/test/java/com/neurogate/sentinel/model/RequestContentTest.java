@@ -0,0 +1,102 @@
+package com.neurogate.sentinel.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RequestContentTest {
+
+    @Test
+    void text_matchesLegacyConcatenation() {
+        List<Message> messages = List.of(
+                message("system", "  You are terse. "),
+                message("user", ""),
+                message("assistant", "Sure"),
+                message("user", List.of(
+                        Map.of("type", "text", "text", "What is"),
+                        Map.of("type", "image_url", "image_url", Map.of("url", "https://example.com/a.png")),
+                        Map.of("type", "text", "text", "this?"))));
+
+        assertThat(RequestContent.of(messages).text()).isEqualTo(legacyConcatenation(messages));
+    }
+
+    @Test
+    void userText_joinsUserMessagesOnly() {
+        ChatRequest request = request(message("system", "Be brief"), message("user", "Hello"),
+                message("assistant", "Hi"), message("user", "Bye"));
+
+        assertThat(request.content().userText()).isEqualTo("Hello Bye");
+        assertThat(request.content().normalizedText()).isEqualTo("be brief hello hi bye");
+    }
+
+    @Test
+    void content_isComputedOncePerRequest() {
+        ChatRequest request = request(message("user", "Hello"), message("assistant", "Hi"));
+
+        assertThat(request.content()).isSameAs(request.content());
+        assertThat(request.getConcatenatedContent()).isSameAs(request.getConcatenatedContent());
+        assertThat(request.content().contentHash()).isEqualTo(
+                request(message("user", "Hello"), message("assistant", "Hi")).content().contentHash());
+    }
+
+    @Test
+    void content_followsReplacedMessageContent() {
+        ChatRequest request = request(message("user", "My SSN is 123-45-6789"));
+        long hash = request.content().contentHash();
+
+        request.getMessages().get(0).setContent("My SSN is <SSN>");
+
+        assertThat(request.getConcatenatedContent()).isEqualTo("My SSN is <SSN>");
+        assertThat(request.content().contentHash()).isNotEqualTo(hash);
+    }
+
+    @Test
+    void content_notSharedWithCopies() {
+        ChatRequest request = request(message("user", "original"));
+        request.content();
+
+        ChatRequest copy = request.toBuilder()
+                .messages(List.of(message("user", "sanitized")))
+                .build();
+
+        assertThat(copy.getConcatenatedContent()).isEqualTo("sanitized");
+        assertThat(request.getConcatenatedContent()).isEqualTo("original");
+    }
+
+    @Test
+    void wordCount_matchesSplit() {
+        for (String text : List.of("", "one", "one two", "tabs\tand\nnew lines  and   runs")) {
+            assertThat(request(message("user", text)).content().wordCount())
+                    .as(text)
+                    .isEqualTo(text.split("\\s+").length);
+        }
+    }
+
+    @Test
+    void tokenEstimate_isQuarterOfLength() {
+        assertThat(request(message("user", "x".repeat(400))).content().tokenEstimate()).isEqualTo(100);
+        assertThat(request(message("user", "")).content().tokenEstimate()).isEqualTo(1);
+    }
+
+    private static String legacyConcatenation(List<Message> messages) {
+        return messages.stream()
+                .map(Message::getStrContent)
+                .reduce("", (a, b) -> a + " " + b)
+                .trim();
+    }
+
+    private static ChatRequest request(Message... messages) {
+        return ChatRequest.builder()
+                .model("gpt-4o")
+                .messages(new ArrayList<>(List.of(messages)))
+                .build();
+    }
+
+    private static Message message(String role, Object content) {
+        return Message.builder().role(role).content(content).build();
+    }
+}
@@ -0,0 +1,161 @@
+package com.neurogate.validation;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamingJsonValidatorTest {
+
+    private static final String SCHEMA = """
+            {
+              "type": "object",
+              "properties": {
+                "name": {"type": "string", "minLength": 1, "maxLength": 20},
+                "age": {"type": "integer", "minimum": 0, "maximum": 150},
+                "score": {"type": "number"},
+                "status": {"enum": ["active", "inactive", null]},
+                "tags": {"type": "array", "items": {"type": "string"}, "minItems": 1, "maxItems": 3},
+                "address": {
+                  "type": "object",
+                  "properties": {"city": {"type": "string"}, "zip": {"type": ["string", "null"]}},
+                  "required": ["city"],
+                  "additionalProperties": false
+                },
+                "extra": {"$ref": "#/definitions/anything"}
+              },
+              "required": ["name", "age"],
+              "additionalProperties": false,
+              "definitions": {"anything": {"type": "string"}}
+            }
+            """;
+
+    // A response and whether it matches SCHEMA
+    private static final List<Case> CASES = List.of(
+            new Case("{\"name\": \"Ada\", \"age\": 36}", true),
+            new Case("  {\"name\": \"Ada\", \"age\": 36, \"score\": 1.5, \"status\": null}", true),
+            new Case("```json\n{\"name\": \"Ada\", \"age\": 36}\n```", true),
+            new Case("{\"name\": \"Ada\", \"age\": 36, \"tags\": [\"a\", \"b\"], \"address\": {\"city\": \"Paris\"}}",
+                    true),
+            new Case("{\"name\": \"\uD83D\uDE00\uD83D\uDE00\", \"age\": 1, \"extra\": \"free text\"}", true),
+            new Case("{\"name\": \"Ada\", \"age\": 36,}", true),
+            new Case("Here you go: {\"name\": \"Ada\", \"age\": 36}", true),
+            new Case("{\"name\": \"Ada\", \"age\": \"36\"}", false),
+            new Case("{\"name\": \"Ada\", \"age\": 36.5}", false),
+            new Case("{\"name\": \"Ada\", \"age\": -1}", false),
+            new Case("{\"name\": \"Ada\", \"age\": 36, \"nickname\": \"A\"}", false),
+            new Case("{\"name\": \"Ada\"}", false),
+            new Case("{\"name\": \"\", \"age\": 36}", false),
+            new Case("{\"name\": \"A very long name that goes on\", \"age\": 36}", false),
+            new Case("{\"name\": \"Ada\", \"age\": 36, \"status\": \"retired\"}", false),
+            new Case("{\"name\": \"Ada\", \"age\": 36, \"tags\": []}", false),
+            new Case("{\"name\": \"Ada\", \"age\": 36, \"tags\": [\"a\", \"b\", \"c\", \"d\"]}", false),
+            new Case("{\"name\": \"Ada\", \"age\": 36, \"tags\": [\"a\", 2]}", false),
+            new Case("{\"name\": \"Ada\", \"age\": 36, \"address\": {\"zip\": \"75001\"}}", false),
+            new Case("{\"name\": \"Ada\", \"age\": 36, \"address\": {\"city\": \"Paris\", \"zip\": 75001}}", false),
+            new Case("[{\"name\": \"Ada\", \"age\": 36}]", false),
+            new Case("```json\n{\"name\": 7, \"age\": 36}\n```", false));
+
+    private StructuredOutputValidator fullValidator;
+    private JsonSchemaCache schemaCache;
+    private Map<String, Object> schema;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        schemaCache = new JsonSchemaCache(objectMapper, new SimpleMeterRegistry(), 100);
+        fullValidator = new StructuredOutputValidator(objectMapper, schemaCache);
+        schema = objectMapper.readValue(SCHEMA, new TypeReference<>() {
+        });
+    }
+
+    @Test
+    void accept_agreesWithFullValidation() {
+        for (Case c : CASES) {
+            assertThat(fullValidator.validate(c.response(), schema).isValid()).as(c.response()).isEqualTo(c.valid());
+            assertThat(streamed(c.response(), c.response().length()).isViolated())
+                    .as(c.response())
+                    .isEqualTo(!c.valid());
+        }
+    }
+
+    @Test
+    void accept_givesSameVerdictForAnyChunking() {
+        Random random = new Random(42);
+
+        for (Case c : CASES) {
+            boolean violated = streamed(c.response(), c.response().length()).isViolated();
+            for (int i = 0; i < 50; i++) {
+                assertThat(streamed(c.response(), 1 + random.nextInt(6)).isViolated())
+                        .as(c.response())
+                        .isEqualTo(violated);
+            }
+        }
+    }
+
+    @Test
+    void accept_reportsViolationBeforeDocumentEnds() {
+        StreamingJsonValidator validator = schemaCache.get(schema).streaming().validator();
+
+        assertThat(validator.accept("{\"name\": \"Ada\", \"age\": \"thirty")).isFalse();
+        assertThat(validator.accept("-six\", \"score\": ")).isTrue();
+        assertThat(validator.getErrors()).singleElement().satisfies(error -> {
+            assertThat(error.getPath()).isEqualTo("$.age");
+            assertThat(error.getErrorType()).isEqualTo("type");
+        });
+    }
+
+    @Test
+    void accept_leavesProseAndMalformedJsonToFullValidation() {
+        StreamingJsonValidator prose = schemaCache.get(schema).streaming().validator();
+        prose.accept("Sure! Here is the JSON: {\"name\": 7");
+        assertThat(prose.isViolated()).isFalse();
+        assertThat(prose.isChecking()).isFalse();
+
+        StreamingJsonValidator malformed = schemaCache.get(schema).streaming().validator();
+        malformed.accept("{'name': 7}");
+        assertThat(malformed.isViolated()).isFalse();
+        assertThat(malformed.isChecking()).isFalse();
+    }
+
+    @Test
+    void schemaCache_compilesEachCanonicalSchemaOnce() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        JsonSchemaCache cache = new JsonSchemaCache(objectMapper, meterRegistry, 100);
+        Map<String, Object> reordered = objectMapper.readValue(
+                "{\"required\": [\"name\", \"age\"], \"type\": \"object\"}", new TypeReference<>() {
+                });
+        Map<String, Object> original = objectMapper.readValue(
+                "{\"type\": \"object\", \"required\": [\"name\", \"age\"]}", new TypeReference<>() {
+                });
+        Map<String, Object> different = objectMapper.readValue(
+                "{\"type\": \"object\", \"required\": [\"age\", \"name\"]}", new TypeReference<>() {
+                });
+
+        JsonSchemaCache.Compiled compiled = cache.get(original);
+
+        assertThat(cache.get(reordered)).isSameAs(compiled);
+        assertThat(cache.get(different)).isNotSameAs(compiled);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "validation.schemas").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    private StreamingJsonValidator streamed(String response, int chunkSize) {
+        StreamingJsonValidator validator = schemaCache.get(schema).streaming().validator();
+        for (int i = 0; i < response.length(); i += chunkSize) {
+            validator.accept(response.substring(i, Math.min(response.length(), i + chunkSize)));
+        }
+        return validator;
+    }
+
+    private record Case(String response, boolean valid) {
+    }
+}
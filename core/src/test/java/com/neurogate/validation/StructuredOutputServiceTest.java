@@ -0,0 +1,91 @@
+package com.neurogate.validation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.neurogate.router.provider.MultiProviderRouter;
+import com.neurogate.sentinel.model.ChatRequest;
+import com.neurogate.sentinel.model.ChatResponse;
+import com.neurogate.sentinel.model.Choice;
+import com.neurogate.sentinel.model.Message;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StructuredOutputServiceTest {
+
+    private static final Map<String, Object> SCHEMA = Map.of(
+            "type", "object",
+            "properties", Map.of("name", Map.of("type", "string")),
+            "required", List.of("name"));
+
+    @Mock
+    private MultiProviderRouter router;
+
+    private StructuredOutputService service;
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonSchemaCache schemaCache = new JsonSchemaCache(objectMapper, new SimpleMeterRegistry(), 10);
+        service = new StructuredOutputService(
+                new StructuredOutputValidator(objectMapper, schemaCache), router, schemaCache);
+        ReflectionTestUtils.setField(service, "maxRetries", 3);
+        ReflectionTestUtils.setField(service, "earlyAbort", true);
+        ReflectionTestUtils.setField(service, "requestTimeoutMs", 200L);
+    }
+
+    @Test
+    void generateWithValidation_cancelsStalledStreamAtRequestTimeout() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        when(router.routeStream(any())).thenReturn(Flux.<ChatResponse>never().doOnCancel(() -> cancelled.set(true)));
+
+        assertThatThrownBy(() -> service.generateWithValidation(request()))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(cancelled).isTrue();
+    }
+
+    @Test
+    void generateWithValidation_routesWithoutStreamingWhenStreamFailsBeforeFirstChunk() {
+        when(router.routeStream(any())).thenReturn(Flux.error(new IllegalStateException("provider down")));
+        when(router.routeAsync(any())).thenReturn(Mono.just(ChatResponse.builder()
+                .id("resp-1")
+                .choices(List.of(Choice.builder()
+                        .index(0)
+                        .message(Message.builder().role("assistant").content("{\"name\":\"Ada\"}").build())
+                        .finishReason("stop")
+                        .build()))
+                .build()));
+
+        ChatResponse response = service.generateWithValidation(request());
+
+        assertThat(response.getId()).isEqualTo("resp-1");
+        assertThat(response.getValidation().isSchemaValid()).isTrue();
+        assertThat(response.getValidation().getRetriesNeeded()).isZero();
+    }
+
+    private static ChatRequest request() {
+        return ChatRequest.builder()
+                .model("gpt-4")
+                .messages(List.of(Message.builder().role("user").content("Who wrote the first program?").build()))
+                .responseFormat(ChatRequest.ResponseFormat.builder()
+                        .type("json_schema")
+                        .jsonSchema(ChatRequest.JsonSchemaSpec.builder().name("person").schema(SCHEMA).build())
+                        .build())
+                .build();
+    }
+}
@@ -3,6 +3,7 @@ package com.neurogate.vault;
 import com.neurogate.vault.detector.PiiDetector;
 import com.neurogate.vault.detector.RegexPiiDetector;
 import com.neurogate.vault.model.PiiEntity;
+import com.neurogate.vault.model.PiiType;
 import com.neurogate.vault.model.SanitizedPrompt;
 import com.neurogate.vault.tokenizer.TokenVault;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,7 +16,10 @@ import java.util.List;
 import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -33,16 +37,38 @@ class PiiSanitizationServiceTest {
     @BeforeEach
     void setUp() {
         // Pass list of detectors
-        service = new PiiSanitizationService(List.of(piiDetector), tokenVault, imagePiiDetector);
+        service = new PiiSanitizationService(List.of(piiDetector), imagePiiDetector);
     }
 
     @Test
     void testSanitize_NoPii() {
         when(piiDetector.detect(anyString())).thenReturn(List.of());
 
-        SanitizedPrompt result = service.sanitize("Hello world");
+        SanitizedPrompt result = service.sanitize("Hello world", tokenVault);
 
         assertFalse(result.isContainsPii());
         assertEquals("Hello world", result.getSanitizedText());
     }
+
+    @Test
+    void testSanitize_OverlappingEntitiesReplacedOnce() {
+        PiiDetector contextDetector = org.mockito.Mockito.mock(PiiDetector.class);
+        service = new PiiSanitizationService(List.of(piiDetector, contextDetector), imagePiiDetector);
+
+        String text = "SSN: 123-45-6789, mail a@b.io";
+        when(piiDetector.detect(text)).thenReturn(List.of(
+                new PiiEntity(PiiType.SSN, "123-45-6789", 5, 16),
+                new PiiEntity(PiiType.EMAIL, "a@b.io", 23, 29)));
+        when(contextDetector.detect(text)).thenReturn(List.of(
+                new PiiEntity(PiiType.SSN, "123-45-6789", 5, 16, 0.95)));
+        when(tokenVault.tokenize(any())).thenAnswer(invocation ->
+                "<" + ((PiiEntity) invocation.getArgument(0)).getType().name() + "_1>");
+
+        SanitizedPrompt result = service.sanitize(text, tokenVault);
+
+        assertTrue(result.isContainsPii());
+        assertEquals("SSN: <SSN_1>, mail <EMAIL_1>", result.getSanitizedText());
+        assertEquals(2, result.getDetectedEntities().size());
+        verify(tokenVault, times(2)).tokenize(any());
+    }
 }
@@ -0,0 +1,85 @@
+package com.neurogate.vault;
+
+import com.neurogate.vault.tokenizer.TokenVault;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class StreamingPiiRestorerTest {
+
+    @Mock
+    private TokenVault tokenVault;
+
+    private StreamingPiiRestorer restorer;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(tokenVault.detokenize("<EMAIL_1>")).thenReturn("john@doe.com");
+        lenient().when(tokenVault.detokenize("<CREDIT_CARD_12>")).thenReturn("4111 1111 1111 1111");
+        restorer = new StreamingPiiRestorer(tokenVault);
+    }
+
+    @Test
+    void processChunk_plainTextIsReturnedAsIs() {
+        String chunk = "Hello there, ";
+
+        assertSame(chunk, restorer.processChunk(chunk));
+        assertEquals("", restorer.flush());
+        verifyNoInteractions(tokenVault);
+    }
+
+    @Test
+    void processChunk_holdsBackOnlyThePartialToken() {
+        assertEquals("Mail ", restorer.processChunk("Mail <EM"));
+        assertEquals("", restorer.processChunk("AIL_"));
+        assertEquals("john@doe.com today", restorer.processChunk("1> today"));
+        assertEquals("", restorer.flush());
+    }
+
+    @Test
+    void processChunk_restoresSeveralTokensInOneChunk() {
+        assertEquals("john@doe.com paid with 4111 1111 1111 1111.",
+                restorer.processChunk("<EMAIL_1> paid with <CREDIT_CARD_12>."));
+    }
+
+    @Test
+    void processChunk_releasesFalseStartsImmediately() {
+        assertEquals("a < b and <b>bold</b>", restorer.processChunk("a < b and <b>bold</b>"));
+        assertEquals("x <_1> y", restorer.processChunk("x <_1> y"));
+        assertEquals("<EMAIL_1x", restorer.processChunk("<EMAIL_1x"));
+    }
+
+    @Test
+    void processChunk_restartsAtNestedOpeningBracket() {
+        assertEquals("<<", restorer.processChunk("<<<EMAIL"));
+        assertEquals("john@doe.com", restorer.processChunk("_1>"));
+    }
+
+    @Test
+    void processChunk_unknownTokenIsKept() {
+        assertEquals("see <PHONE_9>", restorer.processChunk("see <PHONE_9>"));
+    }
+
+    @Test
+    void processChunk_doesNotHoldBackUnboundedRuns() {
+        String run = "<" + "A".repeat(StreamingPiiRestorer.MAX_TOKEN_LENGTH * 2);
+
+        assertEquals(run, restorer.processChunk(run));
+        assertEquals("", restorer.flush());
+    }
+
+    @Test
+    void flush_returnsUnfinishedTokenAsText() {
+        assertEquals("Bye ", restorer.processChunk("Bye <EMAIL_"));
+        assertEquals("<EMAIL_", restorer.flush());
+        assertEquals("", restorer.flush());
+    }
+}
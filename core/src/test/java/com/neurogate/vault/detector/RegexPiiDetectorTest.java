@@ -166,4 +166,66 @@ class RegexPiiDetectorTest {
         // Then
         assertThat(entities).isEmpty();
     }
+
+    @Test
+    void shouldNotSplitEmailWithDigitsIntoPhone() {
+        // Given
+        String text = "Write to 5551234567@example.com today";
+
+        // When
+        List<PiiEntity> entities = detector.detect(text);
+
+        // Then
+        assertThat(entities).hasSize(1);
+        assertThat(entities.get(0).getType()).isEqualTo(PiiType.EMAIL);
+        assertThat(entities.get(0).getValue()).isEqualTo("5551234567@example.com");
+    }
+
+    @Test
+    void shouldDetectValidCardAfterInvalidCandidate() {
+        // Given - first 16 digits fail Luhn, the following card is valid
+        String text = "Cards 1234-5678-9012-3456 and 4111-1111-1111-1111";
+
+        // When
+        List<PiiEntity> entities = detector.detect(text);
+
+        // Then
+        assertThat(entities).extracting(PiiEntity::getValue).containsExactly("4111-1111-1111-1111");
+        assertThat(entities.get(0).getStart()).isEqualTo(30);
+        assertThat(entities.get(0).getEnd()).isEqualTo(49);
+    }
+
+    @Test
+    void shouldReportEntitiesInTextOrderWithoutOverlap() {
+        // Given
+        String text = "IP 10.0.0.1, phone 1-555-123-4567, mail a.b@c.io, SSN 123-45-6789";
+
+        // When
+        List<PiiEntity> entities = detector.detect(text);
+
+        // Then
+        assertThat(entities).extracting(PiiEntity::getType).containsExactly(
+                PiiType.IP_ADDRESS, PiiType.PHONE, PiiType.EMAIL, PiiType.SSN);
+        assertThat(entities).extracting(PiiEntity::getValue).containsExactly(
+                "10.0.0.1", "1-555-123-4567", "a.b@c.io", "123-45-6789");
+    }
+
+    @Test
+    void shouldRespectWordBoundaries() {
+        // Given - digits glued to letters are not PII
+        String text = "order A123-45-6789 and build 192.168.1.1000";
+
+        // When
+        List<PiiEntity> entities = detector.detect(text);
+
+        // Then
+        assertThat(entities).isEmpty();
+    }
+
+    @Test
+    void containsPiiShouldMatchDetect() {
+        assertThat(detector.containsPii("Reach me at 555.123.4567")).isTrue();
+        assertThat(detector.containsPii("Invalid: 000-12-3456")).isFalse();
+        assertThat(detector.containsPii("")).isFalse();
+    }
 }
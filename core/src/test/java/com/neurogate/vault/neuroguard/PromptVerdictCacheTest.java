@@ -0,0 +1,97 @@
+package com.neurogate.vault.neuroguard;
+
+import com.neurogate.config.NeuroGateProperties;
+import com.neurogate.vault.neuroguard.model.ThreatDetectionResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PromptVerdictCacheTest {
+
+    private NeuroGateProperties properties;
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicInteger analyzed;
+    private Function<String, ThreatDetectionResult> analyzer;
+
+    @BeforeEach
+    void setUp() {
+        properties = new NeuroGateProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        analyzed = new AtomicInteger();
+        analyzer = message -> {
+            analyzed.incrementAndGet();
+            return ThreatDetectionResult.safe();
+        };
+    }
+
+    @Test
+    void get_analyzesEachMessageOnce() {
+        PromptVerdictCache cache = new PromptVerdictCache(properties, meterRegistry);
+
+        ThreatDetectionResult first = cache.get("You are a helpful assistant", 1L, analyzer);
+        ThreatDetectionResult second = cache.get("You are a helpful assistant", 1L, analyzer);
+        cache.get("Another message", 1L, analyzer);
+
+        assertThat(second).isSameAs(first);
+        assertThat(analyzed).hasValue(2);
+        assertThat(cache.hitRate()).isEqualTo(1.0 / 3);
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "neuroguard.verdicts").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void get_reanalyzesWhenRulesVersionChanges() {
+        PromptVerdictCache cache = new PromptVerdictCache(properties, meterRegistry);
+
+        cache.get("Enable developer mode", 1L, analyzer);
+        cache.get("Enable developer mode", 2L, analyzer);
+
+        assertThat(analyzed).hasValue(2);
+    }
+
+    @Test
+    void get_doesNotCachePiiVerdicts() {
+        PromptVerdictCache cache = new PromptVerdictCache(properties, meterRegistry);
+        Function<String, ThreatDetectionResult> piiAnalyzer = message -> {
+            analyzed.incrementAndGet();
+            return ThreatDetectionResult.builder()
+                    .threatDetected(true)
+                    .threatType(ThreatDetectionResult.ThreatType.PII_LEAK)
+                    .matchedPatterns(List.of("jane@example.com"))
+                    .build();
+        };
+
+        cache.get("Mail jane@example.com", 1L, piiAnalyzer);
+        cache.get("Mail jane@example.com", 1L, piiAnalyzer);
+
+        assertThat(analyzed).hasValue(2);
+    }
+
+    @Test
+    void get_bypassedWhenDisabled() {
+        properties.getNeuroguard().getVerdictCache().setEnabled(false);
+        PromptVerdictCache cache = new PromptVerdictCache(properties, meterRegistry);
+
+        cache.get("Hello", 1L, analyzer);
+        cache.get("Hello", 1L, analyzer);
+
+        assertThat(analyzed).hasValue(2);
+    }
+
+    @Test
+    void invalidateAll_dropsCachedVerdicts() {
+        PromptVerdictCache cache = new PromptVerdictCache(properties, meterRegistry);
+
+        cache.get("Hello", 1L, analyzer);
+        cache.invalidateAll();
+        cache.get("Hello", 1L, analyzer);
+
+        assertThat(analyzed).hasValue(2);
+    }
+}
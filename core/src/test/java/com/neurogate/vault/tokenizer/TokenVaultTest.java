@@ -0,0 +1,91 @@
+package com.neurogate.vault.tokenizer;
+
+import com.neurogate.vault.model.PiiEntity;
+import com.neurogate.vault.model.PiiType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenVaultTest {
+
+    private TokenVault vault;
+
+    @BeforeEach
+    void setUp() {
+        vault = new TokenVault();
+    }
+
+    @Test
+    void tokenizeNumbersValuesPerTypeAndReusesTokens() {
+        assertThat(vault.tokenize(entity(PiiType.EMAIL, "a@b.io"))).isEqualTo("<EMAIL_1>");
+        assertThat(vault.tokenize(entity(PiiType.CREDIT_CARD, "4111 1111 1111 1111"))).isEqualTo("<CREDIT_CARD_1>");
+        assertThat(vault.tokenize(entity(PiiType.EMAIL, "c@d.io"))).isEqualTo("<EMAIL_2>");
+        assertThat(vault.tokenize(entity(PiiType.EMAIL, "a@b.io"))).isEqualTo("<EMAIL_1>");
+
+        assertThat(vault.getStats().totalTokens()).isEqualTo(3);
+        assertThat(vault.getStats().tokensByType()).containsEntry("EMAIL", 2).containsEntry("CREDIT_CARD", 1);
+    }
+
+    @Test
+    void tokenizeBeyondCachedTokens() {
+        for (int i = 1; i <= 100; i++) {
+            assertThat(vault.tokenize(entity(PiiType.PHONE, "555-000-" + i))).isEqualTo("<PHONE_" + i + ">");
+        }
+
+        assertThat(vault.detokenize("<PHONE_100>")).isEqualTo("555-000-100");
+    }
+
+    @Test
+    void detokenizeResolvesOnlyKnownTokens() {
+        vault.tokenize(entity(PiiType.DATE_OF_BIRTH, "1990-01-01"));
+
+        assertThat(vault.detokenize("<DOB_1>")).isEqualTo("1990-01-01");
+        assertThat(vault.detokenize("<DOB_2>")).isNull();
+        assertThat(vault.detokenize("<DOB_01>")).isNull();
+        assertThat(vault.detokenize("<DATE_OF_BIRTH_1>")).isNull();
+        assertThat(vault.detokenize("<EMAIL_1>")).isNull();
+        assertThat(vault.detokenize("DOB_1")).isNull();
+    }
+
+    @Test
+    void detokenizeTextReplacesAllTokensInOnePass() {
+        vault.tokenize(entity(PiiType.EMAIL, "john@doe.com"));
+        vault.tokenize(entity(PiiType.SSN, "123-45-6789"));
+        // A value that looks like a token is not expanded again
+        vault.tokenize(entity(PiiType.API_KEY, "<SSN_1>"));
+
+        String restored = vault.detokenizeText(
+                "if a < b mail <EMAIL_1>, SSN <SSN_1><SSN_1>, key <API_KEY_1>, not <SSN_2> or <b>");
+
+        assertThat(restored).isEqualTo(
+                "if a < b mail john@doe.com, SSN 123-45-6789123-45-6789, key <SSN_1>, not <SSN_2> or <b>");
+    }
+
+    @Test
+    void detokenizeTextReturnsSameInstanceWithoutTokens() {
+        String text = "no placeholders <here>";
+        assertThat(vault.detokenizeText(text)).isSameAs(text);
+
+        vault.tokenize(entity(PiiType.EMAIL, "a@b.io"));
+        assertThat(vault.detokenizeText(text)).isSameAs(text);
+    }
+
+    @Test
+    void getAllTokensMapsTokenToValue() {
+        vault.tokenize(entity(PiiType.IP_ADDRESS, "10.0.0.1"));
+
+        assertThat(vault.getAllTokens()).isEqualTo(Map.of("<IP_ADDRESS_1>", "10.0.0.1"));
+        assertThat(vault.hasTokens()).isTrue();
+
+        vault.clear();
+        assertThat(vault.hasTokens()).isFalse();
+        assertThat(vault.detokenize("<IP_ADDRESS_1>")).isNull();
+    }
+
+    private static PiiEntity entity(PiiType type, String value) {
+        return new PiiEntity(type, value, 0, value.length());
+    }
+}